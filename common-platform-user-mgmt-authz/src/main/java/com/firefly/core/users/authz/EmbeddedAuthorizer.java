@@ -0,0 +1,197 @@
+/*
+ * Copyright 2025 Firefly Software Solutions Inc
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.firefly.core.users.authz;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.net.http.HttpClient;
+import java.time.Duration;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Authorizes users in process from a local copy of the policy of the user management service.
+ * {@link #start()} loads a snapshot, then the changes after it are polled in the background and applied as
+ * they come; if the version is rejected, the snapshot is loaded again. Checks read only local memory.
+ *
+ * <pre>{@code
+ * EmbeddedAuthorizer authorizer = EmbeddedAuthorizer.builder()
+ *         .baseUrl("http://user-mgmt:8080")
+ *         .build();
+ * authorizer.start();
+ * boolean allowed = authorizer.isGranted(userId, "payments:refund", branchId, null);
+ * }</pre>
+ */
+@Slf4j
+public final class EmbeddedAuthorizer implements AutoCloseable {
+
+    private final PolicyClient client;
+
+    private final PolicyStore store = new PolicyStore();
+
+    private final Duration pollInterval;
+
+    private final ScheduledExecutorService scheduler;
+
+    private EmbeddedAuthorizer(PolicyClient client, Duration pollInterval) {
+        this.client = client;
+        this.pollInterval = pollInterval;
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "policy-refresh");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Loads the policy snapshot and starts polling for changes.
+     *
+     * @throws IOException if the snapshot cannot be read
+     * @throws InterruptedException if interrupted while reading the snapshot
+     */
+    public void start() throws IOException, InterruptedException {
+        PolicyClient.Snapshot snapshot = client.fetchSnapshot();
+        store.load(snapshot);
+        log.info("Loaded policy snapshot with {} roles and {} role assignments",
+                snapshot.roles().size(), snapshot.assignments().size());
+        scheduler.scheduleWithFixedDelay(this::refresh, pollInterval.toMillis(), pollInterval.toMillis(),
+                TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Checks whether any role assignment of a user grants a permission within a scope.
+     *
+     * @param userId the user account ID
+     * @param permission the permission, as {@code domain:name}
+     * @param branchId the branch of the checked resource, or {@code null}
+     * @param distributorId the distributor of the checked resource, or {@code null}
+     * @return whether the permission is granted
+     * @throws IllegalStateException if the authorizer was not started
+     */
+    public boolean isGranted(UUID userId, String permission, UUID branchId, UUID distributorId) {
+        if (store.version() == null) {
+            throw new IllegalStateException("Embedded authorizer not started");
+        }
+        return store.isGranted(userId, permission, branchId, distributorId);
+    }
+
+    /**
+     * The version of the policy held, or {@code null} before {@link #start()}.
+     */
+    public String version() {
+        return store.version();
+    }
+
+    @Override
+    public void close() {
+        scheduler.shutdownNow();
+    }
+
+    /**
+     * Applies every change after the current version, then waits for the next poll.
+     */
+    void refresh() {
+        try {
+            PolicyClient.Delta delta;
+            do {
+                delta = client.fetchChanges(store.version());
+                store.apply(delta);
+            } while (delta.hasMore());
+        } catch (PolicyClient.StatusException e) {
+            if (e.status() != 400) {
+                log.warn("Failed to read policy changes, retrying", e);
+                return;
+            }
+            log.warn("Policy version {} rejected, reloading the snapshot", store.version(), e);
+            try {
+                store.load(client.fetchSnapshot());
+            } catch (InterruptedException interrupted) {
+                Thread.currentThread().interrupt();
+            } catch (IOException | RuntimeException reload) {
+                log.warn("Failed to reload the policy snapshot, retrying", reload);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (IOException | RuntimeException e) {
+            // Thrown out of a scheduled task, it would cancel every later poll
+            log.warn("Failed to read policy changes, retrying", e);
+        }
+    }
+
+    public static final class Builder {
+
+        private String baseUrl;
+
+        private Duration pollInterval = Duration.ofSeconds(5);
+
+        private Duration timeout = Duration.ofSeconds(30);
+
+        private HttpClient httpClient;
+
+        private Builder() {
+        }
+
+        /**
+         * The base URL of the user management service.
+         */
+        public Builder baseUrl(String baseUrl) {
+            this.baseUrl = baseUrl;
+            return this;
+        }
+
+        /**
+         * The delay between polls for changes, 5 seconds by default.
+         */
+        public Builder pollInterval(Duration pollInterval) {
+            this.pollInterval = pollInterval;
+            return this;
+        }
+
+        /**
+         * The timeout of each request, 30 seconds by default.
+         */
+        public Builder timeout(Duration timeout) {
+            this.timeout = timeout;
+            return this;
+        }
+
+        /**
+         * The client to send requests with, a new one by default.
+         */
+        public Builder httpClient(HttpClient httpClient) {
+            this.httpClient = httpClient;
+            return this;
+        }
+
+        public EmbeddedAuthorizer build() {
+            Objects.requireNonNull(baseUrl, "baseUrl");
+            HttpClient client = httpClient != null ? httpClient : HttpClient.newBuilder()
+                    .connectTimeout(timeout)
+                    .build();
+            return new EmbeddedAuthorizer(new PolicyClient(baseUrl, client, timeout), pollInterval);
+        }
+    }
+}
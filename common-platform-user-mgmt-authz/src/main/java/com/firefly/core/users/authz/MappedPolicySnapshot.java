@@ -0,0 +1,319 @@
+/*
+ * Copyright 2025 Firefly Software Solutions Inc
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.firefly.core.users.authz;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Read-only view of a binary policy snapshot written by {@link PolicySnapshotWriter}, answering checks
+ * straight from the buffer. Mapped from a file, the users and role assignments stay off heap and are paged in
+ * on demand, so loading costs only the compilation of the distinct permission patterns.
+ *
+ * <p>Layout, big-endian, every section aligned to its element size:
+ * <pre>
+ * header       magic, format, permission, role, bitset word, scope, user and assignment counts, version,
+ *              fanout bits
+ * permissions  end offset of each pattern, then the UTF-8 patterns, sorted
+ * roles        sorted role IDs, then one permission bitset of the given word count per role
+ * scopes       sorted branch and distributor IDs
+ * users        sorted user IDs, the first user of each leading-bits bucket plus an end offset, the first
+ *              assignment of each user plus an end offset, an inactive flag per user
+ * assignments  role, branch and distributor ordinals, grouped by user; -1 for an assignment without a scope
+ * </pre>
+ * IDs are stored as their most and least significant bits and sorted by them as signed longs. The fanout
+ * narrows the search for a user to the bucket of the leading bits of its ID, as in a git pack index.
+ * Files over 2 GB are not supported.
+ */
+public final class MappedPolicySnapshot {
+
+    public static final int MAGIC = 0x46465053;
+
+    public static final int FORMAT = 1;
+
+    static final int HEADER_BYTES = 40;
+
+    static final int ANY_SCOPE = -1;
+
+    static final int MAX_FANOUT_BITS = 16;
+
+    private static final int MISSING_SCOPE = -2;
+
+    private static final int MAX_CACHED_PERMISSIONS = 10_000;
+
+    private static final long[] NOTHING_MATCHES = new long[0];
+
+    private final ByteBuffer buffer;
+
+    private final String version;
+
+    private final PermissionMatcher[] matchers;
+
+    private final int roleCount;
+
+    private final int words;
+
+    private final int scopeCount;
+
+    private final int userCount;
+
+    private final int fanoutBits;
+
+    private final int assignmentCount;
+
+    private final int bitsetsAt;
+
+    private final int scopesAt;
+
+    private final int usersAt;
+
+    private final int fanoutAt;
+
+    private final int startsAt;
+
+    private final int flagsAt;
+
+    private final int rolesOfAssignmentsAt;
+
+    private final int branchesAt;
+
+    private final int distributorsAt;
+
+    private final Map<String, long[]> matching = new ConcurrentHashMap<>();
+
+    private MappedPolicySnapshot(ByteBuffer source) {
+        buffer = source.slice().order(ByteOrder.BIG_ENDIAN);
+        if (buffer.capacity() < HEADER_BYTES || buffer.getInt(0) != MAGIC) {
+            throw new IllegalArgumentException("Not a policy snapshot");
+        }
+        if (buffer.getInt(4) != FORMAT) {
+            throw new IllegalArgumentException("Unsupported policy snapshot format: " + buffer.getInt(4));
+        }
+        int permissionCount = buffer.getInt(8);
+        roleCount = buffer.getInt(12);
+        words = buffer.getInt(16);
+        scopeCount = buffer.getInt(20);
+        userCount = buffer.getInt(24);
+        assignmentCount = buffer.getInt(28);
+        int versionLength = buffer.getInt(32);
+        fanoutBits = buffer.getInt(36);
+        if (fanoutBits < 0 || fanoutBits > MAX_FANOUT_BITS) {
+            throw new IllegalArgumentException("Invalid policy snapshot fanout: " + fanoutBits);
+        }
+        try {
+            version = string(HEADER_BYTES, versionLength);
+            int offsetsAt = align(HEADER_BYTES + versionLength, 8);
+            int textAt = offsetsAt + 4 * (permissionCount + 1);
+            matchers = new PermissionMatcher[permissionCount];
+            for (int i = 0; i < permissionCount; i++) {
+                int from = buffer.getInt(offsetsAt + 4 * i);
+                String pattern = string(textAt + from, buffer.getInt(offsetsAt + 4 * (i + 1)) - from);
+                matchers[i] = PermissionMatcher.compile(List.of(pattern));
+            }
+            int rolesAt = align(textAt + buffer.getInt(offsetsAt + 4 * permissionCount), 8);
+            bitsetsAt = rolesAt + 16 * roleCount;
+            scopesAt = bitsetsAt + 8 * roleCount * words;
+            usersAt = scopesAt + 16 * scopeCount;
+            fanoutAt = usersAt + 16 * userCount;
+            startsAt = fanoutAt + 4 * ((1 << fanoutBits) + 1);
+            flagsAt = startsAt + 4 * (userCount + 1);
+            rolesOfAssignmentsAt = align(flagsAt + userCount, 4);
+            branchesAt = rolesOfAssignmentsAt + 4 * assignmentCount;
+            distributorsAt = branchesAt + 4 * assignmentCount;
+            if (distributorsAt + 4L * assignmentCount > buffer.capacity()) {
+                throw new IllegalArgumentException("Truncated policy snapshot");
+            }
+        } catch (IndexOutOfBoundsException e) {
+            throw new IllegalArgumentException("Truncated policy snapshot", e);
+        }
+    }
+
+    /**
+     * Maps a snapshot file. The mapping stays valid after the file is replaced or deleted.
+     *
+     * @param file the snapshot file
+     * @return the snapshot
+     * @throws IOException if the file cannot be read
+     * @throws IllegalArgumentException if the file is not a snapshot of a supported format
+     */
+    public static MappedPolicySnapshot map(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            return new MappedPolicySnapshot(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+        }
+    }
+
+    /**
+     * Reads a snapshot from the remaining bytes of a buffer, which must not change afterwards.
+     *
+     * @param buffer the snapshot bytes
+     * @return the snapshot
+     * @throws IllegalArgumentException if the buffer is not a snapshot of a supported format
+     */
+    public static MappedPolicySnapshot wrap(ByteBuffer buffer) {
+        return new MappedPolicySnapshot(buffer);
+    }
+
+    /**
+     * Checks whether any assignment of a user grants a permission within a scope, with the same rules as
+     * {@link PolicyStore#isGranted(UUID, String, UUID, UUID)}.
+     *
+     * @param userId the user account ID
+     * @param permission the permission, as {@code domain:name}
+     * @param branchId the branch of the checked resource, or {@code null}
+     * @param distributorId the distributor of the checked resource, or {@code null}
+     * @return whether the permission is granted
+     */
+    public boolean isGranted(UUID userId, String permission, UUID branchId, UUID distributorId) {
+        int bucket = bucket(userId.getMostSignificantBits(), fanoutBits);
+        int user = find(usersAt, buffer.getInt(fanoutAt + 4 * bucket), buffer.getInt(fanoutAt + 4 * (bucket + 1)),
+                userId);
+        if (user < 0 || buffer.get(flagsAt + user) != 0 || permission == null) {
+            return false;
+        }
+        long[] granting = matching(permission);
+        if (granting == NOTHING_MATCHES) {
+            return false;
+        }
+        int branch = scope(branchId);
+        int distributor = scope(distributorId);
+        int end = buffer.getInt(startsAt + 4 * (user + 1));
+        for (int assignment = buffer.getInt(startsAt + 4 * user); assignment < end; assignment++) {
+            int assignedBranch = buffer.getInt(branchesAt + 4 * assignment);
+            int assignedDistributor = buffer.getInt(distributorsAt + 4 * assignment);
+            if ((assignedBranch == ANY_SCOPE || assignedBranch == branch)
+                    && (assignedDistributor == ANY_SCOPE || assignedDistributor == distributor)
+                    && grants(buffer.getInt(rolesOfAssignmentsAt + 4 * assignment), granting)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * The policy version the snapshot was exported at.
+     */
+    public String version() {
+        return version;
+    }
+
+    public int roleCount() {
+        return roleCount;
+    }
+
+    public int userCount() {
+        return userCount;
+    }
+
+    public int assignmentCount() {
+        return assignmentCount;
+    }
+
+    private boolean grants(int role, long[] granting) {
+        int at = bitsetsAt + 8 * role * words;
+        for (int word = 0; word < words; word++) {
+            if ((buffer.getLong(at + 8 * word) & granting[word]) != 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * The bitset of the patterns matching a permission, computed once per distinct permission.
+     */
+    private long[] matching(String permission) {
+        long[] cached = matching.get(permission);
+        if (cached != null) {
+            return cached;
+        }
+        long[] bits = new long[words];
+        boolean any = false;
+        for (int i = 0; i < matchers.length; i++) {
+            if (matchers[i].matches(permission)) {
+                bits[i >>> 6] |= 1L << i;
+                any = true;
+            }
+        }
+        if (matching.size() >= MAX_CACHED_PERMISSIONS) {
+            matching.clear();
+        }
+        long[] computed = any ? bits : NOTHING_MATCHES;
+        matching.put(permission, computed);
+        return computed;
+    }
+
+    private int scope(UUID id) {
+        if (id == null) {
+            return MISSING_SCOPE;
+        }
+        int ordinal = find(scopesAt, 0, scopeCount, id);
+        return ordinal >= 0 ? ordinal : MISSING_SCOPE;
+    }
+
+    /**
+     * Binary search of an ID between two positions of a sorted section.
+     */
+    private int find(int at, int from, int to, UUID id) {
+        long most = id.getMostSignificantBits();
+        long least = id.getLeastSignificantBits();
+        int low = from;
+        int high = to - 1;
+        while (low <= high) {
+            int middle = (low + high) >>> 1;
+            int at16 = at + 16 * middle;
+            int compared = Long.compare(buffer.getLong(at16), most);
+            if (compared == 0) {
+                compared = Long.compare(buffer.getLong(at16 + 8), least);
+            }
+            if (compared < 0) {
+                low = middle + 1;
+            } else if (compared > 0) {
+                high = middle - 1;
+            } else {
+                return middle;
+            }
+        }
+        return -1;
+    }
+
+    private String string(int at, int length) {
+        byte[] bytes = new byte[length];
+        buffer.get(at, bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * The fanout bucket of an ID: its leading bits, with the sign flipped so buckets follow the signed order.
+     */
+    static int bucket(long mostSignificantBits, int bits) {
+        return bits == 0 ? 0 : (int) ((mostSignificantBits ^ Long.MIN_VALUE) >>> (64 - bits));
+    }
+
+    static int align(int position, int to) {
+        return (position + to - 1) & -to;
+    }
+}
@@ -0,0 +1,203 @@
+/*
+ * Copyright 2025 Firefly Software Solutions Inc
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+
+package com.firefly.core.users.authz;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Compiled set of permission grants, matched against permissions of the form {@code domain:name}.
+ * Grants are split on {@code :} into segments and compiled into an immutable trie. A {@code *} segment
+ * matches any one segment, and as the last segment any one or more, so {@code payments:*} grants
+ * {@code payments:refund} and {@code payments:refund:full}. Segments of the checked permission are looked up
+ * in place, so a check allocates nothing. Instances are immutable and shared between roles with the same grants.
+ */
+public final class PermissionMatcher {
+
+    public static final char SEPARATOR = ':';
+
+    public static final String WILDCARD = "*";
+
+    public static final PermissionMatcher NONE = compile(List.of());
+
+    private final Node root;
+
+    private final int patternCount;
+
+    private PermissionMatcher(Node root, int patternCount) {
+        this.root = root;
+        this.patternCount = patternCount;
+    }
+
+    /**
+     * Compiles grants into a matcher.
+     *
+     * @param patterns the granted permissions, each optionally containing {@code *} segments
+     * @return the matcher
+     */
+    public static PermissionMatcher compile(Collection<String> patterns) {
+        Builder root = new Builder();
+        for (String pattern : patterns) {
+            Builder node = root;
+            int from = 0;
+            while (true) {
+                int end = pattern.indexOf(SEPARATOR, from);
+                boolean last = end < 0;
+                String segment = pattern.substring(from, last ? pattern.length() : end);
+                if (last && WILDCARD.equals(segment)) {
+                    node.grantsRest = true;
+                    break;
+                }
+                if (WILDCARD.equals(segment)) {
+                    if (node.any == null) {
+                        node.any = new Builder();
+                    }
+                    node = node.any;
+                } else {
+                    node = node.children.computeIfAbsent(segment, s -> new Builder());
+                }
+                if (last) {
+                    node.granted = true;
+                    break;
+                }
+                from = end + 1;
+            }
+        }
+        return new PermissionMatcher(root.build(), patterns.size());
+    }
+
+    /**
+     * Builds the key matched against grants for a permission.
+     *
+     * @param domain the permission domain, or {@code null}
+     * @param name the permission name
+     * @return {@code domain:name}, or the name alone without a domain
+     */
+    public static String key(String domain, String name) {
+        return domain == null || domain.isEmpty() ? name : domain + SEPARATOR + name;
+    }
+
+    /**
+     * Checks whether any grant matches a permission.
+     *
+     * @param permission the permission, as returned by {@link #key(String, String)}
+     * @return whether the permission is granted
+     */
+    public boolean matches(String permission) {
+        return permission != null && matches(root, permission, 0);
+    }
+
+    /**
+     * The number of grants compiled, counting duplicates.
+     */
+    public int patternCount() {
+        return patternCount;
+    }
+
+    private static boolean matches(Node node, String permission, int from) {
+        Node current = node;
+        int start = from;
+        int length = permission.length();
+        while (true) {
+            if (current.grantsRest) {
+                return true;
+            }
+            // Finds the end of the segment and hashes it in the same pass, as String.hashCode would
+            int end = start;
+            int hash = 0;
+            char c;
+            while (end < length && (c = permission.charAt(end)) != SEPARATOR) {
+                hash = 31 * hash + c;
+                end++;
+            }
+            boolean last = end == length;
+            // A single segment wildcard and an exact segment may both lead to a grant
+            if (current.any != null && (last ? current.any.granted : matches(current.any, permission, end + 1))) {
+                return true;
+            }
+            Node child = current.child(hash, permission, start, end);
+            if (child == null) {
+                return false;
+            }
+            if (last) {
+                return child.granted;
+            }
+            current = child;
+            start = end + 1;
+        }
+    }
+
+    /**
+     * A trie node: an open addressing table of its children keyed by segment, and whether a grant ends at it
+     * ({@code granted}) or covers everything below it ({@code grantsRest}). Segments are looked up by the hash of
+     * the region of the permission, and only compared when their stored hash is equal.
+     */
+    private record Node(int[] hashes, String[] segments, Node[] children, Node any, boolean granted,
+                        boolean grantsRest) {
+
+        static Node of(Map<String, Node> children, Node any, boolean granted, boolean grantsRest) {
+            int capacity = Integer.highestOneBit(Math.max(1, children.size() * 2 - 1)) << 1;
+            int[] hashes = new int[capacity];
+            String[] segments = new String[capacity];
+            Node[] nodes = new Node[capacity];
+            children.forEach((segment, child) -> {
+                int hash = segment.hashCode();
+                int slot = hash & (capacity - 1);
+                while (segments[slot] != null) {
+                    slot = (slot + 1) & (capacity - 1);
+                }
+                hashes[slot] = hash;
+                segments[slot] = segment;
+                nodes[slot] = child;
+            });
+            return new Node(hashes, segments, nodes, any, granted, grantsRest);
+        }
+
+        Node child(int hash, String permission, int from, int end) {
+            int mask = segments.length - 1;
+            for (int slot = hash & mask; segments[slot] != null; slot = (slot + 1) & mask) {
+                String segment = segments[slot];
+                if (hashes[slot] == hash && segment.length() == end - from
+                        && segment.regionMatches(0, permission, from, end - from)) {
+                    return children[slot];
+                }
+            }
+            return null;
+        }
+    }
+
+    private static final class Builder {
+
+        private final Map<String, Builder> children = new HashMap<>();
+
+        private Builder any;
+
+        private boolean granted;
+
+        private boolean grantsRest;
+
+        Node build() {
+            Map<String, Node> built = new HashMap<>();
+            children.forEach((segment, child) -> built.put(segment, child.build()));
+            return Node.of(built, any != null ? any.build() : null, granted, grantsRest);
+        }
+    }
+}
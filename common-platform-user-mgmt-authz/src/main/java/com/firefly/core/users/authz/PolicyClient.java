@@ -0,0 +1,175 @@
+/*
+ * Copyright 2025 Firefly Software Solutions Inc
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.firefly.core.users.authz;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Reads the authorization policy from the user management service: a full snapshot, then the changes after
+ * the version of the last snapshot or delta read, or a binary snapshot to map from a file.
+ */
+public final class PolicyClient {
+
+    static final String SNAPSHOT_PATH = "/api/v1/authz/snapshot";
+
+    static final String CHANGES_PATH = SNAPSHOT_PATH + "/changes";
+
+    static final String BINARY_SNAPSHOT_PATH = SNAPSHOT_PATH + "/binary";
+
+    private final String baseUrl;
+
+    private final HttpClient httpClient;
+
+    private final Duration timeout;
+
+    private final ObjectMapper objectMapper = new ObjectMapper()
+            .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+
+    /**
+     * @param baseUrl the base URL of the user management service, without a trailing slash
+     * @param httpClient the client to send requests with
+     * @param timeout the timeout of each request
+     */
+    public PolicyClient(String baseUrl, HttpClient httpClient, Duration timeout) {
+        this.baseUrl = baseUrl.endsWith("/") ? baseUrl.substring(0, baseUrl.length() - 1) : baseUrl;
+        this.httpClient = httpClient;
+        this.timeout = timeout;
+    }
+
+    /**
+     * Reads the whole policy.
+     *
+     * @return the snapshot
+     * @throws IOException if the request fails or is answered with an error
+     * @throws InterruptedException if interrupted while waiting for the response
+     */
+    public Snapshot fetchSnapshot() throws IOException, InterruptedException {
+        return get(SNAPSHOT_PATH, Snapshot.class);
+    }
+
+    /**
+     * Reads the policy changes after a version.
+     *
+     * @param since the version of the snapshot or of the last delta read
+     * @return the changes
+     * @throws IOException if the request fails or is answered with an error
+     * @throws InterruptedException if interrupted while waiting for the response
+     */
+    public Delta fetchChanges(String since) throws IOException, InterruptedException {
+        return get(CHANGES_PATH + "?since=" + URLEncoder.encode(since, StandardCharsets.UTF_8), Delta.class);
+    }
+
+    /**
+     * Downloads the whole policy as a binary snapshot, to be read with {@link MappedPolicySnapshot#map(Path)}.
+     * The snapshot is written next to the file and moved over it once complete, so a process mapping the
+     * previous file keeps reading it undisturbed.
+     *
+     * @param file the file to write the snapshot to
+     * @throws IOException if the request fails or is answered with an error, or the file cannot be written
+     * @throws InterruptedException if interrupted while waiting for the response
+     */
+    public void downloadSnapshot(Path file) throws IOException, InterruptedException {
+        Path partial = file.resolveSibling(file.getFileName() + ".partial");
+        try {
+            HttpResponse<Path> response = httpClient.send(request(BINARY_SNAPSHOT_PATH, "application/octet-stream"),
+                    HttpResponse.BodyHandlers.ofFile(partial));
+            if (response.statusCode() != 200) {
+                throw new StatusException(response.statusCode(), BINARY_SNAPSHOT_PATH);
+            }
+            Files.move(partial, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(partial);
+        }
+    }
+
+    private <T> T get(String path, Class<T> type) throws IOException, InterruptedException {
+        HttpResponse<byte[]> response = httpClient.send(request(path, "application/json"),
+                HttpResponse.BodyHandlers.ofByteArray());
+        if (response.statusCode() != 200) {
+            throw new StatusException(response.statusCode(), path);
+        }
+        return objectMapper.readValue(response.body(), type);
+    }
+
+    private HttpRequest request(String path, String accept) {
+        return HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .header("Accept", accept)
+                .timeout(timeout)
+                .GET()
+                .build();
+    }
+
+    /**
+     * The effective permissions of every role, every role assignment and the inactive users.
+     */
+    public record Snapshot(String version, List<RoleGrants> roles, List<Assignment> assignments,
+                           List<UUID> inactiveUserIds) {
+    }
+
+    /**
+     * The policy changes after a version. Roles are {@code null} unless they all changed.
+     */
+    public record Delta(String version, List<RoleGrants> roles, List<Assignment> assignments,
+                        List<UUID> deletedAssignmentIds, List<UUID> activatedUserIds,
+                        List<UUID> deactivatedUserIds, boolean hasMore) {
+    }
+
+    /**
+     * The effective permissions of a role, as {@code domain:name} patterns.
+     */
+    public record RoleGrants(UUID roleId, List<String> permissions) {
+    }
+
+    /**
+     * A role assigned to a user, optionally in a branch or distributor only.
+     */
+    public record Assignment(UUID id, UUID userId, UUID roleId, UUID branchId, UUID distributorId) {
+    }
+
+    /**
+     * A request answered with an unexpected status.
+     */
+    public static final class StatusException extends IOException {
+
+        private final int status;
+
+        StatusException(int status, String path) {
+            super("Unexpected status " + status + " from " + path);
+            this.status = status;
+        }
+
+        public int status() {
+            return status;
+        }
+    }
+}
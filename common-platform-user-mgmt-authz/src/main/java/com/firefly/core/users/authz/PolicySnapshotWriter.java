@@ -0,0 +1,280 @@
+/*
+ * Copyright 2025 Firefly Software Solutions Inc
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.firefly.core.users.authz;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Builds a binary policy snapshot in the layout read by {@link MappedPolicySnapshot}.
+ * Permission patterns, roles, scopes and users are interned to ordinals as they are added, in any order, and
+ * sorted when the snapshot is written. Not thread-safe.
+ */
+public final class PolicySnapshotWriter {
+
+    private static final Comparator<UUID> ID_ORDER = Comparator.comparingLong(UUID::getMostSignificantBits)
+            .thenComparingLong(UUID::getLeastSignificantBits);
+
+    private final String version;
+
+    private final Map<String, Integer> permissions = new HashMap<>();
+
+    private final Map<UUID, Integer> roles = new HashMap<>();
+
+    private int[][] rolePermissions = new int[16][];
+
+    private final Map<UUID, Integer> scopes = new HashMap<>();
+
+    private final Map<UUID, Integer> users = new HashMap<>();
+
+    private final Set<UUID> inactiveUsers = new HashSet<>();
+
+    // One row per assignment: user, role, branch and distributor ordinals
+    private int[] assignments = new int[4 * 1024];
+
+    private int assignmentCount;
+
+    /**
+     * @param version the policy version the snapshot is exported at
+     */
+    public PolicySnapshotWriter(String version) {
+        this.version = version;
+    }
+
+    /**
+     * Adds the effective permissions of a role.
+     *
+     * @param roleId the role ID
+     * @param grants the granted permission patterns
+     */
+    public void addRole(UUID roleId, Collection<String> grants) {
+        int role = role(roleId);
+        int[] ordinals = new int[grants.size()];
+        int i = 0;
+        for (String grant : grants) {
+            ordinals[i++] = intern(permissions, grant);
+        }
+        rolePermissions[role] = ordinals;
+    }
+
+    /**
+     * Adds a role assignment.
+     *
+     * @param userId the user account ID
+     * @param roleId the role ID
+     * @param branchId the branch the role is assigned in, or {@code null} for every branch
+     * @param distributorId the distributor the role is assigned in, or {@code null} for every distributor
+     */
+    public void addAssignment(UUID userId, UUID roleId, UUID branchId, UUID distributorId) {
+        if (4 * (assignmentCount + 1) > assignments.length) {
+            assignments = Arrays.copyOf(assignments, assignments.length * 2);
+        }
+        int at = 4 * assignmentCount++;
+        assignments[at] = intern(users, userId);
+        assignments[at + 1] = role(roleId);
+        assignments[at + 2] = branchId != null ? intern(scopes, branchId) : MappedPolicySnapshot.ANY_SCOPE;
+        assignments[at + 3] = distributorId != null ? intern(scopes, distributorId) : MappedPolicySnapshot.ANY_SCOPE;
+    }
+
+    /**
+     * Marks a user as inactive, so none of its assignments grant anything.
+     *
+     * @param userId the user account ID
+     */
+    public void addInactiveUser(UUID userId) {
+        inactiveUsers.add(userId);
+    }
+
+    /**
+     * Writes the snapshot.
+     *
+     * @return the snapshot bytes
+     * @throws IllegalStateException if the snapshot would exceed 2 GB
+     */
+    public byte[] toByteArray() {
+        String[] sortedPermissions = permissions.keySet().toArray(String[]::new);
+        Arrays.sort(sortedPermissions);
+        int[] permissionRanks = new int[sortedPermissions.length];
+        byte[][] permissionBytes = new byte[sortedPermissions.length][];
+        long textLength = 0;
+        for (int i = 0; i < sortedPermissions.length; i++) {
+            permissionRanks[permissions.get(sortedPermissions[i])] = i;
+            permissionBytes[i] = sortedPermissions[i].getBytes(StandardCharsets.UTF_8);
+            textLength += permissionBytes[i].length;
+        }
+        UUID[] sortedRoles = sorted(roles);
+        int[] roleRanks = ranks(roles, sortedRoles);
+        UUID[] sortedScopes = sorted(scopes);
+        int[] scopeRanks = ranks(scopes, sortedScopes);
+        UUID[] sortedUsers = sorted(users);
+        int[] userRanks = ranks(users, sortedUsers);
+        int words = (sortedPermissions.length + 63) >>> 6;
+        byte[] versionBytes = version.getBytes(StandardCharsets.UTF_8);
+        // Two to four users per bucket, up to 65536 buckets
+        int fanoutBits = Math.max(0, Math.min(MappedPolicySnapshot.MAX_FANOUT_BITS,
+                30 - Integer.numberOfLeadingZeros(Math.max(1, sortedUsers.length))));
+
+        long size = align(MappedPolicySnapshot.HEADER_BYTES + versionBytes.length, 8)
+                + 4L * (sortedPermissions.length + 1) + textLength;
+        size = align(size, 8) + 16L * sortedRoles.length + 8L * sortedRoles.length * words
+                + 16L * sortedScopes.length + 16L * sortedUsers.length + 4L * ((1 << fanoutBits) + 1)
+                + 4L * (sortedUsers.length + 1)
+                + sortedUsers.length;
+        size = align(size, 4) + 12L * assignmentCount;
+        if (size > Integer.MAX_VALUE) {
+            throw new IllegalStateException("Policy snapshot of " + size + " bytes exceeds 2 GB");
+        }
+        ByteBuffer buffer = ByteBuffer.allocate((int) size);
+
+        buffer.putInt(MappedPolicySnapshot.MAGIC)
+                .putInt(MappedPolicySnapshot.FORMAT)
+                .putInt(sortedPermissions.length)
+                .putInt(sortedRoles.length)
+                .putInt(words)
+                .putInt(sortedScopes.length)
+                .putInt(sortedUsers.length)
+                .putInt(assignmentCount)
+                .putInt(versionBytes.length)
+                .putInt(fanoutBits)
+                .put(versionBytes);
+        pad(buffer, 8);
+        int offset = 0;
+        buffer.putInt(offset);
+        for (byte[] permission : permissionBytes) {
+            offset += permission.length;
+            buffer.putInt(offset);
+        }
+        for (byte[] permission : permissionBytes) {
+            buffer.put(permission);
+        }
+        pad(buffer, 8);
+
+        putIds(buffer, sortedRoles);
+        for (UUID roleId : sortedRoles) {
+            long[] bits = new long[words];
+            int[] granted = rolePermissions[roles.get(roleId)];
+            for (int permission : granted != null ? granted : new int[0]) {
+                int rank = permissionRanks[permission];
+                bits[rank >>> 6] |= 1L << rank;
+            }
+            for (long word : bits) {
+                buffer.putLong(word);
+            }
+        }
+        putIds(buffer, sortedScopes);
+        putIds(buffer, sortedUsers);
+        int[] fanout = new int[(1 << fanoutBits) + 1];
+        for (UUID userId : sortedUsers) {
+            fanout[MappedPolicySnapshot.bucket(userId.getMostSignificantBits(), fanoutBits) + 1]++;
+        }
+        for (int i = 0; i < fanout.length - 1; i++) {
+            fanout[i + 1] += fanout[i];
+        }
+        for (int first : fanout) {
+            buffer.putInt(first);
+        }
+
+        // Counting sort of the assignments by user rank
+        int[] starts = new int[sortedUsers.length + 1];
+        for (int i = 0; i < assignmentCount; i++) {
+            starts[userRanks[assignments[4 * i]] + 1]++;
+        }
+        for (int i = 0; i < sortedUsers.length; i++) {
+            starts[i + 1] += starts[i];
+        }
+        int[] order = new int[assignmentCount];
+        int[] next = Arrays.copyOf(starts, sortedUsers.length);
+        for (int i = 0; i < assignmentCount; i++) {
+            order[next[userRanks[assignments[4 * i]]]++] = i;
+        }
+        for (int start : starts) {
+            buffer.putInt(start);
+        }
+        for (UUID userId : sortedUsers) {
+            buffer.put((byte) (inactiveUsers.contains(userId) ? 1 : 0));
+        }
+        pad(buffer, 4);
+        for (int i : order) {
+            buffer.putInt(roleRanks[assignments[4 * i + 1]]);
+        }
+        for (int i : order) {
+            buffer.putInt(scopeRank(scopeRanks, assignments[4 * i + 2]));
+        }
+        for (int i : order) {
+            buffer.putInt(scopeRank(scopeRanks, assignments[4 * i + 3]));
+        }
+        return buffer.array();
+    }
+
+    private int role(UUID roleId) {
+        int role = intern(roles, roleId);
+        if (role == rolePermissions.length) {
+            rolePermissions = Arrays.copyOf(rolePermissions, role * 2);
+        }
+        return role;
+    }
+
+    private static <K> int intern(Map<K, Integer> ordinals, K key) {
+        Integer ordinal = ordinals.get(key);
+        if (ordinal == null) {
+            ordinal = ordinals.size();
+            ordinals.put(key, ordinal);
+        }
+        return ordinal;
+    }
+
+    private static UUID[] sorted(Map<UUID, Integer> ordinals) {
+        UUID[] ids = ordinals.keySet().toArray(UUID[]::new);
+        Arrays.sort(ids, ID_ORDER);
+        return ids;
+    }
+
+    private static int[] ranks(Map<UUID, Integer> ordinals, UUID[] sorted) {
+        int[] ranks = new int[sorted.length];
+        for (int i = 0; i < sorted.length; i++) {
+            ranks[ordinals.get(sorted[i])] = i;
+        }
+        return ranks;
+    }
+
+    private static int scopeRank(int[] scopeRanks, int scope) {
+        return scope == MappedPolicySnapshot.ANY_SCOPE ? scope : scopeRanks[scope];
+    }
+
+    private static void putIds(ByteBuffer buffer, UUID[] ids) {
+        for (UUID id : ids) {
+            buffer.putLong(id.getMostSignificantBits()).putLong(id.getLeastSignificantBits());
+        }
+    }
+
+    private static void pad(ByteBuffer buffer, int to) {
+        buffer.position(MappedPolicySnapshot.align(buffer.position(), to));
+    }
+
+    private static long align(long position, int to) {
+        return (position + to - 1) & -to;
+    }
+}
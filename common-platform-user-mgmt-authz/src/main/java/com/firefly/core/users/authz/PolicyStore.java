@@ -0,0 +1,190 @@
+/*
+ * Copyright 2025 Firefly Software Solutions Inc
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.firefly.core.users.authz;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-memory copy of the authorization policy, answering checks without a network call.
+ * The effective permissions of each role are compiled into a {@link PermissionMatcher}, shared between roles
+ * with the same permissions, and the assignments of each user are kept as an array replaced on change.
+ * Checks never lock; snapshots and deltas are applied one at a time, and deltas are idempotent.
+ * An assignment without a branch or distributor applies to every branch or distributor, and inactive users
+ * are granted nothing, as on the server.
+ */
+public final class PolicyStore {
+
+    private static final PolicyClient.Assignment[] NO_ASSIGNMENTS = new PolicyClient.Assignment[0];
+
+    private volatile State state = new State(Map.of(), null);
+
+    /**
+     * Replaces the whole policy with a snapshot.
+     *
+     * @param snapshot the snapshot
+     */
+    public synchronized void load(PolicyClient.Snapshot snapshot) {
+        State loaded = new State(compile(snapshot.roles()), snapshot.version());
+        for (PolicyClient.Assignment assignment : snapshot.assignments()) {
+            loaded.put(assignment);
+        }
+        loaded.inactiveUsers.addAll(snapshot.inactiveUserIds());
+        state = loaded;
+    }
+
+    /**
+     * Applies the changes after the current version.
+     *
+     * @param delta the changes
+     */
+    public synchronized void apply(PolicyClient.Delta delta) {
+        State current = state;
+        if (delta.roles() != null) {
+            current.roles = compile(delta.roles());
+        }
+        if (delta.deletedAssignmentIds() != null) {
+            for (UUID id : delta.deletedAssignmentIds()) {
+                current.remove(id);
+            }
+        }
+        if (delta.assignments() != null) {
+            for (PolicyClient.Assignment assignment : delta.assignments()) {
+                current.put(assignment);
+            }
+        }
+        if (delta.activatedUserIds() != null) {
+            delta.activatedUserIds().forEach(current.inactiveUsers::remove);
+        }
+        if (delta.deactivatedUserIds() != null) {
+            current.inactiveUsers.addAll(delta.deactivatedUserIds());
+        }
+        current.version = delta.version();
+    }
+
+    /**
+     * Checks whether any assignment of a user grants a permission within a scope.
+     *
+     * @param userId the user account ID
+     * @param permission the permission, as {@code domain:name}
+     * @param branchId the branch of the checked resource, or {@code null}
+     * @param distributorId the distributor of the checked resource, or {@code null}
+     * @return whether the permission is granted
+     */
+    public boolean isGranted(UUID userId, String permission, UUID branchId, UUID distributorId) {
+        State current = state;
+        if (current.inactiveUsers.contains(userId)) {
+            return false;
+        }
+        Map<UUID, PermissionMatcher> roles = current.roles;
+        for (PolicyClient.Assignment assignment : current.byUser.getOrDefault(userId, NO_ASSIGNMENTS)) {
+            if (covers(assignment, branchId, distributorId)) {
+                PermissionMatcher matcher = roles.get(assignment.roleId());
+                if (matcher != null && matcher.matches(permission)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * The version of the last snapshot or delta applied, or {@code null} before the first snapshot.
+     */
+    public String version() {
+        return state.version;
+    }
+
+    /**
+     * The number of role assignments held.
+     */
+    public synchronized int assignmentCount() {
+        return state.byId.size();
+    }
+
+    private static boolean covers(PolicyClient.Assignment assignment, UUID branchId, UUID distributorId) {
+        return (assignment.branchId() == null || assignment.branchId().equals(branchId))
+                && (assignment.distributorId() == null || assignment.distributorId().equals(distributorId));
+    }
+
+    private static Map<UUID, PermissionMatcher> compile(List<PolicyClient.RoleGrants> roles) {
+        Map<List<String>, PermissionMatcher> shared = new HashMap<>();
+        Map<UUID, PermissionMatcher> compiled = new HashMap<>(roles.size() * 2);
+        for (PolicyClient.RoleGrants role : roles) {
+            List<String> permissions = new ArrayList<>(role.permissions());
+            permissions.sort(null);
+            compiled.put(role.roleId(), shared.computeIfAbsent(permissions, PermissionMatcher::compile));
+        }
+        return Map.copyOf(compiled);
+    }
+
+    /**
+     * The policy loaded from one snapshot. Roles are replaced wholesale; assignments and inactive users are
+     * changed in place.
+     */
+    private static final class State {
+
+        private final Map<UUID, PolicyClient.Assignment[]> byUser = new ConcurrentHashMap<>();
+
+        // Only read and written while applying changes
+        private final Map<UUID, PolicyClient.Assignment> byId = new HashMap<>();
+
+        private final Set<UUID> inactiveUsers = ConcurrentHashMap.newKeySet();
+
+        private volatile Map<UUID, PermissionMatcher> roles;
+
+        private volatile String version;
+
+        State(Map<UUID, PermissionMatcher> roles, String version) {
+            this.roles = roles;
+            this.version = version;
+        }
+
+        void put(PolicyClient.Assignment assignment) {
+            remove(assignment.id());
+            byId.put(assignment.id(), assignment);
+            byUser.compute(assignment.userId(), (user, existing) -> {
+                if (existing == null) {
+                    return new PolicyClient.Assignment[] {assignment};
+                }
+                PolicyClient.Assignment[] grown = Arrays.copyOf(existing, existing.length + 1);
+                grown[existing.length] = assignment;
+                return grown;
+            });
+        }
+
+        void remove(UUID id) {
+            PolicyClient.Assignment removed = byId.remove(id);
+            if (removed == null) {
+                return;
+            }
+            byUser.computeIfPresent(removed.userId(), (user, existing) -> {
+                PolicyClient.Assignment[] remaining = Arrays.stream(existing)
+                        .filter(assignment -> !assignment.id().equals(id))
+                        .toArray(PolicyClient.Assignment[]::new);
+                return remaining.length == 0 ? null : remaining;
+            });
+        }
+    }
+}
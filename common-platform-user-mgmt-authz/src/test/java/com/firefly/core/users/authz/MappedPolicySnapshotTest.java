@@ -0,0 +1,100 @@
+/*
+ * Copyright 2025 Firefly Software Solutions Inc
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.firefly.core.users.authz;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MappedPolicySnapshotTest {
+
+    private static final UUID USER_ID = UUID.fromString("123e4567-e89b-12d3-a456-426614174000");
+    private static final UUID INACTIVE_USER_ID = UUID.fromString("823e4567-e89b-12d3-a456-426614174000");
+    private static final UUID GLOBAL_ROLE_ID = UUID.fromString("223e4567-e89b-12d3-a456-426614174000");
+    private static final UUID BRANCH_ROLE_ID = UUID.fromString("323e4567-e89b-12d3-a456-426614174000");
+    private static final UUID BRANCH_ID = UUID.fromString("423e4567-e89b-12d3-a456-426614174000");
+    private static final UUID OTHER_BRANCH_ID = UUID.fromString("523e4567-e89b-12d3-a456-426614174000");
+    private static final UUID DISTRIBUTOR_ID = UUID.fromString("623e4567-e89b-12d3-a456-426614174000");
+
+    @TempDir
+    Path directory;
+
+    private PolicySnapshotWriter writer;
+
+    @BeforeEach
+    void setUp() {
+        writer = new PolicySnapshotWriter("v1");
+        writer.addRole(GLOBAL_ROLE_ID, List.of("users:read"));
+        writer.addRole(BRANCH_ROLE_ID, List.of("payments:*", "users:read"));
+        writer.addAssignment(USER_ID, GLOBAL_ROLE_ID, null, null);
+        writer.addAssignment(USER_ID, BRANCH_ROLE_ID, BRANCH_ID, DISTRIBUTOR_ID);
+        writer.addAssignment(INACTIVE_USER_ID, GLOBAL_ROLE_ID, null, null);
+        writer.addInactiveUser(INACTIVE_USER_ID);
+    }
+
+    @Test
+    void map_ShouldAnswerChecksFromTheFile() throws Exception {
+        Path file = Files.write(directory.resolve("policy.bin"), writer.toByteArray());
+
+        MappedPolicySnapshot snapshot = MappedPolicySnapshot.map(file);
+
+        assertEquals("v1", snapshot.version());
+        assertEquals(2, snapshot.roleCount());
+        assertEquals(2, snapshot.userCount());
+        assertEquals(3, snapshot.assignmentCount());
+        assertTrue(snapshot.isGranted(USER_ID, "users:read", OTHER_BRANCH_ID, null));
+        assertTrue(snapshot.isGranted(USER_ID, "payments:refund:full", BRANCH_ID, DISTRIBUTOR_ID));
+        assertFalse(snapshot.isGranted(USER_ID, "payments:refund", BRANCH_ID, null));
+        assertFalse(snapshot.isGranted(USER_ID, "payments:refund", OTHER_BRANCH_ID, DISTRIBUTOR_ID));
+        assertFalse(snapshot.isGranted(INACTIVE_USER_ID, "users:read", null, null));
+        assertFalse(snapshot.isGranted(UUID.randomUUID(), "users:read", null, null));
+    }
+
+    @Test
+    void toByteArray_WhenRolesAreAddedAfterTheirAssignments_ShouldStillGrantThem() {
+        PolicySnapshotWriter reordered = new PolicySnapshotWriter("v1");
+        reordered.addInactiveUser(INACTIVE_USER_ID);
+        reordered.addAssignment(INACTIVE_USER_ID, GLOBAL_ROLE_ID, null, null);
+        reordered.addRole(BRANCH_ROLE_ID, List.of("payments:*", "users:read"));
+        reordered.addAssignment(USER_ID, BRANCH_ROLE_ID, BRANCH_ID, DISTRIBUTOR_ID);
+        reordered.addAssignment(USER_ID, GLOBAL_ROLE_ID, null, null);
+        reordered.addRole(GLOBAL_ROLE_ID, List.of("users:read"));
+
+        MappedPolicySnapshot snapshot = MappedPolicySnapshot.wrap(ByteBuffer.wrap(reordered.toByteArray()));
+
+        assertTrue(snapshot.isGranted(USER_ID, "payments:refund", BRANCH_ID, DISTRIBUTOR_ID));
+    }
+
+    @Test
+    void wrap_WithOtherData_ShouldBeRejected() {
+        byte[] bytes = writer.toByteArray();
+
+        assertThrows(IllegalArgumentException.class,
+                () -> MappedPolicySnapshot.wrap(ByteBuffer.wrap(new byte[64])));
+        assertThrows(IllegalArgumentException.class,
+                () -> MappedPolicySnapshot.wrap(ByteBuffer.wrap(bytes, 0, bytes.length - 4)));
+    }
+}
@@ -0,0 +1,85 @@
+/*
+ * Copyright 2025 Firefly Software Solutions Inc
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.firefly.core.users.authz;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PolicyStoreTest {
+
+    private static final UUID USER_ID = UUID.fromString("123e4567-e89b-12d3-a456-426614174000");
+    private static final UUID GLOBAL_ROLE_ID = UUID.fromString("223e4567-e89b-12d3-a456-426614174000");
+    private static final UUID BRANCH_ROLE_ID = UUID.fromString("323e4567-e89b-12d3-a456-426614174000");
+    private static final UUID BRANCH_ID = UUID.fromString("423e4567-e89b-12d3-a456-426614174000");
+    private static final UUID OTHER_BRANCH_ID = UUID.fromString("523e4567-e89b-12d3-a456-426614174000");
+    private static final UUID GLOBAL_ASSIGNMENT_ID = UUID.fromString("623e4567-e89b-12d3-a456-426614174000");
+    private static final UUID BRANCH_ASSIGNMENT_ID = UUID.fromString("723e4567-e89b-12d3-a456-426614174000");
+
+    private PolicyStore store;
+
+    @BeforeEach
+    void setUp() {
+        store = new PolicyStore();
+        store.load(new PolicyClient.Snapshot("v1",
+                List.of(new PolicyClient.RoleGrants(GLOBAL_ROLE_ID, List.of("users:read")),
+                        new PolicyClient.RoleGrants(BRANCH_ROLE_ID, List.of("payments:*"))),
+                List.of(new PolicyClient.Assignment(GLOBAL_ASSIGNMENT_ID, USER_ID, GLOBAL_ROLE_ID, null, null),
+                        new PolicyClient.Assignment(BRANCH_ASSIGNMENT_ID, USER_ID, BRANCH_ROLE_ID, BRANCH_ID, null)),
+                List.of()));
+    }
+
+    @Test
+    void isGranted_ShouldMatchPermissionsWithinTheScopeOfEachAssignment() {
+        assertEquals("v1", store.version());
+        assertTrue(store.isGranted(USER_ID, "users:read", OTHER_BRANCH_ID, null));
+        assertTrue(store.isGranted(USER_ID, "payments:refund", BRANCH_ID, null));
+        assertFalse(store.isGranted(USER_ID, "payments:refund", OTHER_BRANCH_ID, null));
+        assertFalse(store.isGranted(USER_ID, "users:write", null, null));
+        assertFalse(store.isGranted(UUID.randomUUID(), "users:read", null, null));
+    }
+
+    @Test
+    void apply_ShouldReplaceRolesAndUpdateAssignmentsIdempotently() {
+        PolicyClient.Delta delta = new PolicyClient.Delta("v2",
+                List.of(new PolicyClient.RoleGrants(GLOBAL_ROLE_ID, List.of("users:*"))),
+                List.of(new PolicyClient.Assignment(GLOBAL_ASSIGNMENT_ID, USER_ID, GLOBAL_ROLE_ID, null, null)),
+                List.of(BRANCH_ASSIGNMENT_ID), List.of(), List.of(), false);
+
+        store.apply(delta);
+        store.apply(delta);
+
+        assertEquals("v2", store.version());
+        assertEquals(1, store.assignmentCount());
+        assertTrue(store.isGranted(USER_ID, "users:write", null, null));
+        assertFalse(store.isGranted(USER_ID, "payments:refund", BRANCH_ID, null));
+    }
+
+    @Test
+    void apply_WhenUserIsDeactivated_ShouldDenyUntilReactivated() {
+        store.apply(new PolicyClient.Delta("v2", null, List.of(), List.of(), List.of(), List.of(USER_ID), false));
+        assertFalse(store.isGranted(USER_ID, "users:read", null, null));
+
+        store.apply(new PolicyClient.Delta("v3", null, List.of(), List.of(), List.of(USER_ID), List.of(), false));
+        assertTrue(store.isGranted(USER_ID, "users:read", null, null));
+    }
+}
@@ -0,0 +1,75 @@
+/*
+ * Copyright 2025 Firefly Software Solutions Inc
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.firefly.core.users.core.authz;
+
+import com.firefly.core.users.core.changes.ChangeWatermark;
+
+/**
+ * Position in the policy change feeds: one {@link ChangeWatermark} per table the policy is read from.
+ * Serialized as an opaque token, prefixed by a format number so older tokens can be recognized.
+ *
+ * @param roles the watermark of the role feed
+ * @param permissions the watermark of the permission feed
+ * @param rolePermissions the watermark of the role permission feed
+ * @param userRoles the watermark of the user role feed
+ * @param userAccounts the watermark of the user account feed
+ */
+public record PolicyVersion(ChangeWatermark roles, ChangeWatermark permissions, ChangeWatermark rolePermissions,
+                            ChangeWatermark userRoles, ChangeWatermark userAccounts) {
+
+    private static final String FORMAT = "1";
+
+    /**
+     * A version with the same watermark for every feed.
+     *
+     * @param watermark the watermark
+     * @return the version
+     */
+    public static PolicyVersion at(ChangeWatermark watermark) {
+        return new PolicyVersion(watermark, watermark, watermark, watermark, watermark);
+    }
+
+    /**
+     * Parses a version token.
+     *
+     * @param token the token
+     * @return the version
+     * @throws IllegalArgumentException if the token is missing or malformed
+     */
+    public static PolicyVersion parse(String token) {
+        String[] parts = token != null ? token.split("\\.", -1) : new String[0];
+        if (parts.length != 6 || !FORMAT.equals(parts[0])) {
+            throw new IllegalArgumentException("Invalid policy version: " + token);
+        }
+        for (int i = 1; i < parts.length; i++) {
+            if (parts[i].isEmpty()) {
+                throw new IllegalArgumentException("Invalid policy version: " + token);
+            }
+        }
+        return new PolicyVersion(ChangeWatermark.parse(parts[1]), ChangeWatermark.parse(parts[2]),
+                ChangeWatermark.parse(parts[3]), ChangeWatermark.parse(parts[4]), ChangeWatermark.parse(parts[5]));
+    }
+
+    /**
+     * @return the token of this version
+     */
+    public String format() {
+        return String.join(".", FORMAT, roles.format(), permissions.format(), rolePermissions.format(),
+                userRoles.format(), userAccounts.format());
+    }
+}
@@ -0,0 +1,120 @@
+/*
+ * Copyright 2025 Firefly Software Solutions Inc
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+
+package com.firefly.core.users.core.authz;
+
+import com.firefly.core.users.authz.PermissionMatcher;
+import com.firefly.core.users.core.cache.LocalCache;
+import com.firefly.core.users.core.filters.EntityColumns;
+import com.firefly.core.users.models.entities.Permission;
+import com.firefly.core.users.models.entities.Role;
+import com.firefly.core.users.models.entities.RolePermission;
+import com.firefly.core.users.models.repositories.PermissionRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Compiled {@link PermissionMatcher} of every role checked, covering the permissions it inherits.
+ * Matchers are compiled on first use and kept until a role, permission or role permission changes; since one
+ * change can alter the permissions of every role inheriting from the changed role, all of them are then
+ * recompiled lazily. Roles with the same grants share one matcher.
+ */
+@Component
+public class RolePermissionMatchers implements LocalCache {
+
+    private static final Set<String> TABLES = Set.of(
+            EntityColumns.of(Role.class).table(),
+            EntityColumns.of(Permission.class).table(),
+            EntityColumns.of(RolePermission.class).table());
+
+    @Autowired
+    private PermissionRepository permissionRepository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private final Map<UUID, PermissionMatcher> byRole = new ConcurrentHashMap<>();
+
+    private final Map<List<String>, PermissionMatcher> byGrants = new ConcurrentHashMap<>();
+
+    /**
+     * Incremented on every eviction, so a matcher compiled from data read before it is not cached.
+     */
+    private final AtomicLong generation = new AtomicLong();
+
+    @PostConstruct
+    void registerMetrics() {
+        Gauge.builder("user_mgmt.authz.matchers", byGrants, Map::size)
+                .description("Distinct compiled permission matchers")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Returns the matcher of a role, compiling it from the role's effective permissions when not cached.
+     *
+     * @param roleId the role ID
+     * @return a Mono emitting the matcher; a role without permissions, or that does not exist, grants nothing
+     */
+    public Mono<PermissionMatcher> get(UUID roleId) {
+        PermissionMatcher cached = byRole.get(roleId);
+        if (cached != null) {
+            return Mono.just(cached);
+        }
+        long loadedAt = generation.get();
+        return permissionRepository.findEffectiveByRoleId(roleId)
+                .map(permission -> PermissionMatcher.key(permission.getDomain(), permission.getName()))
+                .distinct()
+                .sort()
+                .collectList()
+                .map(grants -> {
+                    PermissionMatcher matcher = grants.isEmpty()
+                            ? PermissionMatcher.NONE
+                            : byGrants.computeIfAbsent(grants, PermissionMatcher::compile);
+                    byRole.put(roleId, matcher);
+                    if (generation.get() != loadedAt) {
+                        byRole.remove(roleId, matcher);
+                    }
+                    return matcher;
+                });
+    }
+
+    @Override
+    public void evict(String entity, UUID id) {
+        if (TABLES.contains(entity)) {
+            evictAll();
+        }
+    }
+
+    @Override
+    public void evictAll() {
+        generation.incrementAndGet();
+        byRole.clear();
+        byGrants.clear();
+    }
+}
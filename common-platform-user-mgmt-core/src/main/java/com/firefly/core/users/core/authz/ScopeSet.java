@@ -0,0 +1,80 @@
+/*
+ * Copyright 2025 Firefly Software Solutions Inc
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+
+package com.firefly.core.users.core.authz;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * The branches and distributors in which a user holds one permission, built once from the user's assignments
+ * so that any number of resource scopes are authorized with hash lookups.
+ */
+public final class ScopeSet {
+
+    private boolean everywhere;
+
+    private final Set<UUID> branches = new HashSet<>();
+
+    private final Set<UUID> distributors = new HashSet<>();
+
+    private final Set<Scope> scopes = new HashSet<>();
+
+    void add(UUID branchId, UUID distributorId) {
+        if (branchId == null && distributorId == null) {
+            everywhere = true;
+        } else if (distributorId == null) {
+            branches.add(branchId);
+        } else if (branchId == null) {
+            distributors.add(distributorId);
+        } else {
+            scopes.add(new Scope(branchId, distributorId));
+        }
+    }
+
+    /**
+     * Checks whether the permission is held for a resource.
+     *
+     * @param branchId the branch of the resource, or {@code null}
+     * @param distributorId the distributor of the resource, or {@code null}
+     * @return whether the permission is held in the resource's branch and distributor
+     */
+    public boolean contains(UUID branchId, UUID distributorId) {
+        if (everywhere) {
+            return true;
+        }
+        if (branchId != null && branches.contains(branchId)) {
+            return true;
+        }
+        if (distributorId != null && distributors.contains(distributorId)) {
+            return true;
+        }
+        return branchId != null && distributorId != null && scopes.contains(new Scope(branchId, distributorId));
+    }
+
+    /**
+     * Whether the permission is held nowhere, so every resource is denied.
+     */
+    public boolean isEmpty() {
+        return !everywhere && branches.isEmpty() && distributors.isEmpty() && scopes.isEmpty();
+    }
+
+    private record Scope(UUID branchId, UUID distributorId) {
+    }
+}
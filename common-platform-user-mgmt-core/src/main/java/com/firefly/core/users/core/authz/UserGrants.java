@@ -0,0 +1,83 @@
+/*
+ * Copyright 2025 Firefly Software Solutions Inc
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+
+package com.firefly.core.users.core.authz;
+
+import com.firefly.core.users.authz.PermissionMatcher;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * The role assignments of a user, each with the compiled matcher of its role, resolved once to answer any
+ * number of checks. An assignment without a branch or distributor applies to every branch or distributor.
+ */
+public final class UserGrants {
+
+    public static final UserGrants NONE = new UserGrants(List.of());
+
+    private final List<Grant> grants;
+
+    public UserGrants(List<Grant> grants) {
+        this.grants = List.copyOf(grants);
+    }
+
+    /**
+     * Checks whether any assignment grants a permission within a scope.
+     *
+     * @param permission the permission, as {@code domain:name}
+     * @param branchId the branch of the checked resource, or {@code null}
+     * @param distributorId the distributor of the checked resource, or {@code null}
+     * @return whether the permission is granted
+     */
+    public boolean isGranted(String permission, UUID branchId, UUID distributorId) {
+        for (Grant grant : grants) {
+            if (grant.covers(branchId, distributorId) && grant.matcher().matches(permission)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Collects the scopes in which a permission is granted, to authorize many resources against one permission.
+     *
+     * @param permission the permission, as {@code domain:name}
+     * @return the scopes of the assignments granting the permission
+     */
+    public ScopeSet scopesFor(String permission) {
+        ScopeSet scopes = new ScopeSet();
+        for (Grant grant : grants) {
+            if (grant.matcher().matches(permission)) {
+                scopes.add(grant.branchId(), grant.distributorId());
+            }
+        }
+        return scopes;
+    }
+
+    /**
+     * A role assignment: the role's matcher and the scope it was assigned in.
+     */
+    public record Grant(PermissionMatcher matcher, UUID branchId, UUID distributorId) {
+
+        boolean covers(UUID branch, UUID distributor) {
+            return (branchId == null || branchId.equals(branch))
+                    && (distributorId == null || distributorId.equals(distributor));
+        }
+    }
+}
@@ -0,0 +1,39 @@
+/*
+ * Copyright 2025 Firefly Software Solutions Inc
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.firefly.core.users.core.bulk;
+
+import com.firefly.core.users.interfaces.dtos.UserAccountDTO;
+
+/**
+ * A parsed row of a bulk import: either a valid user account or the reason the row was rejected.
+ *
+ * @param line the 1-based line number of the row in the body
+ * @param account the parsed user account, or {@code null} if the row could not be parsed
+ * @param error why the row was rejected, or {@code null} if it is valid
+ */
+public record ImportRow(long line, UserAccountDTO account, String error) {
+
+    /**
+     * Returns whether the row can be imported.
+     *
+     * @return {@code true} if the row parsed and passed validation
+     */
+    public boolean isValid() {
+        return error == null;
+    }
+}
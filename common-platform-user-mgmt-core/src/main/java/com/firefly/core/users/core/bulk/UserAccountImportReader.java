@@ -0,0 +1,157 @@
+/*
+ * Copyright 2025 Firefly Software Solutions Inc
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.firefly.core.users.core.bulk;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.firefly.core.users.interfaces.dtos.UserAccountDTO;
+import com.firefly.core.users.interfaces.enums.ImportFormatEnum;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Collectors;
+
+/**
+ * Parses and validates the lines of a user account bulk import as they arrive, one row per non-blank line.
+ * CSV bodies start with a header row of {@link UserAccountDTO} field names; cells may be quoted, with doubled
+ * quotes inside but no line breaks, and blank cells are left unset. NDJSON bodies hold one user account object per line.
+ */
+@Component
+public class UserAccountImportReader {
+
+    private static final String BYTE_ORDER_MARK = "\uFEFF";
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private Validator validator;
+
+    /**
+     * Parses and validates the lines of an import body.
+     *
+     * @param lines the lines of the body, without line terminators
+     * @param format the format of the body
+     * @return a Flux of the rows in line order, rejected rows included
+     */
+    public Flux<ImportRow> read(Flux<String> lines, ImportFormatEnum format) {
+        return Flux.defer(() -> {
+            AtomicReference<List<String>> header = new AtomicReference<>();
+            return lines.index().handle((indexed, sink) -> {
+                long line = indexed.getT1() + 1;
+                String text = indexed.getT2();
+                if (line == 1 && text.startsWith(BYTE_ORDER_MARK)) {
+                    text = text.substring(1);
+                }
+                if (text.isBlank()) {
+                    return;
+                }
+                if (format == ImportFormatEnum.CSV && header.get() == null) {
+                    try {
+                        header.set(splitCsv(text).stream().map(String::trim).toList());
+                    } catch (IllegalArgumentException e) {
+                        sink.error(new IllegalArgumentException("Invalid CSV header: " + e.getMessage()));
+                    }
+                    return;
+                }
+                sink.next(parse(line, text, format, header.get()));
+            });
+        });
+    }
+
+    private ImportRow parse(long line, String text, ImportFormatEnum format, List<String> header) {
+        UserAccountDTO account;
+        try {
+            account = format == ImportFormatEnum.CSV
+                    ? fromCsv(header, splitCsv(text))
+                    : objectMapper.readValue(text, UserAccountDTO.class);
+        } catch (JsonProcessingException e) {
+            return new ImportRow(line, null, e.getOriginalMessage());
+        } catch (IllegalArgumentException e) {
+            return new ImportRow(line, null, e.getMessage());
+        }
+        if (account == null) {
+            return new ImportRow(line, null, "Row is not a user account");
+        }
+        return new ImportRow(line, account, validate(account));
+    }
+
+    private UserAccountDTO fromCsv(List<String> header, List<String> cells) {
+        if (cells.size() != header.size()) {
+            throw new IllegalArgumentException("Expected " + header.size() + " cells, found " + cells.size());
+        }
+        Map<String, String> values = new HashMap<>();
+        for (int i = 0; i < cells.size(); i++) {
+            if (!cells.get(i).isBlank()) {
+                values.put(header.get(i), cells.get(i).trim());
+            }
+        }
+        return objectMapper.convertValue(values, UserAccountDTO.class);
+    }
+
+    private String validate(UserAccountDTO account) {
+        List<ConstraintViolation<UserAccountDTO>> violations = new ArrayList<>(validator.validate(account));
+        if (violations.isEmpty()) {
+            return null;
+        }
+        return violations.stream()
+                .sorted(Comparator.comparing(violation -> violation.getPropertyPath().toString()))
+                .map(violation -> violation.getPropertyPath() + ": " + violation.getMessage())
+                .collect(Collectors.joining("; "));
+    }
+
+    private static List<String> splitCsv(String line) {
+        List<String> cells = new ArrayList<>();
+        StringBuilder cell = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c != '"') {
+                    cell.append(c);
+                } else if (i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    cell.append('"');
+                    i++;
+                } else {
+                    quoted = false;
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                cells.add(cell.toString());
+                cell.setLength(0);
+            } else {
+                cell.append(c);
+            }
+        }
+        if (quoted) {
+            throw new IllegalArgumentException("Unterminated quoted cell");
+        }
+        cells.add(cell.toString());
+        return cells;
+    }
+}
@@ -0,0 +1,175 @@
+/*
+ * Copyright 2025 Firefly Software Solutions Inc
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.firefly.core.users.core.cache;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.firefly.core.users.core.changes.ChangeEventBus;
+import com.firefly.core.users.core.changes.ChangeNotification;
+import io.r2dbc.postgresql.PostgresqlConnectionFactory;
+import io.r2dbc.postgresql.PostgresqlConnectionFactoryProvider;
+import io.r2dbc.postgresql.api.Notification;
+import io.r2dbc.postgresql.api.PostgresqlConnection;
+import io.r2dbc.postgresql.api.PostgresqlResult;
+import io.r2dbc.spi.ConnectionFactoryOptions;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.r2dbc.R2dbcProperties;
+import org.springframework.stereotype.Component;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.util.retry.Retry;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Listens for the invalidation notifications sent with {@code pg_notify} by every instance when it commits
+ * a change, and evicts the matching entries of the {@link LocalCache}s of this instance. On the same connection
+ * it receives the {@link ChangeNotification}s of every instance and appends them to the {@link ChangeEventBus}.
+ * The listening connection is opened outside the pools, since it stays in {@code LISTEN} for the life of the
+ * instance, and is re-established with backoff; since notifications sent while it was down are lost, every
+ * cache is flushed and change stream subscribers are told to resync once the connection is listening again.
+ */
+@Slf4j
+@Component
+public class CacheInvalidationListener {
+
+    /**
+     * The notification channel, with payloads of the form {@code <table>:<id>}.
+     */
+    public static final String CHANNEL = "user_mgmt_invalidation";
+
+    @Value("${user-mgmt.cache.invalidation.enabled:true}")
+    private boolean enabled;
+
+    @Value("${user-mgmt.cache.invalidation.max-backoff:PT10S}")
+    private Duration maxBackoff;
+
+    @Autowired
+    private R2dbcProperties properties;
+
+    @Autowired
+    private List<LocalCache> caches;
+
+    @Autowired
+    private ChangeEventBus changeEventBus;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private Disposable subscription;
+
+    @PostConstruct
+    void start() {
+        if (!enabled) {
+            return;
+        }
+        PostgresqlConnectionFactory connectionFactory = listenerConnectionFactory();
+        subscription = Flux.usingWhen(connectionFactory.create(), this::listen, PostgresqlConnection::close)
+                // The notification stream completes when the connection is closed by the server
+                .concatWith(Flux.error(new IllegalStateException("Invalidation connection closed")))
+                .retryWhen(Retry.backoff(Long.MAX_VALUE, Duration.ofMillis(100))
+                        .maxBackoff(maxBackoff)
+                        .doBeforeRetry(signal -> log.warn("Cache invalidation listener disconnected, reconnecting",
+                                signal.failure())))
+                .subscribe(this::onNotification);
+    }
+
+    @PreDestroy
+    void stop() {
+        if (subscription != null) {
+            subscription.dispose();
+        }
+    }
+
+    /**
+     * Builds an unpooled factory for the primary database, so the listening connection is never handed back to
+     * a pool while still subscribed to the channel.
+     */
+    private PostgresqlConnectionFactory listenerConnectionFactory() {
+        ConnectionFactoryOptions.Builder options = ConnectionFactoryOptions.parse(properties.getUrl()).mutate();
+        if (properties.getUsername() != null) {
+            options.option(ConnectionFactoryOptions.USER, properties.getUsername());
+        }
+        if (properties.getPassword() != null) {
+            options.option(ConnectionFactoryOptions.PASSWORD, properties.getPassword());
+        }
+        return new PostgresqlConnectionFactory(PostgresqlConnectionFactoryProvider.builder(options.build())
+                .applicationName("user-mgmt-cache-invalidation")
+                .build());
+    }
+
+    private Flux<Notification> listen(PostgresqlConnection connection) {
+        return connection.createStatement("LISTEN " + CHANNEL + "; LISTEN " + ChangeNotification.CHANNEL)
+                .execute()
+                .flatMap(PostgresqlResult::getRowsUpdated)
+                .then()
+                .doOnSuccess(listening -> {
+                    caches.forEach(LocalCache::evictAll);
+                    changeEventBus.resync();
+                })
+                .thenMany(connection.getNotifications());
+    }
+
+    void onNotification(Notification notification) {
+        if (ChangeNotification.CHANNEL.equals(notification.getName())) {
+            relay(notification);
+        } else {
+            evict(notification);
+        }
+    }
+
+    void relay(Notification notification) {
+        String payload = notification.getParameter();
+        ChangeNotification change;
+        try {
+            change = objectMapper.readValue(payload, ChangeNotification.class);
+        } catch (JsonProcessingException | IllegalArgumentException e) {
+            // Like a malformed invalidation, it must not terminate the listener
+            log.warn("Ignoring malformed change notification: {}", payload);
+            return;
+        }
+        changeEventBus.publish(change.entity(), change.type(), change.recordId(), change.data());
+    }
+
+    void evict(Notification notification) {
+        String payload = notification.getParameter();
+        int separator = payload != null ? payload.lastIndexOf(':') : -1;
+        if (separator < 0) {
+            log.warn("Ignoring cache invalidation without an entity and ID: {}", payload);
+            return;
+        }
+        String entity = payload.substring(0, separator);
+        UUID id;
+        try {
+            id = UUID.fromString(payload.substring(separator + 1));
+        } catch (IllegalArgumentException e) {
+            // A bad message must not terminate the listener, which would stop every later invalidation
+            log.warn("Ignoring cache invalidation with a malformed ID: {}", payload);
+            return;
+        }
+        for (LocalCache cache : caches) {
+            cache.evict(entity, id);
+        }
+    }
+}
@@ -0,0 +1,40 @@
+/*
+ * Copyright 2025 Firefly Software Solutions Inc
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.firefly.core.users.core.cache;
+
+import java.util.UUID;
+
+/**
+ * A cache held in the memory of one instance. Every bean implementing it is evicted by
+ * {@link CacheInvalidationListener} when any instance commits a change.
+ */
+public interface LocalCache {
+
+    /**
+     * Evicts the entries that depend on a changed record.
+     *
+     * @param entity the table of the changed record
+     * @param id the ID of the changed record
+     */
+    void evict(String entity, UUID id);
+
+    /**
+     * Evicts every entry, used when invalidations may have been missed.
+     */
+    void evictAll();
+}
@@ -0,0 +1,161 @@
+/*
+ * Copyright 2025 Firefly Software Solutions Inc
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.firefly.core.users.core.changes;
+
+import com.firefly.core.users.interfaces.dtos.ChangeEventDTO;
+import com.firefly.core.users.interfaces.enums.ChangeTypeEnum;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Sinks;
+
+import java.time.OffsetDateTime;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CopyOnWriteArraySet;
+
+/**
+ * Per-instance sequence of the committed changes of every instance, as received from
+ * {@link ChangeEventPublisher}'s notifications, with a bounded replay buffer.
+ * Event IDs are {@code <stream>-<sequence>}, where the stream part changes on every start, so a client
+ * resuming with an ID from another stream or from before the buffer receives a {@link ChangeTypeEnum#RESYNC}.
+ */
+@Component
+public class ChangeEventBus {
+
+    @Value("${user-mgmt.changes.stream.replay-size:10000}")
+    private int replaySize;
+
+    @Value("${user-mgmt.changes.stream.subscriber-buffer:1000}")
+    private int subscriberBuffer;
+
+    private final String streamId = Long.toString(System.currentTimeMillis(), 36);
+
+    private final Deque<Sequenced> replay = new ArrayDeque<>();
+
+    private final Set<Sinks.Many<ChangeEventDTO>> subscribers = new CopyOnWriteArraySet<>();
+
+    private long sequence;
+
+    /**
+     * Appends a committed change and pushes it to every subscriber.
+     *
+     * @param entity the table of the changed record
+     * @param type the kind of change
+     * @param recordId the ID of the changed record
+     * @param data the record after the change, or {@code null} for deletions
+     */
+    public synchronized void publish(String entity, ChangeTypeEnum type, UUID recordId, Object data) {
+        long next = ++sequence;
+        ChangeEventDTO event = ChangeEventDTO.builder()
+                .eventId(streamId + "-" + next)
+                .entity(entity)
+                .type(type)
+                .recordId(recordId)
+                .data(data)
+                .occurredAt(OffsetDateTime.now())
+                .build();
+        replay.addLast(new Sequenced(next, event));
+        if (replay.size() > replaySize) {
+            replay.removeFirst();
+        }
+        emit(event);
+    }
+
+    /**
+     * Tells every subscriber that changes may have been missed, e.g. while change notifications could not be
+     * received, and drops the replay buffer so that no client resumes across the gap.
+     */
+    public synchronized void resync() {
+        replay.clear();
+        emit(resyncEvent());
+    }
+
+    /**
+     * Subscribes to changes after the given event ID.
+     *
+     * @param lastEventId the ID of the last event the client received, or {@code null} for new events only
+     * @return a Flux of the replayed events followed by live ones
+     */
+    public Flux<ChangeEventDTO> subscribe(String lastEventId) {
+        return Flux.defer(() -> {
+            Sinks.Many<ChangeEventDTO> sink = Sinks.many().unicast()
+                    .onBackpressureBuffer(new ArrayBlockingQueue<>(subscriberBuffer));
+            List<ChangeEventDTO> missed = register(sink, lastEventId);
+            return Flux.fromIterable(missed)
+                    .concatWith(sink.asFlux())
+                    .doFinally(signal -> subscribers.remove(sink));
+        });
+    }
+
+    /**
+     * Registers a subscriber and returns the events it missed, atomically with respect to {@link #publish}.
+     */
+    private synchronized List<ChangeEventDTO> register(Sinks.Many<ChangeEventDTO> sink, String lastEventId) {
+        subscribers.add(sink);
+        if (lastEventId == null || lastEventId.isBlank()) {
+            return List.of();
+        }
+        long last = parseSequence(lastEventId);
+        long oldest = replay.isEmpty() ? sequence + 1 : replay.peekFirst().sequence();
+        if (last < 0 || last > sequence || last + 1 < oldest) {
+            return List.of(resyncEvent());
+        }
+        return replay.stream()
+                .filter(sequenced -> sequenced.sequence() > last)
+                .map(Sequenced::event)
+                .toList();
+    }
+
+    private void emit(ChangeEventDTO event) {
+        for (Sinks.Many<ChangeEventDTO> subscriber : subscribers) {
+            if (subscriber.tryEmitNext(event).isFailure()) {
+                // A subscriber that cannot keep up is dropped and resumes from its last event ID
+                subscriber.tryEmitError(new IllegalStateException("Change stream subscriber is too slow"));
+                subscribers.remove(subscriber);
+            }
+        }
+    }
+
+    private ChangeEventDTO resyncEvent() {
+        return ChangeEventDTO.builder()
+                .eventId(streamId + "-" + sequence)
+                .type(ChangeTypeEnum.RESYNC)
+                .occurredAt(OffsetDateTime.now())
+                .build();
+    }
+
+    private long parseSequence(String eventId) {
+        int separator = eventId.lastIndexOf('-');
+        if (separator < 0 || !eventId.substring(0, separator).equals(streamId)) {
+            return -1;
+        }
+        try {
+            return Long.parseLong(eventId.substring(separator + 1));
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    private record Sequenced(long sequence, ChangeEventDTO event) {
+    }
+}
@@ -0,0 +1,120 @@
+/*
+ * Copyright 2025 Firefly Software Solutions Inc
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.firefly.core.users.core.changes;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.firefly.core.users.core.cache.CacheInvalidationListener;
+import com.firefly.core.users.core.filters.EntityColumns;
+import com.firefly.core.users.interfaces.enums.ChangeTypeEnum;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Publishes changes made by the service write paths to the {@link ChangeEventBus} of every instance.
+ * Changes are sent with {@code pg_notify} on {@link ChangeNotification#CHANNEL} inside the transaction, which
+ * PostgreSQL delivers to every listening instance, this one included, only once it commits and in commit order,
+ * so consumers never see a change that is rolled back. {@link CacheInvalidationListener} receives them and
+ * appends them to the local bus. A cache invalidation notification is sent the same way.
+ */
+@Component
+public class ChangeEventPublisher {
+
+    @Autowired
+    private DatabaseClient databaseClient;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    /**
+     * Publishes a change once the current transaction commits, or immediately outside a transaction.
+     *
+     * @param entityClass the entity class of the changed record
+     * @param type the kind of change
+     * @param recordId the ID of the changed record
+     * @param data the record after the change, or {@code null} for deletions
+     * @return a Mono that completes once the change notification is sent
+     */
+    public Mono<Void> publishAfterCommit(Class<?> entityClass, ChangeTypeEnum type, UUID recordId, Object data) {
+        String entity = EntityColumns.of(entityClass).table();
+        return Mono.defer(() -> notifyInvalidation(entity, recordId)
+                .then(databaseClient.sql("SELECT pg_notify($1, $2)")
+                        .bind(0, ChangeNotification.CHANNEL)
+                        .bind(1, payload(new ChangeNotification(entity, type, recordId, data)))
+                        .then()));
+    }
+
+    /**
+     * Publishes changes of one kind to several records once the current transaction commits, or immediately
+     * outside a transaction, sending their invalidation and change notifications in one statement each.
+     *
+     * @param entityClass the entity class of the changed records
+     * @param type the kind of change
+     * @param records the records after the change, by ID, in publication order
+     * @return a Mono that completes once the change notifications are sent
+     */
+    public Mono<Void> publishAllAfterCommit(Class<?> entityClass, ChangeTypeEnum type, Map<UUID, ?> records) {
+        if (records.isEmpty()) {
+            return Mono.empty();
+        }
+        String entity = EntityColumns.of(entityClass).table();
+        return Mono.defer(() -> databaseClient.sql(
+                        "SELECT pg_notify($1, $2 || ':' || id::text) FROM unnest($3::uuid[]) AS id")
+                .bind(0, CacheInvalidationListener.CHANNEL)
+                .bind(1, entity)
+                .bind(2, records.keySet().toArray(new UUID[0]))
+                .then()
+                .then(databaseClient.sql("SELECT pg_notify($1, payload) FROM unnest($2::text[]) AS payload")
+                        .bind(0, ChangeNotification.CHANNEL)
+                        .bind(1, records.entrySet().stream()
+                                .map(record -> payload(new ChangeNotification(entity, type, record.getKey(),
+                                        record.getValue())))
+                                .toArray(String[]::new))
+                        .then()));
+    }
+
+    /**
+     * Serializes a change, leaving out its record when the payload would exceed the PostgreSQL limit.
+     */
+    private String payload(ChangeNotification change) {
+        try {
+            String payload = objectMapper.writeValueAsString(change);
+            if (change.data() == null
+                    || payload.getBytes(StandardCharsets.UTF_8).length < ChangeNotification.MAX_PAYLOAD_BYTES) {
+                return payload;
+            }
+            return objectMapper.writeValueAsString(
+                    new ChangeNotification(change.entity(), change.type(), change.recordId(), null));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to serialize change notification", e);
+        }
+    }
+
+    private Mono<Void> notifyInvalidation(String entity, UUID recordId) {
+        return databaseClient.sql("SELECT pg_notify($1, $2)")
+                .bind(0, CacheInvalidationListener.CHANNEL)
+                .bind(1, entity + ":" + recordId)
+                .then();
+    }
+}
@@ -0,0 +1,143 @@
+/*
+ * Copyright 2025 Firefly Software Solutions Inc
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.firefly.core.users.core.changes;
+
+import com.firefly.core.users.core.filters.EntityColumns;
+import com.firefly.core.users.interfaces.dtos.ChangeSetDTO;
+import com.firefly.core.users.interfaces.dtos.DeletedRecordDTO;
+import com.firefly.core.users.models.repositories.ChangeTombstoneRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.r2dbc.core.R2dbcEntityTemplate;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Function;
+
+/**
+ * Reads the rows changed and deleted after a {@link ChangeWatermark} and records deletions as tombstones.
+ * Changed rows are read by {@code (updated_at, id)} and tombstones by {@code (deleted_at, id)}, so both
+ * are merged into one ordered feed with a single watermark. Rows younger than the settle time are held
+ * back, so a transaction that commits after a read cannot slip in behind the returned watermark.
+ */
+@Component
+public class ChangeFeed {
+
+    @Value("${user-mgmt.changes.settle-time:PT5S}")
+    private Duration settleTime;
+
+    @Value("${user-mgmt.changes.default-limit:500}")
+    private int defaultLimit;
+
+    @Value("${user-mgmt.changes.max-limit:5000}")
+    private int maxLimit;
+
+    @Autowired
+    private R2dbcEntityTemplate template;
+
+    @Autowired
+    private DatabaseClient databaseClient;
+
+    @Autowired
+    private ChangeTombstoneRepository tombstones;
+
+    /**
+     * Records that a row of the given entity was deleted.
+     *
+     * @param entityClass the entity class
+     * @param id the ID of the deleted row
+     * @return a Mono that completes when the tombstone is written
+     */
+    public Mono<Void> recordDeletion(Class<?> entityClass, UUID id) {
+        return tombstones.record(EntityColumns.of(entityClass).table(), id);
+    }
+
+    /**
+     * Reads the next changes of an entity after a watermark.
+     *
+     * @param entityClass the entity class
+     * @param since the watermark token, or {@code null} to start from the beginning
+     * @param limit the maximum number of changed and deleted rows, or {@code null} for the default
+     * @param toDTO the entity to DTO conversion
+     * @return a Mono emitting the change set and the watermark to continue from
+     * @throws IllegalArgumentException if the watermark is malformed
+     */
+    public <E, D> Mono<ChangeSetDTO<D>> changes(Class<E> entityClass, String since, Integer limit,
+                                                Function<E, D> toDTO) {
+        ChangeWatermark from = ChangeWatermark.parse(since);
+        int size = limit == null || limit <= 0 ? defaultLimit : Math.min(limit, maxLimit);
+        String table = EntityColumns.of(entityClass).table();
+        String sql = "SELECT * FROM " + table + " WHERE (updated_at, id) > ($1, $2) "
+                + "AND updated_at < now() - $3 * INTERVAL '1 millisecond' "
+                + "ORDER BY updated_at, id LIMIT $4";
+
+        Mono<List<Changed<E>>> changed = databaseClient.sql(sql)
+                .bind(0, from.timestamp())
+                .bind(1, from.id())
+                .bind(2, settleTime.toMillis())
+                .bind(3, size + 1)
+                .map((row, metadata) -> new Changed<>(
+                        new ChangeWatermark(row.get("updated_at", OffsetDateTime.class), row.get("id", UUID.class)),
+                        template.getConverter().read(entityClass, row, metadata)))
+                .all()
+                .collectList();
+        Mono<List<DeletedRecordDTO>> deleted = tombstones
+                .findSince(table, from.timestamp(), from.id(), settleTime, size + 1)
+                .collectList();
+
+        return changed.zipWith(deleted)
+                .map(result -> merge(result.getT1(), result.getT2(), from, size, toDTO));
+    }
+
+    private static <E, D> ChangeSetDTO<D> merge(List<Changed<E>> changed, List<DeletedRecordDTO> deleted,
+                                                ChangeWatermark from, int size, Function<E, D> toDTO) {
+        List<D> changedDTOs = new ArrayList<>();
+        List<DeletedRecordDTO> deletedDTOs = new ArrayList<>();
+        ChangeWatermark watermark = from;
+        int c = 0;
+        int d = 0;
+        while (c + d < size && (c < changed.size() || d < deleted.size())) {
+            ChangeWatermark nextChanged = c < changed.size() ? changed.get(c).watermark() : null;
+            ChangeWatermark nextDeleted = d < deleted.size()
+                    ? new ChangeWatermark(deleted.get(d).getDeletedAt(), deleted.get(d).getId())
+                    : null;
+            if (nextDeleted == null || (nextChanged != null && nextChanged.compareTo(nextDeleted) <= 0)) {
+                changedDTOs.add(toDTO.apply(changed.get(c++).entity()));
+                watermark = nextChanged;
+            } else {
+                deletedDTOs.add(deleted.get(d++));
+                watermark = nextDeleted;
+            }
+        }
+        return ChangeSetDTO.<D>builder()
+                .changed(changedDTOs)
+                .deleted(deletedDTOs)
+                .watermark(watermark.format())
+                .hasMore(c < changed.size() || d < deleted.size())
+                .build();
+    }
+
+    private record Changed<E>(ChangeWatermark watermark, E entity) {
+    }
+}
@@ -0,0 +1,43 @@
+/*
+ * Copyright 2025 Firefly Software Solutions Inc
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.firefly.core.users.core.changes;
+
+import com.firefly.core.users.interfaces.enums.ChangeTypeEnum;
+
+import java.util.UUID;
+
+/**
+ * A committed change as sent as JSON on {@link #CHANNEL}, which PostgreSQL delivers to every instance on commit.
+ *
+ * @param entity the table of the changed record
+ * @param type the kind of change
+ * @param recordId the ID of the changed record
+ * @param data the record after the change, or {@code null} for deletions and records too large for a notification
+ */
+public record ChangeNotification(String entity, ChangeTypeEnum type, UUID recordId, Object data) {
+
+    /**
+     * The notification channel of committed changes.
+     */
+    public static final String CHANNEL = "user_mgmt_changes";
+
+    /**
+     * PostgreSQL rejects notification payloads of this many bytes or more.
+     */
+    public static final int MAX_PAYLOAD_BYTES = 8000;
+}
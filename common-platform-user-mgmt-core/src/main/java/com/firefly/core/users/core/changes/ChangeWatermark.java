@@ -0,0 +1,85 @@
+/*
+ * Copyright 2025 Firefly Software Solutions Inc
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.firefly.core.users.core.changes;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.Base64;
+import java.util.UUID;
+
+/**
+ * Position in a change feed: the {@code (timestamp, id)} of the last change a client has read.
+ * Serialized as an opaque URL-safe token.
+ *
+ * @param timestamp the update or deletion time of the last change
+ * @param id the ID of the last change
+ */
+public record ChangeWatermark(OffsetDateTime timestamp, UUID id) implements Comparable<ChangeWatermark> {
+
+    /**
+     * The watermark before every change.
+     */
+    public static final ChangeWatermark INITIAL =
+            new ChangeWatermark(OffsetDateTime.ofInstant(Instant.EPOCH, ZoneOffset.UTC), new UUID(0, 0));
+
+    /**
+     * Parses a watermark token.
+     *
+     * @param token the token, or {@code null} or blank to start from the beginning
+     * @return the watermark
+     * @throws IllegalArgumentException if the token is malformed
+     */
+    public static ChangeWatermark parse(String token) {
+        if (token == null || token.isBlank()) {
+            return INITIAL;
+        }
+        try {
+            String decoded = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int separator = decoded.indexOf('~');
+            Instant instant = Instant.parse(decoded.substring(0, separator));
+            return new ChangeWatermark(OffsetDateTime.ofInstant(instant, ZoneOffset.UTC),
+                    UUID.fromString(decoded.substring(separator + 1)));
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Invalid watermark: " + token, e);
+        }
+    }
+
+    /**
+     * @return the token of this watermark
+     */
+    public String format() {
+        String raw = timestamp.toInstant() + "~" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Override
+    public int compareTo(ChangeWatermark other) {
+        int byTimestamp = timestamp.toInstant().compareTo(other.timestamp.toInstant());
+        return byTimestamp != 0 ? byTimestamp : compareIds(id, other.id);
+    }
+
+    /**
+     * Compares UUIDs the way PostgreSQL does, as unsigned bytes, which differs from {@link UUID#compareTo}.
+     */
+    private static int compareIds(UUID a, UUID b) {
+        int byHigh = Long.compareUnsigned(a.getMostSignificantBits(), b.getMostSignificantBits());
+        return byHigh != 0 ? byHigh : Long.compareUnsigned(a.getLeastSignificantBits(), b.getLeastSignificantBits());
+    }
+}
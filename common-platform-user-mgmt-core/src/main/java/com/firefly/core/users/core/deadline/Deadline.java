@@ -0,0 +1,76 @@
+/*
+ * Copyright 2025 Firefly Software Solutions Inc
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.firefly.core.users.core.deadline;
+
+import reactor.util.context.Context;
+import reactor.util.context.ContextView;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Optional;
+
+/**
+ * The point in time after which the caller no longer waits for a result, carried in the Reactor context.
+ *
+ * @param expiresAt the deadline
+ */
+public record Deadline(Instant expiresAt) {
+
+    /**
+     * The Reactor context key holding the deadline.
+     */
+    public static final String CONTEXT_KEY = Deadline.class.getName();
+
+    /**
+     * Returns a deadline the given time from now.
+     *
+     * @param timeout the time left
+     * @return the Deadline
+     */
+    public static Deadline in(Duration timeout) {
+        return new Deadline(Instant.now().plus(timeout));
+    }
+
+    /**
+     * Returns the deadline of a pipeline, if it has one.
+     *
+     * @param context the Reactor context of the pipeline
+     * @return the Deadline, or empty
+     */
+    public static Optional<Deadline> from(ContextView context) {
+        return context.getOrEmpty(CONTEXT_KEY);
+    }
+
+    /**
+     * Returns the time left until the deadline, negative once it has passed.
+     *
+     * @return the remaining Duration
+     */
+    public Duration remaining() {
+        return Duration.between(Instant.now(), expiresAt);
+    }
+
+    /**
+     * Returns a context that carries this deadline.
+     *
+     * @return a Context to pass to {@code contextWrite}
+     */
+    public Context context() {
+        return Context.of(CONTEXT_KEY, this);
+    }
+}
@@ -0,0 +1,57 @@
+/*
+ * Copyright 2025 Firefly Software Solutions Inc
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.firefly.core.users.core.deadline;
+
+import io.r2dbc.spi.Connection;
+import io.r2dbc.spi.ConnectionFactory;
+import io.r2dbc.spi.Result;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.r2dbc.connection.R2dbcTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Transaction manager that bounds every statement of a transaction by the {@link Deadline} of the caller.
+ * It sets {@code statement_timeout} locally once the transaction begins, so PostgreSQL cancels work the caller
+ * has stopped waiting for and the connection returns to the pool.
+ */
+public class DeadlineTransactionManager extends R2dbcTransactionManager {
+
+    public DeadlineTransactionManager(ConnectionFactory connectionFactory) {
+        super(connectionFactory);
+    }
+
+    @Override
+    protected Mono<Void> prepareTransactionalConnection(Connection connection, TransactionDefinition definition) {
+        return super.prepareTransactionalConnection(connection, definition)
+                .then(Mono.deferContextual(context -> Deadline.from(context)
+                        .map(deadline -> applyStatementTimeout(connection, deadline))
+                        .orElse(Mono.empty())));
+    }
+
+    private static Mono<Void> applyStatementTimeout(Connection connection, Deadline deadline) {
+        long millis = deadline.remaining().toMillis();
+        if (millis <= 0) {
+            return Mono.error(new QueryTimeoutException("Deadline exceeded before the transaction began"));
+        }
+        return Flux.from(connection.createStatement("SET LOCAL statement_timeout = " + millis).execute())
+                .flatMap(Result::getRowsUpdated)
+                .then();
+    }
+}
@@ -0,0 +1,65 @@
+/*
+ * Copyright 2025 Firefly Software Solutions Inc
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.firefly.core.users.core.filters;
+
+import com.firefly.common.core.queries.PaginationResponse;
+import com.firefly.core.users.interfaces.enums.CountStrategyEnum;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.NoArgsConstructor;
+import lombok.ToString;
+
+import java.util.List;
+
+/**
+ * Page of filter results that also reports how {@code totalElements} was computed.
+ * With {@link CountStrategyEnum#NONE} the totals are {@code -1} and only {@code hasNext} is meaningful.
+ */
+@Data
+@NoArgsConstructor
+@EqualsAndHashCode(callSuper = true)
+@ToString(callSuper = true)
+public class CountedPaginationResponse<T> extends PaginationResponse<T> {
+
+    private CountStrategyEnum countStrategy;
+
+    private Boolean hasNext;
+
+    /**
+     * Creates a page from its parts.
+     *
+     * @param content the rows of the page
+     * @param totalElements the total, or {@code -1} when not counted
+     * @param pageNumber the zero-based page number
+     * @param pageSize the requested page size
+     * @param countStrategy the strategy used to compute the total
+     * @param hasNext whether a next page exists
+     * @return the page
+     */
+    public static <T> CountedPaginationResponse<T> of(List<T> content, long totalElements, int pageNumber, int pageSize,
+                                                      CountStrategyEnum countStrategy, boolean hasNext) {
+        CountedPaginationResponse<T> page = new CountedPaginationResponse<>();
+        page.setContent(content);
+        page.setTotalElements(totalElements);
+        page.setTotalPages(totalElements < 0 ? -1 : (int) Math.ceil((double) totalElements / pageSize));
+        page.setCurrentPage(pageNumber);
+        page.setCountStrategy(countStrategy);
+        page.setHasNext(hasNext);
+        return page;
+    }
+}
@@ -0,0 +1,118 @@
+/*
+ * Copyright 2025 Firefly Software Solutions Inc
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.firefly.core.users.core.filters;
+
+import org.springframework.data.relational.core.mapping.Column;
+import org.springframework.data.relational.core.mapping.Table;
+import org.springframework.util.ReflectionUtils;
+
+import java.lang.reflect.Modifier;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Table and column metadata of an entity, resolved once per entity class.
+ */
+public final class EntityColumns {
+
+    private static final Map<Class<?>, EntityColumns> CACHE = new ConcurrentHashMap<>();
+
+    private final String table;
+    private final Map<String, String> columnsByProperty;
+    private final Map<String, Class<?>> typesByProperty;
+
+    private EntityColumns(String table, Map<String, String> columnsByProperty, Map<String, Class<?>> typesByProperty) {
+        this.table = table;
+        this.columnsByProperty = Collections.unmodifiableMap(columnsByProperty);
+        this.typesByProperty = Collections.unmodifiableMap(typesByProperty);
+    }
+
+    /**
+     * Returns the column metadata of the given entity class.
+     *
+     * @param entityClass the entity class annotated with {@link Table}
+     * @return the cached column metadata
+     */
+    public static EntityColumns of(Class<?> entityClass) {
+        return CACHE.computeIfAbsent(entityClass, EntityColumns::resolve);
+    }
+
+    /**
+     * @return the table name
+     */
+    public String table() {
+        return table;
+    }
+
+    /**
+     * @return the entity property names in declaration order
+     */
+    public Set<String> properties() {
+        return columnsByProperty.keySet();
+    }
+
+    /**
+     * Returns the column mapped by the given property.
+     *
+     * @param property the entity property name
+     * @return the column name, or {@code null} if the property is not mapped
+     */
+    public String column(String property) {
+        return columnsByProperty.get(property);
+    }
+
+    /**
+     * Returns the Java type of the given property.
+     *
+     * @param property the entity property name
+     * @return the property type, or {@code null} if the property is not mapped
+     */
+    public Class<?> type(String property) {
+        return typesByProperty.get(property);
+    }
+
+    private static EntityColumns resolve(Class<?> entityClass) {
+        Table table = entityClass.getAnnotation(Table.class);
+        if (table == null) {
+            throw new IllegalArgumentException(entityClass.getSimpleName() + " is not a mapped entity");
+        }
+        Map<String, String> columns = new LinkedHashMap<>();
+        Map<String, Class<?>> types = new LinkedHashMap<>();
+        ReflectionUtils.doWithFields(entityClass, field -> {
+            Column column = field.getAnnotation(Column.class);
+            columns.put(field.getName(), column != null ? column.value() : toSnakeCase(field.getName()));
+            types.put(field.getName(), field.getType());
+        }, field -> !Modifier.isStatic(field.getModifiers()));
+        return new EntityColumns(table.value(), columns, types);
+    }
+
+    private static String toSnakeCase(String property) {
+        StringBuilder builder = new StringBuilder(property.length() + 4);
+        for (char c : property.toCharArray()) {
+            if (Character.isUpperCase(c)) {
+                builder.append('_').append(Character.toLowerCase(c));
+            } else {
+                builder.append(c);
+            }
+        }
+        return builder.toString();
+    }
+}
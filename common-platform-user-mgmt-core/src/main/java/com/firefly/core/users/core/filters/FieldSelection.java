@@ -0,0 +1,142 @@
+/*
+ * Copyright 2025 Firefly Software Solutions Inc
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.firefly.core.users.core.filters;
+
+import com.firefly.common.core.queries.PaginationResponse;
+import org.springframework.beans.BeanUtils;
+import org.springframework.util.ReflectionUtils;
+
+import java.beans.PropertyDescriptor;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A sparse fieldset requested through the {@code fields} parameter, e.g. {@code fields=id,fullName,email}.
+ * Narrows both the selected columns and the serialized properties of a DTO.
+ */
+public final class FieldSelection {
+
+    private final Class<?> dtoClass;
+    private final Map<String, Method> readers;
+
+    private FieldSelection(Class<?> dtoClass, Map<String, Method> readers) {
+        this.dtoClass = dtoClass;
+        this.readers = readers;
+    }
+
+    /**
+     * Parses a comma-separated list of DTO property names.
+     *
+     * @param fields the comma-separated property names
+     * @param dtoClass the DTO class the properties belong to
+     * @return the parsed selection
+     * @throws IllegalArgumentException if the list is empty or names an unknown property
+     */
+    public static FieldSelection parse(String fields, Class<?> dtoClass) {
+        Map<String, Method> readers = new LinkedHashMap<>();
+        if (fields != null) {
+            for (String field : fields.split(",")) {
+                String name = field.trim();
+                if (name.isEmpty()) {
+                    continue;
+                }
+                PropertyDescriptor descriptor = BeanUtils.getPropertyDescriptor(dtoClass, name);
+                if (descriptor == null || descriptor.getReadMethod() == null || "class".equals(name)) {
+                    throw new IllegalArgumentException("Unknown field '" + name + "' for " + dtoClass.getSimpleName());
+                }
+                readers.put(name, descriptor.getReadMethod());
+            }
+        }
+        if (readers.isEmpty()) {
+            throw new IllegalArgumentException("At least one field must be requested for " + dtoClass.getSimpleName());
+        }
+        return new FieldSelection(dtoClass, readers);
+    }
+
+    /**
+     * @return the selected property names in request order
+     */
+    public List<String> properties() {
+        return new ArrayList<>(readers.keySet());
+    }
+
+    /**
+     * Resolves the selected properties to the columns of the given entity.
+     *
+     * @param entityClass the entity backing the DTO
+     * @return the column names to select
+     * @throws IllegalArgumentException if a selected property is not stored in the entity table
+     */
+    public List<String> columns(Class<?> entityClass) {
+        EntityColumns entity = EntityColumns.of(entityClass);
+        List<String> columns = new ArrayList<>(readers.size());
+        for (String property : readers.keySet()) {
+            String column = entity.column(property);
+            if (column == null) {
+                throw new IllegalArgumentException("Field '" + property + "' of " + dtoClass.getSimpleName()
+                        + " cannot be selected");
+            }
+            columns.add(column);
+        }
+        return columns;
+    }
+
+    /**
+     * Copies the selected properties of a DTO into an ordered map for serialization.
+     *
+     * @param dto the DTO to project
+     * @return the selected properties and their values
+     */
+    public Map<String, Object> project(Object dto) {
+        Map<String, Object> projection = new LinkedHashMap<>(readers.size() * 2);
+        readers.forEach((name, reader) -> projection.put(name, ReflectionUtils.invokeMethod(reader, dto)));
+        return projection;
+    }
+
+    /**
+     * Projects every DTO of a page, keeping the pagination and count metadata.
+     *
+     * @param page the page to project
+     * @return the projected page
+     */
+    public PaginationResponse<Map<String, Object>> projectPage(PaginationResponse<?> page) {
+        List<Map<String, Object>> content = new ArrayList<>(page.getContent().size());
+        for (Object dto : page.getContent()) {
+            content.add(project(dto));
+        }
+        if (page instanceof CountedPaginationResponse<?> counted) {
+            CountedPaginationResponse<Map<String, Object>> projected = new CountedPaginationResponse<>();
+            projected.setContent(content);
+            projected.setTotalElements(counted.getTotalElements());
+            projected.setTotalPages(counted.getTotalPages());
+            projected.setCurrentPage(counted.getCurrentPage());
+            projected.setCountStrategy(counted.getCountStrategy());
+            projected.setHasNext(counted.getHasNext());
+            return projected;
+        }
+        return PaginationResponse.<Map<String, Object>>builder()
+                .content(content)
+                .totalElements(page.getTotalElements())
+                .totalPages(page.getTotalPages())
+                .currentPage(page.getCurrentPage())
+                .build();
+    }
+}
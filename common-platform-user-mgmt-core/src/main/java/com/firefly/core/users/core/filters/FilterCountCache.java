@@ -0,0 +1,87 @@
+/*
+ * Copyright 2025 Firefly Software Solutions Inc
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.firefly.core.users.core.filters;
+
+import com.firefly.core.users.core.cache.LocalCache;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Short-lived cache of exact filter counts, keyed by table and filter values.
+ * Any change to a table evicts all of its counts, since the change may move records in or out of any filter.
+ */
+@Component
+public class FilterCountCache implements LocalCache {
+
+    @Value("${user-mgmt.filter.count-cache.ttl:PT30S}")
+    private Duration ttl;
+
+    @Value("${user-mgmt.filter.count-cache.max-entries:10000}")
+    private int maxEntries;
+
+    private final Map<String, Map<String, CachedCount>> counts = new ConcurrentHashMap<>();
+
+    /**
+     * Returns the cached count for a key, loading and caching it when absent or expired.
+     *
+     * @param table the table counted
+     * @param key the query and filter values of the count
+     * @param loader the exact count query
+     * @return a Mono emitting the count
+     */
+    public Mono<Long> get(String table, String key, Supplier<Mono<Long>> loader) {
+        Map<String, CachedCount> tableCounts = counts.computeIfAbsent(table, t -> new ConcurrentHashMap<>());
+        long now = System.nanoTime();
+        CachedCount cached = tableCounts.get(key);
+        if (cached != null && cached.expiresAt() - now > 0) {
+            return Mono.just(cached.count());
+        }
+        return loader.get().doOnNext(count -> {
+            if (tableCounts.size() >= maxEntries) {
+                tableCounts.entrySet().removeIf(entry -> entry.getValue().expiresAt() - now <= 0);
+                if (tableCounts.size() >= maxEntries) {
+                    tableCounts.clear();
+                }
+            }
+            tableCounts.put(key, new CachedCount(count, now + ttl.toNanos()));
+        });
+    }
+
+    @Override
+    public void evict(String entity, UUID id) {
+        Map<String, CachedCount> tableCounts = counts.get(entity);
+        if (tableCounts != null) {
+            tableCounts.clear();
+        }
+    }
+
+    @Override
+    public void evictAll() {
+        counts.values().forEach(Map::clear);
+    }
+
+    private record CachedCount(long count, long expiresAt) {
+    }
+}
@@ -0,0 +1,202 @@
+/*
+ * Copyright 2025 Firefly Software Solutions Inc
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.firefly.core.users.core.filters;
+
+import com.firefly.common.core.filters.FilterRequest;
+import com.firefly.common.core.queries.PaginationRequest;
+import com.firefly.common.core.queries.PaginationResponse;
+import com.firefly.core.users.interfaces.enums.CountStrategyEnum;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.r2dbc.core.R2dbcEntityTemplate;
+import org.springframework.data.relational.core.query.Criteria;
+import org.springframework.data.relational.core.query.Query;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Function;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Executes {@link FilterRequest}s with a selectable column list and {@link CountStrategyEnum}.
+ * Every path runs SQL compiled once per filter shape by {@link FilterTemplateCache}, so the count strategy,
+ * the selected columns and streaming never change which rows match.
+ */
+@Component
+public class FilterQueryExecutor {
+
+    private static final int DEFAULT_PAGE_SIZE = 10;
+
+    private static final Pattern PLAN_ROWS = Pattern.compile("rows=(\\d+)");
+
+    @Value("${user-mgmt.filter.stream.fetch-size:500}")
+    private int streamFetchSize;
+
+    @Autowired
+    private R2dbcEntityTemplate template;
+
+    @Autowired
+    private DatabaseClient databaseClient;
+
+    @Autowired
+    private FilterCountCache countCache;
+
+    @Autowired
+    private FilterTemplateCache templates;
+
+    /**
+     * Finds an entity by ID reading only the given columns.
+     *
+     * @param entityClass the entity class
+     * @param id the entity ID
+     * @param columns the columns to read, or an empty list for all columns
+     * @param toDTO the entity to DTO conversion
+     * @return a Mono emitting the DTO, or empty if not found
+     */
+    public <E, D> Mono<D> findById(Class<E> entityClass, UUID id, List<String> columns, Function<E, D> toDTO) {
+        Query query = Query.query(Criteria.where("id").is(id)).columns(columns);
+        return template.selectOne(query, entityClass).map(toDTO);
+    }
+
+    /**
+     * Runs a filter request over all columns using the given count strategy.
+     *
+     * @param entityClass the entity class
+     * @param filterRequest the filter criteria and pagination
+     * @param countStrategy how to compute the total, {@code null} meaning exact
+     * @param toDTO the entity to DTO conversion
+     * @return a Mono emitting the requested page
+     */
+    public <E, D> Mono<PaginationResponse<D>> filter(Class<E> entityClass, FilterRequest<D> filterRequest,
+                                                     CountStrategyEnum countStrategy, Function<E, D> toDTO) {
+        return filter(entityClass, filterRequest, List.of(), countStrategy, toDTO);
+    }
+
+    /**
+     * Runs a filter request reading only the given columns.
+     *
+     * @param entityClass the entity class
+     * @param filterRequest the filter criteria and pagination
+     * @param columns the columns to read, or an empty list for all columns
+     * @param countStrategy how to compute the total, {@code null} meaning exact
+     * @param toDTO the entity to DTO conversion
+     * @return a Mono emitting the requested page
+     */
+    public <E, D> Mono<PaginationResponse<D>> filter(Class<E> entityClass, FilterRequest<D> filterRequest,
+                                                     List<String> columns, CountStrategyEnum countStrategy,
+                                                     Function<E, D> toDTO) {
+        CountStrategyEnum strategy = countStrategy != null ? countStrategy : CountStrategyEnum.EXACT;
+        PageRequest pageRequest = pageRequest(filterRequest.getPagination());
+        int pageSize = pageRequest.getPageSize();
+        FilterTemplateCache.FilterQuery filter = templates.get(entityClass, filterRequest, columns, pageRequest.getSort());
+        FilterQueryTemplate query = filter.template();
+        List<Object> values = filter.values();
+
+        // One extra row tells whether a next page exists without relying on the total
+        Mono<List<D>> rows = query.select(databaseClient, values, pageSize + 1, pageRequest.getOffset())
+                .map((row, metadata) -> template.getConverter().read(entityClass, row, metadata))
+                .all()
+                .map(toDTO)
+                .collectList();
+        Mono<Long> total = strategy == CountStrategyEnum.NONE
+                ? Mono.just(-1L)
+                : count(EntityColumns.of(entityClass), query, values, strategy);
+
+        return rows.zipWith(total)
+                .map(result -> {
+                    List<D> content = result.getT1();
+                    boolean hasNext = content.size() > pageSize;
+                    return CountedPaginationResponse.of(hasNext ? content.subList(0, pageSize) : content,
+                            result.getT2(), pageRequest.getPageNumber(), pageSize, strategy, hasNext);
+                });
+    }
+
+    /**
+     * Streams every row matching a filter request from a single query, ignoring its page window.
+     * The rows are those of the paged query for the same request, fetched from the server in batches as
+     * downstream demand arrives, and no total is counted.
+     *
+     * @param entityClass the entity class
+     * @param filterRequest the filter criteria and sort
+     * @param toDTO the entity to DTO conversion
+     * @return a Flux of the matching DTOs
+     */
+    public <E, D> Flux<D> stream(Class<E> entityClass, FilterRequest<D> filterRequest, Function<E, D> toDTO) {
+        Sort sort = pageRequest(filterRequest.getPagination()).getSort();
+        FilterTemplateCache.FilterQuery filter = templates.get(entityClass, filterRequest, List.of(), sort);
+        return filter.template().stream(databaseClient, filter.values())
+                .filter(statement -> statement.fetchSize(streamFetchSize))
+                .map((row, metadata) -> template.getConverter().read(entityClass, row, metadata))
+                .all()
+                .map(toDTO);
+    }
+
+    private Mono<Long> count(EntityColumns entity, FilterQueryTemplate query, List<Object> values,
+                             CountStrategyEnum strategy) {
+        Mono<Long> exact = Mono.defer(() -> query.count(databaseClient, values)
+                .map(row -> row.get(0, Long.class))
+                .first());
+        return switch (strategy) {
+            case CACHED -> countCache.get(entity.table(), query.countSql() + values, () -> exact);
+            case APPROXIMATE -> estimate(entity, query, values).switchIfEmpty(exact);
+            default -> exact;
+        };
+    }
+
+    /**
+     * Estimates the row count from table statistics or, for filtered queries, from the planner.
+     * Completes empty when no estimate is available, e.g. for a table that was never analyzed.
+     */
+    private Mono<Long> estimate(EntityColumns entity, FilterQueryTemplate query, List<Object> values) {
+        if (!query.isFiltered()) {
+            return databaseClient.sql("SELECT reltuples::bigint FROM pg_class WHERE oid = to_regclass($1)")
+                    .bind(0, entity.table())
+                    .map(row -> row.get(0, Long.class))
+                    .first()
+                    .filter(estimate -> estimate >= 0);
+        }
+        return query.explain(databaseClient, values)
+                .map(row -> row.get(0, String.class))
+                .first()
+                .mapNotNull(plan -> {
+                    Matcher matcher = PLAN_ROWS.matcher(plan);
+                    return matcher.find() ? Long.parseLong(matcher.group(1)) : null;
+                });
+    }
+
+    private static PageRequest pageRequest(PaginationRequest pagination) {
+        if (pagination == null) {
+            return PageRequest.of(0, DEFAULT_PAGE_SIZE);
+        }
+        int size = pagination.getPageSize() > 0 ? pagination.getPageSize() : DEFAULT_PAGE_SIZE;
+        if (pagination.getSortBy() == null || pagination.getSortBy().isBlank()) {
+            return PageRequest.of(pagination.getPageNumber(), size);
+        }
+        Sort.Direction direction = pagination.getSortDirection() != null
+                ? Sort.Direction.fromString(pagination.getSortDirection())
+                : Sort.Direction.DESC;
+        return PageRequest.of(pagination.getPageNumber(), size, Sort.by(direction, pagination.getSortBy()));
+    }
+}
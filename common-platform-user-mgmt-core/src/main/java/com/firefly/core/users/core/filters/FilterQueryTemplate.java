@@ -0,0 +1,212 @@
+/*
+ * Copyright 2025 Firefly Software Solutions Inc
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.firefly.core.users.core.filters;
+
+import org.springframework.data.domain.Sort;
+import org.springframework.r2dbc.core.DatabaseClient;
+
+import java.lang.reflect.Method;
+import java.util.List;
+
+/**
+ * SQL compiled once for a filter shape: the entity, the conditions of the filter, the selected columns and
+ * the sort. Requests of the same shape only differ in their bind values, and every query of a template shares
+ * the same {@code WHERE} clause.
+ */
+public final class FilterQueryTemplate {
+
+    private final List<Condition> conditions;
+    private final String selectSql;
+    private final String streamSql;
+    private final String countSql;
+    private final String explainSql;
+
+    private FilterQueryTemplate(List<Condition> conditions, String selectSql, String streamSql, String countSql,
+                                String explainSql) {
+        this.conditions = conditions;
+        this.selectSql = selectSql;
+        this.streamSql = streamSql;
+        this.countSql = countSql;
+        this.explainSql = explainSql;
+    }
+
+    /**
+     * Compiles the SQL for a filter shape.
+     *
+     * @param entity the entity column metadata
+     * @param conditions the conditions of the filter, in bind order
+     * @param columns the columns to read, or an empty list for all columns
+     * @param sort the sort of the page query
+     * @return the compiled template
+     * @throws IllegalArgumentException if the sort names a property that is not stored in the entity table
+     */
+    static FilterQueryTemplate compile(EntityColumns entity, List<Condition> conditions, List<String> columns,
+                                       Sort sort) {
+        StringBuilder where = new StringBuilder();
+        for (int i = 0; i < conditions.size(); i++) {
+            where.append(i == 0 ? " WHERE " : " AND ")
+                    .append(conditions.get(i).operator().render(conditions.get(i).column(), i + 1));
+        }
+
+        StringBuilder select = new StringBuilder("SELECT ")
+                .append(columns.isEmpty() ? "*" : String.join(", ", columns))
+                .append(" FROM ").append(entity.table())
+                .append(where);
+        String separator = " ORDER BY ";
+        for (Sort.Order order : sort) {
+            String column = entity.column(order.getProperty());
+            if (column == null) {
+                throw new IllegalArgumentException("Unknown sort property '" + order.getProperty() + "'");
+            }
+            select.append(separator).append(column).append(order.isAscending() ? " ASC" : " DESC");
+            separator = ", ";
+        }
+        String stream = select.toString();
+        select.append(" LIMIT $").append(conditions.size() + 1)
+                .append(" OFFSET $").append(conditions.size() + 2);
+
+        return new FilterQueryTemplate(List.copyOf(conditions), select.toString(), stream,
+                "SELECT COUNT(*) FROM " + entity.table() + where,
+                "EXPLAIN SELECT 1 FROM " + entity.table() + where);
+    }
+
+    /**
+     * Binds filter values and the page window to the page query.
+     *
+     * @param client the database client
+     * @param values the values of the conditions, in template order
+     * @param limit the maximum number of rows to read
+     * @param offset the number of rows to skip
+     * @return the bound statement
+     */
+    public DatabaseClient.GenericExecuteSpec select(DatabaseClient client, List<Object> values, int limit, long offset) {
+        return bind(client.sql(selectSql), values)
+                .bind(values.size(), limit)
+                .bind(values.size() + 1, offset);
+    }
+
+    /**
+     * Binds filter values to the unpaged query used for streaming.
+     *
+     * @param client the database client
+     * @param values the values of the conditions, in template order
+     * @return the bound statement
+     */
+    public DatabaseClient.GenericExecuteSpec stream(DatabaseClient client, List<Object> values) {
+        return bind(client.sql(streamSql), values);
+    }
+
+    /**
+     * Binds filter values to the count query.
+     *
+     * @param client the database client
+     * @param values the values of the conditions, in template order
+     * @return the bound statement
+     */
+    public DatabaseClient.GenericExecuteSpec count(DatabaseClient client, List<Object> values) {
+        return bind(client.sql(countSql), values);
+    }
+
+    /**
+     * Binds filter values to the {@code EXPLAIN} of the filtered query.
+     *
+     * @param client the database client
+     * @param values the values of the conditions, in template order
+     * @return the bound statement
+     */
+    public DatabaseClient.GenericExecuteSpec explain(DatabaseClient client, List<Object> values) {
+        return bind(client.sql(explainSql), values);
+    }
+
+    /**
+     * @return whether the template has a {@code WHERE} clause
+     */
+    public boolean isFiltered() {
+        return !conditions.isEmpty();
+    }
+
+    /**
+     * @return the page query
+     */
+    public String selectSql() {
+        return selectSql;
+    }
+
+    /**
+     * @return the unpaged query used for streaming
+     */
+    public String streamSql() {
+        return streamSql;
+    }
+
+    /**
+     * @return the count query
+     */
+    public String countSql() {
+        return countSql;
+    }
+
+    private static DatabaseClient.GenericExecuteSpec bind(DatabaseClient.GenericExecuteSpec spec, List<Object> values) {
+        for (int i = 0; i < values.size(); i++) {
+            spec = spec.bind(i, values.get(i));
+        }
+        return spec;
+    }
+
+    /**
+     * A filter DTO property that maps to an entity column.
+     *
+     * @param name the property name
+     * @param column the column name
+     * @param reader the DTO getter
+     */
+    record FilterProperty(String name, String column, Method reader) {
+    }
+
+    /**
+     * A comparison of a column with one bind value.
+     *
+     * @param property the entity property name
+     * @param column the column name
+     * @param operator the comparison
+     */
+    record Condition(String property, String column, Operator operator) {
+    }
+
+    /**
+     * Comparisons a filter request can express: substring matches of string {@code filters}, optionally ignoring
+     * case, equality on other {@code filters}, and the inclusive bounds of {@code rangeFilters}.
+     */
+    enum Operator {
+        EQUALS("%s = $%d"),
+        CONTAINS("%s LIKE $%d"),
+        CONTAINS_IGNORE_CASE("%s ILIKE $%d"),
+        AT_LEAST("%s >= $%d"),
+        AT_MOST("%s <= $%d");
+
+        private final String format;
+
+        Operator(String format) {
+            this.format = format;
+        }
+
+        String render(String column, int parameter) {
+            return String.format(format, column, parameter);
+        }
+    }
+}
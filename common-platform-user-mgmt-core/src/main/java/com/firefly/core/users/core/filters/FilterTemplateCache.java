@@ -0,0 +1,217 @@
+/*
+ * Copyright 2025 Firefly Software Solutions Inc
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.firefly.core.users.core.filters;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.firefly.common.core.filters.FilterRequest;
+import com.firefly.core.users.core.filters.FilterQueryTemplate.Condition;
+import com.firefly.core.users.core.filters.FilterQueryTemplate.FilterProperty;
+import com.firefly.core.users.core.filters.FilterQueryTemplate.Operator;
+import com.firefly.core.utils.annotations.FilterableId;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.BeanUtils;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Component;
+import org.springframework.util.ReflectionUtils;
+
+import java.beans.PropertyDescriptor;
+import java.lang.reflect.Field;
+import java.time.temporal.Temporal;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Per-entity cache of {@link FilterQueryTemplate}s keyed by filter shape.
+ * The filterable properties of each DTO, including the {@link FilterableId} check on UUID fields,
+ * are resolved once; later requests only read the property values and range bounds to find their shape.
+ */
+@Component
+public class FilterTemplateCache {
+
+    @Value("${user-mgmt.filter.template-cache.max-entries:1000}")
+    private int maxEntries;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private final Map<TemplateKey, List<FilterProperty>> filterableProperties = new ConcurrentHashMap<>();
+
+    // Access-ordered so that a full cache evicts the least recently used shape
+    private final Map<FilterShape, FilterQueryTemplate> templates = Collections.synchronizedMap(
+            new LinkedHashMap<>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<FilterShape, FilterQueryTemplate> eldest) {
+                    return size() > maxEntries;
+                }
+            });
+
+    private Counter hits;
+
+    private Counter misses;
+
+    private Timer compileTimer;
+
+    @PostConstruct
+    void registerMetrics() {
+        hits = meterRegistry.counter("user_mgmt.filter.template.cache", "result", "hit");
+        misses = meterRegistry.counter("user_mgmt.filter.template.cache", "result", "miss");
+        compileTimer = meterRegistry.timer("user_mgmt.filter.template.compile");
+        meterRegistry.gaugeMapSize("user_mgmt.filter.template.cache.size", List.of(), templates);
+    }
+
+    /**
+     * Returns the template for the shape of a filter request, compiling it on first use, with its bind values.
+     * As with {@code FilterUtils}, non-null string {@code filters} properties match any value containing them,
+     * ignoring case when {@code options.caseInsensitiveStrings} is set, other properties are matched by equality,
+     * and {@code rangeFilters} bounds are inclusive.
+     *
+     * @param entityClass the entity class
+     * @param filterRequest the filter request
+     * @param columns the columns to read, or an empty list for all columns
+     * @param sort the sort of the page query
+     * @return the compiled template and its bind values
+     * @throws IllegalArgumentException if a range names an unknown property or has a bound of the wrong type
+     */
+    public FilterQuery get(Class<?> entityClass, FilterRequest<?> filterRequest, List<String> columns, Sort sort) {
+        List<Condition> conditions = new ArrayList<>();
+        List<Object> values = new ArrayList<>();
+        Object filters = filterRequest.getFilters();
+        if (filters != null) {
+            boolean ignoreCase = filterRequest.getOptions() != null
+                    && Boolean.TRUE.equals(filterRequest.getOptions().getCaseInsensitiveStrings());
+            for (FilterProperty property : filterableProperties(entityClass, filters.getClass())) {
+                Object value = ReflectionUtils.invokeMethod(property.reader(), filters);
+                if (value instanceof String string) {
+                    conditions.add(new Condition(property.name(), property.column(),
+                            ignoreCase ? Operator.CONTAINS_IGNORE_CASE : Operator.CONTAINS));
+                    values.add(containsPattern(string));
+                } else if (value != null) {
+                    conditions.add(new Condition(property.name(), property.column(), Operator.EQUALS));
+                    values.add(bindValue(value));
+                }
+            }
+        }
+        if (filterRequest.getRangeFilters() != null && filterRequest.getRangeFilters().getRanges() != null) {
+            EntityColumns entity = EntityColumns.of(entityClass);
+            // Sorted so that the same ranges always produce the same shape
+            for (var range : new TreeMap<>(filterRequest.getRangeFilters().getRanges()).entrySet()) {
+                String column = entity.column(range.getKey());
+                if (column == null) {
+                    throw new IllegalArgumentException("Unknown range property '" + range.getKey() + "'");
+                }
+                if (range.getValue() == null) {
+                    continue;
+                }
+                Class<?> type = entity.type(range.getKey());
+                if (range.getValue().getFrom() != null) {
+                    conditions.add(new Condition(range.getKey(), column, Operator.AT_LEAST));
+                    values.add(bindValue(objectMapper.convertValue(range.getValue().getFrom(), type)));
+                }
+                if (range.getValue().getTo() != null) {
+                    conditions.add(new Condition(range.getKey(), column, Operator.AT_MOST));
+                    values.add(bindValue(objectMapper.convertValue(range.getValue().getTo(), type)));
+                }
+            }
+        }
+        FilterShape shape = new FilterShape(entityClass, conditions, columns, sort);
+
+        FilterQueryTemplate template = templates.get(shape);
+        if (template != null) {
+            hits.increment();
+            return new FilterQuery(template, values);
+        }
+        misses.increment();
+        FilterQueryTemplate compiled = compileTimer.record(() -> FilterQueryTemplate.compile(
+                EntityColumns.of(entityClass), conditions, columns, sort));
+        templates.put(shape, compiled);
+        return new FilterQuery(compiled, values);
+    }
+
+    private List<FilterProperty> filterableProperties(Class<?> entityClass, Class<?> dtoClass) {
+        return filterableProperties.computeIfAbsent(new TemplateKey(entityClass, dtoClass), key -> {
+            EntityColumns entity = EntityColumns.of(entityClass);
+            List<FilterProperty> properties = new ArrayList<>();
+            for (String name : entity.properties()) {
+                PropertyDescriptor descriptor = BeanUtils.getPropertyDescriptor(dtoClass, name);
+                if (descriptor != null && descriptor.getReadMethod() != null && isFilterable(dtoClass, name)) {
+                    properties.add(new FilterProperty(name, entity.column(name), descriptor.getReadMethod()));
+                }
+            }
+            return List.copyOf(properties);
+        });
+    }
+
+    private static boolean isFilterable(Class<?> dtoClass, String property) {
+        Field field = ReflectionUtils.findField(dtoClass, property);
+        if (field == null) {
+            return false;
+        }
+        Class<?> type = field.getType();
+        if (type == UUID.class) {
+            return field.isAnnotationPresent(FilterableId.class);
+        }
+        return type == String.class || type == Boolean.class || type.isEnum()
+                || Number.class.isAssignableFrom(type) || Temporal.class.isAssignableFrom(type);
+    }
+
+    // LIKE pattern matching the value anywhere, with its own wildcards escaped
+    private static String containsPattern(String value) {
+        StringBuilder pattern = new StringBuilder(value.length() + 2).append('%');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '%' || c == '_' || c == '\\') {
+                pattern.append('\\');
+            }
+            pattern.append(c);
+        }
+        return pattern.append('%').toString();
+    }
+
+    private static Object bindValue(Object value) {
+        return value instanceof Enum<?> e ? e.name() : value;
+    }
+
+    /**
+     * A compiled template with the bind values of one request.
+     *
+     * @param template the compiled template
+     * @param values the bind values, in template order
+     */
+    public record FilterQuery(FilterQueryTemplate template, List<Object> values) {
+    }
+
+    private record TemplateKey(Class<?> entityClass, Class<?> dtoClass) {
+    }
+
+    private record FilterShape(Class<?> entityClass, List<Condition> conditions, List<String> columns, Sort sort) {
+    }
+}
@@ -0,0 +1,47 @@
+/*
+ * Copyright 2025 Firefly Software Solutions Inc
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.firefly.core.users.core.idempotency;
+
+import com.firefly.core.users.interfaces.dtos.IdempotentResponseDTO;
+
+import java.util.UUID;
+
+/**
+ * The result of presenting an idempotency key.
+ *
+ * @param state what the caller should do
+ * @param response the stored key, or {@code null} when the key was just locked
+ * @param lockToken the token the key was locked with when it was just locked, or {@code null}
+ */
+public record IdempotencyOutcome(State state, IdempotentResponseDTO response, UUID lockToken) {
+
+    public enum State {
+        /**
+         * The key was locked for this request, which should now execute.
+         */
+        STARTED,
+        /**
+         * Another request with the key is still executing.
+         */
+        IN_PROGRESS,
+        /**
+         * The key has a stored response to replay.
+         */
+        REPLAY
+    }
+}
@@ -0,0 +1,203 @@
+/*
+ * Copyright 2025 Firefly Software Solutions Inc
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.firefly.core.users.core.idempotency;
+
+import com.firefly.core.users.interfaces.dtos.IdempotentResponseDTO;
+import com.firefly.core.users.models.repositories.IdempotencyKeyRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Stores the responses of requests sent with an idempotency key, scoped per caller.
+ * Keys are locked and their responses kept in the {@code idempotency_key} table; completed responses are also
+ * held in memory, since they never change, so most retries are answered without a database round trip.
+ * A request renews its lock while it runs, so another request only takes the key over once the holder has
+ * stopped, for example because its instance crashed.
+ */
+@Slf4j
+@Component
+public class IdempotencyStore {
+
+    @Value("${user-mgmt.idempotency.ttl:PT24H}")
+    private Duration ttl;
+
+    @Value("${user-mgmt.idempotency.lock-timeout:PT1M}")
+    private Duration lockTimeout;
+
+    @Value("${user-mgmt.idempotency.memory.max-entries:10000}")
+    private int maxEntries;
+
+    @Value("${user-mgmt.idempotency.purge-interval:PT10M}")
+    private Duration purgeInterval;
+
+    @Autowired
+    private IdempotencyKeyRepository repository;
+
+    private final Map<ScopedKey, IdempotentResponseDTO> completed = new ConcurrentHashMap<>();
+
+    private Disposable purge;
+
+    @PostConstruct
+    void start() {
+        purge = Flux.interval(purgeInterval)
+                .onBackpressureDrop()
+                .concatMap(tick -> repository.purgeExpired()
+                        .onErrorResume(e -> {
+                            log.warn("Purging expired idempotency keys failed", e);
+                            return Mono.just(0L);
+                        }))
+                .subscribe(purged -> completed.values().removeIf(IdempotencyStore::isExpired));
+    }
+
+    @PreDestroy
+    void stop() {
+        if (purge != null) {
+            purge.dispose();
+        }
+    }
+
+    /**
+     * Presents a key for a request.
+     *
+     * @param caller the caller the key belongs to
+     * @param key the idempotency key
+     * @param fingerprint the hash of the request
+     * @return a Mono emitting whether to execute the request, wait, or replay a stored response
+     */
+    public Mono<IdempotencyOutcome> begin(String caller, String key, String fingerprint) {
+        IdempotentResponseDTO cached = completed.get(new ScopedKey(caller, key));
+        if (cached != null && !isExpired(cached)) {
+            return Mono.just(new IdempotencyOutcome(IdempotencyOutcome.State.REPLAY, cached, null));
+        }
+        UUID token = UUID.randomUUID();
+        return repository.lock(caller, key, fingerprint, token, ttl, lockTimeout)
+                .flatMap(locked -> locked
+                        ? Mono.just(new IdempotencyOutcome(IdempotencyOutcome.State.STARTED, null, token))
+                        : repository.find(caller, key)
+                                .map(existing -> existing.getStatus() == null
+                                        ? new IdempotencyOutcome(IdempotencyOutcome.State.IN_PROGRESS, existing, null)
+                                        : new IdempotencyOutcome(IdempotencyOutcome.State.REPLAY, remember(existing),
+                                                null))
+                                // Expired between the lock attempt and the lookup; the client retries
+                                .defaultIfEmpty(new IdempotencyOutcome(IdempotencyOutcome.State.IN_PROGRESS, null,
+                                        null)));
+    }
+
+    /**
+     * Runs a request that locked a key, renewing the lock until the request completes.
+     *
+     * @param caller the caller the key belongs to
+     * @param key the idempotency key
+     * @param token the token the key was locked with
+     * @param request the request
+     * @return a Mono that completes with the request
+     */
+    public Mono<Void> hold(String caller, String key, UUID token, Mono<Void> request) {
+        return Mono.defer(() -> {
+            Disposable renewal = Flux.interval(lockTimeout.dividedBy(3))
+                    .onBackpressureDrop()
+                    .concatMap(tick -> repository.renew(caller, key, token)
+                            .onErrorResume(e -> {
+                                log.warn("Renewing idempotency key {} failed", key, e);
+                                return Mono.just(true);
+                            }))
+                    .subscribe(renewed -> {
+                        if (!renewed) {
+                            log.warn("Idempotency key {} was taken over while its request was running", key);
+                        }
+                    });
+            return request.doFinally(signal -> renewal.dispose());
+        });
+    }
+
+    /**
+     * Stores the response of a request that locked a key.
+     *
+     * @param caller the caller the key belongs to
+     * @param key the idempotency key
+     * @param token the token the key was locked with
+     * @param fingerprint the hash of the request
+     * @param status the response status
+     * @param contentType the response content type, or {@code null}
+     * @param body the response body
+     * @return a Mono that completes when the response is stored, or was not because the key was taken over
+     */
+    public Mono<Void> complete(String caller, String key, UUID token, String fingerprint, int status,
+                               String contentType, byte[] body) {
+        return repository.complete(caller, key, token, status, contentType, body)
+                .doOnNext(stored -> {
+                    if (stored) {
+                        remember(IdempotentResponseDTO.builder()
+                                .caller(caller)
+                                .idempotencyKey(key)
+                                .requestFingerprint(fingerprint)
+                                .status(status)
+                                .contentType(contentType)
+                                .body(body)
+                                .expiresAt(OffsetDateTime.now().plus(ttl))
+                                .build());
+                    } else {
+                        log.warn("Idempotency key {} was taken over, its response is not stored", key);
+                    }
+                })
+                .then();
+    }
+
+    /**
+     * Releases a key whose request failed, so a retry executes it again.
+     *
+     * @param caller the caller the key belongs to
+     * @param key the idempotency key
+     * @param token the token the key was locked with
+     * @return a Mono that completes when the key is released
+     */
+    public Mono<Void> release(String caller, String key, UUID token) {
+        return repository.release(caller, key, token);
+    }
+
+    private IdempotentResponseDTO remember(IdempotentResponseDTO response) {
+        if (completed.size() >= maxEntries) {
+            completed.values().removeIf(IdempotencyStore::isExpired);
+            if (completed.size() >= maxEntries) {
+                completed.clear();
+            }
+        }
+        completed.put(new ScopedKey(response.getCaller(), response.getIdempotencyKey()), response);
+        return response;
+    }
+
+    private static boolean isExpired(IdempotentResponseDTO response) {
+        return response.getExpiresAt() != null && response.getExpiresAt().isBefore(OffsetDateTime.now());
+    }
+
+    private record ScopedKey(String caller, String key) {
+    }
+}
@@ -0,0 +1,50 @@
+/*
+ * Copyright 2025 Firefly Software Solutions Inc
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.firefly.core.users.core.outbox;
+
+import com.firefly.core.users.interfaces.dtos.OutboxEventDTO;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.util.List;
+
+/**
+ * Publishes outbox events to in-process subscribers, for tests. Events nobody subscribes to are dropped, so it
+ * must never be enabled where the events are meant to be delivered.
+ */
+@Component
+@ConditionalOnProperty(name = "user-mgmt.outbox.publisher", havingValue = "in-process")
+public class InProcessOutboxPublisher implements OutboxPublisher {
+
+    private final Sinks.Many<OutboxEventDTO> sink = Sinks.many().multicast().directBestEffort();
+
+    @Override
+    public Mono<Void> publish(List<OutboxEventDTO> events) {
+        return Mono.fromRunnable(() -> events.forEach(sink::tryEmitNext));
+    }
+
+    /**
+     * @return the events published from now on
+     */
+    public Flux<OutboxEventDTO> events() {
+        return sink.asFlux();
+    }
+}
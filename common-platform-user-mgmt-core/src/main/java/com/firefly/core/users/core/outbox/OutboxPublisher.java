@@ -0,0 +1,38 @@
+/*
+ * Copyright 2025 Firefly Software Solutions Inc
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.firefly.core.users.core.outbox;
+
+import com.firefly.core.users.interfaces.dtos.OutboxEventDTO;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+
+/**
+ * Destination of the events drained from the outbox by {@link OutboxRelay}, e.g. a message broker.
+ * Implementations must be idempotent per event ID: a batch is published again if marking it fails.
+ */
+public interface OutboxPublisher {
+
+    /**
+     * Publishes a batch of events in order.
+     *
+     * @param events the events, ordered by ID
+     * @return a Mono that completes once every event is accepted by the destination
+     */
+    Mono<Void> publish(List<OutboxEventDTO> events);
+}
@@ -0,0 +1,158 @@
+/*
+ * Copyright 2025 Firefly Software Solutions Inc
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.firefly.core.users.core.outbox;
+
+import com.firefly.core.users.interfaces.dtos.OutboxEventDTO;
+import com.firefly.core.users.models.repositories.OutboxRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Background relay that drains the outbox to the configured {@link OutboxPublisher} and purges published events.
+ * Each batch is read, published and marked in one transaction holding the relay lease, so across all instances
+ * only one batch is in flight at a time; a failed batch stays in the outbox and is retried on the next tick,
+ * so delivery is at least once. IDs are assigned at insert rather than commit, so an event whose transaction
+ * commits late is published after events with higher IDs; events of one aggregate keep their commit order,
+ * since every write appends its event after updating the aggregate row, which it holds locked until commit.
+ * The relay only runs when an {@link OutboxPublisher} bean is configured; without one, events stay in the outbox.
+ */
+@Slf4j
+@Component
+public class OutboxRelay {
+
+    @Value("${user-mgmt.outbox.relay.enabled:true}")
+    private boolean enabled;
+
+    @Value("${user-mgmt.outbox.relay.interval:PT1S}")
+    private Duration interval;
+
+    @Value("${user-mgmt.outbox.relay.batch-size:100}")
+    private int batchSize;
+
+    @Value("${user-mgmt.outbox.retention.period:P7D}")
+    private Duration retention;
+
+    @Value("${user-mgmt.outbox.retention.interval:PT1H}")
+    private Duration purgeInterval;
+
+    @Value("${user-mgmt.outbox.retention.batch-size:1000}")
+    private int purgeBatchSize;
+
+    @Autowired
+    private OutboxRepository repository;
+
+    @Autowired(required = false)
+    private OutboxPublisher publisher;
+
+    @Autowired
+    private TransactionalOperator transactionalOperator;
+
+    private Disposable relay;
+
+    private Disposable purger;
+
+    @PostConstruct
+    void start() {
+        if (!enabled) {
+            return;
+        }
+        if (publisher == null) {
+            // Marking events published without delivering them would lose them once they are purged
+            log.warn("No OutboxPublisher is configured, outbox events are kept until one is");
+            return;
+        }
+        relay = Flux.interval(interval)
+                .onBackpressureDrop()
+                .concatMap(tick -> drain()
+                        .onErrorResume(e -> {
+                            log.warn("Outbox relay failed, retrying on next tick", e);
+                            return Mono.just(0L);
+                        }))
+                .subscribe();
+        purger = Flux.interval(purgeInterval)
+                .onBackpressureDrop()
+                .concatMap(tick -> purge()
+                        .onErrorResume(e -> {
+                            log.warn("Outbox purge failed, retrying on next tick", e);
+                            return Mono.just(0L);
+                        }))
+                .subscribe();
+    }
+
+    @PreDestroy
+    void stop() {
+        if (relay != null) {
+            relay.dispose();
+        }
+        if (purger != null) {
+            purger.dispose();
+        }
+    }
+
+    /**
+     * Drains the outbox until a batch comes back smaller than the batch size or another instance holds the lease.
+     *
+     * @return a Mono emitting the number of events published
+     */
+    public Mono<Long> drain() {
+        return drainBatch()
+                .expand(published -> published == batchSize ? drainBatch() : Mono.empty())
+                .reduce(0L, Long::sum);
+    }
+
+    /**
+     * Deletes events published longer ago than the retention period, in batches.
+     *
+     * @return a Mono emitting the number of events deleted
+     */
+    public Mono<Long> purge() {
+        return repository.deletePublishedBefore(retention, purgeBatchSize)
+                .expand(deleted -> deleted == purgeBatchSize
+                        ? repository.deletePublishedBefore(retention, purgeBatchSize)
+                        : Mono.empty())
+                .reduce(0L, Long::sum);
+    }
+
+    private Mono<Long> drainBatch() {
+        return repository.tryLease()
+                .flatMap(leased -> !leased
+                        ? Mono.just(0L)
+                        : repository.findUnpublished(batchSize)
+                                .collectList()
+                                .flatMap(events -> events.isEmpty()
+                                        ? Mono.just(0L)
+                                        : publisher.publish(events)
+                                                .then(repository.markPublished(ids(events)))))
+                .as(transactionalOperator::transactional);
+    }
+
+    private static List<Long> ids(List<OutboxEventDTO> events) {
+        return events.stream().map(OutboxEventDTO::getId).toList();
+    }
+}
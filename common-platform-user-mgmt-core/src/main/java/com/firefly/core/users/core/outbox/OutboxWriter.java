@@ -0,0 +1,84 @@
+/*
+ * Copyright 2025 Firefly Software Solutions Inc
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.firefly.core.users.core.outbox;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.firefly.core.users.core.filters.EntityColumns;
+import com.firefly.core.users.interfaces.enums.ChangeTypeEnum;
+import com.firefly.core.users.models.repositories.OutboxRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Appends domain events to the outbox from the service write paths. Runs inside the caller's
+ * transaction, so an event is stored if and only if its change commits.
+ */
+@Component
+public class OutboxWriter {
+
+    @Autowired
+    private OutboxRepository repository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    /**
+     * Appends an event for a changed record.
+     *
+     * @param entityClass the entity class of the changed record
+     * @param type the kind of change
+     * @param recordId the ID of the changed record
+     * @param data the record after the change, or {@code null} for deletions
+     * @return a Mono that completes when the event is written
+     */
+    public Mono<Void> append(Class<?> entityClass, ChangeTypeEnum type, UUID recordId, Object data) {
+        return Mono.defer(() -> repository.append(EntityColumns.of(entityClass).table(), recordId, type,
+                data != null ? toJson(data) : null));
+    }
+
+    /**
+     * Appends events of one kind for several records in one statement.
+     *
+     * @param entityClass the entity class of the changed records
+     * @param type the kind of change
+     * @param records the records after the change, by ID, in the order their events are appended
+     * @return a Mono that completes when the events are written
+     */
+    public Mono<Void> appendAll(Class<?> entityClass, ChangeTypeEnum type, Map<UUID, ?> records) {
+        if (records.isEmpty()) {
+            return Mono.empty();
+        }
+        return Mono.defer(() -> repository.appendAll(EntityColumns.of(entityClass).table(), type,
+                List.copyOf(records.keySet()),
+                records.values().stream().map(data -> data != null ? toJson(data) : null).toList()));
+    }
+
+    private String toJson(Object data) {
+        try {
+            return objectMapper.writeValueAsString(data);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to serialize outbox payload", e);
+        }
+    }
+}
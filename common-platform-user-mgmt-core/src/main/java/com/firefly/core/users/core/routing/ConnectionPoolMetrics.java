@@ -0,0 +1,60 @@
+/*
+ * Copyright 2025 Firefly Software Solutions Inc
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.firefly.core.users.core.routing;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.r2dbc.pool.ConnectionPool;
+import io.r2dbc.pool.PoolMetrics;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.function.ToDoubleFunction;
+
+/**
+ * Registers {@code user_mgmt.r2dbc.pool.*} gauges for every routed pool, tagged with the pool name.
+ */
+@Component
+public class ConnectionPoolMetrics {
+
+    @Autowired
+    private RoutingConnectionFactory connectionFactory;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @PostConstruct
+    void register() {
+        connectionFactory.getPools().forEach((route, pool) -> {
+            gauge("acquired", "Connections in use", route, pool, PoolMetrics::acquiredSize);
+            gauge("idle", "Idle connections", route, pool, PoolMetrics::idleSize);
+            gauge("pending", "Requests waiting for a connection", route, pool, PoolMetrics::pendingAcquireSize);
+            gauge("max", "Maximum pool size", route, pool, PoolMetrics::getMaxAllocatedSize);
+        });
+    }
+
+    private void gauge(String name, String description, ConnectionRoute route, ConnectionPool pool,
+                       ToDoubleFunction<PoolMetrics> value) {
+        Gauge.builder("user_mgmt.r2dbc.pool." + name, pool,
+                        p -> p.getMetrics().map(value::applyAsDouble).orElse(Double.NaN))
+                .description(description)
+                .tag("pool", route.poolName())
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,57 @@
+/*
+ * Copyright 2025 Firefly Software Solutions Inc
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.firefly.core.users.core.routing;
+
+import reactor.util.context.Context;
+
+import java.util.Locale;
+
+/**
+ * The connection pools a reactive pipeline can be routed to, selected through the Reactor context.
+ * Pipelines without a route use {@link #PRIMARY}; the bulkhead routes are separate pools on the primary.
+ */
+public enum ConnectionRoute {
+    PRIMARY,
+    REPLICA,
+    AUDIT,
+    ADMIN,
+    AUTHORIZATION;
+
+    /**
+     * The Reactor context key holding the route.
+     */
+    public static final String CONTEXT_KEY = ConnectionRoute.class.getName();
+
+    /**
+     * Returns a context that routes the connections of a pipeline to this route.
+     *
+     * @return a Context to pass to {@code contextWrite}
+     */
+    public Context context() {
+        return Context.of(CONTEXT_KEY, this);
+    }
+
+    /**
+     * Returns the pool name used in configuration and metrics.
+     *
+     * @return the lower case route name
+     */
+    public String poolName() {
+        return name().toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,118 @@
+/*
+ * Copyright 2025 Firefly Software Solutions Inc
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.firefly.core.users.core.routing;
+
+import io.r2dbc.pool.ConnectionPool;
+import io.r2dbc.pool.ConnectionPoolConfiguration;
+import io.r2dbc.spi.ConnectionFactory;
+import org.springframework.aop.Advisor;
+import org.springframework.aop.support.ComposablePointcut;
+import org.springframework.aop.support.DefaultPointcutAdvisor;
+import org.springframework.aop.support.annotation.AnnotationMatchingPointcut;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.boot.autoconfigure.r2dbc.R2dbcProperties;
+import org.springframework.boot.r2dbc.ConnectionFactoryBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.context.annotation.Role;
+import org.springframework.core.Ordered;
+import org.springframework.core.env.Environment;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Replaces the auto-configured connection factory with a {@link RoutingConnectionFactory}.
+ * The primary pool is built from {@code spring.r2dbc}; each bulkhead pool from {@code spring.r2dbc.pools.<name>},
+ * where a {@code max-size} of 0 folds the group into the primary pool; the replica pool from
+ * {@code spring.r2dbc.replica} when {@code spring.r2dbc.replica.enabled} is true.
+ */
+@Configuration
+public class ConnectionRoutingConfiguration {
+
+    private static final Map<ConnectionRoute, Integer> DEFAULT_GROUP_SIZES = Map.of(
+            ConnectionRoute.AUDIT, 4,
+            ConnectionRoute.ADMIN, 4,
+            ConnectionRoute.AUTHORIZATION, 6);
+
+    @Bean
+    @Primary
+    public RoutingConnectionFactory connectionFactory(R2dbcProperties properties, Environment environment) {
+        R2dbcProperties.Pool settings = properties.getPool();
+        ConnectionFactory primary = connect(properties.getUrl(), properties.getUsername(), properties.getPassword());
+        Map<ConnectionRoute, ConnectionPool> pools = new EnumMap<>(ConnectionRoute.class);
+        pools.put(ConnectionRoute.PRIMARY, pool(ConnectionRoute.PRIMARY, primary, settings,
+                settings.getMaxSize(), settings.getMaxAcquireTime()));
+        DEFAULT_GROUP_SIZES.forEach((route, defaultSize) -> {
+            String prefix = "spring.r2dbc.pools." + route.poolName();
+            int maxSize = environment.getProperty(prefix + ".max-size", Integer.class, defaultSize);
+            if (maxSize > 0) {
+                pools.put(route, pool(route, primary, settings, maxSize,
+                        environment.getProperty(prefix + ".max-acquire-time", Duration.class,
+                                settings.getMaxAcquireTime())));
+            }
+        });
+        if (environment.getProperty("spring.r2dbc.replica.enabled", Boolean.class, false)) {
+            String url = environment.getRequiredProperty("spring.r2dbc.replica.url");
+            String username = environment.getProperty("spring.r2dbc.replica.username", properties.getUsername());
+            String password = environment.getProperty("spring.r2dbc.replica.password", properties.getPassword());
+            int maxSize = environment.getProperty("spring.r2dbc.replica.pool.max-size", Integer.class,
+                    settings.getMaxSize());
+            pools.put(ConnectionRoute.REPLICA, pool(ConnectionRoute.REPLICA, connect(url, username, password),
+                    settings, maxSize, settings.getMaxAcquireTime()));
+        }
+        return new RoutingConnectionFactory(pools);
+    }
+
+    /**
+     * Applies {@link PoolGroup} ahead of the transaction advisor, so it wraps the transaction.
+     */
+    @Bean
+    @Role(BeanDefinition.ROLE_INFRASTRUCTURE)
+    public static Advisor poolGroupAdvisor() {
+        DefaultPointcutAdvisor advisor = new DefaultPointcutAdvisor(
+                new ComposablePointcut(new AnnotationMatchingPointcut(PoolGroup.class, true))
+                        .union(AnnotationMatchingPointcut.forMethodAnnotation(PoolGroup.class)),
+                new PoolGroupInterceptor());
+        advisor.setOrder(Ordered.HIGHEST_PRECEDENCE);
+        return advisor;
+    }
+
+    private static ConnectionFactory connect(String url, String username, String password) {
+        return ConnectionFactoryBuilder.withUrl(url)
+                .username(username)
+                .password(password)
+                .build();
+    }
+
+    private static ConnectionPool pool(ConnectionRoute route, ConnectionFactory connectionFactory,
+                                       R2dbcProperties.Pool settings, int maxSize, Duration maxAcquireTime) {
+        ConnectionPoolConfiguration.Builder builder = ConnectionPoolConfiguration.builder(connectionFactory)
+                .name(route.poolName())
+                .initialSize(Math.min(settings.getInitialSize(), maxSize))
+                .maxSize(maxSize)
+                .maxIdleTime(settings.getMaxIdleTime())
+                .validationQuery(settings.getValidationQuery());
+        if (maxAcquireTime != null) {
+            builder.maxAcquireTime(maxAcquireTime);
+        }
+        return new ConnectionPool(builder.build());
+    }
+}
@@ -0,0 +1,68 @@
+/*
+ * Copyright 2025 Firefly Software Solutions Inc
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.firefly.core.users.core.routing;
+
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import org.springframework.aop.support.AopUtils;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.util.context.Context;
+
+import java.lang.reflect.Method;
+
+/**
+ * Writes the {@link PoolGroup} route into the Reactor context of the returned publisher.
+ * It must wrap the transaction interceptor, so the route is visible when the transaction acquires its connection.
+ */
+public class PoolGroupInterceptor implements MethodInterceptor {
+
+    @Override
+    public Object invoke(MethodInvocation invocation) throws Throwable {
+        Object result = invocation.proceed();
+        PoolGroup group = findPoolGroup(invocation);
+        if (group == null) {
+            return result;
+        }
+        ConnectionRoute route = group.value();
+        if (result instanceof Mono<?> mono) {
+            return mono.contextWrite(context -> route(context, route));
+        }
+        if (result instanceof Flux<?> flux) {
+            return flux.contextWrite(context -> route(context, route));
+        }
+        return result;
+    }
+
+    private static Context route(Context context, ConnectionRoute route) {
+        if (context.getOrDefault(ConnectionRoute.CONTEXT_KEY, null) == ConnectionRoute.REPLICA) {
+            return context;
+        }
+        return context.put(ConnectionRoute.CONTEXT_KEY, route);
+    }
+
+    private static PoolGroup findPoolGroup(MethodInvocation invocation) {
+        Class<?> targetClass = invocation.getThis() != null
+                ? AopUtils.getTargetClass(invocation.getThis())
+                : invocation.getMethod().getDeclaringClass();
+        Method method = AopUtils.getMostSpecificMethod(invocation.getMethod(), targetClass);
+        PoolGroup group = AnnotatedElementUtils.findMergedAnnotation(method, PoolGroup.class);
+        return group != null ? group : AnnotatedElementUtils.findMergedAnnotation(targetClass, PoolGroup.class);
+    }
+}
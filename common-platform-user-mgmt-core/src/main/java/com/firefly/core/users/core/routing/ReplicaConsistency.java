@@ -0,0 +1,120 @@
+/*
+ * Copyright 2025 Firefly Software Solutions Inc
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.firefly.core.users.core.routing;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Read-your-writes consistency between the primary and the replica, using WAL positions (LSNs) as tokens.
+ * Writes return the primary LSN after their commit; a read presenting it is routed to the replica once the
+ * replica has replayed up to that LSN, and to the primary if it does not catch up within the maximum wait.
+ */
+@Component
+@ConditionalOnProperty(name = "spring.r2dbc.replica.enabled", havingValue = "true")
+public class ReplicaConsistency {
+
+    @Value("${user-mgmt.consistency.max-wait:PT0.5S}")
+    private Duration maxWait;
+
+    @Value("${user-mgmt.consistency.poll-interval:PT0.02S}")
+    private Duration pollInterval;
+
+    @Autowired
+    private DatabaseClient databaseClient;
+
+    private final AtomicLong replayed = new AtomicLong();
+
+    /**
+     * Returns the current WAL position of the primary, to hand out after a committed write.
+     *
+     * @return a Mono emitting the consistency token
+     */
+    public Mono<String> currentToken() {
+        return databaseClient.sql("SELECT pg_current_wal_lsn()::text")
+                .map(row -> row.get(0, String.class))
+                .first()
+                .contextWrite(ConnectionRoute.PRIMARY.context());
+    }
+
+    /**
+     * Chooses the route for a read.
+     *
+     * @param token the consistency token presented by the client, or {@code null}
+     * @return a Mono emitting {@link ConnectionRoute#REPLICA} when the replica has replayed the token,
+     *         and {@link ConnectionRoute#PRIMARY} otherwise
+     */
+    public Mono<ConnectionRoute> routeFor(String token) {
+        if (token == null || token.isBlank()) {
+            return Mono.just(ConnectionRoute.REPLICA);
+        }
+        long required;
+        try {
+            required = parseLsn(token);
+        } catch (IllegalArgumentException e) {
+            return Mono.just(ConnectionRoute.PRIMARY);
+        }
+        if (replayed.get() >= required) {
+            return Mono.just(ConnectionRoute.REPLICA);
+        }
+        return Flux.interval(Duration.ZERO, pollInterval)
+                .concatMap(tick -> replayedLsn())
+                .filter(lsn -> lsn >= required)
+                .next()
+                .map(lsn -> ConnectionRoute.REPLICA)
+                .timeout(maxWait, Mono.just(ConnectionRoute.PRIMARY))
+                .onErrorReturn(ConnectionRoute.PRIMARY);
+    }
+
+    private Mono<Long> replayedLsn() {
+        // pg_last_wal_replay_lsn() is null when the replica URL points at a server that is not in recovery
+        return databaseClient.sql("SELECT COALESCE(pg_last_wal_replay_lsn(), pg_current_wal_lsn())::text")
+                .map(row -> parseLsn(row.get(0, String.class)))
+                .first()
+                .doOnNext(lsn -> replayed.accumulateAndGet(lsn, Math::max))
+                .contextWrite(ConnectionRoute.REPLICA.context());
+    }
+
+    /**
+     * Parses a PostgreSQL LSN of the form {@code <hi>/<lo>} in hexadecimal.
+     *
+     * @param lsn the LSN text
+     * @return the LSN as an unsigned 64-bit position
+     */
+    static long parseLsn(String lsn) {
+        int separator = lsn.indexOf('/');
+        if (separator <= 0) {
+            throw new IllegalArgumentException("Invalid LSN: " + lsn);
+        }
+        try {
+            long hi = Long.parseLong(lsn.substring(0, separator), 16);
+            long lo = Long.parseLong(lsn.substring(separator + 1), 16);
+            return (hi << 32) | lo;
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid LSN: " + lsn, e);
+        }
+    }
+}
@@ -0,0 +1,63 @@
+/*
+ * Copyright 2025 Firefly Software Solutions Inc
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.firefly.core.users.core.routing;
+
+import io.r2dbc.pool.ConnectionPool;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.r2dbc.connection.lookup.AbstractRoutingConnectionFactory;
+import reactor.core.publisher.Mono;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Connection factory that picks a pool by the {@link ConnectionRoute} in the Reactor context of the caller.
+ * Transactions take their connection when they begin, so the route must be set outside the transactional method.
+ * Routes without a pool of their own fall back to the primary pool.
+ */
+public class RoutingConnectionFactory extends AbstractRoutingConnectionFactory implements DisposableBean {
+
+    private final Map<ConnectionRoute, ConnectionPool> pools;
+
+    public RoutingConnectionFactory(Map<ConnectionRoute, ConnectionPool> pools) {
+        this.pools = pools;
+        setTargetConnectionFactories(new HashMap<>(pools));
+        setDefaultTargetConnectionFactory(pools.get(ConnectionRoute.PRIMARY));
+        setLenientFallback(true);
+    }
+
+    @Override
+    protected Mono<Object> determineCurrentLookupKey() {
+        return Mono.deferContextual(context -> Mono.justOrEmpty(context.getOrEmpty(ConnectionRoute.CONTEXT_KEY)));
+    }
+
+    /**
+     * Returns the pools by route, for metrics.
+     *
+     * @return an unmodifiable view of the pools
+     */
+    public Map<ConnectionRoute, ConnectionPool> getPools() {
+        return Collections.unmodifiableMap(pools);
+    }
+
+    @Override
+    public void destroy() {
+        pools.values().forEach(ConnectionPool::dispose);
+    }
+}
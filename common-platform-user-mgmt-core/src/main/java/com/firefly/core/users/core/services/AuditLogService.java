@@ -19,9 +19,13 @@ package com.firefly.core.users.core.services;
 
 import com.firefly.common.core.filters.FilterRequest;
 import com.firefly.common.core.queries.PaginationResponse;
+import com.firefly.core.users.core.filters.FieldSelection;
 import com.firefly.core.users.interfaces.dtos.AuditLogDTO;
+import com.firefly.core.users.interfaces.enums.CountStrategyEnum;
 
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
+import java.util.Map;
 import java.util.UUID;
 
 /**
@@ -35,6 +39,23 @@ public interface AuditLogService {
      * @return a reactive {@code Mono} emitting a {@code PaginationResponse} containing the filtered list of audit logs
      */
     Mono<PaginationResponse<AuditLogDTO>> filterAuditLogs(FilterRequest<AuditLogDTO> filterRequest);
+
+    /**
+     * Filters the audit logs based on the given criteria, computing the total with the given strategy.
+     *
+     * @param filterRequest the request object containing filtering criteria for AuditLogDTO
+     * @param countStrategy how the total element count is computed
+     * @return a reactive {@code Mono} emitting a {@code PaginationResponse} containing the filtered list of audit logs
+     */
+    Mono<PaginationResponse<AuditLogDTO>> filterAuditLogs(FilterRequest<AuditLogDTO> filterRequest, CountStrategyEnum countStrategy);
+
+    /**
+     * Streams all audit logs matching the given criteria, ignoring pagination and without counting them.
+     *
+     * @param filterRequest the request object containing filtering criteria for AuditLogDTO
+     * @return a reactive {@code Flux} emitting the matching audit logs
+     */
+    Flux<AuditLogDTO> streamAuditLogs(FilterRequest<AuditLogDTO> filterRequest);
     
     /**
      * Creates a new audit log based on the provided information.
@@ -69,4 +90,24 @@ public interface AuditLogService {
      *         or an empty Mono if the audit log does not exist
      */
     Mono<AuditLogDTO> getAuditLogById(UUID auditLogId);
+
+    /**
+     * Filters the audit logs and returns only the selected fields of each match.
+     *
+     * @param filterRequest the request object containing filtering criteria for AuditLogDTO
+     * @param fields the fields to read and return
+     * @param countStrategy how the total element count is computed
+     * @return a reactive {@code Mono} emitting a {@code PaginationResponse} of the projected audit logs
+     */
+    Mono<PaginationResponse<Map<String, Object>>> filterAuditLogs(FilterRequest<AuditLogDTO> filterRequest, FieldSelection fields,
+                                                               CountStrategyEnum countStrategy);
+
+    /**
+     * Retrieves the selected fields of a audit log by its unique identifier.
+     *
+     * @param auditLogId the unique identifier of the audit log to retrieve
+     * @param fields the fields to read and return
+     * @return a Mono emitting the projected audit log
+     */
+    Mono<Map<String, Object>> getAuditLogById(UUID auditLogId, FieldSelection fields);
 }
\ No newline at end of file
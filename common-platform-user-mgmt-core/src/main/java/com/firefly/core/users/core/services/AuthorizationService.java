@@ -0,0 +1,85 @@
+/*
+ * Copyright 2025 Firefly Software Solutions Inc
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+
+package com.firefly.core.users.core.services;
+
+import com.firefly.core.users.interfaces.dtos.AuthorizationCheckDTO;
+import com.firefly.core.users.interfaces.dtos.AuthorizationDecisionDTO;
+import com.firefly.core.users.interfaces.dtos.PolicyDeltaDTO;
+import com.firefly.core.users.interfaces.dtos.PolicySnapshotDTO;
+import com.firefly.core.users.interfaces.dtos.ResourceScopeDTO;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Service interface for checking the permissions of users.
+ */
+public interface AuthorizationService {
+    /**
+     * Checks several permissions of a user at once, resolving the user's role assignments a single time.
+     * A permission is granted within a scope by a role assigned without a branch or distributor, or assigned
+     * in the checked branch or distributor. Inactive users are granted nothing.
+     *
+     * @param userId the unique identifier of the user account
+     * @param checks the permissions to check, each optionally within a branch or distributor
+     * @return a reactive {@code Flux} emitting one decision per check, in the order of the checks
+     */
+    Flux<AuthorizationDecisionDTO> authorizeBatch(UUID userId, List<AuthorizationCheckDTO> checks);
+
+    /**
+     * Filters resources down to those a user holds a permission for, by the branch and distributor of each.
+     * The user's role assignments are resolved once into the set of scopes granting the permission, against
+     * which the resources are matched as they stream in.
+     *
+     * @param userId the unique identifier of the user account
+     * @param permission the permission, as {@code domain:name}
+     * @param scopes the scopes of the resources to authorize
+     * @return a reactive {@code Flux} emitting the authorized scopes, in the order received
+     */
+    Flux<ResourceScopeDTO> filterAuthorizedScopes(UUID userId, String permission, Flux<ResourceScopeDTO> scopes);
+
+    /**
+     * Reads the whole authorization policy, for services authorizing users locally: the effective
+     * permissions of every role, every role assignment and the inactive users, read consistently.
+     *
+     * @return a reactive {@code Mono} emitting the snapshot and the version to read its changes from
+     */
+    Mono<PolicySnapshotDTO> getPolicySnapshot();
+
+    /**
+     * Reads the whole authorization policy into a compact binary snapshot that can be memory-mapped, with
+     * role, permission, scope and user IDs interned to ordinals, a permission bitset per role and the role
+     * assignments sorted by user.
+     *
+     * @return a reactive {@code Mono} emitting the snapshot bytes
+     */
+    Mono<byte[]> exportPolicySnapshot();
+
+    /**
+     * Reads the policy changes after a version. Changes may be delivered more than once, so they must be
+     * applied idempotently.
+     *
+     * @param since the version of the snapshot or of the last delta applied
+     * @return a reactive {@code Mono} emitting the changes and the version to continue from
+     * @throws IllegalArgumentException if the version is missing or malformed
+     */
+    Mono<PolicyDeltaDTO> getPolicyChanges(String since);
+}
\ No newline at end of file
@@ -0,0 +1,37 @@
+/*
+ * Copyright 2025 Firefly Software Solutions Inc
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.firefly.core.users.core.services;
+
+import com.firefly.core.users.interfaces.dtos.ChangeEventDTO;
+
+import reactor.core.publisher.Flux;
+import java.util.Set;
+
+/**
+ * Service interface for streaming committed changes.
+ */
+public interface ChangeStreamService {
+    /**
+     * Streams committed changes in commit order, resuming after the given event ID.
+     *
+     * @param lastEventId the ID of the last event received, or {@code null} to receive new events only
+     * @param entities the tables to stream changes of, or an empty set for all
+     * @return a reactive {@code Flux} emitting the change events
+     */
+    Flux<ChangeEventDTO> streamChanges(String lastEventId, Set<String> entities);
+}
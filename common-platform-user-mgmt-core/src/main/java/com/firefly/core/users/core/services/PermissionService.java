@@ -19,8 +19,11 @@ package com.firefly.core.users.core.services;
 
 import com.firefly.common.core.filters.FilterRequest;
 import com.firefly.common.core.queries.PaginationResponse;
+import com.firefly.core.users.interfaces.dtos.ChangeSetDTO;
 import com.firefly.core.users.interfaces.dtos.PermissionDTO;
+import com.firefly.core.users.interfaces.enums.CountStrategyEnum;
 
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 import java.util.UUID;
 
@@ -35,6 +38,23 @@ public interface PermissionService {
      * @return a reactive {@code Mono} emitting a {@code PaginationResponse} containing the filtered list of permissions
      */
     Mono<PaginationResponse<PermissionDTO>> filterPermissions(FilterRequest<PermissionDTO> filterRequest);
+
+    /**
+     * Filters the permissions based on the given criteria, computing the total with the given strategy.
+     *
+     * @param filterRequest the request object containing filtering criteria for PermissionDTO
+     * @param countStrategy how the total element count is computed
+     * @return a reactive {@code Mono} emitting a {@code PaginationResponse} containing the filtered list of permissions
+     */
+    Mono<PaginationResponse<PermissionDTO>> filterPermissions(FilterRequest<PermissionDTO> filterRequest, CountStrategyEnum countStrategy);
+
+    /**
+     * Streams all permissions matching the given criteria, ignoring pagination and without counting them.
+     *
+     * @param filterRequest the request object containing filtering criteria for PermissionDTO
+     * @return a reactive {@code Flux} emitting the matching permissions
+     */
+    Flux<PermissionDTO> streamPermissions(FilterRequest<PermissionDTO> filterRequest);
     
     /**
      * Creates a new permission based on the provided information.
@@ -69,4 +89,13 @@ public interface PermissionService {
      *         or an empty Mono if the permission does not exist
      */
     Mono<PermissionDTO> getPermissionById(UUID permissionId);
+
+    /**
+     * Retrieves the permissions changed or deleted after the given watermark.
+     *
+     * @param since the watermark returned by the previous call, or {@code null} to start from the beginning
+     * @param limit the maximum number of changed and deleted permissions, or {@code null} for the default
+     * @return a reactive {@code Mono} emitting the change set and the watermark to continue from
+     */
+    Mono<ChangeSetDTO<PermissionDTO>> getPermissionChanges(String since, Integer limit);
 }
\ No newline at end of file
@@ -19,8 +19,11 @@ package com.firefly.core.users.core.services;
 
 import com.firefly.common.core.filters.FilterRequest;
 import com.firefly.common.core.queries.PaginationResponse;
+import com.firefly.core.users.interfaces.dtos.ChangeSetDTO;
 import com.firefly.core.users.interfaces.dtos.RolePermissionDTO;
+import com.firefly.core.users.interfaces.enums.CountStrategyEnum;
 
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 import java.util.UUID;
 
@@ -35,6 +38,23 @@ public interface RolePermissionService {
      * @return a reactive {@code Mono} emitting a {@code PaginationResponse} containing the filtered list of role-permission mappings
      */
     Mono<PaginationResponse<RolePermissionDTO>> filterRolePermissions(FilterRequest<RolePermissionDTO> filterRequest);
+
+    /**
+     * Filters the role permissions based on the given criteria, computing the total with the given strategy.
+     *
+     * @param filterRequest the request object containing filtering criteria for RolePermissionDTO
+     * @param countStrategy how the total element count is computed
+     * @return a reactive {@code Mono} emitting a {@code PaginationResponse} containing the filtered list of role permissions
+     */
+    Mono<PaginationResponse<RolePermissionDTO>> filterRolePermissions(FilterRequest<RolePermissionDTO> filterRequest, CountStrategyEnum countStrategy);
+
+    /**
+     * Streams all role permissions matching the given criteria, ignoring pagination and without counting them.
+     *
+     * @param filterRequest the request object containing filtering criteria for RolePermissionDTO
+     * @return a reactive {@code Flux} emitting the matching role permissions
+     */
+    Flux<RolePermissionDTO> streamRolePermissions(FilterRequest<RolePermissionDTO> filterRequest);
     
     /**
      * Creates a new role-permission mapping based on the provided information.
@@ -69,4 +89,32 @@ public interface RolePermissionService {
      *         or an empty Mono if the role-permission mapping does not exist
      */
     Mono<RolePermissionDTO> getRolePermissionById(UUID rolePermissionId);
+
+    /**
+     * Retrieves the role permissions changed or deleted after the given watermark.
+     *
+     * @param since the watermark returned by the previous call, or {@code null} to start from the beginning
+     * @param limit the maximum number of changed and deleted role permissions, or {@code null} for the default
+     * @return a reactive {@code Mono} emitting the change set and the watermark to continue from
+     */
+    Mono<ChangeSetDTO<RolePermissionDTO>> getRolePermissionChanges(String since, Integer limit);
+
+    /**
+     * Retrieves the role-permission mappings in effect for a role: its own and those of every role it
+     * inherits from, directly or transitively.
+     *
+     * @param roleId the unique identifier of the role
+     * @return a reactive {@code Flux} emitting the effective role-permission mappings
+     */
+    Flux<RolePermissionDTO> getEffectiveRolePermissions(UUID roleId);
+
+    /**
+     * Checks whether a role is granted a permission, directly, through a wildcard grant or through the roles it
+     * inherits from. Checks are answered from the role's compiled grants, loaded on first use.
+     *
+     * @param roleId the unique identifier of the role
+     * @param permission the permission, as {@code domain:name}
+     * @return a Mono emitting whether the role is granted the permission
+     */
+    Mono<Boolean> hasPermission(UUID roleId, String permission);
 }
\ No newline at end of file
@@ -19,9 +19,14 @@ package com.firefly.core.users.core.services;
 
 import com.firefly.common.core.filters.FilterRequest;
 import com.firefly.common.core.queries.PaginationResponse;
+import com.firefly.core.users.interfaces.dtos.ChangeSetDTO;
+import com.firefly.core.users.core.filters.FieldSelection;
 import com.firefly.core.users.interfaces.dtos.RoleDTO;
+import com.firefly.core.users.interfaces.enums.CountStrategyEnum;
 
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
+import java.util.Map;
 import java.util.UUID;
 
 /**
@@ -35,6 +40,23 @@ public interface RoleService {
      * @return a reactive {@code Mono} emitting a {@code PaginationResponse} containing the filtered list of roles
      */
     Mono<PaginationResponse<RoleDTO>> filterRoles(FilterRequest<RoleDTO> filterRequest);
+
+    /**
+     * Filters the roles based on the given criteria, computing the total with the given strategy.
+     *
+     * @param filterRequest the request object containing filtering criteria for RoleDTO
+     * @param countStrategy how the total element count is computed
+     * @return a reactive {@code Mono} emitting a {@code PaginationResponse} containing the filtered list of roles
+     */
+    Mono<PaginationResponse<RoleDTO>> filterRoles(FilterRequest<RoleDTO> filterRequest, CountStrategyEnum countStrategy);
+
+    /**
+     * Streams all roles matching the given criteria, ignoring pagination and without counting them.
+     *
+     * @param filterRequest the request object containing filtering criteria for RoleDTO
+     * @return a reactive {@code Flux} emitting the matching roles
+     */
+    Flux<RoleDTO> streamRoles(FilterRequest<RoleDTO> filterRequest);
     
     /**
      * Creates a new role based on the provided information.
@@ -69,4 +91,61 @@ public interface RoleService {
      *         or an empty Mono if the role does not exist
      */
     Mono<RoleDTO> getRoleById(UUID roleId);
+
+    /**
+     * Filters the roles and returns only the selected fields of each match.
+     *
+     * @param filterRequest the request object containing filtering criteria for RoleDTO
+     * @param fields the fields to read and return
+     * @param countStrategy how the total element count is computed
+     * @return a reactive {@code Mono} emitting a {@code PaginationResponse} of the projected roles
+     */
+    Mono<PaginationResponse<Map<String, Object>>> filterRoles(FilterRequest<RoleDTO> filterRequest, FieldSelection fields,
+                                                               CountStrategyEnum countStrategy);
+
+    /**
+     * Retrieves the selected fields of a role by its unique identifier.
+     *
+     * @param roleId the unique identifier of the role to retrieve
+     * @param fields the fields to read and return
+     * @return a Mono emitting the projected role
+     */
+    Mono<Map<String, Object>> getRoleById(UUID roleId, FieldSelection fields);
+
+    /**
+     * Retrieves the roles changed or deleted after the given watermark.
+     *
+     * @param since the watermark returned by the previous call, or {@code null} to start from the beginning
+     * @param limit the maximum number of changed and deleted roles, or {@code null} for the default
+     * @return a reactive {@code Mono} emitting the change set and the watermark to continue from
+     */
+    Mono<ChangeSetDTO<RoleDTO>> getRoleChanges(String since, Integer limit);
+
+    /**
+     * Makes a role inherit the permissions of a parent role, and transitively of the parent's ancestors.
+     * Adding an existing parent does nothing.
+     *
+     * @param roleId the unique identifier of the inheriting role
+     * @param parentRoleId the unique identifier of the parent role
+     * @return a Mono that completes when the role inherits from the parent role, or errors if either role does
+     *         not exist or the parent already inherits from the role
+     */
+    Mono<Void> addParentRole(UUID roleId, UUID parentRoleId);
+
+    /**
+     * Stops a role from inheriting from a parent role. Removing a parent the role does not have does nothing.
+     *
+     * @param roleId the unique identifier of the inheriting role
+     * @param parentRoleId the unique identifier of the parent role
+     * @return a Mono that completes when the role no longer inherits from the parent role
+     */
+    Mono<Void> removeParentRole(UUID roleId, UUID parentRoleId);
+
+    /**
+     * Retrieves the roles a role directly inherits from.
+     *
+     * @param roleId the unique identifier of the inheriting role
+     * @return a reactive {@code Flux} emitting the parent roles
+     */
+    Flux<RoleDTO> getParentRoles(UUID roleId);
 }
\ No newline at end of file
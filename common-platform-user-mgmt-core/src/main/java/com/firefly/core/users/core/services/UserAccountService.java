@@ -19,9 +19,19 @@ package com.firefly.core.users.core.services;
 
 import com.firefly.common.core.filters.FilterRequest;
 import com.firefly.common.core.queries.PaginationResponse;
+import com.firefly.core.users.interfaces.dtos.BulkUpdateResultDTO;
+import com.firefly.core.users.interfaces.dtos.ChangeSetDTO;
+import com.firefly.core.users.core.filters.FieldSelection;
 import com.firefly.core.users.interfaces.dtos.UserAccountDTO;
+import com.firefly.core.users.interfaces.dtos.UserAccountImportResultDTO;
+import com.firefly.core.users.interfaces.dtos.UserAccountSelectionDTO;
+import com.firefly.core.users.interfaces.dtos.UserAccountSuggestionDTO;
+import com.firefly.core.users.interfaces.enums.CountStrategyEnum;
+import com.firefly.core.users.interfaces.enums.ImportFormatEnum;
 
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
+import java.util.Map;
 import java.util.UUID;
 
 /**
@@ -35,6 +45,23 @@ public interface UserAccountService {
      * @return a reactive {@code Mono} emitting a {@code PaginationResponse} containing the filtered list of user accounts
      */
     Mono<PaginationResponse<UserAccountDTO>> filterUserAccounts(FilterRequest<UserAccountDTO> filterRequest);
+
+    /**
+     * Filters the user accounts based on the given criteria, computing the total with the given strategy.
+     *
+     * @param filterRequest the request object containing filtering criteria for UserAccountDTO
+     * @param countStrategy how the total element count is computed
+     * @return a reactive {@code Mono} emitting a {@code PaginationResponse} containing the filtered list of user accounts
+     */
+    Mono<PaginationResponse<UserAccountDTO>> filterUserAccounts(FilterRequest<UserAccountDTO> filterRequest, CountStrategyEnum countStrategy);
+
+    /**
+     * Streams all user accounts matching the given criteria, ignoring pagination and without counting them.
+     *
+     * @param filterRequest the request object containing filtering criteria for UserAccountDTO
+     * @return a reactive {@code Flux} emitting the matching user accounts
+     */
+    Flux<UserAccountDTO> streamUserAccounts(FilterRequest<UserAccountDTO> filterRequest);
     
     /**
      * Creates a new user account based on the provided information.
@@ -69,4 +96,91 @@ public interface UserAccountService {
      *         or an empty Mono if the user account does not exist
      */
     Mono<UserAccountDTO> getUserAccountById(UUID userAccountId);
+
+    /**
+     * Filters the user accounts and returns only the selected fields of each match.
+     *
+     * @param filterRequest the request object containing filtering criteria for UserAccountDTO
+     * @param fields the fields to read and return
+     * @param countStrategy how the total element count is computed
+     * @return a reactive {@code Mono} emitting a {@code PaginationResponse} of the projected user accounts
+     */
+    Mono<PaginationResponse<Map<String, Object>>> filterUserAccounts(FilterRequest<UserAccountDTO> filterRequest, FieldSelection fields,
+                                                               CountStrategyEnum countStrategy);
+
+    /**
+     * Retrieves the selected fields of a user account by its unique identifier.
+     *
+     * @param userAccountId the unique identifier of the user account to retrieve
+     * @param fields the fields to read and return
+     * @return a Mono emitting the projected user account
+     */
+    Mono<Map<String, Object>> getUserAccountById(UUID userAccountId, FieldSelection fields);
+
+    /**
+     * Retrieves the user accounts changed or deleted after the given watermark.
+     *
+     * @param since the watermark returned by the previous call, or {@code null} to start from the beginning
+     * @param limit the maximum number of changed and deleted user accounts, or {@code null} for the default
+     * @return a reactive {@code Mono} emitting the change set and the watermark to continue from
+     */
+    Mono<ChangeSetDTO<UserAccountDTO>> getUserAccountChanges(String since, Integer limit);
+
+    /**
+     * Searches user accounts by partial name, nickname or email, best matches first.
+     *
+     * @param query the search text
+     * @param branchId the branch to search in, or {@code null} for all branches
+     * @param distributorId the distributor to search in, or {@code null} for all distributors
+     * @param isActive the active status to match, or {@code null} for both
+     * @param limit the maximum number of results, or {@code null} for the default
+     * @return a reactive {@code Flux} emitting the matching user accounts in rank order
+     */
+    Flux<UserAccountDTO> searchUserAccounts(String query, UUID branchId, UUID distributorId, Boolean isActive, Integer limit);
+
+    /**
+     * Suggests active user accounts whose full name, nickname or email has words starting with the typed text,
+     * served from memory.
+     *
+     * @param prefix the typed text; every whitespace separated term must match
+     * @param branchId the branch to suggest from, or {@code null} for all branches
+     * @param distributorId the distributor to suggest from, or {@code null} for all distributors
+     * @param limit the maximum number of suggestions, or {@code null} for the default
+     * @return a reactive {@code Flux} emitting the suggestions, exact word matches first
+     */
+    Flux<UserAccountSuggestionDTO> autocompleteUserAccounts(String prefix, UUID branchId, UUID distributorId, Integer limit);
+
+    /**
+     * Retrieves a user account by email, ignoring case.
+     *
+     * @param email the email, in any case
+     * @return a reactive {@code Mono} emitting the user account, or an error if none has the email
+     */
+    Mono<UserAccountDTO> getUserAccountByEmail(String email);
+
+    /**
+     * Imports user accounts from a CSV or NDJSON body in batches, skipping rows whose email already exists.
+     * Each batch commits on its own.
+     *
+     * @param lines the lines of the body
+     * @param format the format of the body
+     * @return a reactive {@code Flux} emitting the outcome of every row in line order
+     */
+    Flux<UserAccountImportResultDTO> importUserAccounts(Flux<String> lines, ImportFormatEnum format);
+
+    /**
+     * Activates the selected user accounts in one statement.
+     *
+     * @param selection the branch, distributor or IDs of the user accounts
+     * @return a reactive {@code Mono} emitting the number of user accounts that were inactive
+     */
+    Mono<BulkUpdateResultDTO> activateUserAccounts(UserAccountSelectionDTO selection);
+
+    /**
+     * Deactivates the selected user accounts in one statement.
+     *
+     * @param selection the branch, distributor or IDs of the user accounts
+     * @return a reactive {@code Mono} emitting the number of user accounts that were active
+     */
+    Mono<BulkUpdateResultDTO> deactivateUserAccounts(UserAccountSelectionDTO selection);
 }
\ No newline at end of file
@@ -19,8 +19,11 @@ package com.firefly.core.users.core.services;
 
 import com.firefly.common.core.filters.FilterRequest;
 import com.firefly.common.core.queries.PaginationResponse;
+import com.firefly.core.users.interfaces.dtos.ChangeSetDTO;
 import com.firefly.core.users.interfaces.dtos.UserExternalIdentityDTO;
+import com.firefly.core.users.interfaces.enums.CountStrategyEnum;
 
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 import java.util.UUID;
 
@@ -35,6 +38,23 @@ public interface UserExternalIdentityService {
      * @return a reactive {@code Mono} emitting a {@code PaginationResponse} containing the filtered list of user external identities
      */
     Mono<PaginationResponse<UserExternalIdentityDTO>> filterUserExternalIdentities(FilterRequest<UserExternalIdentityDTO> filterRequest);
+
+    /**
+     * Filters the user external identities based on the given criteria, computing the total with the given strategy.
+     *
+     * @param filterRequest the request object containing filtering criteria for UserExternalIdentityDTO
+     * @param countStrategy how the total element count is computed
+     * @return a reactive {@code Mono} emitting a {@code PaginationResponse} containing the filtered list of user external identities
+     */
+    Mono<PaginationResponse<UserExternalIdentityDTO>> filterUserExternalIdentities(FilterRequest<UserExternalIdentityDTO> filterRequest, CountStrategyEnum countStrategy);
+
+    /**
+     * Streams all user external identities matching the given criteria, ignoring pagination and without counting them.
+     *
+     * @param filterRequest the request object containing filtering criteria for UserExternalIdentityDTO
+     * @return a reactive {@code Flux} emitting the matching user external identities
+     */
+    Flux<UserExternalIdentityDTO> streamUserExternalIdentities(FilterRequest<UserExternalIdentityDTO> filterRequest);
     
     /**
      * Creates a new user external identity based on the provided information.
@@ -69,4 +89,13 @@ public interface UserExternalIdentityService {
      *         or an empty Mono if the user external identity does not exist
      */
     Mono<UserExternalIdentityDTO> getUserExternalIdentityById(UUID userExternalIdentityId);
+
+    /**
+     * Retrieves the user external identities changed or deleted after the given watermark.
+     *
+     * @param since the watermark returned by the previous call, or {@code null} to start from the beginning
+     * @param limit the maximum number of changed and deleted user external identities, or {@code null} for the default
+     * @return a reactive {@code Mono} emitting the change set and the watermark to continue from
+     */
+    Mono<ChangeSetDTO<UserExternalIdentityDTO>> getUserExternalIdentityChanges(String since, Integer limit);
 }
\ No newline at end of file
@@ -19,8 +19,11 @@ package com.firefly.core.users.core.services;
 
 import com.firefly.common.core.filters.FilterRequest;
 import com.firefly.common.core.queries.PaginationResponse;
+import com.firefly.core.users.interfaces.dtos.ChangeSetDTO;
 import com.firefly.core.users.interfaces.dtos.UserRoleDTO;
+import com.firefly.core.users.interfaces.enums.CountStrategyEnum;
 
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 import java.util.UUID;
 
@@ -35,6 +38,23 @@ public interface UserRoleService {
      * @return a reactive {@code Mono} emitting a {@code PaginationResponse} containing the filtered list of user roles
      */
     Mono<PaginationResponse<UserRoleDTO>> filterUserRoles(FilterRequest<UserRoleDTO> filterRequest);
+
+    /**
+     * Filters the user roles based on the given criteria, computing the total with the given strategy.
+     *
+     * @param filterRequest the request object containing filtering criteria for UserRoleDTO
+     * @param countStrategy how the total element count is computed
+     * @return a reactive {@code Mono} emitting a {@code PaginationResponse} containing the filtered list of user roles
+     */
+    Mono<PaginationResponse<UserRoleDTO>> filterUserRoles(FilterRequest<UserRoleDTO> filterRequest, CountStrategyEnum countStrategy);
+
+    /**
+     * Streams all user roles matching the given criteria, ignoring pagination and without counting them.
+     *
+     * @param filterRequest the request object containing filtering criteria for UserRoleDTO
+     * @return a reactive {@code Flux} emitting the matching user roles
+     */
+    Flux<UserRoleDTO> streamUserRoles(FilterRequest<UserRoleDTO> filterRequest);
     
     /**
      * Creates a new user role based on the provided information.
@@ -69,4 +89,29 @@ public interface UserRoleService {
      *         or an empty Mono if the user role does not exist
      */
     Mono<UserRoleDTO> getUserRoleById(UUID userRoleId);
+
+    /**
+     * Retrieves all role assignments of a user account.
+     *
+     * @param userAccountId the unique identifier of the user account
+     * @return a Flux emitting the {@link UserRoleDTO} assignments of the user account
+     */
+    Flux<UserRoleDTO> getUserRolesByUserAccountId(UUID userAccountId);
+
+    /**
+     * Retrieves all assignments of a role to user accounts.
+     *
+     * @param roleId the unique identifier of the role
+     * @return a Flux emitting the {@link UserRoleDTO} assignments of the role
+     */
+    Flux<UserRoleDTO> getUserRolesByRoleId(UUID roleId);
+
+    /**
+     * Retrieves the user roles changed or deleted after the given watermark.
+     *
+     * @param since the watermark returned by the previous call, or {@code null} to start from the beginning
+     * @param limit the maximum number of changed and deleted user roles, or {@code null} for the default
+     * @return a reactive {@code Mono} emitting the change set and the watermark to continue from
+     */
+    Mono<ChangeSetDTO<UserRoleDTO>> getUserRoleChanges(String since, Integer limit);
 }
\ No newline at end of file
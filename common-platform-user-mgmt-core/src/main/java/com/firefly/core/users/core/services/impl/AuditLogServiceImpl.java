@@ -18,22 +18,29 @@
 package com.firefly.core.users.core.services.impl;
 
 import com.firefly.common.core.filters.FilterRequest;
-import com.firefly.common.core.filters.FilterUtils;
 import com.firefly.common.core.queries.PaginationResponse;
+import com.firefly.core.users.core.filters.FieldSelection;
+import com.firefly.core.users.core.filters.FilterQueryExecutor;
 import com.firefly.core.users.core.mappers.AuditLogMapper;
+import com.firefly.core.users.core.routing.ConnectionRoute;
+import com.firefly.core.users.core.routing.PoolGroup;
 import com.firefly.core.users.core.services.AuditLogService;
 import com.firefly.core.users.interfaces.dtos.AuditLogDTO;
+import com.firefly.core.users.interfaces.enums.CountStrategyEnum;
 import com.firefly.core.users.models.entities.AuditLog;
 import com.firefly.core.users.models.repositories.AuditLogRepository;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
+import java.util.Map;
 import java.util.UUID;
 
 @Service
 @Transactional
+@PoolGroup(ConnectionRoute.AUDIT)
 public class AuditLogServiceImpl implements AuditLogService {
 
     @Autowired
@@ -42,14 +49,23 @@ public class AuditLogServiceImpl implements AuditLogService {
     @Autowired
     private AuditLogMapper mapper;
 
+    @Autowired
+    private FilterQueryExecutor filterQueryExecutor;
+
     @Override
     public Mono<PaginationResponse<AuditLogDTO>> filterAuditLogs(FilterRequest<AuditLogDTO> filterRequest) {
-        return FilterUtils
-                .createFilter(
-                        AuditLog.class,
-                        mapper::toDTO
-                )
-                .filter(filterRequest);
+        return filterAuditLogs(filterRequest, CountStrategyEnum.EXACT);
+    }
+
+    @Override
+    public Mono<PaginationResponse<AuditLogDTO>> filterAuditLogs(FilterRequest<AuditLogDTO> filterRequest, CountStrategyEnum countStrategy) {
+        return filterQueryExecutor.filter(AuditLog.class, filterRequest, countStrategy, mapper::toDTO);
+    }
+
+    @Override
+    @PoolGroup(ConnectionRoute.ADMIN)
+    public Flux<AuditLogDTO> streamAuditLogs(FilterRequest<AuditLogDTO> filterRequest) {
+        return filterQueryExecutor.stream(AuditLog.class, filterRequest, mapper::toDTO);
     }
 
     @Override
@@ -85,4 +101,20 @@ public class AuditLogServiceImpl implements AuditLogService {
                 .switchIfEmpty(Mono.error(new RuntimeException("Audit log not found with ID: " + auditLogId)))
                 .map(mapper::toDTO);
     }
+
+    @Override
+    public Mono<PaginationResponse<Map<String, Object>>> filterAuditLogs(FilterRequest<AuditLogDTO> filterRequest, FieldSelection fields,
+                                                                      CountStrategyEnum countStrategy) {
+        return filterQueryExecutor
+                .filter(AuditLog.class, filterRequest, fields.columns(AuditLog.class), countStrategy, mapper::toDTO)
+                .map(fields::projectPage);
+    }
+
+    @Override
+    public Mono<Map<String, Object>> getAuditLogById(UUID auditLogId, FieldSelection fields) {
+        return filterQueryExecutor
+                .findById(AuditLog.class, auditLogId, fields.columns(AuditLog.class), mapper::toDTO)
+                .switchIfEmpty(Mono.error(new RuntimeException("Audit log not found with ID: " + auditLogId)))
+                .map(fields::project);
+    }
 }
\ No newline at end of file
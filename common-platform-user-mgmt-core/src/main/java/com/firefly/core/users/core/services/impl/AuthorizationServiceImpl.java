@@ -0,0 +1,257 @@
+/*
+ * Copyright 2025 Firefly Software Solutions Inc
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+
+package com.firefly.core.users.core.services.impl;
+
+import com.firefly.core.users.authz.PolicySnapshotWriter;
+import com.firefly.core.users.core.authz.PolicyVersion;
+import com.firefly.core.users.core.authz.RolePermissionMatchers;
+import com.firefly.core.users.core.authz.UserGrants;
+import com.firefly.core.users.core.changes.ChangeFeed;
+import com.firefly.core.users.core.changes.ChangeWatermark;
+import com.firefly.core.users.core.routing.ConnectionRoute;
+import com.firefly.core.users.core.routing.PoolGroup;
+import com.firefly.core.users.core.services.AuthorizationService;
+import com.firefly.core.users.interfaces.dtos.AuthorizationCheckDTO;
+import com.firefly.core.users.interfaces.dtos.AuthorizationDecisionDTO;
+import com.firefly.core.users.interfaces.dtos.ChangeSetDTO;
+import com.firefly.core.users.interfaces.dtos.DeletedRecordDTO;
+import com.firefly.core.users.interfaces.dtos.PolicyAssignmentDTO;
+import com.firefly.core.users.interfaces.dtos.PolicyDeltaDTO;
+import com.firefly.core.users.interfaces.dtos.PolicySnapshotDTO;
+import com.firefly.core.users.interfaces.dtos.ResourceScopeDTO;
+import com.firefly.core.users.models.entities.Permission;
+import com.firefly.core.users.models.entities.Role;
+import com.firefly.core.users.models.entities.RolePermission;
+import com.firefly.core.users.models.entities.UserAccount;
+import com.firefly.core.users.models.entities.UserRole;
+import com.firefly.core.users.models.repositories.PolicyRepository;
+import com.firefly.core.users.models.repositories.UserAccountRepository;
+import com.firefly.core.users.models.repositories.UserRoleRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Isolation;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+@Service
+@Transactional
+public class AuthorizationServiceImpl implements AuthorizationService {
+
+    static final int MAX_BATCH_CHECKS = 1000;
+
+    @Autowired
+    private UserAccountRepository userAccountRepository;
+
+    @Autowired
+    private UserRoleRepository userRoleRepository;
+
+    @Autowired
+    private RolePermissionMatchers matchers;
+
+    @Autowired
+    private PolicyRepository policyRepository;
+
+    @Autowired
+    private ChangeFeed changeFeed;
+
+    @Value("${user-mgmt.changes.settle-time:PT5S}")
+    private Duration settleTime;
+
+    @Override
+    @PoolGroup(ConnectionRoute.AUTHORIZATION)
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public Flux<AuthorizationDecisionDTO> authorizeBatch(UUID userId, List<AuthorizationCheckDTO> checks) {
+        // Read-only; a transaction would hold a connection while matchers are compiled
+        if (checks == null || checks.isEmpty()) {
+            return Flux.empty();
+        }
+        if (checks.size() > MAX_BATCH_CHECKS) {
+            return Flux.error(new IllegalArgumentException(
+                    "At most " + MAX_BATCH_CHECKS + " checks can be authorized at once"));
+        }
+        return resolveGrants(userId)
+                .flatMapIterable(grants -> {
+                    List<AuthorizationDecisionDTO> decisions = new ArrayList<>(checks.size());
+                    for (AuthorizationCheckDTO check : checks) {
+                        decisions.add(AuthorizationDecisionDTO.builder()
+                                .permission(check.getPermission())
+                                .branchId(check.getBranchId())
+                                .distributorId(check.getDistributorId())
+                                .granted(grants.isGranted(check.getPermission(), check.getBranchId(),
+                                        check.getDistributorId()))
+                                .build());
+                    }
+                    return decisions;
+                });
+    }
+
+    @Override
+    @PoolGroup(ConnectionRoute.AUTHORIZATION)
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public Flux<ResourceScopeDTO> filterAuthorizedScopes(UUID userId, String permission, Flux<ResourceScopeDTO> scopes) {
+        return resolveGrants(userId)
+                .map(grants -> grants.scopesFor(permission))
+                .flatMapMany(allowed -> allowed.isEmpty()
+                        ? Flux.empty()
+                        : scopes.filter(scope -> allowed.contains(scope.getBranchId(), scope.getDistributorId())));
+    }
+
+    @Override
+    @PoolGroup(ConnectionRoute.ADMIN)
+    @Transactional(readOnly = true, isolation = Isolation.REPEATABLE_READ)
+    public Mono<PolicySnapshotDTO> getPolicySnapshot() {
+        return Mono.zip(policyRepository.currentTimestamp(),
+                        policyRepository.findRoleGrants().collectList(),
+                        policyRepository.findAssignments().collectList(),
+                        policyRepository.findInactiveUserIds().collectList())
+                .map(result -> PolicySnapshotDTO.builder()
+                        .version(snapshotVersion(result.getT1()))
+                        .roles(result.getT2())
+                        .assignments(result.getT3())
+                        .inactiveUserIds(result.getT4())
+                        .build());
+    }
+
+    @Override
+    @PoolGroup(ConnectionRoute.ADMIN)
+    @Transactional(readOnly = true, isolation = Isolation.REPEATABLE_READ)
+    public Mono<byte[]> exportPolicySnapshot() {
+        // Rows are added to the writer as they are read rather than collected first
+        return policyRepository.currentTimestamp()
+                .map(now -> new PolicySnapshotWriter(snapshotVersion(now)))
+                .flatMap(writer -> policyRepository.findRoleGrants()
+                        .doOnNext(role -> writer.addRole(role.getRoleId(), role.getPermissions()))
+                        .thenMany(policyRepository.findAssignments()
+                                .doOnNext(assignment -> writer.addAssignment(assignment.getUserId(),
+                                        assignment.getRoleId(), assignment.getBranchId(),
+                                        assignment.getDistributorId())))
+                        .thenMany(policyRepository.findInactiveUserIds()
+                                .doOnNext(writer::addInactiveUser))
+                        .then(Mono.fromCallable(writer::toByteArray)));
+    }
+
+    @Override
+    public Mono<PolicyDeltaDTO> getPolicyChanges(String since) {
+        return Mono.defer(() -> {
+            PolicyVersion from = PolicyVersion.parse(since);
+            return Mono.zip(changeFeed.changes(Role.class, from.roles().format(), null, Role::getId),
+                            changeFeed.changes(Permission.class, from.permissions().format(), null,
+                                    Permission::getId),
+                            changeFeed.changes(RolePermission.class, from.rolePermissions().format(), null,
+                                    RolePermission::getId),
+                            changeFeed.changes(UserRole.class, from.userRoles().format(), null,
+                                    AuthorizationServiceImpl::toAssignment),
+                            changeFeed.changes(UserAccount.class, from.userAccounts().format(), null,
+                                    account -> account))
+                    .flatMap(result -> {
+                        List<ChangeSetDTO<UUID>> roleSide = List.of(result.getT1(), result.getT2(), result.getT3());
+                        ChangeSetDTO<PolicyAssignmentDTO> userRoles = result.getT4();
+                        ChangeSetDTO<UserAccount> userAccounts = result.getT5();
+                        PolicyDeltaDTO.PolicyDeltaDTOBuilder delta = PolicyDeltaDTO.builder()
+                                .version(new PolicyVersion(watermark(result.getT1()), watermark(result.getT2()),
+                                        watermark(result.getT3()), watermark(userRoles),
+                                        watermark(userAccounts)).format())
+                                .assignments(userRoles.getChanged())
+                                .deletedAssignmentIds(ids(userRoles.getDeleted()))
+                                .activatedUserIds(userAccounts.getChanged().stream()
+                                        .filter(account -> !Boolean.FALSE.equals(account.getIsActive()))
+                                        .map(UserAccount::getId)
+                                        .toList())
+                                .deactivatedUserIds(deactivatedUserIds(userAccounts))
+                                .hasMore(roleSide.stream().anyMatch(ChangeSetDTO::getHasMore)
+                                        || userRoles.getHasMore() || userAccounts.getHasMore());
+                        if (roleSide.stream().allMatch(AuthorizationServiceImpl::isEmpty)) {
+                            return Mono.just(delta.build());
+                        }
+                        // Any role side change can alter the effective permissions of many roles through
+                        // inheritance, so they are all sent again
+                        return policyRepository.findRoleGrants()
+                                .collectList()
+                                .map(roles -> delta.roles(roles).build());
+                    });
+        });
+    }
+
+    /**
+     * The version of a snapshot read at a time. The change feeds hold back rows younger than the settle time,
+     * so the snapshot's changes from then on are delivered again by the first delta rather than any late
+     * commit being skipped.
+     */
+    private String snapshotVersion(OffsetDateTime readAt) {
+        return PolicyVersion.at(new ChangeWatermark(readAt.minus(settleTime), new UUID(0, 0))).format();
+    }
+
+    private static PolicyAssignmentDTO toAssignment(UserRole userRole) {
+        return PolicyAssignmentDTO.builder()
+                .id(userRole.getId())
+                .userId(userRole.getUserAccountId())
+                .roleId(userRole.getRoleId())
+                .branchId(userRole.getBranchId())
+                .distributorId(userRole.getDistributorId())
+                .build();
+    }
+
+    private static List<UUID> deactivatedUserIds(ChangeSetDTO<UserAccount> userAccounts) {
+        List<UUID> ids = new ArrayList<>();
+        for (UserAccount account : userAccounts.getChanged()) {
+            if (Boolean.FALSE.equals(account.getIsActive())) {
+                ids.add(account.getId());
+            }
+        }
+        ids.addAll(ids(userAccounts.getDeleted()));
+        return ids;
+    }
+
+    private static List<UUID> ids(List<DeletedRecordDTO> deleted) {
+        return deleted.stream().map(DeletedRecordDTO::getId).toList();
+    }
+
+    private static ChangeWatermark watermark(ChangeSetDTO<?> changes) {
+        return ChangeWatermark.parse(changes.getWatermark());
+    }
+
+    private static boolean isEmpty(ChangeSetDTO<?> changes) {
+        return changes.getChanged().isEmpty() && changes.getDeleted().isEmpty();
+    }
+
+    /**
+     * Resolves the role assignments of an active user with the compiled matcher of each role.
+     */
+    private Mono<UserGrants> resolveGrants(UUID userId) {
+        return userAccountRepository.findById(userId)
+                .switchIfEmpty(Mono.error(new RuntimeException("User account not found with ID: " + userId)))
+                .flatMap(account -> Boolean.FALSE.equals(account.getIsActive())
+                        ? Mono.just(UserGrants.NONE)
+                        : userRoleRepository.findByUserAccountId(userId)
+                                .concatMap(userRole -> matchers.get(userRole.getRoleId())
+                                        .map(matcher -> new UserGrants.Grant(matcher, userRole.getBranchId(),
+                                                userRole.getDistributorId())))
+                                .collectList()
+                                .map(UserGrants::new));
+    }
+}
\ No newline at end of file
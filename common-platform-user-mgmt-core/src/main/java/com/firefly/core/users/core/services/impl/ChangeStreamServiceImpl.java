@@ -0,0 +1,43 @@
+/*
+ * Copyright 2025 Firefly Software Solutions Inc
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.firefly.core.users.core.services.impl;
+
+import com.firefly.core.users.core.changes.ChangeEventBus;
+import com.firefly.core.users.core.services.ChangeStreamService;
+import com.firefly.core.users.interfaces.dtos.ChangeEventDTO;
+import com.firefly.core.users.interfaces.enums.ChangeTypeEnum;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+
+import java.util.Set;
+
+@Service
+public class ChangeStreamServiceImpl implements ChangeStreamService {
+
+    @Autowired
+    private ChangeEventBus bus;
+
+    @Override
+    public Flux<ChangeEventDTO> streamChanges(String lastEventId, Set<String> entities) {
+        return bus.subscribe(lastEventId)
+                .filter(event -> entities.isEmpty()
+                        || event.getType() == ChangeTypeEnum.RESYNC
+                        || entities.contains(event.getEntity()));
+    }
+}
@@ -18,16 +18,24 @@
 package com.firefly.core.users.core.services.impl;
 
 import com.firefly.common.core.filters.FilterRequest;
-import com.firefly.common.core.filters.FilterUtils;
 import com.firefly.common.core.queries.PaginationResponse;
+import com.firefly.core.users.core.changes.ChangeEventPublisher;
+import com.firefly.core.users.core.changes.ChangeFeed;
+import com.firefly.core.users.core.filters.FilterQueryExecutor;
 import com.firefly.core.users.core.mappers.PermissionMapper;
+import com.firefly.core.users.core.routing.ConnectionRoute;
+import com.firefly.core.users.core.routing.PoolGroup;
 import com.firefly.core.users.core.services.PermissionService;
+import com.firefly.core.users.interfaces.dtos.ChangeSetDTO;
 import com.firefly.core.users.interfaces.dtos.PermissionDTO;
+import com.firefly.core.users.interfaces.enums.ChangeTypeEnum;
+import com.firefly.core.users.interfaces.enums.CountStrategyEnum;
 import com.firefly.core.users.models.entities.Permission;
 import com.firefly.core.users.models.repositories.PermissionRepository;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
 import java.util.UUID;
@@ -42,14 +50,29 @@ public class PermissionServiceImpl implements PermissionService {
     @Autowired
     private PermissionMapper mapper;
 
+    @Autowired
+    private FilterQueryExecutor filterQueryExecutor;
+
+    @Autowired
+    private ChangeFeed changeFeed;
+
+    @Autowired
+    private ChangeEventPublisher changeEvents;
+
     @Override
     public Mono<PaginationResponse<PermissionDTO>> filterPermissions(FilterRequest<PermissionDTO> filterRequest) {
-        return FilterUtils
-                .createFilter(
-                        Permission.class,
-                        mapper::toDTO
-                )
-                .filter(filterRequest);
+        return filterPermissions(filterRequest, CountStrategyEnum.EXACT);
+    }
+
+    @Override
+    public Mono<PaginationResponse<PermissionDTO>> filterPermissions(FilterRequest<PermissionDTO> filterRequest, CountStrategyEnum countStrategy) {
+        return filterQueryExecutor.filter(Permission.class, filterRequest, countStrategy, mapper::toDTO);
+    }
+
+    @Override
+    @PoolGroup(ConnectionRoute.ADMIN)
+    public Flux<PermissionDTO> streamPermissions(FilterRequest<PermissionDTO> filterRequest) {
+        return filterQueryExecutor.stream(Permission.class, filterRequest, mapper::toDTO);
     }
 
     @Override
@@ -57,7 +80,10 @@ public class PermissionServiceImpl implements PermissionService {
         return Mono.just(permissionDTO)
                 .map(mapper::toEntity)
                 .flatMap(repository::save)
-                .map(mapper::toDTO);
+                .map(mapper::toDTO)
+                .flatMap(created -> changeEvents
+                        .publishAfterCommit(Permission.class, ChangeTypeEnum.CREATED, created.getId(), created)
+                        .thenReturn(created));
     }
 
     @Override
@@ -69,14 +95,19 @@ public class PermissionServiceImpl implements PermissionService {
                     updatedPermission.setId(permissionId);
                     return repository.save(updatedPermission);
                 })
-                .map(mapper::toDTO);
+                .map(mapper::toDTO)
+                .flatMap(updated -> changeEvents
+                        .publishAfterCommit(Permission.class, ChangeTypeEnum.UPDATED, permissionId, updated)
+                        .thenReturn(updated));
     }
 
     @Override
     public Mono<Void> deletePermission(UUID permissionId) {
         return repository.findById(permissionId)
                 .switchIfEmpty(Mono.error(new RuntimeException("Permission not found with ID: " + permissionId)))
-                .flatMap(permission -> repository.deleteById(permissionId));
+                .flatMap(permission -> repository.deleteById(permissionId)
+                        .then(changeFeed.recordDeletion(Permission.class, permissionId))
+                        .then(changeEvents.publishAfterCommit(Permission.class, ChangeTypeEnum.DELETED, permissionId, null)));
     }
 
     @Override
@@ -85,4 +116,9 @@ public class PermissionServiceImpl implements PermissionService {
                 .switchIfEmpty(Mono.error(new RuntimeException("Permission not found with ID: " + permissionId)))
                 .map(mapper::toDTO);
     }
+
+    @Override
+    public Mono<ChangeSetDTO<PermissionDTO>> getPermissionChanges(String since, Integer limit) {
+        return changeFeed.changes(Permission.class, since, limit, mapper::toDTO);
+    }
 }
\ No newline at end of file
@@ -18,16 +18,27 @@
 package com.firefly.core.users.core.services.impl;
 
 import com.firefly.common.core.filters.FilterRequest;
-import com.firefly.common.core.filters.FilterUtils;
 import com.firefly.common.core.queries.PaginationResponse;
+import com.firefly.core.users.core.authz.RolePermissionMatchers;
+import com.firefly.core.users.core.changes.ChangeEventPublisher;
+import com.firefly.core.users.core.changes.ChangeFeed;
+import com.firefly.core.users.core.filters.FilterQueryExecutor;
 import com.firefly.core.users.core.mappers.RolePermissionMapper;
+import com.firefly.core.users.core.outbox.OutboxWriter;
+import com.firefly.core.users.core.routing.ConnectionRoute;
+import com.firefly.core.users.core.routing.PoolGroup;
 import com.firefly.core.users.core.services.RolePermissionService;
+import com.firefly.core.users.interfaces.dtos.ChangeSetDTO;
 import com.firefly.core.users.interfaces.dtos.RolePermissionDTO;
+import com.firefly.core.users.interfaces.enums.ChangeTypeEnum;
+import com.firefly.core.users.interfaces.enums.CountStrategyEnum;
 import com.firefly.core.users.models.entities.RolePermission;
 import com.firefly.core.users.models.repositories.RolePermissionRepository;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
 import java.util.UUID;
@@ -42,14 +53,35 @@ public class RolePermissionServiceImpl implements RolePermissionService {
     @Autowired
     private RolePermissionMapper mapper;
 
+    @Autowired
+    private FilterQueryExecutor filterQueryExecutor;
+
+    @Autowired
+    private ChangeFeed changeFeed;
+
+    @Autowired
+    private ChangeEventPublisher changeEvents;
+
+    @Autowired
+    private OutboxWriter outbox;
+
+    @Autowired
+    private RolePermissionMatchers matchers;
+
     @Override
     public Mono<PaginationResponse<RolePermissionDTO>> filterRolePermissions(FilterRequest<RolePermissionDTO> filterRequest) {
-        return FilterUtils
-                .createFilter(
-                        RolePermission.class,
-                        mapper::toDTO
-                )
-                .filter(filterRequest);
+        return filterRolePermissions(filterRequest, CountStrategyEnum.EXACT);
+    }
+
+    @Override
+    public Mono<PaginationResponse<RolePermissionDTO>> filterRolePermissions(FilterRequest<RolePermissionDTO> filterRequest, CountStrategyEnum countStrategy) {
+        return filterQueryExecutor.filter(RolePermission.class, filterRequest, countStrategy, mapper::toDTO);
+    }
+
+    @Override
+    @PoolGroup(ConnectionRoute.ADMIN)
+    public Flux<RolePermissionDTO> streamRolePermissions(FilterRequest<RolePermissionDTO> filterRequest) {
+        return filterQueryExecutor.stream(RolePermission.class, filterRequest, mapper::toDTO);
     }
 
     @Override
@@ -57,7 +89,10 @@ public class RolePermissionServiceImpl implements RolePermissionService {
         return Mono.just(rolePermissionDTO)
                 .map(mapper::toEntity)
                 .flatMap(repository::save)
-                .map(mapper::toDTO);
+                .map(mapper::toDTO)
+                .flatMap(created -> outbox.append(RolePermission.class, ChangeTypeEnum.CREATED, created.getId(), created)
+                        .then(changeEvents.publishAfterCommit(RolePermission.class, ChangeTypeEnum.CREATED, created.getId(), created))
+                        .thenReturn(created));
     }
 
     @Override
@@ -69,20 +104,48 @@ public class RolePermissionServiceImpl implements RolePermissionService {
                     updatedRolePermission.setId(rolePermissionId);
                     return repository.save(updatedRolePermission);
                 })
-                .map(mapper::toDTO);
+                .map(mapper::toDTO)
+                .flatMap(updated -> outbox.append(RolePermission.class, ChangeTypeEnum.UPDATED, rolePermissionId, updated)
+                        .then(changeEvents.publishAfterCommit(RolePermission.class, ChangeTypeEnum.UPDATED, rolePermissionId, updated))
+                        .thenReturn(updated));
     }
 
     @Override
     public Mono<Void> deleteRolePermission(UUID rolePermissionId) {
         return repository.findById(rolePermissionId)
                 .switchIfEmpty(Mono.error(new RuntimeException("Role-Permission mapping not found with ID: " + rolePermissionId)))
-                .flatMap(rolePermission -> repository.deleteById(rolePermissionId));
+                .flatMap(rolePermission -> repository.deleteById(rolePermissionId)
+                        .then(changeFeed.recordDeletion(RolePermission.class, rolePermissionId))
+                        .then(outbox.append(RolePermission.class, ChangeTypeEnum.DELETED, rolePermissionId, null))
+                        .then(changeEvents.publishAfterCommit(RolePermission.class, ChangeTypeEnum.DELETED, rolePermissionId, null)));
     }
 
     @Override
+    @PoolGroup(ConnectionRoute.AUTHORIZATION)
     public Mono<RolePermissionDTO> getRolePermissionById(UUID rolePermissionId) {
         return repository.findById(rolePermissionId)
                 .switchIfEmpty(Mono.error(new RuntimeException("Role-Permission mapping not found with ID: " + rolePermissionId)))
                 .map(mapper::toDTO);
     }
+
+    @Override
+    public Mono<ChangeSetDTO<RolePermissionDTO>> getRolePermissionChanges(String since, Integer limit) {
+        return changeFeed.changes(RolePermission.class, since, limit, mapper::toDTO);
+    }
+
+    @Override
+    @PoolGroup(ConnectionRoute.AUTHORIZATION)
+    public Flux<RolePermissionDTO> getEffectiveRolePermissions(UUID roleId) {
+        return repository.findEffectiveByRoleId(roleId)
+                .map(mapper::toDTO);
+    }
+
+    @Override
+    @PoolGroup(ConnectionRoute.AUTHORIZATION)
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public Mono<Boolean> hasPermission(UUID roleId, String permission) {
+        // Usually served from memory; a transaction would acquire a connection on every check
+        return matchers.get(roleId)
+                .map(matcher -> matcher.matches(permission));
+    }
 }
\ No newline at end of file
@@ -18,18 +18,29 @@
 package com.firefly.core.users.core.services.impl;
 
 import com.firefly.common.core.filters.FilterRequest;
-import com.firefly.common.core.filters.FilterUtils;
 import com.firefly.common.core.queries.PaginationResponse;
+import com.firefly.core.users.core.changes.ChangeEventPublisher;
+import com.firefly.core.users.core.changes.ChangeFeed;
+import com.firefly.core.users.core.filters.FieldSelection;
+import com.firefly.core.users.core.filters.FilterQueryExecutor;
 import com.firefly.core.users.core.mappers.RoleMapper;
+import com.firefly.core.users.core.routing.ConnectionRoute;
+import com.firefly.core.users.core.routing.PoolGroup;
 import com.firefly.core.users.core.services.RoleService;
+import com.firefly.core.users.interfaces.dtos.ChangeSetDTO;
 import com.firefly.core.users.interfaces.dtos.RoleDTO;
+import com.firefly.core.users.interfaces.enums.ChangeTypeEnum;
+import com.firefly.core.users.interfaces.enums.CountStrategyEnum;
 import com.firefly.core.users.models.entities.Role;
+import com.firefly.core.users.models.repositories.RoleHierarchyRepository;
 import com.firefly.core.users.models.repositories.RoleRepository;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
+import java.util.Map;
 import java.util.UUID;
 
 @Service
@@ -39,17 +50,35 @@ public class RoleServiceImpl implements RoleService {
     @Autowired
     private RoleRepository repository;
 
+    @Autowired
+    private RoleHierarchyRepository hierarchy;
+
     @Autowired
     private RoleMapper mapper;
 
+    @Autowired
+    private FilterQueryExecutor filterQueryExecutor;
+
+    @Autowired
+    private ChangeFeed changeFeed;
+
+    @Autowired
+    private ChangeEventPublisher changeEvents;
+
     @Override
     public Mono<PaginationResponse<RoleDTO>> filterRoles(FilterRequest<RoleDTO> filterRequest) {
-        return FilterUtils
-                .createFilter(
-                        Role.class,
-                        mapper::toDTO
-                )
-                .filter(filterRequest);
+        return filterRoles(filterRequest, CountStrategyEnum.EXACT);
+    }
+
+    @Override
+    public Mono<PaginationResponse<RoleDTO>> filterRoles(FilterRequest<RoleDTO> filterRequest, CountStrategyEnum countStrategy) {
+        return filterQueryExecutor.filter(Role.class, filterRequest, countStrategy, mapper::toDTO);
+    }
+
+    @Override
+    @PoolGroup(ConnectionRoute.ADMIN)
+    public Flux<RoleDTO> streamRoles(FilterRequest<RoleDTO> filterRequest) {
+        return filterQueryExecutor.stream(Role.class, filterRequest, mapper::toDTO);
     }
 
     @Override
@@ -57,7 +86,11 @@ public class RoleServiceImpl implements RoleService {
         return Mono.just(roleDTO)
                 .map(mapper::toEntity)
                 .flatMap(repository::save)
-                .map(mapper::toDTO);
+                .flatMap(saved -> hierarchy.insertRole(saved.getId()).thenReturn(saved))
+                .map(mapper::toDTO)
+                .flatMap(created -> changeEvents
+                        .publishAfterCommit(Role.class, ChangeTypeEnum.CREATED, created.getId(), created)
+                        .thenReturn(created));
     }
 
     @Override
@@ -69,14 +102,19 @@ public class RoleServiceImpl implements RoleService {
                     updatedRole.setId(roleId);
                     return repository.save(updatedRole);
                 })
-                .map(mapper::toDTO);
+                .map(mapper::toDTO)
+                .flatMap(updated -> changeEvents
+                        .publishAfterCommit(Role.class, ChangeTypeEnum.UPDATED, roleId, updated)
+                        .thenReturn(updated));
     }
 
     @Override
     public Mono<Void> deleteRole(UUID roleId) {
         return repository.findById(roleId)
                 .switchIfEmpty(Mono.error(new RuntimeException("Role not found with ID: " + roleId)))
-                .flatMap(role -> repository.deleteById(roleId));
+                .flatMap(role -> repository.deleteById(roleId)
+                        .then(changeFeed.recordDeletion(Role.class, roleId))
+                        .then(changeEvents.publishAfterCommit(Role.class, ChangeTypeEnum.DELETED, roleId, null)));
     }
 
     @Override
@@ -85,4 +123,68 @@ public class RoleServiceImpl implements RoleService {
                 .switchIfEmpty(Mono.error(new RuntimeException("Role not found with ID: " + roleId)))
                 .map(mapper::toDTO);
     }
+
+    @Override
+    public Mono<PaginationResponse<Map<String, Object>>> filterRoles(FilterRequest<RoleDTO> filterRequest, FieldSelection fields,
+                                                                      CountStrategyEnum countStrategy) {
+        return filterQueryExecutor
+                .filter(Role.class, filterRequest, fields.columns(Role.class), countStrategy, mapper::toDTO)
+                .map(fields::projectPage);
+    }
+
+    @Override
+    public Mono<Map<String, Object>> getRoleById(UUID roleId, FieldSelection fields) {
+        return filterQueryExecutor
+                .findById(Role.class, roleId, fields.columns(Role.class), mapper::toDTO)
+                .switchIfEmpty(Mono.error(new RuntimeException("Role not found with ID: " + roleId)))
+                .map(fields::project);
+    }
+
+    @Override
+    public Mono<ChangeSetDTO<RoleDTO>> getRoleChanges(String since, Integer limit) {
+        return changeFeed.changes(Role.class, since, limit, mapper::toDTO);
+    }
+
+    @Override
+    public Mono<Void> addParentRole(UUID roleId, UUID parentRoleId) {
+        return findRole(roleId)
+                .flatMap(role -> findRole(parentRoleId)
+                        .then(hierarchy.lock())
+                        .then(hierarchy.isAncestor(roleId, parentRoleId))
+                        .flatMap(cycle -> cycle
+                                ? Mono.error(new IllegalArgumentException("Role " + parentRoleId
+                                        + " already inherits from role " + roleId))
+                                : hierarchy.insertEdge(parentRoleId, roleId))
+                        .filter(Boolean::booleanValue)
+                        .flatMap(added -> publishHierarchyChange(role)));
+    }
+
+    @Override
+    public Mono<Void> removeParentRole(UUID roleId, UUID parentRoleId) {
+        return findRole(roleId)
+                .flatMap(role -> hierarchy.lock()
+                        .then(hierarchy.deleteEdge(parentRoleId, roleId))
+                        .filter(Boolean::booleanValue)
+                        .flatMap(removed -> publishHierarchyChange(role)));
+    }
+
+    @Override
+    @PoolGroup(ConnectionRoute.AUTHORIZATION)
+    public Flux<RoleDTO> getParentRoles(UUID roleId) {
+        return findRole(roleId)
+                .thenMany(repository.findAllById(hierarchy.findParentIds(roleId)))
+                .map(mapper::toDTO);
+    }
+
+    private Mono<Role> findRole(UUID roleId) {
+        return repository.findById(roleId)
+                .switchIfEmpty(Mono.error(new RuntimeException("Role not found with ID: " + roleId)));
+    }
+
+    /**
+     * The permissions in effect for the role changed, so caches of its permissions must be invalidated.
+     */
+    private Mono<Void> publishHierarchyChange(Role role) {
+        return changeEvents.publishAfterCommit(Role.class, ChangeTypeEnum.UPDATED, role.getId(), mapper.toDTO(role));
+    }
 }
\ No newline at end of file
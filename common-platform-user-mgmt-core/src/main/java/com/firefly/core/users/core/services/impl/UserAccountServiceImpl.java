@@ -18,71 +18,319 @@
 package com.firefly.core.users.core.services.impl;
 
 import com.firefly.common.core.filters.FilterRequest;
-import com.firefly.common.core.filters.FilterUtils;
 import com.firefly.common.core.queries.PaginationResponse;
+import com.firefly.core.users.core.bulk.ImportRow;
+import com.firefly.core.users.core.bulk.UserAccountImportReader;
+import com.firefly.core.users.core.changes.ChangeEventPublisher;
+import com.firefly.core.users.core.changes.ChangeFeed;
+import com.firefly.core.users.core.filters.FieldSelection;
+import com.firefly.core.users.core.filters.FilterQueryExecutor;
 import com.firefly.core.users.core.mappers.UserAccountMapper;
+import com.firefly.core.users.core.outbox.OutboxWriter;
+import com.firefly.core.users.core.routing.ConnectionRoute;
+import com.firefly.core.users.core.routing.PoolGroup;
 import com.firefly.core.users.core.services.UserAccountService;
+import com.firefly.core.users.core.typeahead.UserTypeaheadIndex;
+import com.firefly.core.users.interfaces.dtos.BulkUpdateResultDTO;
+import com.firefly.core.users.interfaces.dtos.ChangeSetDTO;
 import com.firefly.core.users.interfaces.dtos.UserAccountDTO;
+import com.firefly.core.users.interfaces.dtos.UserAccountImportResultDTO;
+import com.firefly.core.users.interfaces.dtos.UserAccountSelectionDTO;
+import com.firefly.core.users.interfaces.dtos.UserAccountSuggestionDTO;
+import com.firefly.core.users.interfaces.enums.ChangeTypeEnum;
+import com.firefly.core.users.interfaces.enums.CountStrategyEnum;
+import com.firefly.core.users.interfaces.enums.ImportFormatEnum;
+import com.firefly.core.users.interfaces.enums.ImportStatusEnum;
 import com.firefly.core.users.models.entities.UserAccount;
+import com.firefly.core.users.models.repositories.UserAccountBulkRepository;
+import com.firefly.core.users.models.repositories.UserAccountQueryRepository;
 import com.firefly.core.users.models.repositories.UserAccountRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DuplicateKeyException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.UUID;
+import java.util.function.Function;
 
 @Service
 @Transactional
 public class UserAccountServiceImpl implements UserAccountService {
 
+    private static final int DEFAULT_SEARCH_LIMIT = 20;
+
+    private static final int MAX_SEARCH_LIMIT = 100;
+
+    private static final int DEFAULT_AUTOCOMPLETE_LIMIT = 10;
+
+    private static final int MAX_AUTOCOMPLETE_LIMIT = 50;
+
+    private static final int MAX_BULK_IDS = 10_000;
+
     @Autowired
     private UserAccountRepository repository;
 
+    @Autowired
+    private UserAccountQueryRepository queryRepository;
+
     @Autowired
     private UserAccountMapper mapper;
 
+    @Autowired
+    private FilterQueryExecutor filterQueryExecutor;
+
+    @Autowired
+    private ChangeFeed changeFeed;
+
+    @Autowired
+    private ChangeEventPublisher changeEvents;
+
+    @Autowired
+    private OutboxWriter outbox;
+
+    @Autowired
+    private UserTypeaheadIndex typeaheadIndex;
+
+    @Autowired
+    private UserAccountImportReader importReader;
+
+    @Autowired
+    private UserAccountBulkRepository bulkRepository;
+
+    @Autowired
+    private TransactionalOperator transactionalOperator;
+
+    @Value("${user-mgmt.bulk.import.batch-size:500}")
+    private int importBatchSize;
+
     @Override
     public Mono<PaginationResponse<UserAccountDTO>> filterUserAccounts(FilterRequest<UserAccountDTO> filterRequest) {
-        return FilterUtils
-                .createFilter(
-                        UserAccount.class,
-                        mapper::toDTO
-                )
-                .filter(filterRequest);
+        return filterUserAccounts(filterRequest, CountStrategyEnum.EXACT);
+    }
+
+    @Override
+    public Mono<PaginationResponse<UserAccountDTO>> filterUserAccounts(FilterRequest<UserAccountDTO> filterRequest, CountStrategyEnum countStrategy) {
+        return filterQueryExecutor.filter(UserAccount.class, filterRequest, countStrategy, mapper::toDTO);
+    }
+
+    @Override
+    @PoolGroup(ConnectionRoute.ADMIN)
+    public Flux<UserAccountDTO> streamUserAccounts(FilterRequest<UserAccountDTO> filterRequest) {
+        return filterQueryExecutor.stream(UserAccount.class, filterRequest, mapper::toDTO);
     }
 
     @Override
     public Mono<UserAccountDTO> createUserAccount(UserAccountDTO userAccountDTO) {
-        return Mono.just(userAccountDTO)
+        String email = userAccountDTO.getEmail();
+        Mono<Boolean> emailTaken = email != null ? repository.existsByEmailIgnoreCase(email) : Mono.just(false);
+        return emailTaken
+                .flatMap(taken -> taken ? Mono.error(emailConflict(email)) : Mono.just(userAccountDTO))
                 .map(mapper::toEntity)
                 .flatMap(repository::save)
-                .map(mapper::toDTO);
+                .map(mapper::toDTO)
+                .flatMap(created -> outbox.append(UserAccount.class, ChangeTypeEnum.CREATED, created.getId(), created)
+                        .then(changeEvents.publishAfterCommit(UserAccount.class, ChangeTypeEnum.CREATED, created.getId(), created))
+                        .thenReturn(created));
     }
 
     @Override
     public Mono<UserAccountDTO> updateUserAccount(UUID userAccountId, UserAccountDTO userAccountDTO) {
+        String email = userAccountDTO.getEmail();
         return repository.findById(userAccountId)
                 .switchIfEmpty(Mono.error(new RuntimeException("User account not found with ID: " + userAccountId)))
+                .flatMap(existingUserAccount -> email == null
+                        ? Mono.just(existingUserAccount)
+                        : repository.findByEmailIgnoreCase(email)
+                                .filter(owner -> !userAccountId.equals(owner.getId()))
+                                .flatMap(owner -> Mono.<UserAccount>error(emailConflict(email)))
+                                .defaultIfEmpty(existingUserAccount))
                 .flatMap(existingUserAccount -> {
                     UserAccount updatedUserAccount = mapper.toEntity(userAccountDTO);
                     updatedUserAccount.setId(userAccountId);
                     return repository.save(updatedUserAccount);
                 })
-                .map(mapper::toDTO);
+                .map(mapper::toDTO)
+                .flatMap(updated -> outbox.append(UserAccount.class, ChangeTypeEnum.UPDATED, userAccountId, updated)
+                        .then(changeEvents.publishAfterCommit(UserAccount.class, ChangeTypeEnum.UPDATED, userAccountId, updated))
+                        .thenReturn(updated));
     }
 
     @Override
     public Mono<Void> deleteUserAccount(UUID userAccountId) {
         return repository.findById(userAccountId)
                 .switchIfEmpty(Mono.error(new RuntimeException("User account not found with ID: " + userAccountId)))
-                .flatMap(userAccount -> repository.deleteById(userAccountId));
+                .flatMap(userAccount -> repository.deleteById(userAccountId)
+                        .then(changeFeed.recordDeletion(UserAccount.class, userAccountId))
+                        .then(outbox.append(UserAccount.class, ChangeTypeEnum.DELETED, userAccountId, null))
+                        .then(changeEvents.publishAfterCommit(UserAccount.class, ChangeTypeEnum.DELETED, userAccountId, null)));
     }
 
     @Override
+    @PoolGroup(ConnectionRoute.AUTHORIZATION)
     public Mono<UserAccountDTO> getUserAccountById(UUID userAccountId) {
-        return repository.findById(userAccountId)
+        return queryRepository.findById(userAccountId)
+                .switchIfEmpty(Mono.error(new RuntimeException("User account not found with ID: " + userAccountId)));
+    }
+
+    @Override
+    public Mono<PaginationResponse<Map<String, Object>>> filterUserAccounts(FilterRequest<UserAccountDTO> filterRequest, FieldSelection fields,
+                                                                      CountStrategyEnum countStrategy) {
+        return filterQueryExecutor
+                .filter(UserAccount.class, filterRequest, fields.columns(UserAccount.class), countStrategy, mapper::toDTO)
+                .map(fields::projectPage);
+    }
+
+    @Override
+    @PoolGroup(ConnectionRoute.AUTHORIZATION)
+    public Mono<Map<String, Object>> getUserAccountById(UUID userAccountId, FieldSelection fields) {
+        return filterQueryExecutor
+                .findById(UserAccount.class, userAccountId, fields.columns(UserAccount.class), mapper::toDTO)
                 .switchIfEmpty(Mono.error(new RuntimeException("User account not found with ID: " + userAccountId)))
-                .map(mapper::toDTO);
+                .map(fields::project);
+    }
+
+    @Override
+    public Mono<ChangeSetDTO<UserAccountDTO>> getUserAccountChanges(String since, Integer limit) {
+        return changeFeed.changes(UserAccount.class, since, limit, mapper::toDTO);
+    }
+
+    @Override
+    public Flux<UserAccountDTO> searchUserAccounts(String query, UUID branchId, UUID distributorId, Boolean isActive, Integer limit) {
+        if (query == null || query.isBlank()) {
+            return Flux.error(new IllegalArgumentException("Search query must not be blank"));
+        }
+        int boundedLimit = limit == null ? DEFAULT_SEARCH_LIMIT : Math.max(1, Math.min(limit, MAX_SEARCH_LIMIT));
+        return queryRepository.search(query.trim(), branchId, distributorId, isActive, boundedLimit);
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public Flux<UserAccountSuggestionDTO> autocompleteUserAccounts(String prefix, UUID branchId, UUID distributorId, Integer limit) {
+        // Served from memory; a transaction would acquire a connection on every keystroke
+        if (prefix == null || prefix.isBlank()) {
+            return Flux.empty();
+        }
+        int boundedLimit = limit == null ? DEFAULT_AUTOCOMPLETE_LIMIT : Math.max(1, Math.min(limit, MAX_AUTOCOMPLETE_LIMIT));
+        return Flux.defer(() -> Flux.fromIterable(typeaheadIndex.search(prefix, branchId, distributorId, boundedLimit)));
+    }
+
+    @Override
+    @PoolGroup(ConnectionRoute.AUTHORIZATION)
+    public Mono<UserAccountDTO> getUserAccountByEmail(String email) {
+        return queryRepository.findByEmail(email.trim())
+                .switchIfEmpty(Mono.error(new RuntimeException("User account not found with email: " + email)));
+    }
+
+    @Override
+    @PoolGroup(ConnectionRoute.ADMIN)
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public Flux<UserAccountImportResultDTO> importUserAccounts(Flux<String> lines, ImportFormatEnum format) {
+        // Batches run in their own transactions, so a failed batch does not undo the ones before it
+        return importReader.read(lines, format)
+                .buffer(importBatchSize)
+                .concatMap(this::importBatch);
+    }
+
+    private Flux<UserAccountImportResultDTO> importBatch(List<ImportRow> rows) {
+        List<UserAccount> accounts = new ArrayList<>();
+        UUID[] ids = new UUID[rows.size()];
+        for (int i = 0; i < rows.size(); i++) {
+            if (rows.get(i).isValid()) {
+                UserAccount account = mapper.toEntity(rows.get(i).account());
+                account.setId(UUID.randomUUID());
+                ids[i] = account.getId();
+                accounts.add(account);
+            }
+        }
+        Mono<Map<UUID, UserAccountDTO>> inserted = accounts.isEmpty()
+                ? Mono.just(Map.of())
+                : bulkRepository.insertAll(accounts)
+                        .collectMap(UserAccountDTO::getId, Function.identity(), LinkedHashMap::new)
+                        .flatMap(created -> outbox.appendAll(UserAccount.class, ChangeTypeEnum.CREATED, created)
+                                .then(changeEvents.publishAllAfterCommit(UserAccount.class, ChangeTypeEnum.CREATED, created))
+                                .thenReturn(created))
+                        .as(transactionalOperator::transactional);
+        return inserted
+                .map(created -> {
+                    List<UserAccountImportResultDTO> results = new ArrayList<>(rows.size());
+                    for (int i = 0; i < rows.size(); i++) {
+                        ImportRow row = rows.get(i);
+                        if (!row.isValid()) {
+                            results.add(importResult(row, ImportStatusEnum.FAILED, null, row.error()));
+                        } else if (created.containsKey(ids[i])) {
+                            results.add(importResult(row, ImportStatusEnum.CREATED, ids[i], null));
+                        } else {
+                            results.add(importResult(row, ImportStatusEnum.SKIPPED, null, "Email already exists"));
+                        }
+                    }
+                    return results;
+                })
+                .onErrorResume(error -> Mono.just(rows.stream()
+                        .map(row -> importResult(row, ImportStatusEnum.FAILED, null,
+                                row.isValid() ? "Batch failed: " + error.getMessage() : row.error()))
+                        .toList()))
+                .flatMapIterable(results -> results);
+    }
+
+    @Override
+    @PoolGroup(ConnectionRoute.ADMIN)
+    public Mono<BulkUpdateResultDTO> activateUserAccounts(UserAccountSelectionDTO selection) {
+        return setActive(selection, true);
+    }
+
+    @Override
+    @PoolGroup(ConnectionRoute.ADMIN)
+    public Mono<BulkUpdateResultDTO> deactivateUserAccounts(UserAccountSelectionDTO selection) {
+        return setActive(selection, false);
+    }
+
+    private Mono<BulkUpdateResultDTO> setActive(UserAccountSelectionDTO selection, boolean active) {
+        int criteria = (selection.getBranchId() != null ? 1 : 0) + (selection.getDistributorId() != null ? 1 : 0)
+                + (selection.getIds() != null ? 1 : 0);
+        if (criteria != 1) {
+            return Mono.error(new IllegalArgumentException("Exactly one of branchId, distributorId or ids is required"));
+        }
+        if (selection.getIds() != null && selection.getIds().size() > MAX_BULK_IDS) {
+            return Mono.error(new IllegalArgumentException("At most " + MAX_BULK_IDS + " ids are allowed"));
+        }
+        Flux<UserAccountDTO> changed;
+        if (selection.getBranchId() != null) {
+            changed = bulkRepository.setActiveByBranchId(selection.getBranchId(), active);
+        } else if (selection.getDistributorId() != null) {
+            changed = bulkRepository.setActiveByDistributorId(selection.getDistributorId(), active);
+        } else {
+            changed = bulkRepository.setActiveByIds(selection.getIds(), active);
+        }
+        return changed
+                .collectMap(UserAccountDTO::getId, account -> account, LinkedHashMap::new)
+                .flatMap(updated -> outbox.appendAll(UserAccount.class, ChangeTypeEnum.UPDATED, updated)
+                        .then(changeEvents.publishAllAfterCommit(UserAccount.class, ChangeTypeEnum.UPDATED, updated))
+                        .thenReturn(BulkUpdateResultDTO.builder().affected(updated.size()).build()));
+    }
+
+    private static UserAccountImportResultDTO importResult(ImportRow row, ImportStatusEnum status, UUID id, String error) {
+        return UserAccountImportResultDTO.builder()
+                .line(row.line())
+                .email(row.account() != null ? row.account().getEmail() : null)
+                .status(status)
+                .id(id)
+                .error(error)
+                .build();
+    }
+
+    /**
+     * The error for an email already used by another account, ignoring case, as the unique index would raise it.
+     */
+    private static DuplicateKeyException emailConflict(String email) {
+        return new DuplicateKeyException("User account already exists with email: " + email);
     }
 }
\ No newline at end of file
@@ -18,16 +18,24 @@
 package com.firefly.core.users.core.services.impl;
 
 import com.firefly.common.core.filters.FilterRequest;
-import com.firefly.common.core.filters.FilterUtils;
 import com.firefly.common.core.queries.PaginationResponse;
+import com.firefly.core.users.core.changes.ChangeEventPublisher;
+import com.firefly.core.users.core.changes.ChangeFeed;
+import com.firefly.core.users.core.filters.FilterQueryExecutor;
 import com.firefly.core.users.core.mappers.UserExternalIdentityMapper;
+import com.firefly.core.users.core.routing.ConnectionRoute;
+import com.firefly.core.users.core.routing.PoolGroup;
 import com.firefly.core.users.core.services.UserExternalIdentityService;
+import com.firefly.core.users.interfaces.dtos.ChangeSetDTO;
 import com.firefly.core.users.interfaces.dtos.UserExternalIdentityDTO;
+import com.firefly.core.users.interfaces.enums.ChangeTypeEnum;
+import com.firefly.core.users.interfaces.enums.CountStrategyEnum;
 import com.firefly.core.users.models.entities.UserExternalIdentity;
 import com.firefly.core.users.models.repositories.UserExternalIdentityRepository;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
 import java.util.UUID;
@@ -42,14 +50,29 @@ public class UserExternalIdentityServiceImpl implements UserExternalIdentityServ
     @Autowired
     private UserExternalIdentityMapper mapper;
 
+    @Autowired
+    private FilterQueryExecutor filterQueryExecutor;
+
+    @Autowired
+    private ChangeFeed changeFeed;
+
+    @Autowired
+    private ChangeEventPublisher changeEvents;
+
     @Override
     public Mono<PaginationResponse<UserExternalIdentityDTO>> filterUserExternalIdentities(FilterRequest<UserExternalIdentityDTO> filterRequest) {
-        return FilterUtils
-                .createFilter(
-                        UserExternalIdentity.class,
-                        mapper::toDTO
-                )
-                .filter(filterRequest);
+        return filterUserExternalIdentities(filterRequest, CountStrategyEnum.EXACT);
+    }
+
+    @Override
+    public Mono<PaginationResponse<UserExternalIdentityDTO>> filterUserExternalIdentities(FilterRequest<UserExternalIdentityDTO> filterRequest, CountStrategyEnum countStrategy) {
+        return filterQueryExecutor.filter(UserExternalIdentity.class, filterRequest, countStrategy, mapper::toDTO);
+    }
+
+    @Override
+    @PoolGroup(ConnectionRoute.ADMIN)
+    public Flux<UserExternalIdentityDTO> streamUserExternalIdentities(FilterRequest<UserExternalIdentityDTO> filterRequest) {
+        return filterQueryExecutor.stream(UserExternalIdentity.class, filterRequest, mapper::toDTO);
     }
 
     @Override
@@ -57,7 +80,10 @@ public class UserExternalIdentityServiceImpl implements UserExternalIdentityServ
         return Mono.just(userExternalIdentityDTO)
                 .map(mapper::toEntity)
                 .flatMap(repository::save)
-                .map(mapper::toDTO);
+                .map(mapper::toDTO)
+                .flatMap(created -> changeEvents
+                        .publishAfterCommit(UserExternalIdentity.class, ChangeTypeEnum.CREATED, created.getId(), created)
+                        .thenReturn(created));
     }
 
     @Override
@@ -69,14 +95,19 @@ public class UserExternalIdentityServiceImpl implements UserExternalIdentityServ
                     updatedUserExternalIdentity.setId(userExternalIdentityId);
                     return repository.save(updatedUserExternalIdentity);
                 })
-                .map(mapper::toDTO);
+                .map(mapper::toDTO)
+                .flatMap(updated -> changeEvents
+                        .publishAfterCommit(UserExternalIdentity.class, ChangeTypeEnum.UPDATED, userExternalIdentityId, updated)
+                        .thenReturn(updated));
     }
 
     @Override
     public Mono<Void> deleteUserExternalIdentity(UUID userExternalIdentityId) {
         return repository.findById(userExternalIdentityId)
                 .switchIfEmpty(Mono.error(new RuntimeException("User external identity not found with ID: " + userExternalIdentityId)))
-                .flatMap(userExternalIdentity -> repository.deleteById(userExternalIdentityId));
+                .flatMap(userExternalIdentity -> repository.deleteById(userExternalIdentityId)
+                        .then(changeFeed.recordDeletion(UserExternalIdentity.class, userExternalIdentityId))
+                        .then(changeEvents.publishAfterCommit(UserExternalIdentity.class, ChangeTypeEnum.DELETED, userExternalIdentityId, null)));
     }
 
     @Override
@@ -85,4 +116,9 @@ public class UserExternalIdentityServiceImpl implements UserExternalIdentityServ
                 .switchIfEmpty(Mono.error(new RuntimeException("User external identity not found with ID: " + userExternalIdentityId)))
                 .map(mapper::toDTO);
     }
+
+    @Override
+    public Mono<ChangeSetDTO<UserExternalIdentityDTO>> getUserExternalIdentityChanges(String since, Integer limit) {
+        return changeFeed.changes(UserExternalIdentity.class, since, limit, mapper::toDTO);
+    }
 }
\ No newline at end of file
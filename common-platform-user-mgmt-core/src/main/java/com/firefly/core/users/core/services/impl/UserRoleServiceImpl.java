@@ -18,16 +18,26 @@
 package com.firefly.core.users.core.services.impl;
 
 import com.firefly.common.core.filters.FilterRequest;
-import com.firefly.common.core.filters.FilterUtils;
 import com.firefly.common.core.queries.PaginationResponse;
+import com.firefly.core.users.core.changes.ChangeEventPublisher;
+import com.firefly.core.users.core.changes.ChangeFeed;
+import com.firefly.core.users.core.filters.FilterQueryExecutor;
 import com.firefly.core.users.core.mappers.UserRoleMapper;
+import com.firefly.core.users.core.outbox.OutboxWriter;
+import com.firefly.core.users.core.routing.ConnectionRoute;
+import com.firefly.core.users.core.routing.PoolGroup;
 import com.firefly.core.users.core.services.UserRoleService;
+import com.firefly.core.users.interfaces.dtos.ChangeSetDTO;
 import com.firefly.core.users.interfaces.dtos.UserRoleDTO;
+import com.firefly.core.users.interfaces.enums.ChangeTypeEnum;
+import com.firefly.core.users.interfaces.enums.CountStrategyEnum;
 import com.firefly.core.users.models.entities.UserRole;
+import com.firefly.core.users.models.repositories.UserRoleQueryRepository;
 import com.firefly.core.users.models.repositories.UserRoleRepository;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
 import java.util.UUID;
@@ -39,17 +49,38 @@ public class UserRoleServiceImpl implements UserRoleService {
     @Autowired
     private UserRoleRepository repository;
 
+    @Autowired
+    private UserRoleQueryRepository queryRepository;
+
     @Autowired
     private UserRoleMapper mapper;
 
+    @Autowired
+    private FilterQueryExecutor filterQueryExecutor;
+
+    @Autowired
+    private ChangeFeed changeFeed;
+
+    @Autowired
+    private ChangeEventPublisher changeEvents;
+
+    @Autowired
+    private OutboxWriter outbox;
+
     @Override
     public Mono<PaginationResponse<UserRoleDTO>> filterUserRoles(FilterRequest<UserRoleDTO> filterRequest) {
-        return FilterUtils
-                .createFilter(
-                        UserRole.class,
-                        mapper::toDTO
-                )
-                .filter(filterRequest);
+        return filterUserRoles(filterRequest, CountStrategyEnum.EXACT);
+    }
+
+    @Override
+    public Mono<PaginationResponse<UserRoleDTO>> filterUserRoles(FilterRequest<UserRoleDTO> filterRequest, CountStrategyEnum countStrategy) {
+        return filterQueryExecutor.filter(UserRole.class, filterRequest, countStrategy, mapper::toDTO);
+    }
+
+    @Override
+    @PoolGroup(ConnectionRoute.ADMIN)
+    public Flux<UserRoleDTO> streamUserRoles(FilterRequest<UserRoleDTO> filterRequest) {
+        return filterQueryExecutor.stream(UserRole.class, filterRequest, mapper::toDTO);
     }
 
     @Override
@@ -57,7 +88,10 @@ public class UserRoleServiceImpl implements UserRoleService {
         return Mono.just(userRoleDTO)
                 .map(mapper::toEntity)
                 .flatMap(repository::save)
-                .map(mapper::toDTO);
+                .map(mapper::toDTO)
+                .flatMap(created -> outbox.append(UserRole.class, ChangeTypeEnum.CREATED, created.getId(), created)
+                        .then(changeEvents.publishAfterCommit(UserRole.class, ChangeTypeEnum.CREATED, created.getId(), created))
+                        .thenReturn(created));
     }
 
     @Override
@@ -69,20 +103,43 @@ public class UserRoleServiceImpl implements UserRoleService {
                     updatedUserRole.setId(userRoleId);
                     return repository.save(updatedUserRole);
                 })
-                .map(mapper::toDTO);
+                .map(mapper::toDTO)
+                .flatMap(updated -> outbox.append(UserRole.class, ChangeTypeEnum.UPDATED, userRoleId, updated)
+                        .then(changeEvents.publishAfterCommit(UserRole.class, ChangeTypeEnum.UPDATED, userRoleId, updated))
+                        .thenReturn(updated));
     }
 
     @Override
     public Mono<Void> deleteUserRole(UUID userRoleId) {
         return repository.findById(userRoleId)
                 .switchIfEmpty(Mono.error(new RuntimeException("User role not found with ID: " + userRoleId)))
-                .flatMap(userRole -> repository.deleteById(userRoleId));
+                .flatMap(userRole -> repository.deleteById(userRoleId)
+                        .then(changeFeed.recordDeletion(UserRole.class, userRoleId))
+                        .then(outbox.append(UserRole.class, ChangeTypeEnum.DELETED, userRoleId, null))
+                        .then(changeEvents.publishAfterCommit(UserRole.class, ChangeTypeEnum.DELETED, userRoleId, null)));
     }
 
     @Override
+    @PoolGroup(ConnectionRoute.AUTHORIZATION)
     public Mono<UserRoleDTO> getUserRoleById(UUID userRoleId) {
-        return repository.findById(userRoleId)
-                .switchIfEmpty(Mono.error(new RuntimeException("User role not found with ID: " + userRoleId)))
-                .map(mapper::toDTO);
+        return queryRepository.findById(userRoleId)
+                .switchIfEmpty(Mono.error(new RuntimeException("User role not found with ID: " + userRoleId)));
+    }
+
+    @Override
+    @PoolGroup(ConnectionRoute.AUTHORIZATION)
+    public Flux<UserRoleDTO> getUserRolesByUserAccountId(UUID userAccountId) {
+        return queryRepository.findByUserAccountId(userAccountId);
+    }
+
+    @Override
+    @PoolGroup(ConnectionRoute.AUTHORIZATION)
+    public Flux<UserRoleDTO> getUserRolesByRoleId(UUID roleId) {
+        return queryRepository.findByRoleId(roleId);
+    }
+
+    @Override
+    public Mono<ChangeSetDTO<UserRoleDTO>> getUserRoleChanges(String since, Integer limit) {
+        return changeFeed.changes(UserRole.class, since, limit, mapper::toDTO);
     }
 }
\ No newline at end of file
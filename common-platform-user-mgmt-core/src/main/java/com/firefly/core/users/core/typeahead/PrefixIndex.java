@@ -0,0 +1,361 @@
+/*
+ * Copyright 2025 Firefly Software Solutions Inc
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.firefly.core.users.core.typeahead;
+
+import com.firefly.core.users.interfaces.dtos.UserAccountSuggestionDTO;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.regex.Pattern;
+
+/**
+ * Sorted token dictionary mapping every normalized name, nickname and email token to a sorted array of
+ * user ordinals. Users are interned to dense {@code int} ordinals, reused after removal, so posting lists
+ * stay primitive arrays. A posting list is copied on every incremental change, so a whole index is bulk loaded
+ * with {@link #load} and {@link #freeze} instead. Not thread-safe; {@link UserTypeaheadIndex} guards it.
+ */
+final class PrefixIndex {
+
+    private static final Pattern DIACRITICS = Pattern.compile("\\p{M}+");
+
+    private static final Pattern WORD_SEPARATORS = Pattern.compile("[^\\p{L}\\p{N}]+");
+
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+
+    // Rough JVM sizes, in bytes, for the memory estimate
+    private static final long OBJECT_OVERHEAD = 16;
+    private static final long REFERENCE = 8;
+    private static final long MAP_ENTRY = 48;
+
+    private final Map<UUID, Integer> ordinals = new HashMap<>();
+
+    private final List<Entry> entries = new ArrayList<>();
+
+    private int[] freeOrdinals = new int[16];
+
+    private int freeCount;
+
+    private final TreeMap<String, int[]> postings = new TreeMap<>();
+
+    // Posting lists of a bulk load, until it is frozen
+    private Map<String, LoadingPosting> loading;
+
+    private long estimatedBytes;
+
+    /**
+     * Indexes a user, replacing any previous version of it.
+     */
+    void put(Entry entry) {
+        Integer existing = ordinals.get(entry.id());
+        int ordinal;
+        if (existing != null) {
+            ordinal = existing;
+            unlink(ordinal, entries.get(ordinal));
+        } else {
+            ordinal = allocate();
+            ordinals.put(entry.id(), ordinal);
+            estimatedBytes += MAP_ENTRY + 2 * OBJECT_OVERHEAD + 16;
+        }
+        String[] tokens = entry.tokens();
+        for (int i = 0; i < tokens.length; i++) {
+            tokens[i] = link(tokens[i], ordinal);
+        }
+        entries.set(ordinal, entry);
+        estimatedBytes += entry.estimatedBytes();
+    }
+
+    /**
+     * Indexes a user not yet indexed during a bulk load of an empty index, which {@link #freeze} completes.
+     * Ordinals are allocated in increasing order, so each posting list is appended to in amortized constant time.
+     */
+    void load(Entry entry) {
+        if (loading == null) {
+            if (!ordinals.isEmpty() || !postings.isEmpty()) {
+                throw new IllegalStateException("Only an empty index can be bulk loaded");
+            }
+            loading = new HashMap<>();
+        }
+        int ordinal = entries.size();
+        entries.add(entry);
+        ordinals.put(entry.id(), ordinal);
+        estimatedBytes += MAP_ENTRY + 2 * OBJECT_OVERHEAD + 16 + entry.estimatedBytes();
+        String[] tokens = entry.tokens();
+        for (int i = 0; i < tokens.length; i++) {
+            LoadingPosting posting = loading.computeIfAbsent(tokens[i], LoadingPosting::new);
+            posting.append(ordinal);
+            tokens[i] = posting.token;
+        }
+    }
+
+    /**
+     * Completes a bulk load, trimming every posting list to its size. Does nothing if no load is in progress.
+     */
+    void freeze() {
+        if (loading == null) {
+            return;
+        }
+        for (LoadingPosting posting : loading.values()) {
+            postings.put(posting.token, Arrays.copyOf(posting.ordinals, posting.size));
+            estimatedBytes += MAP_ENTRY + sizeOf(posting.token) + OBJECT_OVERHEAD + 4L * posting.size;
+        }
+        loading = null;
+    }
+
+    /**
+     * Removes a user, if indexed.
+     */
+    void remove(UUID id) {
+        Integer ordinal = ordinals.remove(id);
+        if (ordinal == null) {
+            return;
+        }
+        unlink(ordinal, entries.get(ordinal));
+        entries.set(ordinal, null);
+        estimatedBytes -= MAP_ENTRY + 2 * OBJECT_OVERHEAD + 16;
+        if (freeCount == freeOrdinals.length) {
+            freeOrdinals = Arrays.copyOf(freeOrdinals, freeCount * 2);
+        }
+        freeOrdinals[freeCount++] = ordinal;
+    }
+
+    /**
+     * Finds users having, for every query term, a token starting with it. Candidates are drawn from the
+     * longest term in token order, so exact token matches come before longer completions.
+     */
+    List<UserAccountSuggestionDTO> search(String query, UUID branchId, UUID distributorId, int limit) {
+        String[] terms = WHITESPACE.splitAsStream(normalize(query))
+                .filter(term -> !term.isEmpty())
+                .distinct()
+                .toArray(String[]::new);
+        if (terms.length == 0) {
+            return List.of();
+        }
+        String driver = terms[0];
+        for (String term : terms) {
+            if (term.length() > driver.length()) {
+                driver = term;
+            }
+        }
+        Set<Integer> matched = new LinkedHashSet<>();
+        for (int[] posting : postings.subMap(driver, true, driver + Character.MAX_VALUE, false).values()) {
+            for (int ordinal : posting) {
+                Entry entry = entries.get(ordinal);
+                if (!matched.contains(ordinal) && entry.inScope(branchId, distributorId)
+                        && entry.matchesAll(terms)) {
+                    matched.add(ordinal);
+                    if (matched.size() == limit) {
+                        return suggestions(matched);
+                    }
+                }
+            }
+        }
+        return suggestions(matched);
+    }
+
+    int size() {
+        return ordinals.size();
+    }
+
+    int tokenCount() {
+        return postings.size();
+    }
+
+    long estimatedBytes() {
+        return estimatedBytes + REFERENCE * entries.size() + 4L * freeOrdinals.length;
+    }
+
+    private List<UserAccountSuggestionDTO> suggestions(Set<Integer> ordinals) {
+        List<UserAccountSuggestionDTO> suggestions = new ArrayList<>(ordinals.size());
+        for (int ordinal : ordinals) {
+            suggestions.add(entries.get(ordinal).toSuggestion());
+        }
+        return suggestions;
+    }
+
+    private int allocate() {
+        if (freeCount > 0) {
+            return freeOrdinals[--freeCount];
+        }
+        entries.add(null);
+        return entries.size() - 1;
+    }
+
+    /**
+     * Adds an ordinal to a token's posting list and returns the dictionary's instance of the token,
+     * so entries share token strings with the dictionary.
+     */
+    private String link(String token, int ordinal) {
+        int[] posting = postings.get(token);
+        if (posting == null) {
+            postings.put(token, new int[] {ordinal});
+            estimatedBytes += MAP_ENTRY + sizeOf(token) + OBJECT_OVERHEAD + 4;
+            return token;
+        }
+        int position = Arrays.binarySearch(posting, ordinal);
+        if (position < 0) {
+            int insertion = -position - 1;
+            int[] grown = new int[posting.length + 1];
+            System.arraycopy(posting, 0, grown, 0, insertion);
+            grown[insertion] = ordinal;
+            System.arraycopy(posting, insertion, grown, insertion + 1, posting.length - insertion);
+            postings.put(token, grown);
+            estimatedBytes += 4;
+        }
+        return postings.ceilingKey(token);
+    }
+
+    private void unlink(int ordinal, Entry entry) {
+        estimatedBytes -= entry.estimatedBytes();
+        for (String token : entry.tokens()) {
+            int[] posting = postings.get(token);
+            int position = posting != null ? Arrays.binarySearch(posting, ordinal) : -1;
+            if (position < 0) {
+                continue;
+            }
+            if (posting.length == 1) {
+                postings.remove(token);
+                estimatedBytes -= MAP_ENTRY + sizeOf(token) + OBJECT_OVERHEAD + 4;
+                continue;
+            }
+            int[] shrunk = new int[posting.length - 1];
+            System.arraycopy(posting, 0, shrunk, 0, position);
+            System.arraycopy(posting, position + 1, shrunk, position, posting.length - position - 1);
+            postings.put(token, shrunk);
+            estimatedBytes -= 4;
+        }
+    }
+
+    /**
+     * Lower cases text and strips diacritics, so "José" is found by "jose".
+     */
+    static String normalize(String text) {
+        if (text == null) {
+            return "";
+        }
+        String decomposed = Normalizer.normalize(text, Normalizer.Form.NFD);
+        return DIACRITICS.matcher(decomposed).replaceAll("").toLowerCase(Locale.ROOT).trim();
+    }
+
+    private static long sizeOf(String value) {
+        // Compact strings store Latin-1 text in one byte per character
+        return value == null ? 0 : 2 * OBJECT_OVERHEAD + value.length();
+    }
+
+    /**
+     * A posting list being bulk loaded, grown by doubling.
+     */
+    private static final class LoadingPosting {
+
+        private final String token;
+
+        private int[] ordinals = new int[4];
+
+        private int size;
+
+        LoadingPosting(String token) {
+            this.token = token;
+        }
+
+        void append(int ordinal) {
+            if (size == ordinals.length) {
+                ordinals = Arrays.copyOf(ordinals, size * 2);
+            }
+            ordinals[size++] = ordinal;
+        }
+    }
+
+    /**
+     * An indexed user: the fields returned as a suggestion, its scope and its tokens.
+     */
+    record Entry(UUID id, String fullName, String nickname, String email, UUID branchId, UUID distributorId,
+                 String[] tokens) {
+
+        static Entry of(UUID id, String fullName, String nickname, String email, UUID branchId,
+                        UUID distributorId) {
+            Set<String> tokens = new LinkedHashSet<>();
+            addWords(tokens, fullName);
+            addWords(tokens, nickname);
+            String normalizedEmail = normalize(email);
+            if (!normalizedEmail.isEmpty()) {
+                tokens.add(normalizedEmail);
+                int at = normalizedEmail.indexOf('@');
+                addWords(tokens, at > 0 ? normalizedEmail.substring(0, at) : normalizedEmail);
+            }
+            return new Entry(id, fullName, nickname, email, branchId, distributorId, tokens.toArray(String[]::new));
+        }
+
+        private static void addWords(Set<String> tokens, String text) {
+            for (String word : WHITESPACE.split(normalize(text))) {
+                if (!word.isEmpty()) {
+                    // Both "o'brien" and its parts, so either spelling of the query matches
+                    tokens.add(word);
+                    for (String part : WORD_SEPARATORS.split(word)) {
+                        if (!part.isEmpty()) {
+                            tokens.add(part);
+                        }
+                    }
+                }
+            }
+        }
+
+        boolean inScope(UUID branch, UUID distributor) {
+            return (branch == null || branch.equals(branchId))
+                    && (distributor == null || distributor.equals(distributorId));
+        }
+
+        boolean matchesAll(String[] terms) {
+            for (String term : terms) {
+                boolean matched = false;
+                for (String token : tokens) {
+                    if (token.startsWith(term)) {
+                        matched = true;
+                        break;
+                    }
+                }
+                if (!matched) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        UserAccountSuggestionDTO toSuggestion() {
+            return UserAccountSuggestionDTO.builder()
+                    .id(id)
+                    .fullName(fullName)
+                    .nickname(nickname)
+                    .email(email)
+                    .build();
+        }
+
+        long estimatedBytes() {
+            return OBJECT_OVERHEAD + 7 * REFERENCE + sizeOf(fullName) + sizeOf(nickname) + sizeOf(email)
+                    + (branchId != null ? 32 : 0) + (distributorId != null ? 32 : 0)
+                    + OBJECT_OVERHEAD + REFERENCE * tokens.length;
+        }
+    }
+}
@@ -0,0 +1,263 @@
+/*
+ * Copyright 2025 Firefly Software Solutions Inc
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.firefly.core.users.core.typeahead;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.firefly.core.users.core.cache.LocalCache;
+import com.firefly.core.users.core.changes.ChangeEventBus;
+import com.firefly.core.users.core.filters.EntityColumns;
+import com.firefly.core.users.core.routing.ConnectionRoute;
+import com.firefly.core.users.interfaces.dtos.ChangeEventDTO;
+import com.firefly.core.users.interfaces.dtos.UserAccountDTO;
+import com.firefly.core.users.interfaces.dtos.UserAccountSuggestionDTO;
+import com.firefly.core.users.interfaces.enums.ChangeTypeEnum;
+import com.firefly.core.users.models.entities.UserAccount;
+import com.firefly.core.users.models.repositories.UserAccountRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.util.retry.Retry;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * In-memory prefix index over the full name, nickname and email of active user accounts, for autocomplete
+ * without a query per keystroke.
+ * It is built from {@link UserAccountRepository} at startup, kept current by the committed changes of every
+ * instance, reloads single accounts on invalidations and is rebuilt when invalidations may have been missed.
+ * Changes applied during a rebuild are replayed onto the new index before it is swapped in. While invalidations
+ * are enabled the first build waits for {@link #evictAll}, sent once the invalidation listener is listening, so
+ * the index is built once at startup and from a snapshot taken after changes started to be received.
+ */
+@Slf4j
+@Component
+public class UserTypeaheadIndex implements LocalCache {
+
+    private static final String TABLE = EntityColumns.of(UserAccount.class).table();
+
+    @Value("${user-mgmt.cache.invalidation.enabled:true}")
+    private boolean invalidationEnabled;
+
+    @Autowired
+    private UserAccountRepository repository;
+
+    @Autowired
+    private ChangeEventBus changeEventBus;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private final AtomicReference<Disposable> rebuilding = new AtomicReference<>();
+
+    private PrefixIndex index = new PrefixIndex();
+
+    private Build build;
+
+    private Disposable changes;
+
+    @PostConstruct
+    void start() {
+        gauge("users", "User accounts in the typeahead index", PrefixIndex::size);
+        gauge("tokens", "Distinct tokens in the typeahead index", PrefixIndex::tokenCount);
+        Gauge.builder("user_mgmt.typeahead.memory", this, typeahead -> typeahead.read(PrefixIndex::estimatedBytes))
+                .description("Estimated heap used by the typeahead index")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+        changes = Flux.defer(() -> changeEventBus.subscribe(null))
+                .filter(event -> TABLE.equals(event.getEntity()))
+                // Dropped as too slow, so changes were missed
+                .retryWhen(Retry.backoff(Long.MAX_VALUE, Duration.ofMillis(100))
+                        .doBeforeRetry(signal -> {
+                            log.warn("Typeahead index fell behind the change stream, rebuilding", signal.failure());
+                            rebuild();
+                        }))
+                .subscribe(this::onChange);
+        if (!invalidationEnabled) {
+            rebuild();
+        }
+    }
+
+    @PreDestroy
+    void stop() {
+        changes.dispose();
+        Disposable running = rebuilding.getAndSet(null);
+        if (running != null) {
+            running.dispose();
+        }
+    }
+
+    /**
+     * Finds active user accounts with a name, nickname or email token starting with every term of the query.
+     *
+     * @param query the typed text; each whitespace separated term must match
+     * @param branchId the branch to restrict suggestions to, or {@code null}
+     * @param distributorId the distributor to restrict suggestions to, or {@code null}
+     * @param limit the maximum number of suggestions
+     * @return the suggestions, exact token matches first
+     */
+    public List<UserAccountSuggestionDTO> search(String query, UUID branchId, UUID distributorId, int limit) {
+        lock.readLock().lock();
+        try {
+            return index.search(query, branchId, distributorId, limit);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Rebuilds the index from the database, cancelling a rebuild in progress.
+     */
+    public void rebuild() {
+        Build next = new Build(new PrefixIndex(), new ArrayList<>());
+        lock.writeLock().lock();
+        try {
+            build = next;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        Disposable previous = rebuilding.getAndSet(repository.findAll()
+                .filter(UserTypeaheadIndex::isActive)
+                .doOnNext(account -> next.index().load(entry(account)))
+                .contextWrite(ConnectionRoute.ADMIN.context())
+                .then()
+                .subscribe(null,
+                        error -> log.warn("Failed to build the typeahead index", error),
+                        () -> swap(next)));
+        if (previous != null) {
+            previous.dispose();
+        }
+    }
+
+    @Override
+    public void evict(String entity, UUID id) {
+        if (!TABLE.equals(entity)) {
+            return;
+        }
+        repository.findById(id)
+                .filter(UserTypeaheadIndex::isActive)
+                .map(account -> (Consumer<PrefixIndex>) target -> target.put(entry(account)))
+                .defaultIfEmpty(target -> target.remove(id))
+                .subscribe(this::apply, error -> log.warn("Failed to reload user account {} for typeahead", id, error));
+    }
+
+    @Override
+    public void evictAll() {
+        rebuild();
+    }
+
+    private void onChange(ChangeEventDTO event) {
+        UUID id = event.getRecordId();
+        if (event.getType() == ChangeTypeEnum.DELETED) {
+            apply(target -> target.remove(id));
+        } else if (event.getData() == null) {
+            // The account did not fit in the change notification
+            evict(TABLE, id);
+        } else {
+            UserAccountDTO account = event.getData() instanceof UserAccountDTO dto
+                    ? dto
+                    : objectMapper.convertValue(event.getData(), UserAccountDTO.class);
+            if (Boolean.FALSE.equals(account.getIsActive())) {
+                apply(target -> target.remove(id));
+            } else {
+                PrefixIndex.Entry entry = PrefixIndex.Entry.of(id, account.getFullName(), account.getNickname(),
+                        account.getEmail(), account.getBranchId(), account.getDistributorId());
+                apply(target -> target.put(entry));
+            }
+        }
+    }
+
+    private void apply(Consumer<PrefixIndex> change) {
+        lock.writeLock().lock();
+        try {
+            change.accept(index);
+            if (build != null) {
+                build.pending().add(change);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void swap(Build completed) {
+        // Outside the lock, so searches are not blocked while the posting lists are trimmed
+        completed.index().freeze();
+        int size;
+        lock.writeLock().lock();
+        try {
+            if (build != completed) {
+                return;
+            }
+            completed.pending().forEach(change -> change.accept(completed.index()));
+            index = completed.index();
+            build = null;
+            size = index.size();
+        } finally {
+            lock.writeLock().unlock();
+        }
+        log.info("Typeahead index built with {} user accounts", size);
+    }
+
+    private double read(ToDoubleFunction<PrefixIndex> value) {
+        lock.readLock().lock();
+        try {
+            return value.applyAsDouble(index);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void gauge(String name, String description, ToDoubleFunction<PrefixIndex> value) {
+        Gauge.builder("user_mgmt.typeahead." + name, this, typeahead -> typeahead.read(value))
+                .description(description)
+                .register(meterRegistry);
+    }
+
+    private static boolean isActive(UserAccount account) {
+        return !Boolean.FALSE.equals(account.getIsActive());
+    }
+
+    private static PrefixIndex.Entry entry(UserAccount account) {
+        return PrefixIndex.Entry.of(account.getId(), account.getFullName(), account.getNickname(),
+                account.getEmail(), account.getBranchId(), account.getDistributorId());
+    }
+
+    /**
+     * A rebuild in progress and the changes applied since it started.
+     */
+    private record Build(PrefixIndex index, List<Consumer<PrefixIndex>> pending) {
+    }
+}
@@ -0,0 +1,185 @@
+/*
+ * Copyright 2025 Firefly Software Solutions Inc
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.firefly.core.users.core.bulk;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.firefly.core.users.interfaces.enums.ImportFormatEnum;
+import com.firefly.core.users.interfaces.enums.UserTypeEnum;
+import jakarta.validation.Validation;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import reactor.core.publisher.Flux;
+import reactor.test.StepVerifier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class UserAccountImportReaderTest {
+
+    private static final String HEADER = "fullName,email,userType,isActive,jobTitle";
+
+    private final UserAccountImportReader reader = new UserAccountImportReader();
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(reader, "objectMapper", new ObjectMapper().findAndRegisterModules());
+        ReflectionTestUtils.setField(reader, "validator",
+                Validation.buildDefaultValidatorFactory().getValidator());
+    }
+
+    @Test
+    void read_WithQuotedComma_ShouldKeepItInTheCell() {
+        // Arrange
+        Flux<String> lines = Flux.just(HEADER,
+                "\"Smith, John\",john@example.com,EMPLOYEE,true,\"Head of Sales, EMEA\"");
+
+        // Act & Assert
+        StepVerifier.create(reader.read(lines, ImportFormatEnum.CSV))
+                .assertNext(row -> {
+                    assertTrue(row.isValid(), row.error());
+                    assertEquals("Smith, John", row.account().getFullName());
+                    assertEquals("john@example.com", row.account().getEmail());
+                    assertEquals(UserTypeEnum.EMPLOYEE, row.account().getUserType());
+                    assertEquals("Head of Sales, EMEA", row.account().getJobTitle());
+                })
+                .verifyComplete();
+    }
+
+    @Test
+    void read_WithEscapedQuotes_ShouldUnescapeThem() {
+        // Arrange
+        Flux<String> lines = Flux.just(HEADER,
+                "\"John \"\"Johnny\"\" Smith\",john@example.com,EMPLOYEE,true,\"\"\"Lead\"\"\"");
+
+        // Act & Assert
+        StepVerifier.create(reader.read(lines, ImportFormatEnum.CSV))
+                .assertNext(row -> {
+                    assertEquals("John \"Johnny\" Smith", row.account().getFullName());
+                    assertEquals("\"Lead\"", row.account().getJobTitle());
+                })
+                .verifyComplete();
+    }
+
+    @Test
+    void read_WithCrlfLines_ShouldStripCarriageReturns() {
+        // Arrange
+        Flux<String> lines = Flux.just("\uFEFF" + HEADER + "\r",
+                "John Smith,john@example.com,EMPLOYEE,true,\"Engineer\"\r", "\r");
+
+        // Act & Assert
+        StepVerifier.create(reader.read(lines, ImportFormatEnum.CSV))
+                .assertNext(row -> {
+                    assertTrue(row.isValid(), row.error());
+                    assertEquals("John Smith", row.account().getFullName());
+                    assertEquals("Engineer", row.account().getJobTitle());
+                })
+                .verifyComplete();
+    }
+
+    @Test
+    void read_WithBlankLines_ShouldSkipThemAndKeepLineNumbers() {
+        // Arrange
+        Flux<String> lines = Flux.just("", HEADER, "  ", "John Smith,john@example.com,EMPLOYEE,true,", "",
+                "Jane Doe,jane@example.com,DISTRIBUTOR,false,");
+
+        // Act & Assert
+        StepVerifier.create(reader.read(lines, ImportFormatEnum.CSV))
+                .assertNext(row -> {
+                    assertEquals(4, row.line());
+                    assertNull(row.account().getJobTitle());
+                })
+                .assertNext(row -> assertEquals(6, row.line()))
+                .verifyComplete();
+    }
+
+    @Test
+    void read_WithWrongCellCount_ShouldRejectTheRow() {
+        // Arrange
+        Flux<String> lines = Flux.just(HEADER, "John Smith,john@example.com",
+                "Jane Doe,jane@example.com,DISTRIBUTOR,true,");
+
+        // Act & Assert
+        StepVerifier.create(reader.read(lines, ImportFormatEnum.CSV))
+                .assertNext(row -> {
+                    assertEquals(2, row.line());
+                    assertEquals("Expected 5 cells, found 2", row.error());
+                })
+                .assertNext(row -> assertTrue(row.isValid(), row.error()))
+                .verifyComplete();
+    }
+
+    @Test
+    void read_WithUnterminatedQuote_ShouldRejectTheRow() {
+        // Arrange
+        Flux<String> lines = Flux.just(HEADER, "\"John Smith,john@example.com,EMPLOYEE,true,");
+
+        // Act & Assert
+        StepVerifier.create(reader.read(lines, ImportFormatEnum.CSV))
+                .assertNext(row -> assertEquals("Unterminated quoted cell", row.error()))
+                .verifyComplete();
+    }
+
+    @Test
+    void read_WithUnterminatedQuoteInHeader_ShouldFail() {
+        // Arrange
+        Flux<String> lines = Flux.just("\"fullName,email", "John Smith,john@example.com");
+
+        // Act & Assert
+        StepVerifier.create(reader.read(lines, ImportFormatEnum.CSV))
+                .expectErrorMessage("Invalid CSV header: Unterminated quoted cell")
+                .verify();
+    }
+
+    @Test
+    void read_WithInvalidAccount_ShouldReportViolations() {
+        // Arrange
+        Flux<String> lines = Flux.just(HEADER, "John Smith,,EMPLOYEE,true,");
+
+        // Act & Assert
+        StepVerifier.create(reader.read(lines, ImportFormatEnum.CSV))
+                .assertNext(row -> {
+                    assertEquals("email: Email is required", row.error());
+                    assertEquals("John Smith", row.account().getFullName());
+                })
+                .verifyComplete();
+    }
+
+    @Test
+    void read_WithNdjson_ShouldParseEveryLine() {
+        // Arrange
+        Flux<String> lines = Flux.just(
+                "{\"fullName\": \"John Smith\", \"email\": \"john@example.com\", \"userType\": \"EMPLOYEE\", "
+                        + "\"isActive\": true}",
+                "",
+                "{\"fullName\": ");
+
+        // Act & Assert
+        StepVerifier.create(reader.read(lines, ImportFormatEnum.NDJSON))
+                .assertNext(row -> {
+                    assertTrue(row.isValid(), row.error());
+                    assertEquals("John Smith", row.account().getFullName());
+                })
+                .assertNext(row -> {
+                    assertEquals(3, row.line());
+                    assertNull(row.account());
+                })
+                .verifyComplete();
+    }
+}
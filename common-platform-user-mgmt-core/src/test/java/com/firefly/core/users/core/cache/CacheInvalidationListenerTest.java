@@ -0,0 +1,184 @@
+/*
+ * Copyright 2025 Firefly Software Solutions Inc
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.firefly.core.users.core.cache;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.firefly.core.users.core.changes.ChangeEventBus;
+import com.firefly.core.users.core.changes.ChangeEventPublisher;
+import com.firefly.core.users.core.changes.ChangeNotification;
+import com.firefly.core.users.interfaces.dtos.UserAccountDTO;
+import com.firefly.core.users.interfaces.enums.ChangeTypeEnum;
+import com.firefly.core.users.models.entities.UserAccount;
+import io.r2dbc.postgresql.api.Notification;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.test.util.ReflectionTestUtils;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class CacheInvalidationListenerTest {
+
+    private static final UUID TEST_UUID = UUID.fromString("123e4567-e89b-12d3-a456-426614174000");
+
+    @Mock
+    private LocalCache firstCache;
+
+    @Mock
+    private LocalCache secondCache;
+
+    @Mock
+    private Notification notification;
+
+    @Mock
+    private DatabaseClient databaseClient;
+
+    @Mock
+    private DatabaseClient.GenericExecuteSpec statement;
+
+    private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+
+    private ChangeEventBus changeEventBus;
+
+    private CacheInvalidationListener listener;
+
+    @BeforeEach
+    void setUp() {
+        changeEventBus = new ChangeEventBus();
+        ReflectionTestUtils.setField(changeEventBus, "replaySize", 10);
+        ReflectionTestUtils.setField(changeEventBus, "subscriberBuffer", 10);
+        listener = new CacheInvalidationListener();
+        ReflectionTestUtils.setField(listener, "caches", List.of(firstCache, secondCache));
+        ReflectionTestUtils.setField(listener, "changeEventBus", changeEventBus);
+        ReflectionTestUtils.setField(listener, "objectMapper", objectMapper);
+    }
+
+    @Test
+    void onNotification_WithChangeSentByAnyInstance_ShouldReachChangeStreamSubscribers() {
+        // Arrange
+        List<Object> bindings = new ArrayList<>();
+        when(databaseClient.sql(anyString())).thenReturn(statement);
+        when(statement.bind(anyInt(), any())).thenAnswer(invocation -> {
+            bindings.add(invocation.getArgument(1));
+            return statement;
+        });
+        when(statement.then()).thenReturn(Mono.empty());
+        ChangeEventPublisher publisher = new ChangeEventPublisher();
+        ReflectionTestUtils.setField(publisher, "databaseClient", databaseClient);
+        ReflectionTestUtils.setField(publisher, "objectMapper", objectMapper);
+        UserAccountDTO account = UserAccountDTO.builder().id(TEST_UUID).email("john.doe@example.com").build();
+        publisher.publishAfterCommit(UserAccount.class, ChangeTypeEnum.UPDATED, TEST_UUID, account).block();
+        when(notification.getName()).thenReturn(ChangeNotification.CHANNEL);
+        when(notification.getParameter())
+                .thenReturn((String) bindings.get(bindings.indexOf(ChangeNotification.CHANNEL) + 1));
+
+        // Act & Assert
+        StepVerifier.create(changeEventBus.subscribe(null))
+                .then(() -> listener.onNotification(notification))
+                .expectNextMatches(event -> "user_account".equals(event.getEntity())
+                        && event.getType() == ChangeTypeEnum.UPDATED
+                        && TEST_UUID.equals(event.getRecordId())
+                        && "john.doe@example.com".equals(((Map<?, ?>) event.getData()).get("email")))
+                .thenCancel()
+                .verify(Duration.ofSeconds(5));
+        verifyNoInteractions(firstCache, secondCache);
+    }
+
+    @Test
+    void onNotification_WithMalformedChange_ShouldSkipIt() {
+        // Arrange
+        when(notification.getName()).thenReturn(ChangeNotification.CHANNEL);
+        when(notification.getParameter()).thenReturn("user_account:" + TEST_UUID, "{\"entity\": \"role\"}");
+
+        // Act & Assert
+        StepVerifier.create(changeEventBus.subscribe(null))
+                .then(() -> listener.onNotification(notification))
+                .then(() -> listener.onNotification(notification))
+                .expectNextMatches(event -> "role".equals(event.getEntity()))
+                .thenCancel()
+                .verify(Duration.ofSeconds(5));
+    }
+
+    @Test
+    void evict_ShouldEvictTheRecordFromEveryCache() {
+        // Arrange
+        when(notification.getParameter()).thenReturn("user_account:" + TEST_UUID);
+
+        // Act
+        listener.evict(notification);
+
+        // Assert
+        verify(firstCache).evict("user_account", TEST_UUID);
+        verify(secondCache).evict("user_account", TEST_UUID);
+    }
+
+    @Test
+    void evict_WithMalformedId_ShouldSkipTheNotification() {
+        // Arrange
+        when(notification.getParameter()).thenReturn("user_account:not-a-uuid");
+
+        // Act
+        listener.evict(notification);
+
+        // Assert
+        verify(firstCache, never()).evict(any(), any());
+        verify(secondCache, never()).evict(any(), any());
+    }
+
+    @Test
+    void evict_WithoutSeparator_ShouldSkipTheNotification() {
+        // Arrange
+        when(notification.getParameter()).thenReturn("user_account");
+
+        // Act
+        listener.evict(notification);
+
+        // Assert
+        verifyNoInteractions(firstCache, secondCache);
+    }
+
+    @Test
+    void evict_AfterMalformedNotification_ShouldKeepEvicting() {
+        // Arrange
+        when(notification.getParameter()).thenReturn("user_account:not-a-uuid", "role:" + TEST_UUID);
+
+        // Act
+        listener.evict(notification);
+        listener.evict(notification);
+
+        // Assert
+        verify(firstCache).evict("role", TEST_UUID);
+        verify(secondCache).evict("role", TEST_UUID);
+        verifyNoMoreInteractions(firstCache, secondCache);
+    }
+}
@@ -0,0 +1,192 @@
+/*
+ * Copyright 2025 Firefly Software Solutions Inc
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.firefly.core.users.core.changes;
+
+import com.firefly.core.users.interfaces.dtos.ChangeEventDTO;
+import com.firefly.core.users.interfaces.enums.ChangeTypeEnum;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import reactor.core.Disposable;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ChangeEventBusTest {
+
+    private static final UUID TEST_UUID = UUID.fromString("123e4567-e89b-12d3-a456-426614174000");
+
+    private static final Duration TIMEOUT = Duration.ofSeconds(5);
+
+    private ChangeEventBus bus;
+
+    private String streamId;
+
+    @BeforeEach
+    void setUp() {
+        bus = new ChangeEventBus();
+        ReflectionTestUtils.setField(bus, "replaySize", 3);
+        ReflectionTestUtils.setField(bus, "subscriberBuffer", 2);
+        streamId = (String) ReflectionTestUtils.getField(bus, "streamId");
+    }
+
+    @Test
+    void subscribe_WithoutLastEventId_ShouldOnlyReceiveNewEvents() {
+        // Arrange
+        publish(2);
+
+        // Act & Assert
+        StepVerifier.create(bus.subscribe(null))
+                .then(() -> publish(1))
+                .expectNextMatches(event -> event.getEventId().equals(streamId + "-3")
+                        && event.getType() == ChangeTypeEnum.UPDATED
+                        && TEST_UUID.equals(event.getRecordId()))
+                .thenCancel()
+                .verify(TIMEOUT);
+        assertTrue(subscribers().isEmpty());
+    }
+
+    @Test
+    void subscribe_WithLastEventId_ShouldReplayMissedEventsThenLiveOnes() {
+        // Arrange
+        publish(3);
+
+        // Act & Assert
+        StepVerifier.create(bus.subscribe(streamId + "-1"))
+                .expectNextMatches(event -> event.getEventId().equals(streamId + "-2"))
+                .expectNextMatches(event -> event.getEventId().equals(streamId + "-3"))
+                .then(() -> publish(1))
+                .expectNextMatches(event -> event.getEventId().equals(streamId + "-4"))
+                .thenCancel()
+                .verify(TIMEOUT);
+    }
+
+    @Test
+    void subscribe_WithLatestEventId_ShouldReplayNothing() {
+        // Arrange
+        publish(2);
+
+        // Act & Assert
+        StepVerifier.create(bus.subscribe(streamId + "-2"))
+                .then(() -> publish(1))
+                .expectNextMatches(event -> event.getEventId().equals(streamId + "-3"))
+                .thenCancel()
+                .verify(TIMEOUT);
+    }
+
+    @Test
+    void subscribe_WhenLastEventIdLeftTheReplayBuffer_ShouldSignalResync() {
+        // Arrange
+        publish(5);
+
+        // Act & Assert
+        StepVerifier.create(bus.subscribe(streamId + "-1"))
+                .expectNextMatches(event -> event.getType() == ChangeTypeEnum.RESYNC
+                        && event.getEventId().equals(streamId + "-5"))
+                .thenCancel()
+                .verify(TIMEOUT);
+    }
+
+    @Test
+    void subscribe_WithLastEventIdOfAnotherStream_ShouldSignalResync() {
+        // Arrange
+        publish(1);
+
+        // Act & Assert
+        StepVerifier.create(bus.subscribe("previous-1"))
+                .expectNextMatches(event -> event.getType() == ChangeTypeEnum.RESYNC)
+                .thenCancel()
+                .verify(TIMEOUT);
+        StepVerifier.create(bus.subscribe(streamId + "-7"))
+                .expectNextMatches(event -> event.getType() == ChangeTypeEnum.RESYNC)
+                .thenCancel()
+                .verify(TIMEOUT);
+    }
+
+    @Test
+    void resync_ShouldSignalSubscribersAndStopReplayingAcrossTheGap() {
+        // Arrange
+        publish(2);
+
+        // Act & Assert
+        StepVerifier.create(bus.subscribe(null))
+                .then(bus::resync)
+                .expectNextMatches(event -> event.getType() == ChangeTypeEnum.RESYNC
+                        && event.getEventId().equals(streamId + "-2"))
+                .thenCancel()
+                .verify(TIMEOUT);
+        StepVerifier.create(bus.subscribe(streamId + "-1"))
+                .expectNextMatches(event -> event.getType() == ChangeTypeEnum.RESYNC)
+                .thenCancel()
+                .verify(TIMEOUT);
+        StepVerifier.create(bus.subscribe(streamId + "-2"))
+                .then(() -> publish(1))
+                .expectNextMatches(event -> event.getEventId().equals(streamId + "-3"))
+                .thenCancel()
+                .verify(TIMEOUT);
+    }
+
+    @Test
+    void publish_WhenSubscriberBufferIsFull_ShouldDropSlowSubscriber() {
+        // Act & Assert
+        StepVerifier.create(bus.subscribe(null), 0)
+                .then(() -> publish(3))
+                .then(() -> assertTrue(subscribers().isEmpty()))
+                .thenRequest(10)
+                .expectNextCount(2)
+                .expectErrorMessage("Change stream subscriber is too slow")
+                .verify(TIMEOUT);
+    }
+
+    @Test
+    void publish_WhenOneSubscriberIsSlow_ShouldKeepDeliveringToOthers() {
+        // Arrange
+        List<ChangeEventDTO> received = new CopyOnWriteArrayList<>();
+        Disposable fast = bus.subscribe(null).subscribe(received::add);
+
+        // Act & Assert
+        StepVerifier.create(bus.subscribe(null), 0)
+                .then(() -> publish(3))
+                .thenRequest(10)
+                .expectNextCount(2)
+                .expectError(IllegalStateException.class)
+                .verify(TIMEOUT);
+        assertEquals(3, received.size());
+        assertEquals(1, subscribers().size());
+        fast.dispose();
+        assertTrue(subscribers().isEmpty());
+    }
+
+    private void publish(int count) {
+        for (int i = 0; i < count; i++) {
+            bus.publish("user_account", ChangeTypeEnum.UPDATED, TEST_UUID, null);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private Set<Object> subscribers() {
+        return (Set<Object>) ReflectionTestUtils.getField(bus, "subscribers");
+    }
+}
@@ -0,0 +1,221 @@
+/*
+ * Copyright 2025 Firefly Software Solutions Inc
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.firefly.core.users.core.changes;
+
+import com.firefly.core.users.interfaces.dtos.ChangeSetDTO;
+import com.firefly.core.users.interfaces.dtos.DeletedRecordDTO;
+import com.firefly.core.users.models.entities.UserAccount;
+import com.firefly.core.users.models.repositories.ChangeTombstoneRepository;
+import io.r2dbc.spi.Row;
+import io.r2dbc.spi.RowMetadata;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.r2dbc.convert.R2dbcConverter;
+import org.springframework.data.r2dbc.core.R2dbcEntityTemplate;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.r2dbc.core.RowsFetchSpec;
+import org.springframework.test.util.ReflectionTestUtils;
+import reactor.core.publisher.Flux;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.BiFunction;
+
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ChangeFeedTest {
+
+    private static final UUID FIRST_ID = UUID.fromString("123e4567-e89b-12d3-a456-426614174000");
+    private static final UUID SECOND_ID = UUID.fromString("223e4567-e89b-12d3-a456-426614174000");
+    private static final UUID THIRD_ID = UUID.fromString("323e4567-e89b-12d3-a456-426614174000");
+
+    private static final OffsetDateTime T1 = OffsetDateTime.of(2025, 3, 1, 12, 0, 0, 0, ZoneOffset.UTC);
+    private static final OffsetDateTime T2 = T1.plusSeconds(1);
+    private static final OffsetDateTime T3 = T1.plusSeconds(2);
+
+    @Mock
+    private DatabaseClient databaseClient;
+
+    @Mock
+    private DatabaseClient.GenericExecuteSpec spec;
+
+    @Mock
+    private RowsFetchSpec<Object> rows;
+
+    @Mock
+    private RowMetadata metadata;
+
+    @Mock
+    private R2dbcEntityTemplate template;
+
+    @Mock
+    private R2dbcConverter converter;
+
+    @Mock
+    private ChangeTombstoneRepository tombstones;
+
+    @InjectMocks
+    private ChangeFeed changeFeed;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(changeFeed, "settleTime", Duration.ofSeconds(5));
+        ReflectionTestUtils.setField(changeFeed, "defaultLimit", 500);
+        ReflectionTestUtils.setField(changeFeed, "maxLimit", 5000);
+    }
+
+    @Test
+    void changes_ShouldMergeUpdatesAndDeletionsInOrder() {
+        // Arrange
+        givenChanges(List.of(account(FIRST_ID, T1), account(THIRD_ID, T3)), List.of(deletion(SECOND_ID, T2)));
+
+        // Act & Assert
+        StepVerifier.create(changeFeed.changes(UserAccount.class, null, null, UserAccount::getId))
+                .expectNext(ChangeSetDTO.<UUID>builder()
+                        .changed(List.of(FIRST_ID, THIRD_ID))
+                        .deleted(List.of(deletion(SECOND_ID, T2)))
+                        .watermark(new ChangeWatermark(T3, THIRD_ID).format())
+                        .hasMore(false)
+                        .build())
+                .verifyComplete();
+        verify(spec).bind(0, ChangeWatermark.INITIAL.timestamp());
+        verify(spec).bind(1, ChangeWatermark.INITIAL.id());
+        verify(spec).bind(2, 5000L);
+        verify(spec).bind(3, 501);
+    }
+
+    @Test
+    void changes_WhenLimitReached_ShouldResumeAfterTheLastReturnedChange() {
+        // Arrange
+        ChangeWatermark since = new ChangeWatermark(T1.minusSeconds(1), THIRD_ID);
+        givenChanges(List.of(account(FIRST_ID, T1), account(THIRD_ID, T3)), List.of(deletion(SECOND_ID, T2)));
+
+        // Act & Assert
+        StepVerifier.create(changeFeed.changes(UserAccount.class, since.format(), 2, UserAccount::getId))
+                .expectNext(ChangeSetDTO.<UUID>builder()
+                        .changed(List.of(FIRST_ID))
+                        .deleted(List.of(deletion(SECOND_ID, T2)))
+                        .watermark(new ChangeWatermark(T2, SECOND_ID).format())
+                        .hasMore(true)
+                        .build())
+                .verifyComplete();
+        verify(spec).bind(0, since.timestamp());
+        verify(spec).bind(1, THIRD_ID);
+        verify(spec).bind(3, 3);
+        verify(tombstones).findSince("user_account", since.timestamp(), THIRD_ID, Duration.ofSeconds(5), 3);
+    }
+
+    @Test
+    void changes_WithSameTimestamp_ShouldOrderByUnsignedId() {
+        // Arrange
+        UUID high = UUID.fromString("80000000-0000-0000-0000-000000000000");
+        UUID low = UUID.fromString("00000000-0000-0000-0000-000000000001");
+        givenChanges(List.of(account(high, T1)), List.of(deletion(low, T1)));
+
+        // Act & Assert
+        StepVerifier.create(changeFeed.changes(UserAccount.class, null, 1, UserAccount::getId))
+                .expectNext(ChangeSetDTO.<UUID>builder()
+                        .changed(List.of())
+                        .deleted(List.of(deletion(low, T1)))
+                        .watermark(new ChangeWatermark(T1, low).format())
+                        .hasMore(true)
+                        .build())
+                .verifyComplete();
+    }
+
+    @Test
+    void changes_WithoutChanges_ShouldKeepTheWatermarkAndCapTheLimit() {
+        // Arrange
+        String since = new ChangeWatermark(T1, FIRST_ID).format();
+        givenChanges(List.of(), List.of());
+
+        // Act & Assert
+        StepVerifier.create(changeFeed.changes(UserAccount.class, since, 100_000, UserAccount::getId))
+                .expectNext(ChangeSetDTO.<UUID>builder()
+                        .changed(List.of())
+                        .deleted(List.of())
+                        .watermark(since)
+                        .hasMore(false)
+                        .build())
+                .verifyComplete();
+        verify(spec).bind(3, 5001);
+    }
+
+    @Test
+    void changes_WithMalformedWatermark_ShouldReject() {
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class,
+                () -> changeFeed.changes(UserAccount.class, "not a watermark", null, UserAccount::getId));
+        verifyNoInteractions(databaseClient, tombstones);
+    }
+
+    /**
+     * Answers the changed rows query with the given accounts and the tombstone query with the given deletions.
+     */
+    @SuppressWarnings("unchecked")
+    private void givenChanges(List<UserAccount> changed, List<DeletedRecordDTO> deleted) {
+        Map<Row, UserAccount> accountsByRow = new LinkedHashMap<>();
+        for (UserAccount account : changed) {
+            Row row = mock(Row.class);
+            when(row.get("updated_at", OffsetDateTime.class)).thenReturn(account.getUpdatedAt());
+            when(row.get("id", UUID.class)).thenReturn(account.getId());
+            accountsByRow.put(row, account);
+        }
+        AtomicReference<BiFunction<Row, RowMetadata, Object>> mapper = new AtomicReference<>();
+        when(databaseClient.sql(anyString())).thenReturn(spec);
+        when(spec.bind(anyInt(), any())).thenReturn(spec);
+        when(spec.map(any(BiFunction.class))).thenAnswer(invocation -> {
+            mapper.set(invocation.getArgument(0));
+            return rows;
+        });
+        when(rows.all()).thenAnswer(invocation -> Flux.fromIterable(accountsByRow.keySet())
+                .map(row -> mapper.get().apply(row, metadata)));
+        if (!changed.isEmpty()) {
+            when(template.getConverter()).thenReturn(converter);
+            when(converter.read(eq(UserAccount.class), any(Row.class), eq(metadata)))
+                    .thenAnswer(invocation -> accountsByRow.get(invocation.getArgument(1)));
+        }
+        when(tombstones.findSince(eq("user_account"), any(), any(), any(), anyInt()))
+                .thenReturn(Flux.fromIterable(deleted));
+    }
+
+    private static UserAccount account(UUID id, OffsetDateTime updatedAt) {
+        return UserAccount.builder().id(id).updatedAt(updatedAt).build();
+    }
+
+    private static DeletedRecordDTO deletion(UUID id, OffsetDateTime deletedAt) {
+        return DeletedRecordDTO.builder().id(id).deletedAt(deletedAt).build();
+    }
+}
@@ -0,0 +1,111 @@
+/*
+ * Copyright 2025 Firefly Software Solutions Inc
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.firefly.core.users.core.changes;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.Base64;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ChangeWatermarkTest {
+
+    private static final UUID TEST_UUID = UUID.fromString("123e4567-e89b-12d3-a456-426614174000");
+
+    private static final OffsetDateTime TIMESTAMP = OffsetDateTime.of(2025, 3, 1, 12, 30, 15, 123456000, ZoneOffset.UTC);
+
+    @Test
+    void format_ShouldRoundTripThroughParse() {
+        // Arrange
+        ChangeWatermark watermark = new ChangeWatermark(TIMESTAMP, TEST_UUID);
+
+        // Act
+        String token = watermark.format();
+
+        // Assert
+        assertEquals(watermark, ChangeWatermark.parse(token));
+        assertTrue(token.matches("[A-Za-z0-9_-]+"), token);
+    }
+
+    @Test
+    void parse_ShouldNormalizeTimestampToUtc() {
+        // Arrange
+        OffsetDateTime madrid = TIMESTAMP.withOffsetSameInstant(ZoneOffset.ofHours(2));
+
+        // Act
+        ChangeWatermark parsed = ChangeWatermark.parse(new ChangeWatermark(madrid, TEST_UUID).format());
+
+        // Assert
+        assertEquals(TIMESTAMP, parsed.timestamp());
+    }
+
+    @Test
+    void parse_WithoutToken_ShouldStartFromTheBeginning() {
+        // Act & Assert
+        assertSame(ChangeWatermark.INITIAL, ChangeWatermark.parse(null));
+        assertSame(ChangeWatermark.INITIAL, ChangeWatermark.parse(" "));
+    }
+
+    @Test
+    void parse_WithMalformedToken_ShouldReject() {
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class, () -> ChangeWatermark.parse("not a token"));
+        assertThrows(IllegalArgumentException.class, () -> ChangeWatermark.parse(encode("2025-03-01T12:30:15Z")));
+        assertThrows(IllegalArgumentException.class, () -> ChangeWatermark.parse(encode("yesterday~" + TEST_UUID)));
+        assertThrows(IllegalArgumentException.class, () -> ChangeWatermark.parse(encode("2025-03-01T12:30:15Z~42")));
+    }
+
+    @Test
+    void compareTo_ShouldOrderByTimestampThenId() {
+        // Arrange
+        ChangeWatermark earlier = new ChangeWatermark(TIMESTAMP, TEST_UUID);
+        ChangeWatermark later = new ChangeWatermark(TIMESTAMP.plusNanos(1000), new UUID(0, 0));
+
+        // Act & Assert
+        assertTrue(earlier.compareTo(later) < 0);
+        assertTrue(later.compareTo(earlier) > 0);
+        assertTrue(ChangeWatermark.INITIAL.compareTo(earlier) < 0);
+    }
+
+    @Test
+    void compareTo_ShouldCompareIdsAsUnsignedLikePostgres() {
+        // Arrange
+        UUID low = UUID.fromString("7fffffff-ffff-ffff-ffff-ffffffffffff");
+        UUID high = UUID.fromString("80000000-0000-0000-0000-000000000000");
+        UUID highLeast = UUID.fromString("00000000-0000-0000-8000-000000000000");
+        UUID lowLeast = UUID.fromString("00000000-0000-0000-7fff-ffffffffffff");
+
+        // Act & Assert
+        assertTrue(low.compareTo(high) > 0, "UUID.compareTo is signed");
+        assertTrue(new ChangeWatermark(TIMESTAMP, low).compareTo(new ChangeWatermark(TIMESTAMP, high)) < 0);
+        assertTrue(new ChangeWatermark(TIMESTAMP, lowLeast).compareTo(new ChangeWatermark(TIMESTAMP, highLeast)) < 0);
+        assertEquals(0, new ChangeWatermark(TIMESTAMP, high).compareTo(new ChangeWatermark(
+                TIMESTAMP.withOffsetSameInstant(ZoneOffset.ofHours(-5)), high)));
+    }
+
+    private static String encode(String raw) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,112 @@
+/*
+ * Copyright 2025 Firefly Software Solutions Inc
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.firefly.core.users.core.deadline;
+
+import io.r2dbc.spi.Connection;
+import io.r2dbc.spi.ConnectionFactory;
+import io.r2dbc.spi.Result;
+import io.r2dbc.spi.Statement;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.transaction.support.DefaultTransactionDefinition;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class DeadlineTransactionManagerTest {
+
+    private static final String SET_TIMEOUT = "SET LOCAL statement_timeout = ";
+
+    @Mock
+    private ConnectionFactory connectionFactory;
+
+    @Mock
+    private Connection connection;
+
+    @Mock
+    private Statement statement;
+
+    @Mock
+    private Result result;
+
+    private DeadlineTransactionManager transactionManager;
+
+    @BeforeEach
+    void setUp() {
+        transactionManager = new DeadlineTransactionManager(connectionFactory);
+    }
+
+    @Test
+    void prepareTransactionalConnection_WithDeadline_ShouldSetLocalStatementTimeout() {
+        // Arrange
+        when(connection.createStatement(anyString())).thenReturn(statement);
+        doReturn(Mono.just(result)).when(statement).execute();
+        doReturn(Mono.just(0L)).when(result).getRowsUpdated();
+        Deadline deadline = Deadline.in(Duration.ofSeconds(5));
+
+        // Act
+        StepVerifier.create(transactionManager.prepareTransactionalConnection(connection,
+                        new DefaultTransactionDefinition())
+                        .contextWrite(deadline.context()))
+                .verifyComplete();
+
+        // Assert
+        ArgumentCaptor<String> sql = ArgumentCaptor.forClass(String.class);
+        verify(connection).createStatement(sql.capture());
+        assertTrue(sql.getValue().startsWith(SET_TIMEOUT));
+        long millis = Long.parseLong(sql.getValue().substring(SET_TIMEOUT.length()));
+        assertTrue(millis > 0 && millis <= 5000);
+        verify(statement).execute();
+    }
+
+    @Test
+    void prepareTransactionalConnection_WithoutDeadline_ShouldNotSetTimeout() {
+        // Act
+        StepVerifier.create(transactionManager.prepareTransactionalConnection(connection,
+                        new DefaultTransactionDefinition()))
+                .verifyComplete();
+
+        // Assert
+        verify(connection, never()).createStatement(anyString());
+    }
+
+    @Test
+    void prepareTransactionalConnection_WithPassedDeadline_ShouldFailWithoutStatement() {
+        // Arrange
+        Deadline deadline = Deadline.in(Duration.ofSeconds(-1));
+
+        // Act & Assert
+        StepVerifier.create(transactionManager.prepareTransactionalConnection(connection,
+                        new DefaultTransactionDefinition())
+                        .contextWrite(deadline.context()))
+                .expectError(QueryTimeoutException.class)
+                .verify();
+        verify(connection, never()).createStatement(anyString());
+    }
+}
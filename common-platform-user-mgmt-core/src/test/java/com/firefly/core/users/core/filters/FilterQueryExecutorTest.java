@@ -0,0 +1,266 @@
+/*
+ * Copyright 2025 Firefly Software Solutions Inc
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.firefly.core.users.core.filters;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.firefly.common.core.filters.FilterRequest;
+import com.firefly.common.core.queries.PaginationResponse;
+import com.firefly.core.users.interfaces.dtos.UserAccountDTO;
+import com.firefly.core.users.interfaces.enums.CountStrategyEnum;
+import com.firefly.core.users.models.entities.UserAccount;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.r2dbc.core.R2dbcEntityTemplate;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.r2dbc.core.RowsFetchSpec;
+import org.springframework.test.util.ReflectionTestUtils;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+class FilterQueryExecutorTest {
+
+    private static final UUID TEST_UUID = UUID.fromString("123e4567-e89b-12d3-a456-426614174000");
+
+    private static final Pattern WHERE = Pattern.compile(" WHERE (.*?)(?: ORDER BY .*| LIMIT .*)?$");
+
+    private static final String REQUEST = """
+            {
+              "filters": {"email": "John.Doe@Example.com", "isActive": true},
+              "rangeFilters": {"ranges": {"createdAt": {"from": "2025-01-01T00:00:00Z"}}},
+              "options": {"caseInsensitiveStrings": true},
+              "pagination": {"pageNumber": 0, "pageSize": 10, "sortBy": "email", "sortDirection": "ASC"}
+            }
+            """;
+
+    private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+
+    private final List<Statement> statements = new ArrayList<>();
+
+    private final UserAccount userAccount = UserAccount.builder().id(TEST_UUID).email("john.doe@example.com").build();
+
+    private FilterQueryExecutor executor;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        FilterTemplateCache templates = new FilterTemplateCache();
+        ReflectionTestUtils.setField(templates, "maxEntries", 1000);
+        ReflectionTestUtils.setField(templates, "meterRegistry", new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(templates, "objectMapper", objectMapper);
+        templates.registerMetrics();
+
+        DatabaseClient databaseClient = mock(DatabaseClient.class);
+        when(databaseClient.sql(anyString())).thenAnswer(invocation -> statement(invocation.getArgument(0)));
+
+        FilterCountCache countCache = mock(FilterCountCache.class);
+        when(countCache.get(anyString(), anyString(), any()))
+                .thenAnswer(invocation -> ((Supplier<Mono<Long>>) invocation.getArgument(2)).get());
+
+        executor = new FilterQueryExecutor();
+        ReflectionTestUtils.setField(executor, "template", mock(R2dbcEntityTemplate.class));
+        ReflectionTestUtils.setField(executor, "databaseClient", databaseClient);
+        ReflectionTestUtils.setField(executor, "countCache", countCache);
+        ReflectionTestUtils.setField(executor, "templates", templates);
+        ReflectionTestUtils.setField(executor, "streamFetchSize", 500);
+    }
+
+    @Test
+    void filter_WithAnyCountStrategy_ShouldApplyTheSameCriteria() throws Exception {
+        // Arrange
+        FilterRequest<UserAccountDTO> filterRequest = request(REQUEST);
+        List<List<UUID>> pages = new ArrayList<>();
+
+        // Act
+        for (CountStrategyEnum strategy : CountStrategyEnum.values()) {
+            PaginationResponse<UserAccountDTO> page =
+                    executor.filter(UserAccount.class, filterRequest, strategy, FilterQueryExecutorTest::toDTO).block();
+            pages.add(page.getContent().stream().map(UserAccountDTO::getId).toList());
+        }
+
+        // Assert
+        for (Statement statement : statements) {
+            assertEquals("email ILIKE $1 AND is_active = $2 AND created_at >= $3", statement.where(),
+                    statement.sql());
+            assertEquals(List.of("%John.Doe@Example.com%", true, OffsetDateTime.of(2025, 1, 1, 0, 0, 0, 0, ZoneOffset.UTC)),
+                    statement.filterValues(3), statement.sql());
+        }
+        pages.forEach(ids -> assertEquals(List.of(TEST_UUID), ids));
+    }
+
+    @Test
+    void filter_WithSelectedColumns_ShouldOnlyChangeTheSelectList() throws Exception {
+        // Arrange
+        FilterRequest<UserAccountDTO> filterRequest = request(REQUEST);
+
+        // Act
+        executor.filter(UserAccount.class, filterRequest, List.of(), CountStrategyEnum.NONE,
+                FilterQueryExecutorTest::toDTO).block();
+        executor.filter(UserAccount.class, filterRequest, List.of("id", "email"), CountStrategyEnum.NONE,
+                FilterQueryExecutorTest::toDTO).block();
+
+        // Assert
+        Statement all = statements.get(0);
+        Statement projected = statements.get(1);
+        assertEquals(all.sql().replace("SELECT * ", "SELECT id, email "), projected.sql());
+        assertEquals(all.bindings(), projected.bindings());
+    }
+
+    @Test
+    void stream_ShouldMatchTheSameRowsAsThePagedQuery() throws Exception {
+        // Arrange
+        FilterRequest<UserAccountDTO> filterRequest = request(REQUEST);
+
+        // Act
+        PaginationResponse<UserAccountDTO> page = executor.filter(UserAccount.class, filterRequest,
+                CountStrategyEnum.NONE, FilterQueryExecutorTest::toDTO).block();
+        List<UserAccountDTO> streamed = executor.stream(UserAccount.class, filterRequest,
+                FilterQueryExecutorTest::toDTO).collectList().block();
+
+        // Assert
+        Statement paged = statements.get(0);
+        Statement stream = statements.get(1);
+        assertEquals(paged.sql().replace(" LIMIT $4 OFFSET $5", ""), stream.sql());
+        assertEquals(paged.filterValues(3), stream.filterValues(3));
+        assertEquals(3, stream.bindings().size());
+        assertEquals(page.getContent(), streamed);
+    }
+
+    @Test
+    void filter_WithPartialString_ShouldMatchItAnywhere() throws Exception {
+        // Arrange
+        FilterRequest<UserAccountDTO> filterRequest = request("""
+                {"filters": {"email": "doe"}, "options": {"caseInsensitiveStrings": false}}
+                """);
+
+        // Act
+        PaginationResponse<UserAccountDTO> page = executor.filter(UserAccount.class, filterRequest,
+                CountStrategyEnum.EXACT, FilterQueryExecutorTest::toDTO).block();
+
+        // Assert
+        assertEquals(2, statements.size());
+        statements.forEach(statement -> {
+            assertEquals("email LIKE $1", statement.where(), statement.sql());
+            assertEquals(List.of("%doe%"), statement.filterValues(1), statement.sql());
+        });
+        assertEquals(List.of(TEST_UUID), page.getContent().stream().map(UserAccountDTO::getId).toList());
+    }
+
+    @Test
+    void filter_WithRangeOnBothBounds_ShouldBindConvertedValues() throws Exception {
+        // Arrange
+        FilterRequest<UserAccountDTO> filterRequest = request("""
+                {"rangeFilters": {"ranges": {"updatedAt": {"from": "2025-01-01T00:00:00Z", "to": "2025-02-01T00:00:00Z"}}}}
+                """);
+
+        // Act
+        executor.filter(UserAccount.class, filterRequest, CountStrategyEnum.NONE, FilterQueryExecutorTest::toDTO)
+                .block();
+
+        // Assert
+        Statement select = statements.get(0);
+        assertEquals("updated_at >= $1 AND updated_at <= $2", select.where());
+        assertEquals(List.of(OffsetDateTime.of(2025, 1, 1, 0, 0, 0, 0, ZoneOffset.UTC),
+                OffsetDateTime.of(2025, 2, 1, 0, 0, 0, 0, ZoneOffset.UTC)), select.filterValues(2));
+    }
+
+    @Test
+    void filter_WithUnknownRangeProperty_ShouldRejectRequest() throws Exception {
+        // Arrange
+        FilterRequest<UserAccountDTO> filterRequest = request("""
+                {"rangeFilters": {"ranges": {"password": {"from": "a"}}}}
+                """);
+
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class, () -> executor.filter(UserAccount.class, filterRequest,
+                CountStrategyEnum.EXACT, FilterQueryExecutorTest::toDTO));
+    }
+
+    private FilterRequest<UserAccountDTO> request(String json) throws Exception {
+        return objectMapper.readValue(json, new TypeReference<>() {
+        });
+    }
+
+    private static UserAccountDTO toDTO(UserAccount account) {
+        return UserAccountDTO.builder().id(account.getId()).email(account.getEmail()).build();
+    }
+
+    /**
+     * Records a statement and answers it like a table holding only {@link #userAccount}.
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private DatabaseClient.GenericExecuteSpec statement(String sql) {
+        Statement statement = new Statement(sql, new TreeMap<>());
+        statements.add(statement);
+
+        DatabaseClient.GenericExecuteSpec spec = mock(DatabaseClient.GenericExecuteSpec.class);
+        when(spec.bind(anyInt(), any())).thenAnswer(invocation -> {
+            statement.bindings().put(invocation.getArgument(0), invocation.getArgument(1));
+            return spec;
+        });
+        when(spec.filter(any(Function.class))).thenReturn(spec);
+
+        RowsFetchSpec rows = mock(RowsFetchSpec.class);
+        when(rows.all()).thenReturn(Flux.just(userAccount));
+        when(spec.map(any(BiFunction.class))).thenReturn(rows);
+
+        RowsFetchSpec values = mock(RowsFetchSpec.class);
+        when(values.first()).thenReturn(Mono.just(sql.startsWith("EXPLAIN")
+                ? "Seq Scan on user_account  (cost=0.00..1.01 rows=1 width=4)"
+                : 1L));
+        when(spec.map(any(Function.class))).thenReturn(values);
+        return spec;
+    }
+
+    private record Statement(String sql, Map<Integer, Object> bindings) {
+
+        String where() {
+            Matcher matcher = WHERE.matcher(sql);
+            return matcher.find() ? matcher.group(1) : "";
+        }
+
+        List<Object> filterValues(int count) {
+            List<Object> values = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                values.add(bindings.get(i));
+            }
+            return values;
+        }
+    }
+}
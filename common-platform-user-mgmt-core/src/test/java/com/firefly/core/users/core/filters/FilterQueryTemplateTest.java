@@ -0,0 +1,101 @@
+/*
+ * Copyright 2025 Firefly Software Solutions Inc
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.firefly.core.users.core.filters;
+
+import com.firefly.core.users.core.filters.FilterQueryTemplate.Condition;
+import com.firefly.core.users.core.filters.FilterQueryTemplate.Operator;
+import com.firefly.core.users.models.entities.UserAccount;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Sort;
+import org.springframework.r2dbc.core.DatabaseClient;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.*;
+
+class FilterQueryTemplateTest {
+
+    private static final EntityColumns USER_ACCOUNT = EntityColumns.of(UserAccount.class);
+
+    private static final List<Condition> CONDITIONS = List.of(
+            new Condition("email", "email", Operator.CONTAINS_IGNORE_CASE),
+            new Condition("isActive", "is_active", Operator.EQUALS),
+            new Condition("createdAt", "created_at", Operator.AT_LEAST),
+            new Condition("createdAt", "created_at", Operator.AT_MOST));
+
+    @Test
+    void compile_ShouldShareTheWhereClauseAcrossQueries() {
+        // Act
+        FilterQueryTemplate template = FilterQueryTemplate.compile(USER_ACCOUNT, CONDITIONS, List.of("id", "email"),
+                Sort.by(Sort.Direction.DESC, "createdAt").and(Sort.by("email")));
+
+        // Assert
+        String where = " WHERE email ILIKE $1 AND is_active = $2 AND created_at >= $3 AND created_at <= $4";
+        assertEquals("SELECT id, email FROM user_account" + where
+                + " ORDER BY created_at DESC, email ASC LIMIT $5 OFFSET $6", template.selectSql());
+        assertEquals("SELECT id, email FROM user_account" + where + " ORDER BY created_at DESC, email ASC",
+                template.streamSql());
+        assertEquals("SELECT COUNT(*) FROM user_account" + where, template.countSql());
+        assertTrue(template.isFiltered());
+    }
+
+    @Test
+    void compile_WithoutConditions_ShouldSelectEveryRow() {
+        // Act
+        FilterQueryTemplate template = FilterQueryTemplate.compile(USER_ACCOUNT, List.of(), List.of(), Sort.unsorted());
+
+        // Assert
+        assertEquals("SELECT * FROM user_account LIMIT $1 OFFSET $2", template.selectSql());
+        assertEquals("SELECT COUNT(*) FROM user_account", template.countSql());
+        assertFalse(template.isFiltered());
+    }
+
+    @Test
+    void compile_WithUnknownSortProperty_ShouldReject() {
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class, () -> FilterQueryTemplate.compile(USER_ACCOUNT, List.of(),
+                List.of(), Sort.by("password")));
+    }
+
+    @Test
+    void select_ShouldBindValuesThenPageWindow() {
+        // Arrange
+        FilterQueryTemplate template = FilterQueryTemplate.compile(USER_ACCOUNT, CONDITIONS.subList(0, 2), List.of(),
+                Sort.unsorted());
+        DatabaseClient client = mock(DatabaseClient.class);
+        DatabaseClient.GenericExecuteSpec spec = mock(DatabaseClient.GenericExecuteSpec.class);
+        when(client.sql(template.selectSql())).thenReturn(spec);
+        when(spec.bind(anyInt(), any())).thenReturn(spec);
+
+        // Act
+        template.select(client, List.of("John.Doe@Example.com", true), 11, 20L);
+
+        // Assert
+        verify(spec).bind(0, "John.Doe@Example.com");
+        verify(spec).bind(1, true);
+        verify(spec).bind(2, 11);
+        verify(spec).bind(3, 20L);
+        verifyNoMoreInteractions(spec);
+    }
+}
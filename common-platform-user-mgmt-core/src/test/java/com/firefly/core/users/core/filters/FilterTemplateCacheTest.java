@@ -0,0 +1,130 @@
+/*
+ * Copyright 2025 Firefly Software Solutions Inc
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.firefly.core.users.core.filters;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.firefly.common.core.filters.FilterRequest;
+import com.firefly.core.users.interfaces.dtos.UserAccountDTO;
+import com.firefly.core.users.interfaces.enums.UserTypeEnum;
+import com.firefly.core.users.models.entities.UserAccount;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Sort;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+class FilterTemplateCacheTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private FilterTemplateCache cache;
+
+    @BeforeEach
+    void setUp() {
+        cache = new FilterTemplateCache();
+        ReflectionTestUtils.setField(cache, "maxEntries", 2);
+        ReflectionTestUtils.setField(cache, "meterRegistry", meterRegistry);
+        ReflectionTestUtils.setField(cache, "objectMapper", objectMapper);
+        cache.registerMetrics();
+    }
+
+    @Test
+    void get_WithSameShape_ShouldReuseTemplateAndBindNewValues() throws Exception {
+        // Act
+        FilterTemplateCache.FilterQuery first = get(
+                "{\"filters\": {\"email\": \"a@example.com\", \"userType\": \"EMPLOYEE\"}}");
+        FilterTemplateCache.FilterQuery second = get(
+                "{\"filters\": {\"email\": \"b@example.com\", \"userType\": \"DISTRIBUTOR\"}}");
+
+        // Assert
+        assertSame(first.template(), second.template());
+        assertEquals(List.of("%a@example.com%", UserTypeEnum.EMPLOYEE.name()), first.values());
+        assertEquals(List.of("%b@example.com%", UserTypeEnum.DISTRIBUTOR.name()), second.values());
+        assertEquals(1.0, misses());
+        assertEquals(1.0, hits());
+    }
+
+    @Test
+    void get_WithCaseInsensitiveOption_ShouldCompileAnotherShape() throws Exception {
+        // Act
+        FilterTemplateCache.FilterQuery exact = get("{\"filters\": {\"email\": \"a@example.com\"}}");
+        FilterTemplateCache.FilterQuery ignoringCase = get(
+                "{\"filters\": {\"email\": \"a@example.com\"}, \"options\": {\"caseInsensitiveStrings\": true}}");
+
+        // Assert
+        assertNotSame(exact.template(), ignoringCase.template());
+        assertEquals("SELECT COUNT(*) FROM user_account WHERE email LIKE $1", exact.template().countSql());
+        assertEquals("SELECT COUNT(*) FROM user_account WHERE email ILIKE $1",
+                ignoringCase.template().countSql());
+    }
+
+    @Test
+    void get_WithPartialString_ShouldMatchItAnywhereWithItsWildcardsEscaped() throws Exception {
+        // Act
+        FilterTemplateCache.FilterQuery partial = get("{\"filters\": {\"email\": \"doe\"}}");
+        FilterTemplateCache.FilterQuery wildcards = get("{\"filters\": {\"email\": \"50%_off\\\\\"}}");
+
+        // Assert
+        assertEquals("SELECT COUNT(*) FROM user_account WHERE email LIKE $1", partial.template().countSql());
+        assertEquals(List.of("%doe%"), partial.values());
+        assertSame(partial.template(), wildcards.template());
+        assertEquals(List.of("%50\\%\\_off\\\\%"), wildcards.values());
+    }
+
+    @Test
+    void get_WhenFull_ShouldEvictLeastRecentlyUsedShape() throws Exception {
+        // Arrange
+        String byEmail = "{\"filters\": {\"email\": \"a@example.com\"}}";
+        String byNickname = "{\"filters\": {\"nickname\": \"jd\"}}";
+        String byTimezone = "{\"filters\": {\"timezone\": \"UTC\"}}";
+        FilterQueryTemplate email = get(byEmail).template();
+        FilterQueryTemplate nickname = get(byNickname).template();
+
+        // Act
+        get(byEmail);
+        get(byTimezone);
+
+        // Assert
+        assertSame(email, get(byEmail).template());
+        assertNotSame(nickname, get(byNickname).template());
+        assertEquals(4.0, misses());
+    }
+
+    private FilterTemplateCache.FilterQuery get(String json) throws Exception {
+        FilterRequest<UserAccountDTO> filterRequest = objectMapper.readValue(json, new TypeReference<>() {
+        });
+        return cache.get(UserAccount.class, filterRequest, List.of(), Sort.unsorted());
+    }
+
+    private double hits() {
+        return meterRegistry.counter("user_mgmt.filter.template.cache", "result", "hit").count();
+    }
+
+    private double misses() {
+        return meterRegistry.counter("user_mgmt.filter.template.cache", "result", "miss").count();
+    }
+}
@@ -0,0 +1,194 @@
+/*
+ * Copyright 2025 Firefly Software Solutions Inc
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.firefly.core.users.core.idempotency;
+
+import com.firefly.core.users.interfaces.dtos.IdempotentResponseDTO;
+import com.firefly.core.users.models.repositories.IdempotencyKeyRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class IdempotencyStoreTest {
+
+    private static final UUID TEST_TOKEN = UUID.fromString("123e4567-e89b-12d3-a456-426614174000");
+
+    private static final String CALLER = "client-a";
+
+    private static final String KEY = "6f1c9a52-assign-admin";
+
+    private static final String FINGERPRINT = "3a7bd3e2360a3d29eea436fcfb7e44c735d117c42d1c1835420b6b9942dd4f1b";
+
+    @Mock
+    private IdempotencyKeyRepository repository;
+
+    @InjectMocks
+    private IdempotencyStore store;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(store, "ttl", Duration.ofHours(24));
+        ReflectionTestUtils.setField(store, "lockTimeout", Duration.ofMinutes(1));
+        ReflectionTestUtils.setField(store, "maxEntries", 100);
+    }
+
+    @Test
+    void begin_WithNewKey_ShouldStartWithLockToken() {
+        // Arrange
+        ArgumentCaptor<UUID> token = ArgumentCaptor.forClass(UUID.class);
+        when(repository.lock(eq(CALLER), eq(KEY), eq(FINGERPRINT), token.capture(), any(), any()))
+                .thenReturn(Mono.just(true));
+
+        // Act & Assert
+        StepVerifier.create(store.begin(CALLER, KEY, FINGERPRINT))
+                .assertNext(outcome -> {
+                    assertEquals(IdempotencyOutcome.State.STARTED, outcome.state());
+                    assertNull(outcome.response());
+                    assertEquals(token.getValue(), outcome.lockToken());
+                })
+                .verifyComplete();
+    }
+
+    @Test
+    void begin_WhileAnotherRequestHoldsKey_ShouldBeInProgress() {
+        // Arrange
+        when(repository.lock(eq(CALLER), eq(KEY), eq(FINGERPRINT), any(), any(), any())).thenReturn(Mono.just(false));
+        when(repository.find(CALLER, KEY)).thenReturn(Mono.just(response(CALLER, null)));
+
+        // Act & Assert
+        StepVerifier.create(store.begin(CALLER, KEY, FINGERPRINT))
+                .assertNext(outcome -> {
+                    assertEquals(IdempotencyOutcome.State.IN_PROGRESS, outcome.state());
+                    assertNull(outcome.lockToken());
+                })
+                .verifyComplete();
+    }
+
+    @Test
+    void begin_WithStoredResponse_ShouldReplayAndRememberIt() {
+        // Arrange
+        when(repository.lock(eq(CALLER), eq(KEY), eq(FINGERPRINT), any(), any(), any())).thenReturn(Mono.just(false));
+        when(repository.find(CALLER, KEY)).thenReturn(Mono.just(response(CALLER, 201)));
+
+        // Act & Assert
+        StepVerifier.create(store.begin(CALLER, KEY, FINGERPRINT))
+                .assertNext(outcome -> assertEquals(IdempotencyOutcome.State.REPLAY, outcome.state()))
+                .verifyComplete();
+        StepVerifier.create(store.begin(CALLER, KEY, FINGERPRINT))
+                .assertNext(outcome -> assertEquals(201, outcome.response().getStatus()))
+                .verifyComplete();
+        verify(repository, times(1)).lock(any(), any(), any(), any(), any(), any());
+    }
+
+    @Test
+    void begin_WithSameKeyFromAnotherCaller_ShouldNotReplay() {
+        // Arrange
+        when(repository.complete(eq(CALLER), eq(KEY), eq(TEST_TOKEN), eq(201), any(), any()))
+                .thenReturn(Mono.just(true));
+        when(repository.lock(eq("client-b"), eq(KEY), eq(FINGERPRINT), any(), any(), any()))
+                .thenReturn(Mono.just(true));
+
+        // Act
+        StepVerifier.create(store.complete(CALLER, KEY, TEST_TOKEN, FINGERPRINT, 201, null, new byte[0]))
+                .verifyComplete();
+
+        // Assert
+        StepVerifier.create(store.begin("client-b", KEY, FINGERPRINT))
+                .assertNext(outcome -> assertEquals(IdempotencyOutcome.State.STARTED, outcome.state()))
+                .verifyComplete();
+        StepVerifier.create(store.begin(CALLER, KEY, FINGERPRINT))
+                .assertNext(outcome -> assertEquals(IdempotencyOutcome.State.REPLAY, outcome.state()))
+                .verifyComplete();
+    }
+
+    @Test
+    void complete_AfterTakeover_ShouldNotRememberResponse() {
+        // Arrange
+        when(repository.complete(eq(CALLER), eq(KEY), eq(TEST_TOKEN), eq(201), any(), any()))
+                .thenReturn(Mono.just(false));
+        when(repository.lock(eq(CALLER), eq(KEY), eq(FINGERPRINT), any(), any(), any())).thenReturn(Mono.just(false));
+        when(repository.find(CALLER, KEY)).thenReturn(Mono.just(response(CALLER, null)));
+
+        // Act
+        StepVerifier.create(store.complete(CALLER, KEY, TEST_TOKEN, FINGERPRINT, 201, null, new byte[0]))
+                .verifyComplete();
+
+        // Assert
+        StepVerifier.create(store.begin(CALLER, KEY, FINGERPRINT))
+                .assertNext(outcome -> assertEquals(IdempotencyOutcome.State.IN_PROGRESS, outcome.state()))
+                .verifyComplete();
+    }
+
+    @Test
+    void hold_ShouldRenewLockUntilRequestCompletes() throws InterruptedException {
+        // Arrange
+        ReflectionTestUtils.setField(store, "lockTimeout", Duration.ofMillis(60));
+        when(repository.renew(CALLER, KEY, TEST_TOKEN)).thenReturn(Mono.just(true));
+
+        // Act
+        StepVerifier.create(store.hold(CALLER, KEY, TEST_TOKEN, Mono.delay(Duration.ofMillis(200)).then()))
+                .verifyComplete();
+        int renewals = mockingDetails(repository).getInvocations().size();
+        Thread.sleep(100);
+
+        // Assert
+        verify(repository, atLeast(2)).renew(CALLER, KEY, TEST_TOKEN);
+        assertEquals(renewals, mockingDetails(repository).getInvocations().size());
+    }
+
+    @Test
+    void release_ShouldPassLockToken() {
+        // Arrange
+        when(repository.release(CALLER, KEY, TEST_TOKEN)).thenReturn(Mono.empty());
+
+        // Act & Assert
+        StepVerifier.create(store.release(CALLER, KEY, TEST_TOKEN))
+                .verifyComplete();
+        verify(repository).release(CALLER, KEY, TEST_TOKEN);
+        verify(repository, never()).complete(any(), any(), any(), anyInt(), any(), any());
+    }
+
+    private static IdempotentResponseDTO response(String caller, Integer status) {
+        return IdempotentResponseDTO.builder()
+                .caller(caller)
+                .idempotencyKey(KEY)
+                .requestFingerprint(FINGERPRINT)
+                .status(status)
+                .body(new byte[0])
+                .expiresAt(OffsetDateTime.now().plusHours(1))
+                .build();
+    }
+}
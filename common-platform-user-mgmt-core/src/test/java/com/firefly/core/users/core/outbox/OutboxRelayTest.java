@@ -0,0 +1,193 @@
+/*
+ * Copyright 2025 Firefly Software Solutions Inc
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.firefly.core.users.core.outbox;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.firefly.core.users.interfaces.dtos.OutboxEventDTO;
+import com.firefly.core.users.interfaces.enums.ChangeTypeEnum;
+import com.firefly.core.users.models.repositories.OutboxRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class OutboxRelayTest {
+
+    private static final UUID TEST_UUID = UUID.fromString("123e4567-e89b-12d3-a456-426614174000");
+
+    @Mock
+    private OutboxRepository repository;
+
+    @Mock
+    private TransactionalOperator transactionalOperator;
+
+    @Spy
+    private InProcessOutboxPublisher publisher = new InProcessOutboxPublisher();
+
+    @InjectMocks
+    private OutboxRelay relay;
+
+    private final List<OutboxEventDTO> published = new CopyOnWriteArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(relay, "batchSize", 2);
+        ReflectionTestUtils.setField(relay, "retention", Duration.ofDays(7));
+        ReflectionTestUtils.setField(relay, "purgeBatchSize", 2);
+        publisher.events().subscribe(published::add);
+    }
+
+    @Test
+    void drain_ShouldPublishBatchesInOrderAndMarkThemPublished() {
+        // Arrange
+        givenTransactions();
+        when(repository.tryLease()).thenReturn(Mono.just(true));
+        when(repository.findUnpublished(2)).thenReturn(Flux.just(event(1), event(2)), Flux.just(event(3)));
+        when(repository.markPublished(List.of(1L, 2L))).thenReturn(Mono.just(2L));
+        when(repository.markPublished(List.of(3L))).thenReturn(Mono.just(1L));
+
+        // Act & Assert
+        StepVerifier.create(relay.drain())
+                .expectNext(3L)
+                .verifyComplete();
+        assertEquals(List.of(1L, 2L, 3L), published.stream().map(OutboxEventDTO::getId).toList());
+        verify(transactionalOperator, times(2)).transactional(any(Mono.class));
+    }
+
+    @Test
+    void drain_WhenAnotherInstanceHoldsTheLease_ShouldPublishNothing() {
+        // Arrange
+        givenTransactions();
+        when(repository.tryLease()).thenReturn(Mono.just(false));
+
+        // Act & Assert
+        StepVerifier.create(relay.drain())
+                .expectNext(0L)
+                .verifyComplete();
+        assertTrue(published.isEmpty());
+        verify(repository, never()).findUnpublished(anyInt());
+        verify(repository, never()).markPublished(any());
+    }
+
+    @Test
+    void drain_WhenPublishingFails_ShouldLeaveTheBatchUnpublished() {
+        // Arrange
+        givenTransactions();
+        when(repository.tryLease()).thenReturn(Mono.just(true));
+        when(repository.findUnpublished(2)).thenReturn(Flux.just(event(1), event(2)));
+        doReturn(Mono.error(new IOException("Broker unavailable"))).when(publisher).publish(any());
+
+        // Act & Assert
+        StepVerifier.create(relay.drain())
+                .expectErrorMessage("Broker unavailable")
+                .verify();
+        verify(repository, never()).markPublished(any());
+    }
+
+    @Test
+    void drain_WithFilePublisher_ShouldAppendEventsAsNdjson(@TempDir Path directory) throws IOException {
+        // Arrange
+        Path file = directory.resolve("outbox-events.ndjson");
+        LocalFileOutboxPublisher filePublisher = new LocalFileOutboxPublisher();
+        ReflectionTestUtils.setField(filePublisher, "path", file);
+        ReflectionTestUtils.setField(filePublisher, "objectMapper", new ObjectMapper().findAndRegisterModules());
+        ReflectionTestUtils.setField(relay, "publisher", filePublisher);
+        givenTransactions();
+        when(repository.tryLease()).thenReturn(Mono.just(true));
+        when(repository.findUnpublished(2)).thenReturn(Flux.just(event(1)));
+        when(repository.markPublished(List.of(1L))).thenReturn(Mono.just(1L));
+
+        // Act & Assert
+        StepVerifier.create(relay.drain())
+                .expectNext(1L)
+                .verifyComplete();
+        List<String> lines = Files.readAllLines(file);
+        assertEquals(1, lines.size());
+        assertTrue(lines.get(0).contains("\"aggregateId\":\"" + TEST_UUID + "\""), lines.get(0));
+    }
+
+    @Test
+    void start_WithoutPublisher_ShouldNotRunTheRelay() {
+        // Arrange
+        ReflectionTestUtils.setField(relay, "enabled", true);
+        ReflectionTestUtils.setField(relay, "interval", Duration.ofMillis(1));
+        ReflectionTestUtils.setField(relay, "purgeInterval", Duration.ofMillis(1));
+        ReflectionTestUtils.setField(relay, "publisher", null);
+
+        // Act
+        relay.start();
+
+        // Assert
+        assertNull(ReflectionTestUtils.getField(relay, "relay"));
+        assertNull(ReflectionTestUtils.getField(relay, "purger"));
+        verifyNoInteractions(repository);
+    }
+
+    @Test
+    void purge_ShouldDeleteInBatchesUntilFewerRowsAreLeft() {
+        // Arrange
+        when(repository.deletePublishedBefore(Duration.ofDays(7), 2))
+                .thenReturn(Mono.just(2L), Mono.just(2L), Mono.just(1L));
+
+        // Act & Assert
+        StepVerifier.create(relay.purge())
+                .expectNext(5L)
+                .verifyComplete();
+        verify(repository, times(3)).deletePublishedBefore(Duration.ofDays(7), 2);
+    }
+
+    @SuppressWarnings("unchecked")
+    private void givenTransactions() {
+        when(transactionalOperator.transactional(any(Mono.class))).thenAnswer(invocation -> invocation.getArgument(0));
+    }
+
+    private static OutboxEventDTO event(long id) {
+        return OutboxEventDTO.builder()
+                .id(id)
+                .aggregateType("user_account")
+                .aggregateId(TEST_UUID)
+                .eventType(ChangeTypeEnum.UPDATED)
+                .payload("{\"id\":\"" + TEST_UUID + "\"}")
+                .build();
+    }
+}
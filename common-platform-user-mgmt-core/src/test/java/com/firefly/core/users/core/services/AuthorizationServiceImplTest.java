@@ -0,0 +1,335 @@
+/*
+ * Copyright 2025 Firefly Software Solutions Inc
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+
+package com.firefly.core.users.core.services;
+
+import com.firefly.core.users.authz.MappedPolicySnapshot;
+import com.firefly.core.users.authz.PermissionMatcher;
+import com.firefly.core.users.core.authz.PolicyVersion;
+import com.firefly.core.users.core.authz.RolePermissionMatchers;
+import com.firefly.core.users.core.changes.ChangeFeed;
+import com.firefly.core.users.core.changes.ChangeWatermark;
+import com.firefly.core.users.core.services.impl.AuthorizationServiceImpl;
+import com.firefly.core.users.interfaces.dtos.AuthorizationCheckDTO;
+import com.firefly.core.users.interfaces.dtos.AuthorizationDecisionDTO;
+import com.firefly.core.users.interfaces.dtos.ChangeSetDTO;
+import com.firefly.core.users.interfaces.dtos.DeletedRecordDTO;
+import com.firefly.core.users.interfaces.dtos.PolicyAssignmentDTO;
+import com.firefly.core.users.interfaces.dtos.ResourceScopeDTO;
+import com.firefly.core.users.interfaces.dtos.RoleGrantsDTO;
+import com.firefly.core.users.models.entities.Permission;
+import com.firefly.core.users.models.entities.Role;
+import com.firefly.core.users.models.entities.RolePermission;
+import com.firefly.core.users.models.entities.UserAccount;
+import com.firefly.core.users.models.entities.UserRole;
+import com.firefly.core.users.models.repositories.PolicyRepository;
+import com.firefly.core.users.models.repositories.UserAccountRepository;
+import com.firefly.core.users.models.repositories.UserRoleRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.nio.ByteBuffer;
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class AuthorizationServiceImplTest {
+
+    private static final UUID USER_ID = UUID.fromString("123e4567-e89b-12d3-a456-426614174000");
+    private static final UUID GLOBAL_ROLE_ID = UUID.fromString("223e4567-e89b-12d3-a456-426614174000");
+    private static final UUID BRANCH_ROLE_ID = UUID.fromString("323e4567-e89b-12d3-a456-426614174000");
+    private static final UUID BRANCH_ID = UUID.fromString("423e4567-e89b-12d3-a456-426614174000");
+    private static final UUID OTHER_BRANCH_ID = UUID.fromString("523e4567-e89b-12d3-a456-426614174000");
+    private static final UUID DISTRIBUTOR_ID = UUID.fromString("623e4567-e89b-12d3-a456-426614174000");
+
+    @Mock
+    private UserAccountRepository userAccountRepository;
+
+    @Mock
+    private UserRoleRepository userRoleRepository;
+
+    @Mock
+    private RolePermissionMatchers matchers;
+
+    @Mock
+    private PolicyRepository policyRepository;
+
+    @Mock
+    private ChangeFeed changeFeed;
+
+    @InjectMocks
+    private AuthorizationServiceImpl service;
+
+    private UserAccount userAccount;
+
+    @BeforeEach
+    void setUp() {
+        userAccount = new UserAccount();
+        userAccount.setId(USER_ID);
+        userAccount.setIsActive(true);
+        ReflectionTestUtils.setField(service, "settleTime", Duration.ofSeconds(5));
+    }
+
+    @Test
+    void authorizeBatch_ShouldResolveAssignmentsOnceAndDecideEachCheckInOrder() {
+        // Arrange
+        when(userAccountRepository.findById(USER_ID)).thenReturn(Mono.just(userAccount));
+        when(userRoleRepository.findByUserAccountId(USER_ID)).thenReturn(Flux.just(
+                UserRole.builder().userAccountId(USER_ID).roleId(GLOBAL_ROLE_ID).build(),
+                UserRole.builder().userAccountId(USER_ID).roleId(BRANCH_ROLE_ID).branchId(BRANCH_ID).build()));
+        when(matchers.get(GLOBAL_ROLE_ID)).thenReturn(Mono.just(PermissionMatcher.compile(List.of("users:read"))));
+        when(matchers.get(BRANCH_ROLE_ID)).thenReturn(Mono.just(PermissionMatcher.compile(List.of("payments:*"))));
+
+        List<AuthorizationCheckDTO> checks = List.of(
+                AuthorizationCheckDTO.builder().permission("users:read").branchId(OTHER_BRANCH_ID).build(),
+                AuthorizationCheckDTO.builder().permission("payments:refund").branchId(BRANCH_ID).build(),
+                AuthorizationCheckDTO.builder().permission("payments:refund").branchId(OTHER_BRANCH_ID).build(),
+                AuthorizationCheckDTO.builder().permission("payments:refund").build());
+
+        // Act & Assert
+        StepVerifier.create(service.authorizeBatch(USER_ID, checks).map(AuthorizationDecisionDTO::isGranted))
+                .expectNext(true, true, false, false)
+                .verifyComplete();
+
+        verify(userRoleRepository, times(1)).findByUserAccountId(USER_ID);
+    }
+
+    @Test
+    void authorizeBatch_WhenUserIsInactive_ShouldDenyEveryCheck() {
+        // Arrange
+        userAccount.setIsActive(false);
+        when(userAccountRepository.findById(USER_ID)).thenReturn(Mono.just(userAccount));
+
+        // Act & Assert
+        StepVerifier.create(service.authorizeBatch(USER_ID,
+                        List.of(AuthorizationCheckDTO.builder().permission("users:read").build())))
+                .expectNextMatches(decision -> !decision.isGranted() && decision.getPermission().equals("users:read"))
+                .verifyComplete();
+
+        verify(userRoleRepository, never()).findByUserAccountId(any());
+    }
+
+    @Test
+    void authorizeBatch_WhenUserDoesNotExist_ShouldReturnError() {
+        // Arrange
+        when(userAccountRepository.findById(USER_ID)).thenReturn(Mono.empty());
+
+        // Act & Assert
+        StepVerifier.create(service.authorizeBatch(USER_ID,
+                        List.of(AuthorizationCheckDTO.builder().permission("users:read").build())))
+                .expectErrorMatches(throwable -> throwable instanceof RuntimeException &&
+                        throwable.getMessage().equals("User account not found with ID: " + USER_ID))
+                .verify();
+    }
+
+    @Test
+    void authorizeBatch_WhenTooManyChecks_ShouldReturnError() {
+        // Arrange
+        List<AuthorizationCheckDTO> checks = new ArrayList<>(Collections.nCopies(1001,
+                AuthorizationCheckDTO.builder().permission("users:read").build()));
+
+        // Act & Assert
+        StepVerifier.create(service.authorizeBatch(USER_ID, checks))
+                .expectError(IllegalArgumentException.class)
+                .verify();
+
+        verifyNoInteractions(userAccountRepository, userRoleRepository, matchers);
+    }
+
+    @Test
+    void filterAuthorizedScopes_ShouldReturnScopesCoveredByAssignmentsGrantingThePermission() {
+        // Arrange
+        when(userAccountRepository.findById(USER_ID)).thenReturn(Mono.just(userAccount));
+        when(userRoleRepository.findByUserAccountId(USER_ID)).thenReturn(Flux.just(
+                UserRole.builder().userAccountId(USER_ID).roleId(GLOBAL_ROLE_ID).build(),
+                UserRole.builder().userAccountId(USER_ID).roleId(BRANCH_ROLE_ID).branchId(BRANCH_ID).build(),
+                UserRole.builder().userAccountId(USER_ID).roleId(BRANCH_ROLE_ID).distributorId(DISTRIBUTOR_ID).build()));
+        when(matchers.get(GLOBAL_ROLE_ID)).thenReturn(Mono.just(PermissionMatcher.compile(List.of("users:read"))));
+        when(matchers.get(BRANCH_ROLE_ID)).thenReturn(Mono.just(PermissionMatcher.compile(List.of("payments:*"))));
+
+        Flux<ResourceScopeDTO> scopes = Flux.just(
+                ResourceScopeDTO.builder().resourceId("1").branchId(BRANCH_ID).build(),
+                ResourceScopeDTO.builder().resourceId("2").branchId(OTHER_BRANCH_ID).build(),
+                ResourceScopeDTO.builder().resourceId("3").branchId(OTHER_BRANCH_ID).distributorId(DISTRIBUTOR_ID).build(),
+                ResourceScopeDTO.builder().resourceId("4").build());
+
+        // Act & Assert
+        StepVerifier.create(service.filterAuthorizedScopes(USER_ID, "payments:refund", scopes)
+                        .map(ResourceScopeDTO::getResourceId))
+                .expectNext("1", "3")
+                .verifyComplete();
+    }
+
+    @Test
+    void filterAuthorizedScopes_WhenPermissionIsHeldGlobally_ShouldReturnEveryScope() {
+        // Arrange
+        when(userAccountRepository.findById(USER_ID)).thenReturn(Mono.just(userAccount));
+        when(userRoleRepository.findByUserAccountId(USER_ID)).thenReturn(Flux.just(
+                UserRole.builder().userAccountId(USER_ID).roleId(GLOBAL_ROLE_ID).build()));
+        when(matchers.get(GLOBAL_ROLE_ID)).thenReturn(Mono.just(PermissionMatcher.compile(List.of("users:*"))));
+
+        Flux<ResourceScopeDTO> scopes = Flux.just(
+                ResourceScopeDTO.builder().resourceId("1").branchId(BRANCH_ID).build(),
+                ResourceScopeDTO.builder().resourceId("2").distributorId(DISTRIBUTOR_ID).build());
+
+        // Act & Assert
+        StepVerifier.create(service.filterAuthorizedScopes(USER_ID, "users:read", scopes)
+                        .map(ResourceScopeDTO::getResourceId))
+                .expectNext("1", "2")
+                .verifyComplete();
+    }
+
+    @Test
+    void getPolicySnapshot_ShouldReturnPolicyVersionedBeforeSettleTime() {
+        // Arrange
+        OffsetDateTime now = OffsetDateTime.parse("2025-01-01T12:00:00Z");
+        when(policyRepository.currentTimestamp()).thenReturn(Mono.just(now));
+        when(policyRepository.findRoleGrants()).thenReturn(Flux.just(
+                new RoleGrantsDTO(GLOBAL_ROLE_ID, List.of("users:read"))));
+        when(policyRepository.findAssignments()).thenReturn(Flux.just(
+                new PolicyAssignmentDTO(UUID.randomUUID(), USER_ID, GLOBAL_ROLE_ID, null, null)));
+        when(policyRepository.findInactiveUserIds()).thenReturn(Flux.empty());
+
+        // Act & Assert
+        StepVerifier.create(service.getPolicySnapshot())
+                .expectNextMatches(snapshot -> snapshot.getRoles().size() == 1
+                        && snapshot.getAssignments().size() == 1
+                        && snapshot.getInactiveUserIds().isEmpty()
+                        && PolicyVersion.parse(snapshot.getVersion()).userRoles()
+                                .equals(new ChangeWatermark(now.minusSeconds(5), new UUID(0, 0))))
+                .verifyComplete();
+    }
+
+    @Test
+    void exportPolicySnapshot_ShouldWriteBinarySnapshotAnsweringChecks() {
+        // Arrange
+        UUID inactiveUserId = UUID.randomUUID();
+        when(policyRepository.currentTimestamp()).thenReturn(Mono.just(OffsetDateTime.parse("2025-01-01T12:00:00Z")));
+        when(policyRepository.findRoleGrants()).thenReturn(Flux.just(
+                new RoleGrantsDTO(GLOBAL_ROLE_ID, List.of("users:read")),
+                new RoleGrantsDTO(BRANCH_ROLE_ID, List.of("payments:*"))));
+        when(policyRepository.findAssignments()).thenReturn(Flux.just(
+                new PolicyAssignmentDTO(UUID.randomUUID(), USER_ID, GLOBAL_ROLE_ID, null, null),
+                new PolicyAssignmentDTO(UUID.randomUUID(), USER_ID, BRANCH_ROLE_ID, BRANCH_ID, null),
+                new PolicyAssignmentDTO(UUID.randomUUID(), inactiveUserId, GLOBAL_ROLE_ID, null, null)));
+        when(policyRepository.findInactiveUserIds()).thenReturn(Flux.just(inactiveUserId));
+
+        // Act & Assert
+        StepVerifier.create(service.exportPolicySnapshot().map(bytes -> MappedPolicySnapshot.wrap(ByteBuffer.wrap(bytes))))
+                .expectNextMatches(snapshot -> snapshot.assignmentCount() == 3
+                        && snapshot.isGranted(USER_ID, "users:read", OTHER_BRANCH_ID, null)
+                        && snapshot.isGranted(USER_ID, "payments:refund", BRANCH_ID, null)
+                        && !snapshot.isGranted(USER_ID, "payments:refund", OTHER_BRANCH_ID, null)
+                        && !snapshot.isGranted(inactiveUserId, "users:read", null, null))
+                .verifyComplete();
+    }
+
+    @Test
+    void getPolicyChanges_WhenOnlyAssignmentsAndUsersChanged_ShouldNotResendRoles() {
+        // Arrange
+        UUID deletedAssignmentId = UUID.randomUUID();
+        UUID deletedUserId = UUID.randomUUID();
+        UserAccount deactivated = new UserAccount();
+        deactivated.setId(USER_ID);
+        deactivated.setIsActive(false);
+        PolicyAssignmentDTO assignment = new PolicyAssignmentDTO(UUID.randomUUID(), USER_ID, BRANCH_ROLE_ID,
+                BRANCH_ID, null);
+        stubChanges(Role.class, changeSet(List.of(), List.of()));
+        stubChanges(Permission.class, changeSet(List.of(), List.of()));
+        stubChanges(RolePermission.class, changeSet(List.of(), List.of()));
+        stubChanges(UserRole.class, changeSet(List.of(assignment), List.of(deleted(deletedAssignmentId))));
+        stubChanges(UserAccount.class, changeSet(List.of(deactivated), List.of(deleted(deletedUserId))));
+
+        // Act & Assert
+        StepVerifier.create(service.getPolicyChanges(initialVersion()))
+                .expectNextMatches(delta -> delta.getRoles() == null
+                        && delta.getAssignments().equals(List.of(assignment))
+                        && delta.getDeletedAssignmentIds().equals(List.of(deletedAssignmentId))
+                        && delta.getActivatedUserIds().isEmpty()
+                        && delta.getDeactivatedUserIds().equals(List.of(USER_ID, deletedUserId))
+                        && !delta.getHasMore())
+                .verifyComplete();
+
+        verify(policyRepository, never()).findRoleGrants();
+    }
+
+    @Test
+    void getPolicyChanges_WhenRolePermissionChanged_ShouldResendEveryRole() {
+        // Arrange
+        stubChanges(Role.class, changeSet(List.of(), List.of()));
+        stubChanges(Permission.class, changeSet(List.of(), List.of()));
+        stubChanges(RolePermission.class, changeSet(List.of(UUID.randomUUID()), List.of()));
+        stubChanges(UserRole.class, changeSet(List.of(), List.of()));
+        stubChanges(UserAccount.class, changeSet(List.of(), List.of()));
+        when(policyRepository.findRoleGrants()).thenReturn(Flux.just(
+                new RoleGrantsDTO(GLOBAL_ROLE_ID, List.of("users:*")),
+                new RoleGrantsDTO(BRANCH_ROLE_ID, List.of("payments:refund"))));
+
+        // Act & Assert
+        StepVerifier.create(service.getPolicyChanges(initialVersion()))
+                .expectNextMatches(delta -> delta.getRoles().size() == 2 && delta.getAssignments().isEmpty())
+                .verifyComplete();
+    }
+
+    @Test
+    void getPolicyChanges_WithMalformedVersion_ShouldReturnError() {
+        // Act & Assert
+        StepVerifier.create(service.getPolicyChanges("not-a-version"))
+                .expectError(IllegalArgumentException.class)
+                .verify();
+
+        verifyNoInteractions(changeFeed);
+    }
+
+    private void stubChanges(Class<?> entityClass, ChangeSetDTO<?> changes) {
+        doReturn(Mono.just(changes)).when(changeFeed).changes(eq(entityClass), any(), any(), any());
+    }
+
+    private static String initialVersion() {
+        return PolicyVersion.at(ChangeWatermark.INITIAL).format();
+    }
+
+    private static DeletedRecordDTO deleted(UUID id) {
+        return new DeletedRecordDTO(id, OffsetDateTime.parse("2025-01-01T12:00:00Z"));
+    }
+
+    private static <D> ChangeSetDTO<D> changeSet(List<D> changed, List<DeletedRecordDTO> deleted) {
+        return ChangeSetDTO.<D>builder()
+                .changed(changed)
+                .deleted(deleted)
+                .watermark(ChangeWatermark.INITIAL.format())
+                .hasMore(false)
+                .build();
+    }
+}
@@ -19,6 +19,8 @@ package com.firefly.core.users.core.services;
 
 import com.firefly.common.core.filters.FilterRequest;
 import com.firefly.common.core.queries.PaginationResponse;
+import com.firefly.core.users.core.changes.ChangeEventPublisher;
+import com.firefly.core.users.core.changes.ChangeFeed;
 import com.firefly.core.users.core.mappers.PermissionMapper;
 import com.firefly.core.users.core.services.impl.PermissionServiceImpl;
 import com.firefly.core.users.interfaces.dtos.PermissionDTO;
@@ -50,6 +52,12 @@ class PermissionServiceImplTest {
     @Mock
     private PermissionMapper mapper;
 
+    @Mock
+    private ChangeFeed changeFeed;
+
+    @Mock
+    private ChangeEventPublisher changeEvents;
+
     @InjectMocks
     private PermissionServiceImpl service;
 
@@ -84,6 +92,7 @@ class PermissionServiceImplTest {
         when(mapper.toEntity(any(PermissionDTO.class))).thenReturn(permission);
         when(repository.save(any(Permission.class))).thenReturn(Mono.just(permission));
         when(mapper.toDTO(any(Permission.class))).thenReturn(permissionDTO);
+        when(changeEvents.publishAfterCommit(any(), any(), any(), any())).thenReturn(Mono.empty());
 
         // Act & Assert
         StepVerifier.create(service.createPermission(permissionDTO))
@@ -102,6 +111,7 @@ class PermissionServiceImplTest {
         when(mapper.toEntity(any(PermissionDTO.class))).thenReturn(permission);
         when(repository.save(any(Permission.class))).thenReturn(Mono.just(permission));
         when(mapper.toDTO(any(Permission.class))).thenReturn(permissionDTO);
+        when(changeEvents.publishAfterCommit(any(), any(), any(), any())).thenReturn(Mono.empty());
 
         // Act & Assert
         StepVerifier.create(service.updatePermission(TEST_UUID, permissionDTO))
@@ -136,6 +146,8 @@ class PermissionServiceImplTest {
         // Arrange
         when(repository.findById(any(UUID.class))).thenReturn(Mono.just(permission));
         when(repository.deleteById(any(UUID.class))).thenReturn(Mono.empty());
+        when(changeFeed.recordDeletion(Permission.class, TEST_UUID)).thenReturn(Mono.empty());
+        when(changeEvents.publishAfterCommit(any(), any(), any(), any())).thenReturn(Mono.empty());
 
         // Act & Assert
         StepVerifier.create(service.deletePermission(TEST_UUID))
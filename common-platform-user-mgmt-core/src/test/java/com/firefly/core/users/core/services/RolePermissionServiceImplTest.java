@@ -19,7 +19,12 @@ package com.firefly.core.users.core.services;
 
 import com.firefly.common.core.filters.FilterRequest;
 import com.firefly.common.core.queries.PaginationResponse;
+import com.firefly.core.users.authz.PermissionMatcher;
+import com.firefly.core.users.core.authz.RolePermissionMatchers;
+import com.firefly.core.users.core.changes.ChangeEventPublisher;
+import com.firefly.core.users.core.changes.ChangeFeed;
 import com.firefly.core.users.core.mappers.RolePermissionMapper;
+import com.firefly.core.users.core.outbox.OutboxWriter;
 import com.firefly.core.users.core.services.impl.RolePermissionServiceImpl;
 import com.firefly.core.users.interfaces.dtos.RolePermissionDTO;
 import com.firefly.core.users.models.entities.RolePermission;
@@ -30,9 +35,11 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 import reactor.test.StepVerifier;
 
+import java.util.List;
 import java.util.UUID;
 
 import static org.mockito.ArgumentMatchers.any;
@@ -50,6 +57,18 @@ class RolePermissionServiceImplTest {
     @Mock
     private RolePermissionMapper mapper;
 
+    @Mock
+    private ChangeFeed changeFeed;
+
+    @Mock
+    private ChangeEventPublisher changeEvents;
+
+    @Mock
+    private OutboxWriter outbox;
+
+    @Mock
+    private RolePermissionMatchers matchers;
+
     @InjectMocks
     private RolePermissionServiceImpl service;
 
@@ -84,6 +103,8 @@ class RolePermissionServiceImplTest {
         when(mapper.toEntity(any(RolePermissionDTO.class))).thenReturn(rolePermission);
         when(repository.save(any(RolePermission.class))).thenReturn(Mono.just(rolePermission));
         when(mapper.toDTO(any(RolePermission.class))).thenReturn(rolePermissionDTO);
+        when(changeEvents.publishAfterCommit(any(), any(), any(), any())).thenReturn(Mono.empty());
+        when(outbox.append(any(), any(), any(), any())).thenReturn(Mono.empty());
 
         // Act & Assert
         StepVerifier.create(service.createRolePermission(rolePermissionDTO))
@@ -102,6 +123,8 @@ class RolePermissionServiceImplTest {
         when(mapper.toEntity(any(RolePermissionDTO.class))).thenReturn(rolePermission);
         when(repository.save(any(RolePermission.class))).thenReturn(Mono.just(rolePermission));
         when(mapper.toDTO(any(RolePermission.class))).thenReturn(rolePermissionDTO);
+        when(changeEvents.publishAfterCommit(any(), any(), any(), any())).thenReturn(Mono.empty());
+        when(outbox.append(any(), any(), any(), any())).thenReturn(Mono.empty());
 
         // Act & Assert
         StepVerifier.create(service.updateRolePermission(TEST_UUID, rolePermissionDTO))
@@ -136,6 +159,9 @@ class RolePermissionServiceImplTest {
         // Arrange
         when(repository.findById(any(UUID.class))).thenReturn(Mono.just(rolePermission));
         when(repository.deleteById(any(UUID.class))).thenReturn(Mono.empty());
+        when(changeFeed.recordDeletion(RolePermission.class, TEST_UUID)).thenReturn(Mono.empty());
+        when(changeEvents.publishAfterCommit(any(), any(), any(), any())).thenReturn(Mono.empty());
+        when(outbox.append(any(), any(), any(), any())).thenReturn(Mono.empty());
 
         // Act & Assert
         StepVerifier.create(service.deleteRolePermission(TEST_UUID))
@@ -189,4 +215,42 @@ class RolePermissionServiceImplTest {
         verify(repository).findById(TEST_UUID);
         verify(mapper, never()).toDTO(any());
     }
+
+    @Test
+    void getEffectiveRolePermissions_ShouldReturnPermissionsOfRoleAndAncestors() {
+        // Arrange
+        when(repository.findEffectiveByRoleId(TEST_UUID)).thenReturn(Flux.just(rolePermission));
+        when(mapper.toDTO(any(RolePermission.class))).thenReturn(rolePermissionDTO);
+
+        // Act & Assert
+        StepVerifier.create(service.getEffectiveRolePermissions(TEST_UUID))
+                .expectNext(rolePermissionDTO)
+                .verifyComplete();
+
+        verify(repository).findEffectiveByRoleId(TEST_UUID);
+    }
+
+    @Test
+    void hasPermission_WhenGrantedByWildcard_ShouldReturnTrue() {
+        // Arrange
+        when(matchers.get(TEST_UUID)).thenReturn(Mono.just(PermissionMatcher.compile(List.of("payments:*"))));
+
+        // Act & Assert
+        StepVerifier.create(service.hasPermission(TEST_UUID, "payments:refund:full"))
+                .expectNext(true)
+                .verifyComplete();
+    }
+
+    @Test
+    void hasPermission_WhenNotGranted_ShouldReturnFalse() {
+        // Arrange
+        when(matchers.get(TEST_UUID)).thenReturn(Mono.just(PermissionMatcher.compile(List.of("payments:refund:*", "users:read"))));
+
+        // Act & Assert
+        StepVerifier.create(service.hasPermission(TEST_UUID, "payments:refund"))
+                .expectNext(false)
+                .verifyComplete();
+
+        verify(repository, never()).findEffectiveByRoleId(any());
+    }
 }
@@ -19,10 +19,14 @@ package com.firefly.core.users.core.services;
 
 import com.firefly.common.core.filters.FilterRequest;
 import com.firefly.common.core.queries.PaginationResponse;
+import com.firefly.core.users.core.changes.ChangeEventPublisher;
+import com.firefly.core.users.core.changes.ChangeFeed;
 import com.firefly.core.users.core.mappers.RoleMapper;
 import com.firefly.core.users.core.services.impl.RoleServiceImpl;
 import com.firefly.core.users.interfaces.dtos.RoleDTO;
+import com.firefly.core.users.interfaces.enums.ChangeTypeEnum;
 import com.firefly.core.users.models.entities.Role;
+import com.firefly.core.users.models.repositories.RoleHierarchyRepository;
 import com.firefly.core.users.models.repositories.RoleRepository;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -30,6 +34,7 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 import reactor.test.StepVerifier;
 
@@ -44,12 +49,23 @@ class RoleServiceImplTest {
 
     private static final UUID TEST_UUID = UUID.fromString("123e4567-e89b-12d3-a456-426614174000");
 
+    private static final UUID PARENT_UUID = UUID.fromString("223e4567-e89b-12d3-a456-426614174000");
+
     @Mock
     private RoleRepository repository;
 
+    @Mock
+    private RoleHierarchyRepository hierarchy;
+
     @Mock
     private RoleMapper mapper;
 
+    @Mock
+    private ChangeFeed changeFeed;
+
+    @Mock
+    private ChangeEventPublisher changeEvents;
+
     @InjectMocks
     private RoleServiceImpl service;
 
@@ -83,7 +99,9 @@ class RoleServiceImplTest {
         // Arrange
         when(mapper.toEntity(any(RoleDTO.class))).thenReturn(role);
         when(repository.save(any(Role.class))).thenReturn(Mono.just(role));
+        when(hierarchy.insertRole(TEST_UUID)).thenReturn(Mono.empty());
         when(mapper.toDTO(any(Role.class))).thenReturn(roleDTO);
+        when(changeEvents.publishAfterCommit(any(), any(), any(), any())).thenReturn(Mono.empty());
 
         // Act & Assert
         StepVerifier.create(service.createRole(roleDTO))
@@ -92,6 +110,7 @@ class RoleServiceImplTest {
 
         verify(mapper).toEntity(roleDTO);
         verify(repository).save(role);
+        verify(hierarchy).insertRole(TEST_UUID);
         verify(mapper).toDTO(role);
     }
 
@@ -102,6 +121,7 @@ class RoleServiceImplTest {
         when(mapper.toEntity(any(RoleDTO.class))).thenReturn(role);
         when(repository.save(any(Role.class))).thenReturn(Mono.just(role));
         when(mapper.toDTO(any(Role.class))).thenReturn(roleDTO);
+        when(changeEvents.publishAfterCommit(any(), any(), any(), any())).thenReturn(Mono.empty());
 
         // Act & Assert
         StepVerifier.create(service.updateRole(TEST_UUID, roleDTO))
@@ -136,6 +156,8 @@ class RoleServiceImplTest {
         // Arrange
         when(repository.findById(any(UUID.class))).thenReturn(Mono.just(role));
         when(repository.deleteById(any(UUID.class))).thenReturn(Mono.empty());
+        when(changeFeed.recordDeletion(Role.class, TEST_UUID)).thenReturn(Mono.empty());
+        when(changeEvents.publishAfterCommit(any(), any(), any(), any())).thenReturn(Mono.empty());
 
         // Act & Assert
         StepVerifier.create(service.deleteRole(TEST_UUID))
@@ -189,4 +211,102 @@ class RoleServiceImplTest {
         verify(repository).findById(TEST_UUID);
         verify(mapper, never()).toDTO(any());
     }
+
+    @Test
+    void addParentRole_WhenNoCycle_ShouldAddEdgeAndPublishChange() {
+        // Arrange
+        when(repository.findById(any(UUID.class))).thenReturn(Mono.just(role));
+        when(hierarchy.lock()).thenReturn(Mono.empty());
+        when(hierarchy.isAncestor(TEST_UUID, PARENT_UUID)).thenReturn(Mono.just(false));
+        when(hierarchy.insertEdge(PARENT_UUID, TEST_UUID)).thenReturn(Mono.just(true));
+        when(mapper.toDTO(any(Role.class))).thenReturn(roleDTO);
+        when(changeEvents.publishAfterCommit(any(), any(), any(), any())).thenReturn(Mono.empty());
+
+        // Act & Assert
+        StepVerifier.create(service.addParentRole(TEST_UUID, PARENT_UUID))
+                .verifyComplete();
+
+        verify(hierarchy).insertEdge(PARENT_UUID, TEST_UUID);
+        verify(changeEvents).publishAfterCommit(Role.class, ChangeTypeEnum.UPDATED, TEST_UUID, roleDTO);
+    }
+
+    @Test
+    void addParentRole_WhenEdgeExists_ShouldNotPublishChange() {
+        // Arrange
+        when(repository.findById(any(UUID.class))).thenReturn(Mono.just(role));
+        when(hierarchy.lock()).thenReturn(Mono.empty());
+        when(hierarchy.isAncestor(TEST_UUID, PARENT_UUID)).thenReturn(Mono.just(false));
+        when(hierarchy.insertEdge(PARENT_UUID, TEST_UUID)).thenReturn(Mono.just(false));
+
+        // Act & Assert
+        StepVerifier.create(service.addParentRole(TEST_UUID, PARENT_UUID))
+                .verifyComplete();
+
+        verify(changeEvents, never()).publishAfterCommit(any(), any(), any(), any());
+    }
+
+    @Test
+    void addParentRole_WhenParentInheritsFromRole_ShouldReturnError() {
+        // Arrange
+        when(repository.findById(any(UUID.class))).thenReturn(Mono.just(role));
+        when(hierarchy.lock()).thenReturn(Mono.empty());
+        when(hierarchy.isAncestor(TEST_UUID, PARENT_UUID)).thenReturn(Mono.just(true));
+
+        // Act & Assert
+        StepVerifier.create(service.addParentRole(TEST_UUID, PARENT_UUID))
+                .expectErrorMatches(throwable -> throwable instanceof IllegalArgumentException &&
+                        throwable.getMessage().equals("Role " + PARENT_UUID + " already inherits from role " + TEST_UUID))
+                .verify();
+
+        verify(hierarchy, never()).insertEdge(any(), any());
+    }
+
+    @Test
+    void addParentRole_WhenParentDoesNotExist_ShouldReturnError() {
+        // Arrange
+        when(repository.findById(TEST_UUID)).thenReturn(Mono.just(role));
+        when(repository.findById(PARENT_UUID)).thenReturn(Mono.empty());
+        when(hierarchy.lock()).thenReturn(Mono.empty());
+        when(hierarchy.isAncestor(TEST_UUID, PARENT_UUID)).thenReturn(Mono.just(false));
+
+        // Act & Assert
+        StepVerifier.create(service.addParentRole(TEST_UUID, PARENT_UUID))
+                .expectErrorMatches(throwable -> throwable instanceof RuntimeException &&
+                        throwable.getMessage().equals("Role not found with ID: " + PARENT_UUID))
+                .verify();
+
+        verify(hierarchy, never()).insertEdge(any(), any());
+    }
+
+    @Test
+    void removeParentRole_WhenEdgeExists_ShouldDeleteEdgeAndPublishChange() {
+        // Arrange
+        when(repository.findById(any(UUID.class))).thenReturn(Mono.just(role));
+        when(hierarchy.lock()).thenReturn(Mono.empty());
+        when(hierarchy.deleteEdge(PARENT_UUID, TEST_UUID)).thenReturn(Mono.just(true));
+        when(mapper.toDTO(any(Role.class))).thenReturn(roleDTO);
+        when(changeEvents.publishAfterCommit(any(), any(), any(), any())).thenReturn(Mono.empty());
+
+        // Act & Assert
+        StepVerifier.create(service.removeParentRole(TEST_UUID, PARENT_UUID))
+                .verifyComplete();
+
+        verify(hierarchy).deleteEdge(PARENT_UUID, TEST_UUID);
+        verify(changeEvents).publishAfterCommit(Role.class, ChangeTypeEnum.UPDATED, TEST_UUID, roleDTO);
+    }
+
+    @Test
+    void getParentRoles_ShouldReturnParentRoles() {
+        // Arrange
+        Flux<UUID> parentIds = Flux.just(PARENT_UUID);
+        when(repository.findById(any(UUID.class))).thenReturn(Mono.just(role));
+        when(hierarchy.findParentIds(TEST_UUID)).thenReturn(parentIds);
+        when(repository.findAllById(parentIds)).thenReturn(Flux.just(role));
+        when(mapper.toDTO(any(Role.class))).thenReturn(roleDTO);
+
+        // Act & Assert
+        StepVerifier.create(service.getParentRoles(TEST_UUID))
+                .expectNext(roleDTO)
+                .verifyComplete();
+    }
 }
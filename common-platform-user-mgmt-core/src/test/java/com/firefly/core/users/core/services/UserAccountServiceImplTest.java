@@ -19,10 +19,28 @@ package com.firefly.core.users.core.services;
 
 import com.firefly.common.core.filters.FilterRequest;
 import com.firefly.common.core.queries.PaginationResponse;
+import com.firefly.core.users.core.bulk.ImportRow;
+import com.firefly.core.users.core.bulk.UserAccountImportReader;
+import com.firefly.core.users.core.changes.ChangeEventPublisher;
+import com.firefly.core.users.core.changes.ChangeFeed;
+import com.firefly.core.users.core.filters.CountedPaginationResponse;
+import com.firefly.core.users.core.filters.FieldSelection;
+import com.firefly.core.users.core.filters.FilterQueryExecutor;
 import com.firefly.core.users.core.mappers.UserAccountMapper;
+import com.firefly.core.users.core.outbox.OutboxWriter;
 import com.firefly.core.users.core.services.impl.UserAccountServiceImpl;
+import com.firefly.core.users.core.typeahead.UserTypeaheadIndex;
 import com.firefly.core.users.interfaces.dtos.UserAccountDTO;
+import com.firefly.core.users.interfaces.dtos.UserAccountSelectionDTO;
+import com.firefly.core.users.interfaces.dtos.UserAccountSuggestionDTO;
+import com.firefly.core.users.interfaces.enums.ChangeTypeEnum;
+import com.firefly.core.users.interfaces.enums.CountStrategyEnum;
+import com.firefly.core.users.interfaces.enums.ImportFormatEnum;
+import com.firefly.core.users.interfaces.enums.ImportStatusEnum;
+import com.firefly.core.users.interfaces.enums.ThemePreferenceEnum;
 import com.firefly.core.users.models.entities.UserAccount;
+import com.firefly.core.users.models.repositories.UserAccountBulkRepository;
+import com.firefly.core.users.models.repositories.UserAccountQueryRepository;
 import com.firefly.core.users.models.repositories.UserAccountRepository;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -30,9 +48,15 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 import reactor.test.StepVerifier;
 
+import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 
 import static org.mockito.ArgumentMatchers.any;
@@ -43,13 +67,41 @@ import static org.mockito.Mockito.*;
 class UserAccountServiceImplTest {
 
     private static final UUID TEST_UUID = UUID.fromString("123e4567-e89b-12d3-a456-426614174000");
+    private static final UUID OTHER_UUID = UUID.fromString("123e4567-e89b-12d3-a456-426614174001");
 
     @Mock
     private UserAccountRepository repository;
 
+    @Mock
+    private UserAccountQueryRepository queryRepository;
+
     @Mock
     private UserAccountMapper mapper;
 
+    @Mock
+    private ChangeFeed changeFeed;
+
+    @Mock
+    private ChangeEventPublisher changeEvents;
+
+    @Mock
+    private OutboxWriter outbox;
+
+    @Mock
+    private FilterQueryExecutor filterQueryExecutor;
+
+    @Mock
+    private UserTypeaheadIndex typeaheadIndex;
+
+    @Mock
+    private UserAccountImportReader importReader;
+
+    @Mock
+    private UserAccountBulkRepository bulkRepository;
+
+    @Mock
+    private TransactionalOperator transactionalOperator;
+
     @InjectMocks
     private UserAccountServiceImpl service;
 
@@ -73,10 +125,10 @@ class UserAccountServiceImplTest {
         paginationResponse = mock(PaginationResponse.class);
     }
 
-    // We're not testing the filterUserAccounts method because it relies on FilterUtils,
-    // which is an external library that we don't have access to.
-    // The method simply delegates to FilterUtils.createFilter().filter(),
-    // so there's not much value in testing it.
+    // We're not testing how the filterUserAccounts methods build their SQL because that is done by
+    // FilterQueryExecutor, which has its own tests.
+    // The methods simply delegate to FilterQueryExecutor.filter(),
+    // so the tests below only check what they pass on and return.
 
     @Test
     void createUserAccount_ShouldCreateAndReturnUserAccount() {
@@ -84,6 +136,8 @@ class UserAccountServiceImplTest {
         when(mapper.toEntity(any(UserAccountDTO.class))).thenReturn(userAccount);
         when(repository.save(any(UserAccount.class))).thenReturn(Mono.just(userAccount));
         when(mapper.toDTO(any(UserAccount.class))).thenReturn(userAccountDTO);
+        when(changeEvents.publishAfterCommit(any(), any(), any(), any())).thenReturn(Mono.empty());
+        when(outbox.append(any(), any(), any(), any())).thenReturn(Mono.empty());
 
         // Act & Assert
         StepVerifier.create(service.createUserAccount(userAccountDTO))
@@ -95,6 +149,79 @@ class UserAccountServiceImplTest {
         verify(mapper).toDTO(userAccount);
     }
 
+    @Test
+    void createUserAccount_WithEmailOfAnotherAccount_ShouldReturnConflict() {
+        // Arrange
+        userAccountDTO.setEmail("John.Doe@Example.com");
+        when(repository.existsByEmailIgnoreCase("John.Doe@Example.com")).thenReturn(Mono.just(true));
+
+        // Act & Assert
+        StepVerifier.create(service.createUserAccount(userAccountDTO))
+                .expectErrorMatches(throwable -> throwable instanceof DuplicateKeyException
+                        && throwable.getMessage()
+                        .equals("User account already exists with email: John.Doe@Example.com"))
+                .verify();
+
+        verify(repository, never()).save(any());
+        verifyNoInteractions(outbox, changeEvents);
+    }
+
+    @Test
+    void createUserAccount_WithNewEmail_ShouldCreateUserAccount() {
+        // Arrange
+        userAccountDTO.setEmail("john.doe@example.com");
+        when(repository.existsByEmailIgnoreCase("john.doe@example.com")).thenReturn(Mono.just(false));
+        when(mapper.toEntity(any(UserAccountDTO.class))).thenReturn(userAccount);
+        when(repository.save(any(UserAccount.class))).thenReturn(Mono.just(userAccount));
+        when(mapper.toDTO(any(UserAccount.class))).thenReturn(userAccountDTO);
+        when(changeEvents.publishAfterCommit(any(), any(), any(), any())).thenReturn(Mono.empty());
+        when(outbox.append(any(), any(), any(), any())).thenReturn(Mono.empty());
+
+        // Act & Assert
+        StepVerifier.create(service.createUserAccount(userAccountDTO))
+                .expectNext(userAccountDTO)
+                .verifyComplete();
+
+        verify(repository).save(userAccount);
+    }
+
+    @Test
+    void updateUserAccount_WithEmailOfAnotherAccount_ShouldReturnConflict() {
+        // Arrange
+        UserAccount owner = new UserAccount();
+        owner.setId(OTHER_UUID);
+        userAccountDTO.setEmail("JOHN.DOE@example.com");
+        when(repository.findById(TEST_UUID)).thenReturn(Mono.just(userAccount));
+        when(repository.findByEmailIgnoreCase("JOHN.DOE@example.com")).thenReturn(Mono.just(owner));
+
+        // Act & Assert
+        StepVerifier.create(service.updateUserAccount(TEST_UUID, userAccountDTO))
+                .expectError(DuplicateKeyException.class)
+                .verify();
+
+        verify(repository, never()).save(any());
+    }
+
+    @Test
+    void updateUserAccount_KeepingItsOwnEmail_ShouldUpdateUserAccount() {
+        // Arrange
+        userAccountDTO.setEmail("John.Doe@example.com");
+        when(repository.findById(TEST_UUID)).thenReturn(Mono.just(userAccount));
+        when(repository.findByEmailIgnoreCase("John.Doe@example.com")).thenReturn(Mono.just(userAccount));
+        when(mapper.toEntity(any(UserAccountDTO.class))).thenReturn(userAccount);
+        when(repository.save(any(UserAccount.class))).thenReturn(Mono.just(userAccount));
+        when(mapper.toDTO(any(UserAccount.class))).thenReturn(userAccountDTO);
+        when(changeEvents.publishAfterCommit(any(), any(), any(), any())).thenReturn(Mono.empty());
+        when(outbox.append(any(), any(), any(), any())).thenReturn(Mono.empty());
+
+        // Act & Assert
+        StepVerifier.create(service.updateUserAccount(TEST_UUID, userAccountDTO))
+                .expectNext(userAccountDTO)
+                .verifyComplete();
+
+        verify(repository).save(userAccount);
+    }
+
     @Test
     void updateUserAccount_WhenUserAccountExists_ShouldUpdateAndReturnUserAccount() {
         // Arrange
@@ -102,6 +229,8 @@ class UserAccountServiceImplTest {
         when(mapper.toEntity(any(UserAccountDTO.class))).thenReturn(userAccount);
         when(repository.save(any(UserAccount.class))).thenReturn(Mono.just(userAccount));
         when(mapper.toDTO(any(UserAccount.class))).thenReturn(userAccountDTO);
+        when(changeEvents.publishAfterCommit(any(), any(), any(), any())).thenReturn(Mono.empty());
+        when(outbox.append(any(), any(), any(), any())).thenReturn(Mono.empty());
 
         // Act & Assert
         StepVerifier.create(service.updateUserAccount(TEST_UUID, userAccountDTO))
@@ -136,6 +265,9 @@ class UserAccountServiceImplTest {
         // Arrange
         when(repository.findById(any(UUID.class))).thenReturn(Mono.just(userAccount));
         when(repository.deleteById(any(UUID.class))).thenReturn(Mono.empty());
+        when(changeFeed.recordDeletion(UserAccount.class, TEST_UUID)).thenReturn(Mono.empty());
+        when(changeEvents.publishAfterCommit(any(), any(), any(), any())).thenReturn(Mono.empty());
+        when(outbox.append(any(), any(), any(), any())).thenReturn(Mono.empty());
 
         // Act & Assert
         StepVerifier.create(service.deleteUserAccount(TEST_UUID))
@@ -163,22 +295,22 @@ class UserAccountServiceImplTest {
     @Test
     void getUserAccountById_WhenUserAccountExists_ShouldReturnUserAccount() {
         // Arrange
-        when(repository.findById(any(UUID.class))).thenReturn(Mono.just(userAccount));
-        when(mapper.toDTO(any(UserAccount.class))).thenReturn(userAccountDTO);
+        when(queryRepository.findById(any(UUID.class))).thenReturn(Mono.just(userAccountDTO));
 
         // Act & Assert
         StepVerifier.create(service.getUserAccountById(TEST_UUID))
                 .expectNext(userAccountDTO)
                 .verifyComplete();
 
-        verify(repository).findById(TEST_UUID);
-        verify(mapper).toDTO(userAccount);
+        verify(queryRepository).findById(TEST_UUID);
+        verify(repository, never()).findById(any(UUID.class));
+        verify(mapper, never()).toDTO(any());
     }
 
     @Test
     void getUserAccountById_WhenUserAccountDoesNotExist_ShouldReturnError() {
         // Arrange
-        when(repository.findById(any(UUID.class))).thenReturn(Mono.empty());
+        when(queryRepository.findById(any(UUID.class))).thenReturn(Mono.empty());
 
         // Act & Assert
         StepVerifier.create(service.getUserAccountById(TEST_UUID))
@@ -186,7 +318,230 @@ class UserAccountServiceImplTest {
                         throwable.getMessage().equals("User account not found with ID: " + TEST_UUID))
                 .verify();
 
-        verify(repository).findById(TEST_UUID);
+        verify(queryRepository).findById(TEST_UUID);
         verify(mapper, never()).toDTO(any());
     }
+
+    @Test
+    void getUserAccountById_WithFields_ShouldSelectAndReturnOnlyRequestedFields() {
+        // Arrange
+        userAccountDTO.setEmail("john.doe@example.com");
+        userAccountDTO.setFullName("John Doe");
+        FieldSelection fields = FieldSelection.parse("id,email", UserAccountDTO.class);
+        when(filterQueryExecutor.findById(eq(UserAccount.class), eq(TEST_UUID), eq(List.of("id", "email")), any()))
+                .thenReturn(Mono.just(userAccountDTO));
+
+        // Act & Assert
+        StepVerifier.create(service.getUserAccountById(TEST_UUID, fields))
+                .expectNext(Map.of("id", TEST_UUID, "email", "john.doe@example.com"))
+                .verifyComplete();
+    }
+
+    @Test
+    void filterUserAccounts_ShouldDelegateWithExactCountByDefault() {
+        // Arrange
+        when(filterQueryExecutor.filter(eq(UserAccount.class), eq(filterRequest), eq(CountStrategyEnum.EXACT), any()))
+                .thenReturn(Mono.just(paginationResponse));
+
+        // Act & Assert
+        StepVerifier.create(service.filterUserAccounts(filterRequest))
+                .expectNext(paginationResponse)
+                .verifyComplete();
+    }
+
+    @Test
+    void filterUserAccounts_WithFieldsAndNoCount_ShouldKeepCountMetadata() {
+        // Arrange
+        userAccountDTO.setEmail("john.doe@example.com");
+        FieldSelection fields = FieldSelection.parse("email", UserAccountDTO.class);
+        CountedPaginationResponse<UserAccountDTO> page =
+                CountedPaginationResponse.of(List.of(userAccountDTO), -1, 0, 1, CountStrategyEnum.NONE, true);
+        when(filterQueryExecutor.filter(eq(UserAccount.class), eq(filterRequest), eq(List.of("email")),
+                eq(CountStrategyEnum.NONE), any()))
+                .thenReturn(Mono.just(page));
+
+        // Act & Assert
+        StepVerifier.create(service.filterUserAccounts(filterRequest, fields, CountStrategyEnum.NONE))
+                .expectNextMatches(result -> result instanceof CountedPaginationResponse<?> counted
+                        && counted.getCountStrategy() == CountStrategyEnum.NONE
+                        && counted.getHasNext()
+                        && counted.getTotalElements() == -1
+                        && counted.getContent().equals(List.of(Map.of("email", "john.doe@example.com"))))
+                .verifyComplete();
+    }
+
+    @Test
+    void streamUserAccounts_ShouldStreamFromExecutor() {
+        // Arrange
+        when(filterQueryExecutor.stream(eq(UserAccount.class), eq(filterRequest), any()))
+                .thenReturn(Flux.just(userAccountDTO));
+
+        // Act & Assert
+        StepVerifier.create(service.streamUserAccounts(filterRequest))
+                .expectNext(userAccountDTO)
+                .verifyComplete();
+    }
+
+    @Test
+    void searchUserAccounts_ShouldTrimQueryAndCapLimit() {
+        // Arrange
+        when(queryRepository.search("john", null, null, true, 100)).thenReturn(Flux.just(userAccountDTO));
+
+        // Act & Assert
+        StepVerifier.create(service.searchUserAccounts("  john ", null, null, true, 500))
+                .expectNext(userAccountDTO)
+                .verifyComplete();
+    }
+
+    @Test
+    void searchUserAccounts_WithBlankQuery_ShouldReturnError() {
+        // Act & Assert
+        StepVerifier.create(service.searchUserAccounts(" ", null, null, null, null))
+                .expectError(IllegalArgumentException.class)
+                .verify();
+
+        verifyNoInteractions(queryRepository);
+    }
+
+    @Test
+    void autocompleteUserAccounts_ShouldSearchIndexWithDefaultLimit() {
+        // Arrange
+        UUID branchId = UUID.randomUUID();
+        UserAccountSuggestionDTO suggestion = UserAccountSuggestionDTO.builder()
+                .id(TEST_UUID)
+                .fullName("John Doe")
+                .build();
+        when(typeaheadIndex.search("jo", branchId, null, 10)).thenReturn(List.of(suggestion));
+
+        // Act & Assert
+        StepVerifier.create(service.autocompleteUserAccounts("jo", branchId, null, null))
+                .expectNext(suggestion)
+                .verifyComplete();
+    }
+
+    @Test
+    void autocompleteUserAccounts_WithBlankPrefix_ShouldReturnNothing() {
+        // Act & Assert
+        StepVerifier.create(service.autocompleteUserAccounts(" ", null, null, null))
+                .verifyComplete();
+
+        verifyNoInteractions(typeaheadIndex);
+    }
+
+    @Test
+    void getUserAccountByEmail_ShouldTrimEmailAndReturnUserAccount() {
+        // Arrange
+        when(queryRepository.findByEmail("John.Doe@Example.com")).thenReturn(Mono.just(userAccountDTO));
+
+        // Act & Assert
+        StepVerifier.create(service.getUserAccountByEmail(" John.Doe@Example.com "))
+                .expectNext(userAccountDTO)
+                .verifyComplete();
+    }
+
+    @Test
+    void getUserAccountByEmail_WhenNotFound_ShouldReturnError() {
+        // Arrange
+        when(queryRepository.findByEmail("missing@example.com")).thenReturn(Mono.empty());
+
+        // Act & Assert
+        StepVerifier.create(service.getUserAccountByEmail("missing@example.com"))
+                .expectErrorMatches(throwable -> throwable instanceof RuntimeException &&
+                        throwable.getMessage().equals("User account not found with email: missing@example.com"))
+                .verify();
+    }
+
+    @Test
+    void importUserAccounts_ShouldReportEveryRowInLineOrder() {
+        // Arrange
+        ReflectionTestUtils.setField(service, "importBatchSize", 500);
+        UserAccountDTO takenDTO = UserAccountDTO.builder().email("taken@example.com").build();
+        UserAccount taken = new UserAccount();
+        Flux<String> lines = Flux.just("{}");
+        when(importReader.read(lines, ImportFormatEnum.NDJSON)).thenReturn(Flux.just(
+                new ImportRow(1, userAccountDTO, null),
+                new ImportRow(2, null, "Unexpected end-of-input"),
+                new ImportRow(3, takenDTO, null)));
+        when(mapper.toEntity(userAccountDTO)).thenReturn(userAccount);
+        when(mapper.toEntity(takenDTO)).thenReturn(taken);
+        // The repository returns the rows as stored, with the column defaults filled in
+        UserAccountDTO stored = UserAccountDTO.builder().themePreference(ThemePreferenceEnum.SYSTEM).build();
+        when(bulkRepository.insertAll(List.of(userAccount, taken))).thenAnswer(invocation -> {
+            stored.setId(userAccount.getId());
+            return Flux.just(stored);
+        });
+        when(outbox.appendAll(eq(UserAccount.class), eq(ChangeTypeEnum.CREATED), any())).thenReturn(Mono.empty());
+        when(changeEvents.publishAllAfterCommit(eq(UserAccount.class), eq(ChangeTypeEnum.CREATED), any()))
+                .thenReturn(Mono.empty());
+        when(transactionalOperator.transactional(any(Mono.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        // Act & Assert
+        StepVerifier.create(service.importUserAccounts(lines, ImportFormatEnum.NDJSON))
+                .expectNextMatches(result -> result.getLine() == 1 && result.getStatus() == ImportStatusEnum.CREATED
+                        && result.getId().equals(userAccount.getId()))
+                .expectNextMatches(result -> result.getLine() == 2 && result.getStatus() == ImportStatusEnum.FAILED
+                        && result.getError().equals("Unexpected end-of-input"))
+                .expectNextMatches(result -> result.getLine() == 3 && result.getStatus() == ImportStatusEnum.SKIPPED
+                        && result.getEmail().equals("taken@example.com") && result.getId() == null)
+                .verifyComplete();
+
+        verify(outbox).appendAll(UserAccount.class, ChangeTypeEnum.CREATED, Map.of(userAccount.getId(), stored));
+        verify(changeEvents).publishAllAfterCommit(UserAccount.class, ChangeTypeEnum.CREATED,
+                Map.of(userAccount.getId(), stored));
+        verify(mapper, never()).toDTO(any(UserAccount.class));
+    }
+
+    @Test
+    void importUserAccounts_WhenBatchFails_ShouldReportValidRowsAsFailed() {
+        // Arrange
+        ReflectionTestUtils.setField(service, "importBatchSize", 500);
+        Flux<String> lines = Flux.just("{}");
+        when(importReader.read(lines, ImportFormatEnum.NDJSON))
+                .thenReturn(Flux.just(new ImportRow(1, userAccountDTO, null)));
+        when(mapper.toEntity(userAccountDTO)).thenReturn(userAccount);
+        when(bulkRepository.insertAll(List.of(userAccount)))
+                .thenReturn(Flux.error(new RuntimeException("connection reset")));
+        when(transactionalOperator.transactional(any(Mono.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        // Act & Assert
+        StepVerifier.create(service.importUserAccounts(lines, ImportFormatEnum.NDJSON))
+                .expectNextMatches(result -> result.getStatus() == ImportStatusEnum.FAILED
+                        && result.getError().equals("Batch failed: connection reset"))
+                .verifyComplete();
+    }
+
+    @Test
+    void deactivateUserAccounts_ByBranch_ShouldReturnAffectedCountAndPublishChanges() {
+        // Arrange
+        UUID branchId = UUID.randomUUID();
+        UserAccountDTO other = UserAccountDTO.builder().id(UUID.randomUUID()).isActive(false).build();
+        when(bulkRepository.setActiveByBranchId(branchId, false)).thenReturn(Flux.just(userAccountDTO, other));
+        when(outbox.appendAll(eq(UserAccount.class), eq(ChangeTypeEnum.UPDATED), any())).thenReturn(Mono.empty());
+        when(changeEvents.publishAllAfterCommit(eq(UserAccount.class), eq(ChangeTypeEnum.UPDATED), any()))
+                .thenReturn(Mono.empty());
+
+        // Act & Assert
+        StepVerifier.create(service.deactivateUserAccounts(UserAccountSelectionDTO.builder().branchId(branchId).build()))
+                .expectNextMatches(result -> result.getAffected() == 2)
+                .verifyComplete();
+
+        verify(changeEvents).publishAllAfterCommit(UserAccount.class, ChangeTypeEnum.UPDATED,
+                Map.of(TEST_UUID, userAccountDTO, other.getId(), other));
+    }
+
+    @Test
+    void activateUserAccounts_WithSeveralCriteria_ShouldReturnError() {
+        // Arrange
+        UserAccountSelectionDTO selection = UserAccountSelectionDTO.builder()
+                .branchId(UUID.randomUUID())
+                .ids(List.of(TEST_UUID))
+                .build();
+
+        // Act & Assert
+        StepVerifier.create(service.activateUserAccounts(selection))
+                .expectError(IllegalArgumentException.class)
+                .verify();
+
+        verifyNoInteractions(bulkRepository);
+    }
 }
@@ -19,6 +19,8 @@ package com.firefly.core.users.core.services;
 
 import com.firefly.common.core.filters.FilterRequest;
 import com.firefly.common.core.queries.PaginationResponse;
+import com.firefly.core.users.core.changes.ChangeEventPublisher;
+import com.firefly.core.users.core.changes.ChangeFeed;
 import com.firefly.core.users.core.mappers.UserExternalIdentityMapper;
 import com.firefly.core.users.core.services.impl.UserExternalIdentityServiceImpl;
 import com.firefly.core.users.interfaces.dtos.UserExternalIdentityDTO;
@@ -50,6 +52,12 @@ class UserExternalIdentityServiceImplTest {
     @Mock
     private UserExternalIdentityMapper mapper;
 
+    @Mock
+    private ChangeFeed changeFeed;
+
+    @Mock
+    private ChangeEventPublisher changeEvents;
+
     @InjectMocks
     private UserExternalIdentityServiceImpl service;
 
@@ -84,6 +92,7 @@ class UserExternalIdentityServiceImplTest {
         when(mapper.toEntity(any(UserExternalIdentityDTO.class))).thenReturn(userExternalIdentity);
         when(repository.save(any(UserExternalIdentity.class))).thenReturn(Mono.just(userExternalIdentity));
         when(mapper.toDTO(any(UserExternalIdentity.class))).thenReturn(userExternalIdentityDTO);
+        when(changeEvents.publishAfterCommit(any(), any(), any(), any())).thenReturn(Mono.empty());
 
         // Act & Assert
         StepVerifier.create(service.createUserExternalIdentity(userExternalIdentityDTO))
@@ -102,6 +111,7 @@ class UserExternalIdentityServiceImplTest {
         when(mapper.toEntity(any(UserExternalIdentityDTO.class))).thenReturn(userExternalIdentity);
         when(repository.save(any(UserExternalIdentity.class))).thenReturn(Mono.just(userExternalIdentity));
         when(mapper.toDTO(any(UserExternalIdentity.class))).thenReturn(userExternalIdentityDTO);
+        when(changeEvents.publishAfterCommit(any(), any(), any(), any())).thenReturn(Mono.empty());
 
         // Act & Assert
         StepVerifier.create(service.updateUserExternalIdentity(TEST_UUID, userExternalIdentityDTO))
@@ -136,6 +146,8 @@ class UserExternalIdentityServiceImplTest {
         // Arrange
         when(repository.findById(any(UUID.class))).thenReturn(Mono.just(userExternalIdentity));
         when(repository.deleteById(any(UUID.class))).thenReturn(Mono.empty());
+        when(changeFeed.recordDeletion(UserExternalIdentity.class, TEST_UUID)).thenReturn(Mono.empty());
+        when(changeEvents.publishAfterCommit(any(), any(), any(), any())).thenReturn(Mono.empty());
 
         // Act & Assert
         StepVerifier.create(service.deleteUserExternalIdentity(TEST_UUID))
@@ -19,10 +19,14 @@ package com.firefly.core.users.core.services;
 
 import com.firefly.common.core.filters.FilterRequest;
 import com.firefly.common.core.queries.PaginationResponse;
+import com.firefly.core.users.core.changes.ChangeEventPublisher;
+import com.firefly.core.users.core.changes.ChangeFeed;
 import com.firefly.core.users.core.mappers.UserRoleMapper;
+import com.firefly.core.users.core.outbox.OutboxWriter;
 import com.firefly.core.users.core.services.impl.UserRoleServiceImpl;
 import com.firefly.core.users.interfaces.dtos.UserRoleDTO;
 import com.firefly.core.users.models.entities.UserRole;
+import com.firefly.core.users.models.repositories.UserRoleQueryRepository;
 import com.firefly.core.users.models.repositories.UserRoleRepository;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -30,6 +34,7 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 import reactor.test.StepVerifier;
 
@@ -47,9 +52,21 @@ class UserRoleServiceImplTest {
     @Mock
     private UserRoleRepository repository;
 
+    @Mock
+    private UserRoleQueryRepository queryRepository;
+
     @Mock
     private UserRoleMapper mapper;
 
+    @Mock
+    private ChangeFeed changeFeed;
+
+    @Mock
+    private ChangeEventPublisher changeEvents;
+
+    @Mock
+    private OutboxWriter outbox;
+
     @InjectMocks
     private UserRoleServiceImpl service;
 
@@ -84,6 +101,8 @@ class UserRoleServiceImplTest {
         when(mapper.toEntity(any(UserRoleDTO.class))).thenReturn(userRole);
         when(repository.save(any(UserRole.class))).thenReturn(Mono.just(userRole));
         when(mapper.toDTO(any(UserRole.class))).thenReturn(userRoleDTO);
+        when(changeEvents.publishAfterCommit(any(), any(), any(), any())).thenReturn(Mono.empty());
+        when(outbox.append(any(), any(), any(), any())).thenReturn(Mono.empty());
 
         // Act & Assert
         StepVerifier.create(service.createUserRole(userRoleDTO))
@@ -102,6 +121,8 @@ class UserRoleServiceImplTest {
         when(mapper.toEntity(any(UserRoleDTO.class))).thenReturn(userRole);
         when(repository.save(any(UserRole.class))).thenReturn(Mono.just(userRole));
         when(mapper.toDTO(any(UserRole.class))).thenReturn(userRoleDTO);
+        when(changeEvents.publishAfterCommit(any(), any(), any(), any())).thenReturn(Mono.empty());
+        when(outbox.append(any(), any(), any(), any())).thenReturn(Mono.empty());
 
         // Act & Assert
         StepVerifier.create(service.updateUserRole(TEST_UUID, userRoleDTO))
@@ -136,6 +157,9 @@ class UserRoleServiceImplTest {
         // Arrange
         when(repository.findById(any(UUID.class))).thenReturn(Mono.just(userRole));
         when(repository.deleteById(any(UUID.class))).thenReturn(Mono.empty());
+        when(changeFeed.recordDeletion(UserRole.class, TEST_UUID)).thenReturn(Mono.empty());
+        when(changeEvents.publishAfterCommit(any(), any(), any(), any())).thenReturn(Mono.empty());
+        when(outbox.append(any(), any(), any(), any())).thenReturn(Mono.empty());
 
         // Act & Assert
         StepVerifier.create(service.deleteUserRole(TEST_UUID))
@@ -163,22 +187,22 @@ class UserRoleServiceImplTest {
     @Test
     void getUserRoleById_WhenUserRoleExists_ShouldReturnUserRole() {
         // Arrange
-        when(repository.findById(any(UUID.class))).thenReturn(Mono.just(userRole));
-        when(mapper.toDTO(any(UserRole.class))).thenReturn(userRoleDTO);
+        when(queryRepository.findById(any(UUID.class))).thenReturn(Mono.just(userRoleDTO));
 
         // Act & Assert
         StepVerifier.create(service.getUserRoleById(TEST_UUID))
                 .expectNext(userRoleDTO)
                 .verifyComplete();
 
-        verify(repository).findById(TEST_UUID);
-        verify(mapper).toDTO(userRole);
+        verify(queryRepository).findById(TEST_UUID);
+        verify(repository, never()).findById(any(UUID.class));
+        verify(mapper, never()).toDTO(any());
     }
 
     @Test
     void getUserRoleById_WhenUserRoleDoesNotExist_ShouldReturnError() {
         // Arrange
-        when(repository.findById(any(UUID.class))).thenReturn(Mono.empty());
+        when(queryRepository.findById(any(UUID.class))).thenReturn(Mono.empty());
 
         // Act & Assert
         StepVerifier.create(service.getUserRoleById(TEST_UUID))
@@ -186,7 +210,35 @@ class UserRoleServiceImplTest {
                         throwable.getMessage().equals("User role not found with ID: " + TEST_UUID))
                 .verify();
 
-        verify(repository).findById(TEST_UUID);
+        verify(queryRepository).findById(TEST_UUID);
+        verify(mapper, never()).toDTO(any());
+    }
+
+    @Test
+    void getUserRolesByUserAccountId_ShouldReturnAssignmentsFromFastPath() {
+        // Arrange
+        when(queryRepository.findByUserAccountId(any(UUID.class))).thenReturn(Flux.just(userRoleDTO));
+
+        // Act & Assert
+        StepVerifier.create(service.getUserRolesByUserAccountId(TEST_UUID))
+                .expectNext(userRoleDTO)
+                .verifyComplete();
+
+        verify(queryRepository).findByUserAccountId(TEST_UUID);
+        verify(mapper, never()).toDTO(any());
+    }
+
+    @Test
+    void getUserRolesByRoleId_ShouldReturnAssignmentsFromFastPath() {
+        // Arrange
+        when(queryRepository.findByRoleId(any(UUID.class))).thenReturn(Flux.just(userRoleDTO));
+
+        // Act & Assert
+        StepVerifier.create(service.getUserRolesByRoleId(TEST_UUID))
+                .expectNext(userRoleDTO)
+                .verifyComplete();
+
+        verify(queryRepository).findByRoleId(TEST_UUID);
         verify(mapper, never()).toDTO(any());
     }
 }
@@ -0,0 +1,255 @@
+/*
+ * Copyright 2025 Firefly Software Solutions Inc
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.firefly.core.users.core.typeahead;
+
+import com.firefly.core.users.interfaces.dtos.UserAccountSuggestionDTO;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PrefixIndexTest {
+
+    private static final UUID TEST_UUID = UUID.fromString("123e4567-e89b-12d3-a456-426614174000");
+    private static final UUID OTHER_UUID = UUID.fromString("123e4567-e89b-12d3-a456-426614174001");
+    private static final UUID THIRD_UUID = UUID.fromString("123e4567-e89b-12d3-a456-426614174002");
+    private static final UUID BRANCH_ID = UUID.fromString("223e4567-e89b-12d3-a456-426614174000");
+    private static final UUID DISTRIBUTOR_ID = UUID.fromString("323e4567-e89b-12d3-a456-426614174000");
+
+    private final PrefixIndex index = new PrefixIndex();
+
+    @Test
+    void search_ShouldMatchPrefixOfNameNicknameAndEmailTokens() {
+        // Arrange
+        index.put(entry(TEST_UUID, "John Smith", "Johnny", "john.smith@example.com"));
+
+        // Act & Assert
+        assertEquals(List.of(TEST_UUID), ids(index.search("smi", null, null, 10)));
+        assertEquals(List.of(TEST_UUID), ids(index.search("johnny", null, null, 10)));
+        assertEquals(List.of(TEST_UUID), ids(index.search("john.smith@ex", null, null, 10)));
+        assertEquals(List.of(), ids(index.search("example", null, null, 10)));
+        assertEquals(List.of(), ids(index.search("mith", null, null, 10)));
+    }
+
+    @Test
+    void search_ShouldIgnoreCaseAndDiacritics() {
+        // Arrange
+        index.put(entry(TEST_UUID, "José Álvarez", null, "jose.alvarez@example.com"));
+
+        // Act & Assert
+        assertEquals(List.of(TEST_UUID), ids(index.search("ALVA", null, null, 10)));
+        assertEquals(List.of(TEST_UUID), ids(index.search("josé", null, null, 10)));
+    }
+
+    @Test
+    void search_WithSeveralTerms_ShouldRequireEveryTerm() {
+        // Arrange
+        index.put(entry(TEST_UUID, "John Smith", null, "john.smith@example.com"));
+        index.put(entry(OTHER_UUID, "John Doe", null, "john.doe@example.com"));
+
+        // Act & Assert
+        assertEquals(List.of(OTHER_UUID), ids(index.search("john d", null, null, 10)));
+        assertEquals(List.of(TEST_UUID), ids(index.search("smi  jo", null, null, 10)));
+        assertEquals(List.of(), ids(index.search("doe smith", null, null, 10)));
+    }
+
+    @Test
+    void search_WithPunctuatedName_ShouldMatchWholeWordAndParts() {
+        // Arrange
+        index.put(entry(TEST_UUID, "Sean O'Brien", null, null));
+
+        // Act & Assert
+        assertEquals(List.of(TEST_UUID), ids(index.search("o'b", null, null, 10)));
+        assertEquals(List.of(TEST_UUID), ids(index.search("brien", null, null, 10)));
+    }
+
+    @Test
+    void search_ShouldReturnExactTokenMatchesFirst() {
+        // Arrange
+        index.put(entry(TEST_UUID, "Johnathan Smith", null, null));
+        index.put(entry(OTHER_UUID, "Jo Brown", null, null));
+
+        // Act & Assert
+        assertEquals(List.of(OTHER_UUID, TEST_UUID), ids(index.search("jo", null, null, 10)));
+    }
+
+    @Test
+    void search_WithScope_ShouldOnlyReturnUsersInScope() {
+        // Arrange
+        index.put(PrefixIndex.Entry.of(TEST_UUID, "John Smith", null, null, BRANCH_ID, DISTRIBUTOR_ID));
+        index.put(PrefixIndex.Entry.of(OTHER_UUID, "John Doe", null, null, BRANCH_ID, null));
+        index.put(PrefixIndex.Entry.of(THIRD_UUID, "John Brown", null, null, null, DISTRIBUTOR_ID));
+
+        // Act & Assert
+        assertEquals(List.of(TEST_UUID, OTHER_UUID), ids(index.search("john", BRANCH_ID, null, 10)));
+        assertEquals(List.of(TEST_UUID, THIRD_UUID), ids(index.search("john", null, DISTRIBUTOR_ID, 10)));
+        assertEquals(List.of(TEST_UUID), ids(index.search("john", BRANCH_ID, DISTRIBUTOR_ID, 10)));
+    }
+
+    @Test
+    void search_ShouldStopAtLimit() {
+        // Arrange
+        for (int i = 0; i < 5; i++) {
+            index.put(entry(UUID.randomUUID(), "John Smith " + i, null, null));
+        }
+
+        // Act & Assert
+        assertEquals(3, index.search("john", null, null, 3).size());
+        assertEquals(5, index.search("john", null, null, 10).size());
+    }
+
+    @Test
+    void search_WithBlankQuery_ShouldReturnNothing() {
+        // Arrange
+        index.put(entry(TEST_UUID, "John Smith", null, null));
+
+        // Act & Assert
+        assertTrue(index.search("  ", null, null, 10).isEmpty());
+    }
+
+    @Test
+    void put_WithIndexedUser_ShouldReplaceItsTokens() {
+        // Arrange
+        index.put(entry(TEST_UUID, "John Smith", null, null));
+
+        // Act
+        index.put(entry(TEST_UUID, "John Brown", null, null));
+
+        // Assert
+        assertEquals(1, index.size());
+        assertEquals(2, index.tokenCount());
+        assertEquals(List.of(), ids(index.search("smith", null, null, 10)));
+        assertEquals(List.of(TEST_UUID), ids(index.search("brown", null, null, 10)));
+        assertEquals(List.of(TEST_UUID), ids(index.search("john", null, null, 10)));
+    }
+
+    @Test
+    void remove_ShouldDropUserAndItsUnsharedTokens() {
+        // Arrange
+        index.put(entry(TEST_UUID, "John Smith", null, null));
+        index.put(entry(OTHER_UUID, "John Doe", null, null));
+        long bytes = index.estimatedBytes();
+
+        // Act
+        index.remove(TEST_UUID);
+        index.remove(UUID.randomUUID());
+
+        // Assert
+        assertEquals(1, index.size());
+        assertEquals(2, index.tokenCount());
+        assertEquals(List.of(OTHER_UUID), ids(index.search("john", null, null, 10)));
+        assertEquals(List.of(), ids(index.search("smith", null, null, 10)));
+        assertTrue(index.estimatedBytes() < bytes);
+    }
+
+    @Test
+    void put_AfterRemove_ShouldReuseOrdinalAndKeepPostingsSorted() {
+        // Arrange
+        index.put(entry(TEST_UUID, "John Smith", null, null));
+        index.put(entry(OTHER_UUID, "John Doe", null, null));
+        index.remove(TEST_UUID);
+
+        // Act
+        index.put(entry(THIRD_UUID, "John Brown", null, null));
+
+        // Assert
+        // The freed first ordinal is reused, so the new user comes first in the shared posting list
+        assertEquals(List.of(THIRD_UUID, OTHER_UUID), ids(index.search("john", null, null, 10)));
+        assertEquals(List.of(THIRD_UUID), ids(index.search("brown", null, null, 10)));
+        assertEquals(List.of(), ids(index.search("smith", null, null, 10)));
+    }
+
+    @Test
+    void remove_WithEveryUser_ShouldEmptyDictionary() {
+        // Arrange
+        index.put(entry(TEST_UUID, "John Smith", "Johnny", "john.smith@example.com"));
+        index.put(entry(OTHER_UUID, "Jane Smith", null, "jane.smith@example.com"));
+
+        // Act
+        index.remove(OTHER_UUID);
+        index.remove(TEST_UUID);
+
+        // Assert
+        assertEquals(0, index.size());
+        assertEquals(0, index.tokenCount());
+        assertTrue(index.search("j", null, null, 10).isEmpty());
+    }
+
+    @Test
+    void load_ShouldBuildTheSameIndexAsPut() {
+        // Arrange
+        PrefixIndex incremental = new PrefixIndex();
+        List<PrefixIndex.Entry> entries = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            UUID id = new UUID(TEST_UUID.getMostSignificantBits(), i);
+            entries.add(entry(id, "John Smith" + i, i % 2 == 0 ? "Johnny" : null, "john" + i + "@example.com"));
+            incremental.put(entry(id, "John Smith" + i, i % 2 == 0 ? "Johnny" : null, "john" + i + "@example.com"));
+        }
+
+        // Act
+        entries.forEach(index::load);
+        index.freeze();
+
+        // Assert
+        assertEquals(incremental.size(), index.size());
+        assertEquals(incremental.tokenCount(), index.tokenCount());
+        assertEquals(incremental.estimatedBytes(), index.estimatedBytes());
+        assertEquals(ids(incremental.search("john", null, null, 100)), ids(index.search("john", null, null, 100)));
+        assertEquals(50, index.search("johnny", null, null, 100).size());
+        assertEquals(ids(incremental.search("smith4", null, null, 100)),
+                ids(index.search("smith4", null, null, 100)));
+    }
+
+    @Test
+    void load_AfterFreeze_ShouldAcceptIncrementalChanges() {
+        // Arrange
+        index.load(entry(TEST_UUID, "John Smith", null, null));
+        index.load(entry(OTHER_UUID, "John Doe", null, null));
+        index.freeze();
+
+        // Act
+        index.remove(TEST_UUID);
+        index.put(entry(THIRD_UUID, "John Brown", null, null));
+
+        // Assert
+        assertEquals(List.of(THIRD_UUID, OTHER_UUID), ids(index.search("john", null, null, 10)));
+        assertEquals(List.of(), ids(index.search("smith", null, null, 10)));
+    }
+
+    @Test
+    void load_WithNonEmptyIndex_ShouldBeRejected() {
+        // Arrange
+        index.put(entry(TEST_UUID, "John Smith", null, null));
+
+        // Act & Assert
+        assertThrows(IllegalStateException.class, () -> index.load(entry(OTHER_UUID, "John Doe", null, null)));
+    }
+
+    private static PrefixIndex.Entry entry(UUID id, String fullName, String nickname, String email) {
+        return PrefixIndex.Entry.of(id, fullName, nickname, email, null, null);
+    }
+
+    private static List<UUID> ids(List<UserAccountSuggestionDTO> suggestions) {
+        return suggestions.stream().map(UserAccountSuggestionDTO::getId).toList();
+    }
+}
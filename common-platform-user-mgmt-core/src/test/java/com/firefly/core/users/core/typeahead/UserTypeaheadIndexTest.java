@@ -0,0 +1,262 @@
+/*
+ * Copyright 2025 Firefly Software Solutions Inc
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.firefly.core.users.core.typeahead;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.firefly.core.users.core.changes.ChangeEventBus;
+import com.firefly.core.users.interfaces.dtos.ChangeEventDTO;
+import com.firefly.core.users.interfaces.dtos.UserAccountDTO;
+import com.firefly.core.users.interfaces.dtos.UserAccountSuggestionDTO;
+import com.firefly.core.users.interfaces.enums.ChangeTypeEnum;
+import com.firefly.core.users.models.entities.UserAccount;
+import com.firefly.core.users.models.repositories.UserAccountRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class UserTypeaheadIndexTest {
+
+    private static final UUID TEST_UUID = UUID.fromString("123e4567-e89b-12d3-a456-426614174000");
+    private static final UUID OTHER_UUID = UUID.fromString("123e4567-e89b-12d3-a456-426614174001");
+
+    @Mock
+    private UserAccountRepository repository;
+
+    @Mock
+    private ChangeEventBus changeEventBus;
+
+    @InjectMocks
+    private UserTypeaheadIndex typeahead;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private final Sinks.Many<ChangeEventDTO> changes = Sinks.many().multicast().directBestEffort();
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(typeahead, "meterRegistry", meterRegistry);
+        ReflectionTestUtils.setField(typeahead, "objectMapper", new ObjectMapper().findAndRegisterModules());
+        when(changeEventBus.subscribe(null)).thenReturn(changes.asFlux());
+    }
+
+    @AfterEach
+    void tearDown() {
+        typeahead.stop();
+    }
+
+    @Test
+    void start_ShouldIndexActiveUserAccounts() {
+        // Arrange
+        when(repository.findAll()).thenReturn(Flux.just(
+                account(TEST_UUID, "John Smith", true),
+                account(OTHER_UUID, "John Doe", false)));
+
+        // Act
+        typeahead.start();
+
+        // Assert
+        assertEquals(List.of(TEST_UUID), ids(typeahead.search("john", null, null, 10)));
+        assertEquals(1, meterRegistry.get("user_mgmt.typeahead.users").gauge().value());
+    }
+
+    @Test
+    void start_WithInvalidationsEnabled_ShouldBuildOnceWhenTheListenerFlushes() {
+        // Arrange
+        ReflectionTestUtils.setField(typeahead, "invalidationEnabled", true);
+        when(repository.findAll()).thenReturn(Flux.just(account(TEST_UUID, "John Smith", true)));
+
+        // Act
+        typeahead.start();
+        List<UserAccountSuggestionDTO> beforeFlush = typeahead.search("john", null, null, 10);
+        typeahead.evictAll();
+
+        // Assert
+        assertEquals(List.of(), beforeFlush);
+        assertEquals(List.of(TEST_UUID), ids(typeahead.search("john", null, null, 10)));
+        verify(repository, times(1)).findAll();
+    }
+
+    @Test
+    void onChange_ShouldApplyCommittedChanges() {
+        // Arrange
+        when(repository.findAll()).thenReturn(Flux.just(account(TEST_UUID, "John Smith", true)));
+        typeahead.start();
+
+        // Act
+        changes.tryEmitNext(updated(OTHER_UUID, "Jane Doe", true));
+        changes.tryEmitNext(updated(TEST_UUID, "John Smith", false));
+        changes.tryEmitNext(ChangeEventDTO.builder().entity("role").type(ChangeTypeEnum.DELETED)
+                .recordId(OTHER_UUID).build());
+
+        // Assert
+        assertEquals(List.of(OTHER_UUID), ids(typeahead.search("j", null, null, 10)));
+    }
+
+    @Test
+    void onChange_WithAccountDecodedFromNotification_ShouldApplyIt() {
+        // Arrange
+        when(repository.findAll()).thenReturn(Flux.empty());
+        typeahead.start();
+
+        // Act
+        changes.tryEmitNext(ChangeEventDTO.builder()
+                .entity("user_account")
+                .type(ChangeTypeEnum.CREATED)
+                .recordId(TEST_UUID)
+                .data(Map.of("id", TEST_UUID.toString(), "fullName", "Jane Doe", "isActive", true))
+                .build());
+
+        // Assert
+        assertEquals(List.of(TEST_UUID), ids(typeahead.search("jane", null, null, 10)));
+    }
+
+    @Test
+    void onChange_WithoutAccount_ShouldReloadIt() {
+        // Arrange
+        when(repository.findAll()).thenReturn(Flux.empty());
+        when(repository.findById(TEST_UUID)).thenReturn(Mono.just(account(TEST_UUID, "Jane Doe", true)));
+        typeahead.start();
+
+        // Act
+        changes.tryEmitNext(ChangeEventDTO.builder()
+                .entity("user_account")
+                .type(ChangeTypeEnum.UPDATED)
+                .recordId(TEST_UUID)
+                .build());
+
+        // Assert
+        assertEquals(List.of(TEST_UUID), ids(typeahead.search("jane", null, null, 10)));
+    }
+
+    @Test
+    void rebuild_ShouldReplayChangesAppliedWhileBuilding() {
+        // Arrange
+        Sinks.Many<UserAccount> snapshot = Sinks.many().unicast().onBackpressureBuffer();
+        when(repository.findAll()).thenReturn(snapshot.asFlux());
+        typeahead.start();
+
+        // Act
+        changes.tryEmitNext(updated(TEST_UUID, "Alicia Keys", true));
+        changes.tryEmitNext(ChangeEventDTO.builder().entity("user_account").type(ChangeTypeEnum.DELETED)
+                .recordId(OTHER_UUID).build());
+        List<UUID> whileBuilding = ids(typeahead.search("alicia", null, null, 10));
+        // The snapshot was read before the changes committed
+        snapshot.tryEmitNext(account(TEST_UUID, "Alice Keys", true));
+        snapshot.tryEmitNext(account(OTHER_UUID, "Bob Brown", true));
+        snapshot.tryEmitComplete();
+
+        // Assert
+        assertEquals(List.of(TEST_UUID), whileBuilding);
+        assertEquals(List.of(TEST_UUID), ids(typeahead.search("alicia", null, null, 10)));
+        assertEquals(List.of(), ids(typeahead.search("alice", null, null, 10)));
+        assertEquals(List.of(), ids(typeahead.search("bob", null, null, 10)));
+    }
+
+    @Test
+    void rebuild_WhileBuilding_ShouldDiscardTheEarlierBuild() {
+        // Arrange
+        Sinks.Many<UserAccount> first = Sinks.many().unicast().onBackpressureBuffer();
+        when(repository.findAll()).thenReturn(first.asFlux(), Flux.just(account(OTHER_UUID, "Jane Doe", true)));
+        typeahead.start();
+
+        // Act
+        typeahead.rebuild();
+        first.tryEmitNext(account(TEST_UUID, "John Smith", true));
+        first.tryEmitComplete();
+
+        // Assert
+        assertEquals(List.of(OTHER_UUID), ids(typeahead.search("j", null, null, 10)));
+    }
+
+    @Test
+    void evict_ShouldReloadTheUserAccount() {
+        // Arrange
+        when(repository.findAll()).thenReturn(Flux.just(account(TEST_UUID, "John Smith", true)));
+        when(repository.findById(TEST_UUID)).thenReturn(Mono.just(account(TEST_UUID, "John Brown", true)));
+        when(repository.findById(OTHER_UUID)).thenReturn(Mono.empty());
+        typeahead.start();
+
+        // Act
+        typeahead.evict("user_account", TEST_UUID);
+        typeahead.evict("user_account", OTHER_UUID);
+        typeahead.evict("role", TEST_UUID);
+
+        // Assert
+        assertEquals(List.of(TEST_UUID), ids(typeahead.search("brown", null, null, 10)));
+        assertEquals(List.of(), ids(typeahead.search("smith", null, null, 10)));
+        verify(repository, times(1)).findById(TEST_UUID);
+    }
+
+    @Test
+    void evict_WithDeactivatedUserAccount_ShouldRemoveIt() {
+        // Arrange
+        when(repository.findAll()).thenReturn(Flux.just(account(TEST_UUID, "John Smith", true)));
+        when(repository.findById(TEST_UUID)).thenReturn(Mono.just(account(TEST_UUID, "John Smith", false)));
+        typeahead.start();
+
+        // Act
+        typeahead.evict("user_account", TEST_UUID);
+
+        // Assert
+        assertEquals(List.of(), ids(typeahead.search("john", null, null, 10)));
+    }
+
+    private static UserAccount account(UUID id, String fullName, boolean active) {
+        return UserAccount.builder()
+                .id(id)
+                .fullName(fullName)
+                .email(fullName.toLowerCase().replace(' ', '.') + "@example.com")
+                .isActive(active)
+                .build();
+    }
+
+    private static ChangeEventDTO updated(UUID id, String fullName, boolean active) {
+        return ChangeEventDTO.builder()
+                .entity("user_account")
+                .type(ChangeTypeEnum.UPDATED)
+                .recordId(id)
+                .data(UserAccountDTO.builder()
+                        .id(id)
+                        .fullName(fullName)
+                        .email(fullName.toLowerCase().replace(' ', '.') + "@example.com")
+                        .isActive(active)
+                        .build())
+                .build();
+    }
+
+    private static List<UUID> ids(List<UserAccountSuggestionDTO> suggestions) {
+        return suggestions.stream().map(UserAccountSuggestionDTO::getId).toList();
+    }
+}
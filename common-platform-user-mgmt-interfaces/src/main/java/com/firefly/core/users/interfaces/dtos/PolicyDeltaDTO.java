@@ -0,0 +1,52 @@
+/*
+ * Copyright 2025 Firefly Software Solutions Inc
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.firefly.core.users.interfaces.dtos;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * DTO representing the policy changes after a version.
+ * Roles are {@code null} when no role, permission or role permission changed, and otherwise hold the
+ * effective permissions of every role, replacing the previous ones. Deleted users are reported as deactivated.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class PolicyDeltaDTO {
+
+    private String version;
+
+    private List<RoleGrantsDTO> roles;
+
+    private List<PolicyAssignmentDTO> assignments;
+
+    private List<UUID> deletedAssignmentIds;
+
+    private List<UUID> activatedUserIds;
+
+    private List<UUID> deactivatedUserIds;
+
+    private Boolean hasMore;
+}
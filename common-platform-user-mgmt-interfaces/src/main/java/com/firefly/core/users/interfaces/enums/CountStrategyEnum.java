@@ -0,0 +1,43 @@
+/*
+ * Copyright 2025 Firefly Software Solutions Inc
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.firefly.core.users.interfaces.enums;
+
+/**
+ * Enum representing how the total element count of a filtered page is computed.
+ */
+public enum CountStrategyEnum {
+    /**
+     * Runs an exact count query alongside the page query.
+     */
+    EXACT,
+
+    /**
+     * Uses the PostgreSQL planner estimate instead of counting rows.
+     */
+    APPROXIMATE,
+
+    /**
+     * Reuses a recent exact count of the same filter until its TTL expires.
+     */
+    CACHED,
+
+    /**
+     * Skips counting and only reports whether a next page exists.
+     */
+    NONE
+}
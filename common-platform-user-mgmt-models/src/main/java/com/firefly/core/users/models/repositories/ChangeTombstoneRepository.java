@@ -0,0 +1,85 @@
+/*
+ * Copyright 2025 Firefly Software Solutions Inc
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.firefly.core.users.models.repositories;
+
+import com.firefly.core.users.interfaces.dtos.DeletedRecordDTO;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.util.UUID;
+
+/**
+ * Tombstones of deleted rows, read by the delta sync API alongside the changed rows.
+ */
+@Repository
+public class ChangeTombstoneRepository {
+
+    private static final String INSERT =
+            "INSERT INTO change_tombstone (entity_table, id, deleted_at) VALUES ($1, $2, CURRENT_TIMESTAMP) "
+                    + "ON CONFLICT (entity_table, id) DO UPDATE SET deleted_at = EXCLUDED.deleted_at";
+
+    private static final String SELECT_SINCE =
+            "SELECT id, deleted_at FROM change_tombstone "
+                    + "WHERE entity_table = $1 AND (deleted_at, id) > ($2, $3) "
+                    + "AND deleted_at < now() - $4 * INTERVAL '1 millisecond' "
+                    + "ORDER BY deleted_at, id LIMIT $5";
+
+    @Autowired
+    private DatabaseClient databaseClient;
+
+    /**
+     * Record the deletion of a row.
+     *
+     * @param table the table the row was deleted from
+     * @param id the ID of the deleted row
+     * @return a Mono that completes when the tombstone is written
+     */
+    public Mono<Void> record(String table, UUID id) {
+        return databaseClient.sql(INSERT)
+                .bind(0, table)
+                .bind(1, id)
+                .then();
+    }
+
+    /**
+     * Find tombstones after a watermark, in (deleted_at, id) order.
+     *
+     * @param table the table the rows were deleted from
+     * @param since the timestamp of the watermark
+     * @param sinceId the ID of the watermark
+     * @param settleTime how old a tombstone must be to be returned
+     * @param limit the maximum number of tombstones
+     * @return a Flux of DeletedRecordDTO
+     */
+    public Flux<DeletedRecordDTO> findSince(String table, OffsetDateTime since, UUID sinceId, Duration settleTime,
+                                            int limit) {
+        return databaseClient.sql(SELECT_SINCE)
+                .bind(0, table)
+                .bind(1, since)
+                .bind(2, sinceId)
+                .bind(3, settleTime.toMillis())
+                .bind(4, limit)
+                .map(row -> new DeletedRecordDTO(row.get(0, UUID.class), row.get(1, OffsetDateTime.class)))
+                .all();
+    }
+}
@@ -0,0 +1,191 @@
+/*
+ * Copyright 2025 Firefly Software Solutions Inc
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.firefly.core.users.models.repositories;
+
+import com.firefly.core.users.interfaces.dtos.IdempotentResponseDTO;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.util.UUID;
+
+/**
+ * Idempotency keys and the responses stored for them, scoped per caller. A key is locked by the first request
+ * that uses it, under a token that fences it: only that request can renew the lock, store its response or
+ * release the key. The request renews the lock while it runs, so the lock can only be taken over once its holder
+ * has stopped renewing it for the lock timeout, or the key has expired.
+ */
+@Repository
+public class IdempotencyKeyRepository {
+
+    private static final String LOCK =
+            "INSERT INTO idempotency_key (caller, idempotency_key, request_fingerprint, lock_token, locked_at, "
+                    + "expires_at) VALUES ($1, $2, $3, $4, CURRENT_TIMESTAMP, "
+                    + "CURRENT_TIMESTAMP + $5 * INTERVAL '1 millisecond') "
+                    + "ON CONFLICT (caller, idempotency_key) DO UPDATE SET "
+                    + "request_fingerprint = EXCLUDED.request_fingerprint, lock_token = EXCLUDED.lock_token, "
+                    + "response_status = NULL, response_content_type = NULL, response_body = NULL, "
+                    + "locked_at = EXCLUDED.locked_at, expires_at = EXCLUDED.expires_at "
+                    + "WHERE idempotency_key.expires_at < CURRENT_TIMESTAMP "
+                    + "OR (idempotency_key.response_status IS NULL "
+                    + "AND idempotency_key.locked_at < CURRENT_TIMESTAMP - $6 * INTERVAL '1 millisecond')";
+
+    private static final String RENEW =
+            "UPDATE idempotency_key SET locked_at = CURRENT_TIMESTAMP "
+                    + "WHERE caller = $1 AND idempotency_key = $2 AND lock_token = $3 AND response_status IS NULL";
+
+    private static final String SELECT =
+            "SELECT caller, idempotency_key, request_fingerprint, response_status, response_content_type, "
+                    + "response_body, expires_at FROM idempotency_key "
+                    + "WHERE caller = $1 AND idempotency_key = $2 AND expires_at >= CURRENT_TIMESTAMP";
+
+    private static final String COMPLETE =
+            "UPDATE idempotency_key SET response_status = $4, response_content_type = $5, response_body = $6 "
+                    + "WHERE caller = $1 AND idempotency_key = $2 AND lock_token = $3 AND response_status IS NULL";
+
+    private static final String RELEASE =
+            "DELETE FROM idempotency_key "
+                    + "WHERE caller = $1 AND idempotency_key = $2 AND lock_token = $3 AND response_status IS NULL";
+
+    private static final String PURGE =
+            "DELETE FROM idempotency_key WHERE expires_at < CURRENT_TIMESTAMP";
+
+    @Autowired
+    private DatabaseClient databaseClient;
+
+    /**
+     * Lock a key for a new request.
+     *
+     * @param caller the caller the key belongs to
+     * @param key the idempotency key
+     * @param fingerprint the hash of the request
+     * @param token the token of the request taking the lock
+     * @param ttl how long the key and its response are kept
+     * @param lockTimeout after how long without renewal an unfinished request loses the key
+     * @return a Mono emitting true when the key was locked, false when another request holds it
+     */
+    public Mono<Boolean> lock(String caller, String key, String fingerprint, UUID token, Duration ttl,
+                              Duration lockTimeout) {
+        return databaseClient.sql(LOCK)
+                .bind(0, caller)
+                .bind(1, key)
+                .bind(2, fingerprint)
+                .bind(3, token)
+                .bind(4, ttl.toMillis())
+                .bind(5, lockTimeout.toMillis())
+                .fetch()
+                .rowsUpdated()
+                .map(updated -> updated > 0);
+    }
+
+    /**
+     * Renew the lock of a request that is still running.
+     *
+     * @param caller the caller the key belongs to
+     * @param key the idempotency key
+     * @param token the token the lock was taken with
+     * @return a Mono emitting false when the request no longer holds the key
+     */
+    public Mono<Boolean> renew(String caller, String key, UUID token) {
+        return databaseClient.sql(RENEW)
+                .bind(0, caller)
+                .bind(1, key)
+                .bind(2, token)
+                .fetch()
+                .rowsUpdated()
+                .map(updated -> updated > 0);
+    }
+
+    /**
+     * Find an unexpired key.
+     *
+     * @param caller the caller the key belongs to
+     * @param key the idempotency key
+     * @return a Mono emitting the IdempotentResponseDTO, or empty
+     */
+    public Mono<IdempotentResponseDTO> find(String caller, String key) {
+        return databaseClient.sql(SELECT)
+                .bind(0, caller)
+                .bind(1, key)
+                .map(row -> IdempotentResponseDTO.builder()
+                        .caller(row.get(0, String.class))
+                        .idempotencyKey(row.get(1, String.class))
+                        .requestFingerprint(row.get(2, String.class))
+                        .status(row.get(3, Integer.class))
+                        .contentType(row.get(4, String.class))
+                        .body(row.get(5, byte[].class))
+                        .expiresAt(row.get(6, OffsetDateTime.class))
+                        .build())
+                .one();
+    }
+
+    /**
+     * Store the response of the request holding a key.
+     *
+     * @param caller the caller the key belongs to
+     * @param key the idempotency key
+     * @param token the token the lock was taken with
+     * @param status the response status
+     * @param contentType the response content type, or {@code null}
+     * @param body the response body
+     * @return a Mono emitting false when the request no longer held the key and nothing was stored
+     */
+    public Mono<Boolean> complete(String caller, String key, UUID token, int status, String contentType,
+                                  byte[] body) {
+        DatabaseClient.GenericExecuteSpec spec = databaseClient.sql(COMPLETE)
+                .bind(0, caller)
+                .bind(1, key)
+                .bind(2, token)
+                .bind(3, status);
+        spec = contentType != null ? spec.bind(4, contentType) : spec.bindNull(4, String.class);
+        return spec.bind(5, body)
+                .fetch()
+                .rowsUpdated()
+                .map(updated -> updated > 0);
+    }
+
+    /**
+     * Release a key whose request failed, so a retry executes it again.
+     *
+     * @param caller the caller the key belongs to
+     * @param key the idempotency key
+     * @param token the token the lock was taken with
+     * @return a Mono that completes when the key is released
+     */
+    public Mono<Void> release(String caller, String key, UUID token) {
+        return databaseClient.sql(RELEASE)
+                .bind(0, caller)
+                .bind(1, key)
+                .bind(2, token)
+                .then();
+    }
+
+    /**
+     * Delete expired keys.
+     *
+     * @return a Mono emitting the number of keys deleted
+     */
+    public Mono<Long> purgeExpired() {
+        return databaseClient.sql(PURGE)
+                .fetch()
+                .rowsUpdated();
+    }
+}
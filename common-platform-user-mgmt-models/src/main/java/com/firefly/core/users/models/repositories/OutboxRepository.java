@@ -0,0 +1,166 @@
+/*
+ * Copyright 2025 Firefly Software Solutions Inc
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.firefly.core.users.models.repositories;
+
+import com.firefly.core.users.interfaces.dtos.OutboxEventDTO;
+import com.firefly.core.users.interfaces.enums.ChangeTypeEnum;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Outbox of domain events. Events are appended inside the transaction of the change they describe
+ * and read by a single relay at a time, the one whose transaction holds {@link #tryLease()}.
+ */
+@Repository
+public class OutboxRepository {
+
+    private static final String INSERT =
+            "INSERT INTO outbox (aggregate_type, aggregate_id, event_type, payload) VALUES ($1, $2, $3, $4::jsonb)";
+
+    private static final String INSERT_WITHOUT_PAYLOAD =
+            "INSERT INTO outbox (aggregate_type, aggregate_id, event_type) VALUES ($1, $2, $3)";
+
+    private static final String INSERT_ALL =
+            "INSERT INTO outbox (aggregate_type, aggregate_id, event_type, payload) "
+                    + "SELECT $1, aggregate_id, $2, payload::jsonb FROM unnest($3::uuid[], $4::text[]) "
+                    + "WITH ORDINALITY AS event (aggregate_id, payload, position) ORDER BY position";
+
+    private static final String TRY_LEASE = "SELECT pg_try_advisory_xact_lock(hashtext('outbox_relay'))";
+
+    private static final String SELECT_UNPUBLISHED =
+            "SELECT id, aggregate_type, aggregate_id, event_type, payload::text, created_at FROM outbox "
+                    + "WHERE published_at IS NULL ORDER BY id LIMIT $1";
+
+    private static final String MARK_PUBLISHED =
+            "UPDATE outbox SET published_at = CURRENT_TIMESTAMP WHERE id = ANY($1)";
+
+    private static final String DELETE_PUBLISHED =
+            "DELETE FROM outbox WHERE id IN (SELECT id FROM outbox "
+                    + "WHERE published_at < now() - $1 * INTERVAL '1 millisecond' ORDER BY id LIMIT $2)";
+
+    @Autowired
+    private DatabaseClient databaseClient;
+
+    /**
+     * Append an event to the outbox.
+     *
+     * @param aggregateType the table of the changed record
+     * @param aggregateId the ID of the changed record
+     * @param eventType the kind of change
+     * @param payload the JSON payload, or {@code null}
+     * @return a Mono that completes when the event is written
+     */
+    public Mono<Void> append(String aggregateType, UUID aggregateId, ChangeTypeEnum eventType, String payload) {
+        DatabaseClient.GenericExecuteSpec spec = databaseClient.sql(payload != null ? INSERT : INSERT_WITHOUT_PAYLOAD)
+                .bind(0, aggregateType)
+                .bind(1, aggregateId)
+                .bind(2, eventType.name());
+        if (payload != null) {
+            spec = spec.bind(3, payload);
+        }
+        return spec.then();
+    }
+
+    /**
+     * Append events of one kind for several records in one statement, in the given order.
+     *
+     * @param aggregateType the table of the changed records
+     * @param eventType the kind of change
+     * @param aggregateIds the IDs of the changed records
+     * @param payloads the JSON payloads, in the order of the IDs
+     * @return a Mono that completes when the events are written
+     */
+    public Mono<Void> appendAll(String aggregateType, ChangeTypeEnum eventType, List<UUID> aggregateIds,
+                               List<String> payloads) {
+        return databaseClient.sql(INSERT_ALL)
+                .bind(0, aggregateType)
+                .bind(1, eventType.name())
+                .bind(2, aggregateIds.toArray(new UUID[0]))
+                .bind(3, payloads.toArray(new String[0]))
+                .then();
+    }
+
+    /**
+     * Try to take the relay lease until the end of the current transaction, without waiting.
+     * Only the holder may read and mark events, so batches are published one after another.
+     *
+     * @return a Mono emitting whether the lease was taken
+     */
+    public Mono<Boolean> tryLease() {
+        return databaseClient.sql(TRY_LEASE)
+                .map(row -> row.get(0, Boolean.class))
+                .one();
+    }
+
+    /**
+     * Read the oldest unpublished events. Must run inside a transaction that holds {@link #tryLease()}
+     * and marks them published.
+     *
+     * @param limit the maximum number of events
+     * @return a Flux of OutboxEventDTO in id order
+     */
+    public Flux<OutboxEventDTO> findUnpublished(int limit) {
+        return databaseClient.sql(SELECT_UNPUBLISHED)
+                .bind(0, limit)
+                .map(row -> OutboxEventDTO.builder()
+                        .id(row.get(0, Long.class))
+                        .aggregateType(row.get(1, String.class))
+                        .aggregateId(row.get(2, UUID.class))
+                        .eventType(ChangeTypeEnum.valueOf(row.get(3, String.class)))
+                        .payload(row.get(4, String.class))
+                        .createdAt(row.get(5, OffsetDateTime.class))
+                        .build())
+                .all();
+    }
+
+    /**
+     * Mark events as published.
+     *
+     * @param ids the event IDs
+     * @return a Mono emitting the number of events marked
+     */
+    public Mono<Long> markPublished(List<Long> ids) {
+        return databaseClient.sql(MARK_PUBLISHED)
+                .bind(0, ids.toArray(new Long[0]))
+                .fetch()
+                .rowsUpdated();
+    }
+
+    /**
+     * Delete events published before a retention period, oldest first.
+     *
+     * @param retention how long published events are kept
+     * @param limit the maximum number of events to delete
+     * @return a Mono emitting the number of events deleted
+     */
+    public Mono<Long> deletePublishedBefore(Duration retention, int limit) {
+        return databaseClient.sql(DELETE_PUBLISHED)
+                .bind(0, retention.toMillis())
+                .bind(1, limit)
+                .fetch()
+                .rowsUpdated();
+    }
+}
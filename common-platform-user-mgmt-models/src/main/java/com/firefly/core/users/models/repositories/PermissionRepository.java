@@ -18,6 +18,7 @@
 package com.firefly.core.users.models.repositories;
 
 import com.firefly.core.users.models.entities.Permission;
+import org.springframework.data.r2dbc.repository.Query;
 import org.springframework.stereotype.Repository;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
@@ -54,4 +55,14 @@ public interface PermissionRepository extends BaseRepository<Permission, UUID> {
      * @return a Mono of Boolean
      */
     Mono<Boolean> existsByName(String name);
+
+    /**
+     * Find the permissions granted to a role directly or through the roles it inherits from.
+     *
+     * @param roleId the role ID
+     * @return a Flux of distinct Permission entities
+     */
+    @Query("SELECT DISTINCT p.* FROM permission p JOIN role_permission rp ON rp.permission_id = p.id "
+            + "JOIN role_closure c ON c.ancestor_id = rp.role_id WHERE c.descendant_id = :roleId")
+    Flux<Permission> findEffectiveByRoleId(UUID roleId);
 }
\ No newline at end of file
@@ -0,0 +1,104 @@
+/*
+ * Copyright 2025 Firefly Software Solutions Inc
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.firefly.core.users.models.repositories;
+
+import com.firefly.core.users.interfaces.dtos.PolicyAssignmentDTO;
+import com.firefly.core.users.interfaces.dtos.RoleGrantsDTO;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Reads the whole authorization policy for snapshots: effective role permissions, role assignments and
+ * inactive users. Run in a single repeatable read transaction so the reads agree with each other.
+ */
+@Repository
+public class PolicyRepository {
+
+    private static final String CURRENT_TIMESTAMP = "SELECT CURRENT_TIMESTAMP";
+
+    /**
+     * Permissions of every role and its ancestors, formatted the way permissions are checked.
+     */
+    private static final String SELECT_ROLE_GRANTS =
+            "SELECT c.descendant_id, array_agg(DISTINCT CASE WHEN coalesce(p.domain, '') = '' THEN p.name "
+                    + "ELSE p.domain || ':' || p.name END) "
+                    + "FROM role_closure c "
+                    + "JOIN role_permission rp ON rp.role_id = c.ancestor_id "
+                    + "JOIN permission p ON p.id = rp.permission_id "
+                    + "GROUP BY c.descendant_id";
+
+    private static final String SELECT_ASSIGNMENTS =
+            "SELECT id, user_account_id, role_id, branch_id, distributor_id FROM user_role";
+
+    private static final String SELECT_INACTIVE_USER_IDS = "SELECT id FROM user_account WHERE is_active = false";
+
+    @Autowired
+    private DatabaseClient databaseClient;
+
+    /**
+     * Read the start time of the current transaction.
+     *
+     * @return a Mono emitting the timestamp
+     */
+    public Mono<OffsetDateTime> currentTimestamp() {
+        return databaseClient.sql(CURRENT_TIMESTAMP)
+                .map(row -> row.get(0, OffsetDateTime.class))
+                .one();
+    }
+
+    /**
+     * Find the effective permissions of every role having any.
+     *
+     * @return a Flux of RoleGrantsDTO
+     */
+    public Flux<RoleGrantsDTO> findRoleGrants() {
+        return databaseClient.sql(SELECT_ROLE_GRANTS)
+                .map(row -> new RoleGrantsDTO(row.get(0, UUID.class), List.of(row.get(1, String[].class))))
+                .all();
+    }
+
+    /**
+     * Find every role assignment.
+     *
+     * @return a Flux of PolicyAssignmentDTO
+     */
+    public Flux<PolicyAssignmentDTO> findAssignments() {
+        return databaseClient.sql(SELECT_ASSIGNMENTS)
+                .map(row -> new PolicyAssignmentDTO(row.get(0, UUID.class), row.get(1, UUID.class),
+                        row.get(2, UUID.class), row.get(3, UUID.class), row.get(4, UUID.class)))
+                .all();
+    }
+
+    /**
+     * Find the IDs of the inactive user accounts.
+     *
+     * @return a Flux of user account IDs
+     */
+    public Flux<UUID> findInactiveUserIds() {
+        return databaseClient.sql(SELECT_INACTIVE_USER_IDS)
+                .map(row -> row.get(0, UUID.class))
+                .all();
+    }
+}
@@ -0,0 +1,180 @@
+/*
+ * Copyright 2025 Firefly Software Solutions Inc
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.firefly.core.users.models.repositories;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.UUID;
+
+/**
+ * Role inheritance edges and their transitive closure.
+ * The closure is maintained incrementally: adding or removing an edge from a parent to a child adjusts the
+ * path counts of every (ancestor of the parent, descendant of the child) pair in one statement, so resolving
+ * the ancestors of a role is a single index lookup whatever the depth of the hierarchy.
+ * Changes must run in a transaction holding {@link #lock()}.
+ */
+@Repository
+public class RoleHierarchyRepository {
+
+    private static final String LOCK = "SELECT pg_advisory_xact_lock(hashtext('role_closure'))";
+
+    private static final String INSERT_SELF =
+            "INSERT INTO role_closure (ancestor_id, descendant_id, paths) VALUES ($1, $1, 1) ON CONFLICT DO NOTHING";
+
+    private static final String IS_ANCESTOR =
+            "SELECT EXISTS (SELECT 1 FROM role_closure WHERE ancestor_id = $1 AND descendant_id = $2)";
+
+    private static final String INSERT_EDGE =
+            "INSERT INTO role_inheritance (parent_role_id, child_role_id) VALUES ($1, $2) "
+                    + "ON CONFLICT DO NOTHING RETURNING child_role_id";
+
+    private static final String DELETE_EDGE =
+            "DELETE FROM role_inheritance WHERE parent_role_id = $1 AND child_role_id = $2 RETURNING child_role_id";
+
+    /**
+     * Every path from an ancestor of the parent to a descendant of the child through the new edge.
+     */
+    private static final String LINK =
+            "INSERT INTO role_closure (ancestor_id, descendant_id, paths) "
+                    + "SELECT a.ancestor_id, d.descendant_id, a.paths * d.paths "
+                    + "FROM role_closure a JOIN role_closure d ON a.descendant_id = $1 AND d.ancestor_id = $2 "
+                    + "ON CONFLICT (ancestor_id, descendant_id) DO UPDATE SET paths = role_closure.paths + EXCLUDED.paths";
+
+    private static final String UNLINK =
+            "UPDATE role_closure c SET paths = c.paths - a.paths * d.paths "
+                    + "FROM role_closure a JOIN role_closure d ON a.descendant_id = $1 AND d.ancestor_id = $2 "
+                    + "WHERE c.ancestor_id = a.ancestor_id AND c.descendant_id = d.descendant_id";
+
+    private static final String DELETE_UNREACHABLE = "DELETE FROM role_closure WHERE paths = 0";
+
+    /**
+     * The child's effective permissions changed, so it must show up in the role change feed.
+     */
+    private static final String TOUCH_ROLE = "UPDATE role SET updated_at = CURRENT_TIMESTAMP WHERE id = $1";
+
+    private static final String FIND_PARENT_IDS =
+            "SELECT parent_role_id FROM role_inheritance WHERE child_role_id = $1";
+
+    @Autowired
+    private DatabaseClient databaseClient;
+
+    /**
+     * Serialize hierarchy changes until the end of the current transaction, so concurrent edges cannot form a
+     * cycle or miscount paths.
+     *
+     * @return a Mono completing once the lock is held
+     */
+    public Mono<Void> lock() {
+        return databaseClient.sql(LOCK).then();
+    }
+
+    /**
+     * Add a new role to the closure as its own ancestor.
+     *
+     * @param roleId the role ID
+     * @return a Mono of Void
+     */
+    public Mono<Void> insertRole(UUID roleId) {
+        return databaseClient.sql(INSERT_SELF)
+                .bind(0, roleId)
+                .then();
+    }
+
+    /**
+     * Check whether a role is an ancestor of another role, or the same role.
+     *
+     * @param ancestorId the candidate ancestor role ID
+     * @param descendantId the candidate descendant role ID
+     * @return a Mono emitting whether the descendant inherits from the ancestor
+     */
+    public Mono<Boolean> isAncestor(UUID ancestorId, UUID descendantId) {
+        return databaseClient.sql(IS_ANCESTOR)
+                .bind(0, ancestorId)
+                .bind(1, descendantId)
+                .map(row -> row.get(0, Boolean.class))
+                .one();
+    }
+
+    /**
+     * Make a role inherit from a parent role and extend the closure accordingly.
+     *
+     * @param parentRoleId the parent role ID
+     * @param childRoleId the child role ID
+     * @return a Mono emitting whether the edge was added, or {@code false} if it already existed
+     */
+    public Mono<Boolean> insertEdge(UUID parentRoleId, UUID childRoleId) {
+        return databaseClient.sql(INSERT_EDGE)
+                .bind(0, parentRoleId)
+                .bind(1, childRoleId)
+                .map(row -> row.get(0, UUID.class))
+                .one()
+                .flatMap(inserted -> databaseClient.sql(LINK)
+                        .bind(0, parentRoleId)
+                        .bind(1, childRoleId)
+                        .then()
+                        .then(touchRole(childRoleId))
+                        .thenReturn(true))
+                .defaultIfEmpty(false);
+    }
+
+    /**
+     * Remove the inheritance of a role from a parent role and shrink the closure accordingly.
+     *
+     * @param parentRoleId the parent role ID
+     * @param childRoleId the child role ID
+     * @return a Mono emitting whether the edge was removed, or {@code false} if it did not exist
+     */
+    public Mono<Boolean> deleteEdge(UUID parentRoleId, UUID childRoleId) {
+        return databaseClient.sql(DELETE_EDGE)
+                .bind(0, parentRoleId)
+                .bind(1, childRoleId)
+                .map(row -> row.get(0, UUID.class))
+                .one()
+                .flatMap(deleted -> databaseClient.sql(UNLINK)
+                        .bind(0, parentRoleId)
+                        .bind(1, childRoleId)
+                        .then()
+                        .then(databaseClient.sql(DELETE_UNREACHABLE).then())
+                        .then(touchRole(childRoleId))
+                        .thenReturn(true))
+                .defaultIfEmpty(false);
+    }
+
+    /**
+     * Find the direct parent roles of a role.
+     *
+     * @param roleId the role ID
+     * @return a Flux of parent role IDs
+     */
+    public Flux<UUID> findParentIds(UUID roleId) {
+        return databaseClient.sql(FIND_PARENT_IDS)
+                .bind(0, roleId)
+                .map(row -> row.get(0, UUID.class))
+                .all();
+    }
+
+    private Mono<Void> touchRole(UUID roleId) {
+        return databaseClient.sql(TOUCH_ROLE)
+                .bind(0, roleId)
+                .then();
+    }
+}
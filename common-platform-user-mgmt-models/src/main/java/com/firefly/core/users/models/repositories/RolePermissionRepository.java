@@ -18,6 +18,7 @@
 package com.firefly.core.users.models.repositories;
 
 import com.firefly.core.users.models.entities.RolePermission;
+import org.springframework.data.r2dbc.repository.Query;
 import org.springframework.stereotype.Repository;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
@@ -39,6 +40,17 @@ public interface RolePermissionRepository extends BaseRepository<RolePermission,
      */
     Flux<RolePermission> findByRoleId(UUID roleId);
 
+    /**
+     * Find the role permissions granted to a role directly or through the roles it inherits from,
+     * in a single join on the role closure.
+     *
+     * @param roleId the role ID
+     * @return a Flux of RolePermission entities of the role and its ancestors
+     */
+    @Query("SELECT rp.* FROM role_permission rp JOIN role_closure c ON c.ancestor_id = rp.role_id "
+            + "WHERE c.descendant_id = :roleId")
+    Flux<RolePermission> findEffectiveByRoleId(UUID roleId);
+
     /**
      * Find role permissions by permission ID.
      *
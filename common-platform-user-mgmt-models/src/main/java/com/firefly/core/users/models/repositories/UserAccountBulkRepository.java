@@ -0,0 +1,161 @@
+/*
+ * Copyright 2025 Firefly Software Solutions Inc
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.firefly.core.users.models.repositories;
+
+import com.firefly.core.users.interfaces.dtos.UserAccountDTO;
+import com.firefly.core.users.models.entities.UserAccount;
+import com.firefly.core.users.models.rowmappers.UserAccountRowMapper;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Function;
+import java.util.function.IntFunction;
+
+/**
+ * Set-based writes of user accounts for bulk operations.
+ * Imports insert each batch with one {@code INSERT ... SELECT FROM unnest(...)} taking one array parameter per
+ * column, so the statement and its plan are the same whatever the batch size; status changes are one
+ * {@code UPDATE} each.
+ */
+@Repository
+public class UserAccountBulkRepository {
+
+    /**
+     * Rows conflicting with an existing account, or with an earlier row of the batch, on any unique index are
+     * skipped; the lower(email) index makes that any email already present in another case. Column defaults do not
+     * apply to explicit NULLs, so they are restated. Inserted rows are returned as stored, defaults included.
+     */
+    private static final String INSERT_ALL =
+            "INSERT INTO user_account (id, full_name, nickname, email, user_type, branch_id, distributor_id, "
+                    + "department_id, position_id, job_title, avatar_url, theme_preference, language_preference, "
+                    + "locale, timezone, contact_phone, is_active, created_by, updated_by, created_at, updated_at) "
+                    + "SELECT id, full_name, nickname, email, user_type::user_type_enum, branch_id, distributor_id, "
+                    + "department_id, position_id, job_title, avatar_url, "
+                    + "COALESCE(theme_preference, 'SYSTEM')::theme_preference_enum, "
+                    + "COALESCE(language_preference, 'en'), COALESCE(locale, 'en_US'), COALESCE(timezone, 'UTC'), "
+                    + "contact_phone, COALESCE(is_active, TRUE), created_by, updated_by, "
+                    + "CURRENT_TIMESTAMP, CURRENT_TIMESTAMP "
+                    + "FROM unnest($1::uuid[], $2::varchar[], $3::varchar[], $4::varchar[], $5::varchar[], "
+                    + "$6::uuid[], $7::uuid[], $8::uuid[], $9::uuid[], $10::varchar[], $11::varchar[], "
+                    + "$12::varchar[], $13::varchar[], $14::varchar[], $15::varchar[], $16::varchar[], "
+                    + "$17::boolean[], $18::uuid[], $19::uuid[]) "
+                    + "AS imported (id, full_name, nickname, email, user_type, branch_id, distributor_id, department_id, "
+                    + "position_id, job_title, avatar_url, theme_preference, language_preference, locale, timezone, "
+                    + "contact_phone, is_active, created_by, updated_by) "
+                    + "ON CONFLICT DO NOTHING "
+                    + "RETURNING " + UserAccountRowMapper.COLUMNS;
+
+    /**
+     * Rows already in the requested state are left untouched, so they are neither rewritten nor reported.
+     */
+    private static final String SET_ACTIVE =
+            "UPDATE user_account SET is_active = $1, updated_at = CURRENT_TIMESTAMP "
+                    + "WHERE is_active IS DISTINCT FROM $1 AND ";
+
+    private static final String RETURNING = " RETURNING " + UserAccountRowMapper.COLUMNS;
+
+    @Autowired
+    private DatabaseClient databaseClient;
+
+    /**
+     * Insert user accounts in one statement, skipping those whose email already exists.
+     *
+     * @param accounts the user accounts, with their IDs assigned
+     * @return a Flux of the inserted user accounts as stored
+     */
+    public Flux<UserAccountDTO> insertAll(List<UserAccount> accounts) {
+        return databaseClient.sql(INSERT_ALL)
+                .bind(0, column(accounts, UserAccount::getId, UUID[]::new))
+                .bind(1, column(accounts, UserAccount::getFullName, String[]::new))
+                .bind(2, column(accounts, UserAccount::getNickname, String[]::new))
+                .bind(3, column(accounts, UserAccount::getEmail, String[]::new))
+                .bind(4, column(accounts, account -> account.getUserType() != null
+                        ? account.getUserType().name() : null, String[]::new))
+                .bind(5, column(accounts, UserAccount::getBranchId, UUID[]::new))
+                .bind(6, column(accounts, UserAccount::getDistributorId, UUID[]::new))
+                .bind(7, column(accounts, UserAccount::getDepartmentId, UUID[]::new))
+                .bind(8, column(accounts, UserAccount::getPositionId, UUID[]::new))
+                .bind(9, column(accounts, UserAccount::getJobTitle, String[]::new))
+                .bind(10, column(accounts, UserAccount::getAvatarUrl, String[]::new))
+                .bind(11, column(accounts, account -> account.getThemePreference() != null
+                        ? account.getThemePreference().name() : null, String[]::new))
+                .bind(12, column(accounts, UserAccount::getLanguagePreference, String[]::new))
+                .bind(13, column(accounts, UserAccount::getLocale, String[]::new))
+                .bind(14, column(accounts, UserAccount::getTimezone, String[]::new))
+                .bind(15, column(accounts, UserAccount::getContactPhone, String[]::new))
+                .bind(16, column(accounts, UserAccount::getIsActive, Boolean[]::new))
+                .bind(17, column(accounts, UserAccount::getCreatedBy, UUID[]::new))
+                .bind(18, column(accounts, UserAccount::getUpdatedBy, UUID[]::new))
+                .map(UserAccountRowMapper.INSTANCE)
+                .all();
+    }
+
+    /**
+     * Set the active status of every user account of a branch in one statement.
+     *
+     * @param branchId the branch ID
+     * @param active the active status to set
+     * @return a Flux of the user accounts whose status changed
+     */
+    public Flux<UserAccountDTO> setActiveByBranchId(UUID branchId, boolean active) {
+        return setActive("branch_id = $2", branchId, active);
+    }
+
+    /**
+     * Set the active status of every user account of a distributor in one statement.
+     *
+     * @param distributorId the distributor ID
+     * @param active the active status to set
+     * @return a Flux of the user accounts whose status changed
+     */
+    public Flux<UserAccountDTO> setActiveByDistributorId(UUID distributorId, boolean active) {
+        return setActive("distributor_id = $2", distributorId, active);
+    }
+
+    /**
+     * Set the active status of the given user accounts in one statement.
+     *
+     * @param ids the user account IDs
+     * @param active the active status to set
+     * @return a Flux of the user accounts whose status changed
+     */
+    public Flux<UserAccountDTO> setActiveByIds(List<UUID> ids, boolean active) {
+        return setActive("id = ANY($2)", ids.toArray(new UUID[0]), active);
+    }
+
+    private Flux<UserAccountDTO> setActive(String condition, Object value, boolean active) {
+        return databaseClient.sql(SET_ACTIVE + condition + RETURNING)
+                .bind(0, active)
+                .bind(1, value)
+                .map(UserAccountRowMapper.INSTANCE)
+                .all();
+    }
+
+    private static <T> T[] column(List<UserAccount> accounts, Function<UserAccount, T> value,
+                                  IntFunction<T[]> array) {
+        T[] column = array.apply(accounts.size());
+        for (int i = 0; i < column.length; i++) {
+            column[i] = value.apply(accounts.get(i));
+        }
+        return column;
+    }
+}
@@ -0,0 +1,115 @@
+/*
+ * Copyright 2025 Firefly Software Solutions Inc
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.firefly.core.users.models.repositories;
+
+import com.firefly.core.users.interfaces.dtos.UserAccountDTO;
+import com.firefly.core.users.models.rowmappers.UserAccountRowMapper;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.UUID;
+
+/**
+ * Read-only fast path for hot user account lookups.
+ * Uses hand-written SQL and {@link UserAccountRowMapper} to produce DTOs without entity mapping.
+ */
+@Repository
+public class UserAccountQueryRepository {
+
+    private static final String SELECT_BY_ID =
+            "SELECT " + UserAccountRowMapper.COLUMNS + " FROM user_account WHERE id = $1";
+
+    /**
+     * Served by the {@code lower(email)} unique index.
+     */
+    private static final String SELECT_BY_EMAIL =
+            "SELECT " + UserAccountRowMapper.COLUMNS + " FROM user_account WHERE lower(email) = lower($1)";
+
+    /**
+     * Matches by trigram similarity or substring on any of the searched columns, both served by the trigram
+     * indexes, and ranks by the best similarity. Null scope parameters do not filter.
+     */
+    private static final String SEARCH =
+            "SELECT " + UserAccountRowMapper.COLUMNS + " FROM user_account "
+                    + "WHERE (full_name % $1 OR nickname % $1 OR email % $1 "
+                    + "OR full_name ILIKE $2 OR nickname ILIKE $2 OR email ILIKE $2) "
+                    + "AND ($3::uuid IS NULL OR branch_id = $3) "
+                    + "AND ($4::uuid IS NULL OR distributor_id = $4) "
+                    + "AND ($5::boolean IS NULL OR is_active = $5) "
+                    + "ORDER BY GREATEST(similarity(full_name, $1), similarity(COALESCE(nickname, ''), $1), "
+                    + "similarity(email, $1)) DESC, full_name, id "
+                    + "LIMIT $6";
+
+    @Autowired
+    private DatabaseClient databaseClient;
+
+    /**
+     * Find a user account by ID.
+     *
+     * @param id the user account ID
+     * @return a Mono of UserAccountDTO
+     */
+    public Mono<UserAccountDTO> findById(UUID id) {
+        return databaseClient.sql(SELECT_BY_ID)
+                .bind(0, id)
+                .map(UserAccountRowMapper.INSTANCE)
+                .first();
+    }
+
+    /**
+     * Find a user account by email, ignoring case.
+     *
+     * @param email the email
+     * @return a Mono of UserAccountDTO
+     */
+    public Mono<UserAccountDTO> findByEmail(String email) {
+        return databaseClient.sql(SELECT_BY_EMAIL)
+                .bind(0, email)
+                .map(UserAccountRowMapper.INSTANCE)
+                .first();
+    }
+
+    /**
+     * Search user accounts by partial name, nickname or email, best matches first.
+     *
+     * @param query the search text
+     * @param branchId the branch to search in, or {@code null} for all
+     * @param distributorId the distributor to search in, or {@code null} for all
+     * @param isActive the active status to match, or {@code null} for all
+     * @param limit the maximum number of results
+     * @return a Flux of UserAccountDTO ordered by rank
+     */
+    public Flux<UserAccountDTO> search(String query, UUID branchId, UUID distributorId, Boolean isActive, int limit) {
+        DatabaseClient.GenericExecuteSpec spec = databaseClient.sql(SEARCH)
+                .bind(0, query)
+                .bind(1, "%" + escapeLike(query) + "%");
+        spec = branchId != null ? spec.bind(2, branchId) : spec.bindNull(2, UUID.class);
+        spec = distributorId != null ? spec.bind(3, distributorId) : spec.bindNull(3, UUID.class);
+        spec = isActive != null ? spec.bind(4, isActive) : spec.bindNull(4, Boolean.class);
+        return spec.bind(5, limit)
+                .map(UserAccountRowMapper.INSTANCE)
+                .all();
+    }
+
+    private static String escapeLike(String value) {
+        return value.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+}
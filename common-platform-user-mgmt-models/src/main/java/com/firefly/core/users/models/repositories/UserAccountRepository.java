@@ -19,6 +19,7 @@ package com.firefly.core.users.models.repositories;
 
 import com.firefly.core.users.interfaces.enums.UserTypeEnum;
 import com.firefly.core.users.models.entities.UserAccount;
+import org.springframework.data.r2dbc.repository.Query;
 import org.springframework.stereotype.Repository;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
@@ -33,13 +34,22 @@ import java.util.UUID;
 public interface UserAccountRepository extends BaseRepository<UserAccount, UUID> {
 
     /**
-     * Find a user account by email.
+     * Find a user account by email, matching the exact case.
      *
      * @param email the email
      * @return a Mono of UserAccount entity
      */
     Mono<UserAccount> findByEmail(String email);
 
+    /**
+     * Find a user account by email, ignoring case, through the {@code lower(email)} unique index.
+     *
+     * @param email the email
+     * @return a Mono of UserAccount entity
+     */
+    @Query("SELECT * FROM user_account WHERE lower(email) = lower(:email)")
+    Mono<UserAccount> findByEmailIgnoreCase(String email);
+
     /**
      * Find user accounts by user type.
      *
@@ -73,10 +83,20 @@ public interface UserAccountRepository extends BaseRepository<UserAccount, UUID>
     Flux<UserAccount> findByDistributorId(UUID distributorId);
     
     /**
-     * Check if a user account with the given email exists.
+     * Check if a user account with the given email exists, matching the exact case.
      *
      * @param email the email
      * @return a Mono of Boolean
      */
     Mono<Boolean> existsByEmail(String email);
+
+    /**
+     * Check if a user account with the given email exists, ignoring case, through the {@code lower(email)}
+     * unique index.
+     *
+     * @param email the email
+     * @return a Mono of Boolean
+     */
+    @Query("SELECT EXISTS (SELECT 1 FROM user_account WHERE lower(email) = lower(:email))")
+    Mono<Boolean> existsByEmailIgnoreCase(String email);
 }
\ No newline at end of file
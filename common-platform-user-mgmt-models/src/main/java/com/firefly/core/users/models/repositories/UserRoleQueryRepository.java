@@ -0,0 +1,87 @@
+/*
+ * Copyright 2025 Firefly Software Solutions Inc
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.firefly.core.users.models.repositories;
+
+import com.firefly.core.users.interfaces.dtos.UserRoleDTO;
+import com.firefly.core.users.models.rowmappers.UserRoleRowMapper;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.UUID;
+
+/**
+ * Read-only fast path for hot user role lookups.
+ * Uses hand-written SQL and {@link UserRoleRowMapper} to produce DTOs without entity mapping.
+ */
+@Repository
+public class UserRoleQueryRepository {
+
+    private static final String SELECT_BY_ID =
+            "SELECT " + UserRoleRowMapper.COLUMNS + " FROM user_role WHERE id = $1";
+
+    private static final String SELECT_BY_USER_ACCOUNT_ID =
+            "SELECT " + UserRoleRowMapper.COLUMNS + " FROM user_role WHERE user_account_id = $1";
+
+    private static final String SELECT_BY_ROLE_ID =
+            "SELECT " + UserRoleRowMapper.COLUMNS + " FROM user_role WHERE role_id = $1";
+
+    @Autowired
+    private DatabaseClient databaseClient;
+
+    /**
+     * Find a user role by ID.
+     *
+     * @param id the user role ID
+     * @return a Mono of UserRoleDTO
+     */
+    public Mono<UserRoleDTO> findById(UUID id) {
+        return databaseClient.sql(SELECT_BY_ID)
+                .bind(0, id)
+                .map(UserRoleRowMapper.INSTANCE)
+                .first();
+    }
+
+    /**
+     * Find user roles by user account ID.
+     *
+     * @param userAccountId the user account ID
+     * @return a Flux of UserRoleDTO
+     */
+    public Flux<UserRoleDTO> findByUserAccountId(UUID userAccountId) {
+        return databaseClient.sql(SELECT_BY_USER_ACCOUNT_ID)
+                .bind(0, userAccountId)
+                .map(UserRoleRowMapper.INSTANCE)
+                .all();
+    }
+
+    /**
+     * Find user roles by role ID.
+     *
+     * @param roleId the role ID
+     * @return a Flux of UserRoleDTO
+     */
+    public Flux<UserRoleDTO> findByRoleId(UUID roleId) {
+        return databaseClient.sql(SELECT_BY_ROLE_ID)
+                .bind(0, roleId)
+                .map(UserRoleRowMapper.INSTANCE)
+                .all();
+    }
+}
@@ -0,0 +1,99 @@
+/*
+ * Copyright 2025 Firefly Software Solutions Inc
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.firefly.core.users.models.rowmappers;
+
+import com.firefly.core.users.interfaces.dtos.UserAccountDTO;
+import com.firefly.core.users.interfaces.enums.ThemePreferenceEnum;
+import com.firefly.core.users.interfaces.enums.UserTypeEnum;
+import io.r2dbc.spi.Row;
+import io.r2dbc.spi.RowMetadata;
+
+import java.time.OffsetDateTime;
+import java.util.UUID;
+import java.util.function.BiFunction;
+
+/**
+ * Maps a user_account row directly to a UserAccountDTO, bypassing entity conversion.
+ * Columns are read by position, so queries using this mapper must select {@link #COLUMNS} in order.
+ */
+public final class UserAccountRowMapper implements BiFunction<Row, RowMetadata, UserAccountDTO> {
+
+    public static final UserAccountRowMapper INSTANCE = new UserAccountRowMapper();
+
+    /**
+     * Select list matching the column indexes used by this mapper.
+     * Enum columns are cast to text so they decode without a registered enum codec.
+     */
+    public static final String COLUMNS = "id, full_name, nickname, email, user_type::text, branch_id, distributor_id, "
+            + "department_id, position_id, job_title, avatar_url, theme_preference::text, language_preference, "
+            + "locale, timezone, contact_phone, is_active, created_at, created_by, updated_at, updated_by";
+
+    private static final int ID = 0;
+    private static final int FULL_NAME = 1;
+    private static final int NICKNAME = 2;
+    private static final int EMAIL = 3;
+    private static final int USER_TYPE = 4;
+    private static final int BRANCH_ID = 5;
+    private static final int DISTRIBUTOR_ID = 6;
+    private static final int DEPARTMENT_ID = 7;
+    private static final int POSITION_ID = 8;
+    private static final int JOB_TITLE = 9;
+    private static final int AVATAR_URL = 10;
+    private static final int THEME_PREFERENCE = 11;
+    private static final int LANGUAGE_PREFERENCE = 12;
+    private static final int LOCALE = 13;
+    private static final int TIMEZONE = 14;
+    private static final int CONTACT_PHONE = 15;
+    private static final int IS_ACTIVE = 16;
+    private static final int CREATED_AT = 17;
+    private static final int CREATED_BY = 18;
+    private static final int UPDATED_AT = 19;
+    private static final int UPDATED_BY = 20;
+
+    private UserAccountRowMapper() {
+    }
+
+    @Override
+    public UserAccountDTO apply(Row row, RowMetadata metadata) {
+        UserAccountDTO dto = new UserAccountDTO();
+        dto.setId(row.get(ID, UUID.class));
+        dto.setFullName(row.get(FULL_NAME, String.class));
+        dto.setNickname(row.get(NICKNAME, String.class));
+        dto.setEmail(row.get(EMAIL, String.class));
+        String userType = row.get(USER_TYPE, String.class);
+        dto.setUserType(userType != null ? UserTypeEnum.valueOf(userType) : null);
+        dto.setBranchId(row.get(BRANCH_ID, UUID.class));
+        dto.setDistributorId(row.get(DISTRIBUTOR_ID, UUID.class));
+        dto.setDepartmentId(row.get(DEPARTMENT_ID, UUID.class));
+        dto.setPositionId(row.get(POSITION_ID, UUID.class));
+        dto.setJobTitle(row.get(JOB_TITLE, String.class));
+        dto.setAvatarUrl(row.get(AVATAR_URL, String.class));
+        String themePreference = row.get(THEME_PREFERENCE, String.class);
+        dto.setThemePreference(themePreference != null ? ThemePreferenceEnum.valueOf(themePreference) : null);
+        dto.setLanguagePreference(row.get(LANGUAGE_PREFERENCE, String.class));
+        dto.setLocale(row.get(LOCALE, String.class));
+        dto.setTimezone(row.get(TIMEZONE, String.class));
+        dto.setContactPhone(row.get(CONTACT_PHONE, String.class));
+        dto.setIsActive(row.get(IS_ACTIVE, Boolean.class));
+        dto.setCreatedAt(row.get(CREATED_AT, OffsetDateTime.class));
+        dto.setCreatedBy(row.get(CREATED_BY, UUID.class));
+        dto.setUpdatedAt(row.get(UPDATED_AT, OffsetDateTime.class));
+        dto.setUpdatedBy(row.get(UPDATED_BY, UUID.class));
+        return dto;
+    }
+}
@@ -0,0 +1,73 @@
+/*
+ * Copyright 2025 Firefly Software Solutions Inc
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.firefly.core.users.models.rowmappers;
+
+import com.firefly.core.users.interfaces.dtos.UserRoleDTO;
+import io.r2dbc.spi.Row;
+import io.r2dbc.spi.RowMetadata;
+
+import java.time.OffsetDateTime;
+import java.util.UUID;
+import java.util.function.BiFunction;
+
+/**
+ * Maps a user_role row directly to a UserRoleDTO, bypassing entity conversion.
+ * Columns are read by position, so queries using this mapper must select {@link #COLUMNS} in order.
+ */
+public final class UserRoleRowMapper implements BiFunction<Row, RowMetadata, UserRoleDTO> {
+
+    public static final UserRoleRowMapper INSTANCE = new UserRoleRowMapper();
+
+    /**
+     * Select list matching the column indexes used by this mapper.
+     */
+    public static final String COLUMNS = "id, user_account_id, role_id, branch_id, distributor_id, assigned_at, "
+            + "assigned_by, created_at, created_by, updated_at, updated_by";
+
+    private static final int ID = 0;
+    private static final int USER_ACCOUNT_ID = 1;
+    private static final int ROLE_ID = 2;
+    private static final int BRANCH_ID = 3;
+    private static final int DISTRIBUTOR_ID = 4;
+    private static final int ASSIGNED_AT = 5;
+    private static final int ASSIGNED_BY = 6;
+    private static final int CREATED_AT = 7;
+    private static final int CREATED_BY = 8;
+    private static final int UPDATED_AT = 9;
+    private static final int UPDATED_BY = 10;
+
+    private UserRoleRowMapper() {
+    }
+
+    @Override
+    public UserRoleDTO apply(Row row, RowMetadata metadata) {
+        UserRoleDTO dto = new UserRoleDTO();
+        dto.setId(row.get(ID, UUID.class));
+        dto.setUserAccountId(row.get(USER_ACCOUNT_ID, UUID.class));
+        dto.setRoleId(row.get(ROLE_ID, UUID.class));
+        dto.setBranchId(row.get(BRANCH_ID, UUID.class));
+        dto.setDistributorId(row.get(DISTRIBUTOR_ID, UUID.class));
+        dto.setAssignedAt(row.get(ASSIGNED_AT, OffsetDateTime.class));
+        dto.setAssignedBy(row.get(ASSIGNED_BY, UUID.class));
+        dto.setCreatedAt(row.get(CREATED_AT, OffsetDateTime.class));
+        dto.setCreatedBy(row.get(CREATED_BY, UUID.class));
+        dto.setUpdatedAt(row.get(UPDATED_AT, OffsetDateTime.class));
+        dto.setUpdatedBy(row.get(UPDATED_BY, UUID.class));
+        return dto;
+    }
+}
@@ -0,0 +1,4 @@
+-- Indexes for set-based operations and filters on the branch or distributor of user accounts
+
+CREATE INDEX IF NOT EXISTS idx_user_account_branch_id ON user_account(branch_id);
+CREATE INDEX IF NOT EXISTS idx_user_account_distributor_id ON user_account(distributor_id);
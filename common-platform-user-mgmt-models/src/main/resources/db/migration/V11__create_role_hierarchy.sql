@@ -0,0 +1,31 @@
+-- Role inheritance: a role holds the permissions of its parent roles, transitively
+
+CREATE TABLE IF NOT EXISTS role_inheritance (
+    parent_role_id UUID NOT NULL,
+    child_role_id UUID NOT NULL,
+    created_at TIMESTAMP WITH TIME ZONE NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    PRIMARY KEY (parent_role_id, child_role_id),
+    CONSTRAINT fk_role_inheritance_parent FOREIGN KEY (parent_role_id) REFERENCES role(id),
+    CONSTRAINT fk_role_inheritance_child FOREIGN KEY (child_role_id) REFERENCES role(id),
+    CONSTRAINT ck_role_inheritance_not_self CHECK (parent_role_id <> child_role_id)
+);
+
+CREATE INDEX IF NOT EXISTS idx_role_inheritance_child_role_id ON role_inheritance(child_role_id);
+
+-- Transitive closure of role_inheritance, including each role as its own ancestor.
+-- paths counts the distinct inheritance paths from ancestor to descendant, so removing one edge of a role
+-- reachable through several parents only drops the pairs whose last path went through it.
+CREATE TABLE IF NOT EXISTS role_closure (
+    ancestor_id UUID NOT NULL,
+    descendant_id UUID NOT NULL,
+    paths BIGINT NOT NULL,
+    PRIMARY KEY (ancestor_id, descendant_id),
+    CONSTRAINT fk_role_closure_ancestor FOREIGN KEY (ancestor_id) REFERENCES role(id) ON DELETE CASCADE,
+    CONSTRAINT fk_role_closure_descendant FOREIGN KEY (descendant_id) REFERENCES role(id) ON DELETE CASCADE
+);
+
+CREATE INDEX IF NOT EXISTS idx_role_closure_descendant_id ON role_closure(descendant_id, ancestor_id);
+
+INSERT INTO role_closure (ancestor_id, descendant_id, paths)
+SELECT id, id, 1 FROM role
+ON CONFLICT DO NOTHING;
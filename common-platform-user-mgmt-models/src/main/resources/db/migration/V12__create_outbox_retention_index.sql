@@ -0,0 +1,3 @@
+-- Lets the relay purge published outbox events by age without scanning the pending ones
+
+CREATE INDEX IF NOT EXISTS idx_outbox_published ON outbox(published_at) WHERE published_at IS NOT NULL;
@@ -0,0 +1,9 @@
+-- Idempotency keys are scoped per caller, so two callers using the same key do not collide
+
+ALTER TABLE idempotency_key ADD COLUMN IF NOT EXISTS caller VARCHAR(255) NOT NULL DEFAULT '';
+
+ALTER TABLE idempotency_key DROP CONSTRAINT IF EXISTS idempotency_key_pkey;
+ALTER TABLE idempotency_key ADD PRIMARY KEY (caller, idempotency_key);
+
+-- Identifies the request holding a key; only that request can renew the lock, store its response or release it
+ALTER TABLE idempotency_key ADD COLUMN IF NOT EXISTS lock_token UUID;
@@ -0,0 +1,19 @@
+-- Change tracking for delta sync (GET /{entity}/changes?since=<watermark>)
+
+-- Keyset indexes so changes are read in (updated_at, id) order
+CREATE INDEX IF NOT EXISTS idx_user_account_updated_at_id ON user_account(updated_at, id);
+CREATE INDEX IF NOT EXISTS idx_user_external_identity_updated_at_id ON user_external_identity(updated_at, id);
+CREATE INDEX IF NOT EXISTS idx_role_updated_at_id ON role(updated_at, id);
+CREATE INDEX IF NOT EXISTS idx_permission_updated_at_id ON permission(updated_at, id);
+CREATE INDEX IF NOT EXISTS idx_user_role_updated_at_id ON user_role(updated_at, id);
+CREATE INDEX IF NOT EXISTS idx_role_permission_updated_at_id ON role_permission(updated_at, id);
+
+-- Tombstones of deleted rows, read in the same order as the changed rows
+CREATE TABLE IF NOT EXISTS change_tombstone (
+    entity_table VARCHAR(100) NOT NULL,
+    id UUID NOT NULL,
+    deleted_at TIMESTAMP WITH TIME ZONE NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    PRIMARY KEY (entity_table, id)
+);
+
+CREATE INDEX IF NOT EXISTS idx_change_tombstone_deleted_at_id ON change_tombstone(entity_table, deleted_at, id);
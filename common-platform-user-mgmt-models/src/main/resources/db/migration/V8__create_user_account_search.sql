@@ -0,0 +1,7 @@
+-- Trigram indexes for ranked partial-match search over user account names and emails
+
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
+CREATE INDEX IF NOT EXISTS idx_user_account_full_name_trgm ON user_account USING GIN (full_name gin_trgm_ops);
+CREATE INDEX IF NOT EXISTS idx_user_account_nickname_trgm ON user_account USING GIN (nickname gin_trgm_ops);
+CREATE INDEX IF NOT EXISTS idx_user_account_email_trgm ON user_account USING GIN (email gin_trgm_ops);
@@ -0,0 +1,13 @@
+-- Case-insensitive email uniqueness and lookups through a lower(email) functional index
+
+DO $$
+BEGIN
+    IF EXISTS (SELECT 1 FROM user_account GROUP BY lower(email) HAVING count(*) > 1) THEN
+        RAISE EXCEPTION 'user_account has emails differing only in case; merge those accounts before migrating';
+    END IF;
+END $$;
+
+CREATE UNIQUE INDEX IF NOT EXISTS ux_user_account_email_lower ON user_account (lower(email));
+
+-- Duplicates the index of the UNIQUE constraint on the raw value, which still serves exact-match filters
+DROP INDEX IF EXISTS idx_user_account_email;
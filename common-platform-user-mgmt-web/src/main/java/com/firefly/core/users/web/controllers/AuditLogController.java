@@ -19,8 +19,10 @@ package com.firefly.core.users.web.controllers;
 
 import com.firefly.common.core.filters.FilterRequest;
 import com.firefly.common.core.queries.PaginationResponse;
+import com.firefly.core.users.core.filters.FieldSelection;
 import com.firefly.core.users.core.services.AuditLogService;
 import com.firefly.core.users.interfaces.dtos.AuditLogDTO;
+import com.firefly.core.users.interfaces.enums.CountStrategyEnum;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.media.Content;
@@ -29,10 +31,13 @@ import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
+import java.util.Map;
 import java.util.UUID;
 
 @RestController
@@ -50,8 +55,22 @@ public class AuditLogController {
                             schema = @Schema(implementation = PaginationResponse.class)))
     })
     @PostMapping(value = "/filter", produces = MediaType.APPLICATION_JSON_VALUE)
-    public Mono<PaginationResponse<AuditLogDTO>> filterAuditLogs(@RequestBody FilterRequest<AuditLogDTO> filterRequest) {
-        return auditLogService.filterAuditLogs(filterRequest);
+    public Mono<PaginationResponse<AuditLogDTO>> filterAuditLogs(
+            @Parameter(description = "How the total element count is computed: EXACT (default), APPROXIMATE, CACHED or NONE")
+            @RequestParam(required = false) CountStrategyEnum count,
+            @RequestBody FilterRequest<AuditLogDTO> filterRequest) {
+        return auditLogService.filterAuditLogs(filterRequest, count);
+    }
+
+    @Operation(summary = "Stream audit logs with filtering", description = "Streams all audit logs matching the filter criteria as newline-delimited JSON or server-sent events, ignoring pagination and without a total count")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Successfully streamed audit logs",
+                    content = @Content(mediaType = "application/x-ndjson",
+                            schema = @Schema(implementation = AuditLogDTO.class)))
+    })
+    @PostMapping(value = "/filter", produces = {MediaType.APPLICATION_NDJSON_VALUE, MediaType.TEXT_EVENT_STREAM_VALUE})
+    public Flux<AuditLogDTO> streamAuditLogs(@RequestBody FilterRequest<AuditLogDTO> filterRequest) {
+        return auditLogService.streamAuditLogs(filterRequest);
     }
 
     @Operation(summary = "Get audit log by ID", description = "Returns an audit log by its ID")
@@ -68,6 +87,18 @@ public class AuditLogController {
         return auditLogService.getAuditLogById(auditLogId);
     }
 
+    @Operation(summary = "Create a new audit log", description = "Records a new audit log entry and returns the created audit log")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "201", description = "Audit log successfully created",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = AuditLogDTO.class)))
+    })
+    @PostMapping(produces = MediaType.APPLICATION_JSON_VALUE)
+    @ResponseStatus(HttpStatus.CREATED)
+    public Mono<AuditLogDTO> createAuditLog(@RequestBody AuditLogDTO auditLogDTO) {
+        return auditLogService.createAuditLog(auditLogDTO);
+    }
+
     @Operation(summary = "Get audit logs for a user", description = "Returns all audit logs for a specific user")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Successfully retrieved audit logs",
@@ -99,4 +130,36 @@ public class AuditLogController {
         // The actual filtering will be handled by the service based on the resource type and ID
         return auditLogService.filterAuditLogs(filterRequest);
     }
+
+    @Operation(summary = "Get selected fields of filtered audit logs", description = "Returns a paginated list of audit logs containing only the requested fields")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Successfully retrieved audit logs",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = PaginationResponse.class))),
+            @ApiResponse(responseCode = "400", description = "Unknown field")
+    })
+    @PostMapping(value = "/filter", params = "fields", produces = MediaType.APPLICATION_JSON_VALUE)
+    public Mono<PaginationResponse<Map<String, Object>>> filterAuditLogsFields(
+            @Parameter(description = "Comma-separated list of fields to return", required = true)
+            @RequestParam String fields,
+            @Parameter(description = "How the total element count is computed: EXACT (default), APPROXIMATE, CACHED or NONE")
+            @RequestParam(required = false) CountStrategyEnum count,
+            @RequestBody FilterRequest<AuditLogDTO> filterRequest) {
+        return auditLogService.filterAuditLogs(filterRequest, FieldSelection.parse(fields, AuditLogDTO.class), count);
+    }
+
+    @Operation(summary = "Get selected fields of an audit log by ID", description = "Returns an audit log containing only the requested fields")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Successfully retrieved audit log"),
+            @ApiResponse(responseCode = "404", description = "Audit log not found"),
+            @ApiResponse(responseCode = "400", description = "Unknown field")
+    })
+    @GetMapping(value = "/{auditLogId}", params = "fields", produces = MediaType.APPLICATION_JSON_VALUE)
+    public Mono<Map<String, Object>> getAuditLogByIdFields(
+            @Parameter(description = "ID of the audit log to retrieve", required = true)
+            @PathVariable UUID auditLogId,
+            @Parameter(description = "Comma-separated list of fields to return", required = true)
+            @RequestParam String fields) {
+        return auditLogService.getAuditLogById(auditLogId, FieldSelection.parse(fields, AuditLogDTO.class));
+    }
 }
\ No newline at end of file
@@ -0,0 +1,137 @@
+/*
+ * Copyright 2025 Firefly Software Solutions Inc
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+
+package com.firefly.core.users.web.controllers;
+
+import com.firefly.core.users.core.services.AuthorizationService;
+import com.firefly.core.users.interfaces.dtos.AuthorizationCheckDTO;
+import com.firefly.core.users.interfaces.dtos.AuthorizationDecisionDTO;
+import com.firefly.core.users.interfaces.dtos.PolicyDeltaDTO;
+import com.firefly.core.users.interfaces.dtos.PolicySnapshotDTO;
+import com.firefly.core.users.interfaces.dtos.ResourceScopeDTO;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+import java.util.UUID;
+
+@RestController
+@RequestMapping("/api/v1")
+@Tag(name = "Authorization", description = "API for checking the permissions of users")
+public class AuthorizationController {
+
+    @Autowired
+    private AuthorizationService authorizationService;
+
+    @Operation(summary = "Authorize a batch of checks", description = "Checks up to 1000 permissions of a user, each optionally within a branch or distributor, resolving the user's role assignments once. Decisions are returned in the order of the checks")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Successfully authorized the checks",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = AuthorizationDecisionDTO.class))),
+            @ApiResponse(responseCode = "400", description = "More than 1000 checks"),
+            @ApiResponse(responseCode = "404", description = "User account not found")
+    })
+    @PostMapping(value = "/users/{userId}/authorize/batch", produces = MediaType.APPLICATION_JSON_VALUE)
+    public Flux<AuthorizationDecisionDTO> authorizeBatch(
+            @Parameter(description = "ID of the user account", required = true)
+            @PathVariable UUID userId,
+            @RequestBody List<AuthorizationCheckDTO> checks) {
+        return authorizationService.authorizeBatch(userId, checks);
+    }
+
+    @Operation(summary = "Filter authorized resources", description = "Returns the resources, given as a JSON array of branch and distributor scopes, for which the user holds a permission. The user's role assignments are resolved once into a set of allowed scopes")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Successfully filtered the resources",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = ResourceScopeDTO.class))),
+            @ApiResponse(responseCode = "404", description = "User account not found")
+    })
+    @PostMapping(value = "/users/{userId}/authorize/scopes", consumes = MediaType.APPLICATION_JSON_VALUE,
+            produces = MediaType.APPLICATION_JSON_VALUE)
+    public Flux<ResourceScopeDTO> filterAuthorizedScopes(
+            @Parameter(description = "ID of the user account", required = true)
+            @PathVariable UUID userId,
+            @Parameter(description = "Permission to hold, as domain:name", required = true)
+            @RequestParam String permission,
+            @RequestBody Flux<ResourceScopeDTO> scopes) {
+        return authorizationService.filterAuthorizedScopes(userId, permission, scopes);
+    }
+
+    @Operation(summary = "Stream authorized resources", description = "Streams back the resources, sent as newline-delimited JSON scopes, for which the user holds a permission, without buffering either side")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Successfully filtered the resources",
+                    content = @Content(mediaType = "application/x-ndjson",
+                            schema = @Schema(implementation = ResourceScopeDTO.class))),
+            @ApiResponse(responseCode = "404", description = "User account not found")
+    })
+    @PostMapping(value = "/users/{userId}/authorize/scopes", consumes = MediaType.APPLICATION_NDJSON_VALUE,
+            produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Flux<ResourceScopeDTO> streamAuthorizedScopes(
+            @Parameter(description = "ID of the user account", required = true)
+            @PathVariable UUID userId,
+            @Parameter(description = "Permission to hold, as domain:name", required = true)
+            @RequestParam String permission,
+            @RequestBody Flux<ResourceScopeDTO> scopes) {
+        return authorizationService.filterAuthorizedScopes(userId, permission, scopes);
+    }
+
+    @Operation(summary = "Get policy snapshot", description = "Returns the effective permissions of every role, every role assignment and the inactive users, for services authorizing users locally, together with the version to read changes from")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Successfully retrieved the policy snapshot",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = PolicySnapshotDTO.class)))
+    })
+    @GetMapping(value = "/authz/snapshot", produces = MediaType.APPLICATION_JSON_VALUE)
+    public Mono<PolicySnapshotDTO> getPolicySnapshot() {
+        return authorizationService.getPolicySnapshot();
+    }
+
+    @Operation(summary = "Export binary policy snapshot", description = "Returns the same policy as the JSON snapshot in a compact binary format with interned IDs, a permission bitset per role and role assignments sorted by user, for sidecars and batch jobs to memory-map with MappedPolicySnapshot from the common-platform-user-mgmt-authz module")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Successfully exported the policy snapshot",
+                    content = @Content(mediaType = "application/octet-stream"))
+    })
+    @GetMapping(value = "/authz/snapshot/binary", produces = MediaType.APPLICATION_OCTET_STREAM_VALUE)
+    public Mono<byte[]> exportPolicySnapshot() {
+        return authorizationService.exportPolicySnapshot();
+    }
+
+    @Operation(summary = "Get policy changes", description = "Returns the role assignments and user activations changed after a policy version, and the effective permissions of every role if any role, permission or role permission changed, together with the version to continue from")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Successfully retrieved the policy changes",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = PolicyDeltaDTO.class))),
+            @ApiResponse(responseCode = "400", description = "Invalid policy version")
+    })
+    @GetMapping(value = "/authz/snapshot/changes", produces = MediaType.APPLICATION_JSON_VALUE)
+    public Mono<PolicyDeltaDTO> getPolicyChanges(
+            @Parameter(description = "Version returned by the snapshot or the previous call", required = true)
+            @RequestParam String since) {
+        return authorizationService.getPolicyChanges(since);
+    }
+}
\ No newline at end of file
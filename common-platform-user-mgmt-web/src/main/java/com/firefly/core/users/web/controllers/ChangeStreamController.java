@@ -0,0 +1,74 @@
+/*
+ * Copyright 2025 Firefly Software Solutions Inc
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.firefly.core.users.web.controllers;
+
+import com.firefly.core.users.core.services.ChangeStreamService;
+import com.firefly.core.users.interfaces.dtos.ChangeEventDTO;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.http.codec.ServerSentEvent;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
+
+import java.time.Duration;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+@RestController
+@RequestMapping("/api/v1/changes")
+@Tag(name = "Change Stream", description = "API for streaming committed changes")
+public class ChangeStreamController {
+
+    @Autowired
+    private ChangeStreamService changeStreamService;
+
+    @Value("${user-mgmt.changes.stream.heartbeat:PT15S}")
+    private Duration heartbeat;
+
+    @Operation(summary = "Stream committed changes", description = "Streams create, update and delete events of users, roles, user roles and role permissions in commit order as server-sent events. Reconnecting with the Last-Event-ID header resumes after that event; a RESYNC event means events were lost and state must be re-read through the changes endpoints")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Successfully subscribed to changes",
+                    content = @Content(mediaType = "text/event-stream",
+                            schema = @Schema(implementation = ChangeEventDTO.class)))
+    })
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public Flux<ServerSentEvent<ChangeEventDTO>> streamChanges(
+            @Parameter(description = "ID of the last event received, sent by SSE clients on reconnect")
+            @RequestHeader(value = "Last-Event-ID", required = false) String lastEventId,
+            @Parameter(description = "Tables to stream changes of, e.g. user_account,user_role; all when omitted")
+            @RequestParam(required = false) List<String> entities) {
+        Flux<ServerSentEvent<ChangeEventDTO>> events = changeStreamService
+                .streamChanges(lastEventId, entities == null ? Set.of() : new HashSet<>(entities))
+                .map(event -> ServerSentEvent.builder(event)
+                        .id(event.getEventId())
+                        .event(event.getType().name())
+                        .build());
+        Flux<ServerSentEvent<ChangeEventDTO>> keepAlive = Flux.interval(heartbeat)
+                .map(tick -> ServerSentEvent.<ChangeEventDTO>builder().comment("keep-alive").build());
+        return Flux.merge(events, keepAlive);
+    }
+}
@@ -20,7 +20,9 @@ package com.firefly.core.users.web.controllers;
 import com.firefly.common.core.filters.FilterRequest;
 import com.firefly.common.core.queries.PaginationResponse;
 import com.firefly.core.users.core.services.PermissionService;
+import com.firefly.core.users.interfaces.dtos.ChangeSetDTO;
 import com.firefly.core.users.interfaces.dtos.PermissionDTO;
+import com.firefly.core.users.interfaces.enums.CountStrategyEnum;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.media.Content;
@@ -32,6 +34,7 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
 import java.util.UUID;
@@ -51,8 +54,22 @@ public class PermissionController {
                             schema = @Schema(implementation = PaginationResponse.class)))
     })
     @PostMapping(value = "/filter", produces = MediaType.APPLICATION_JSON_VALUE)
-    public Mono<PaginationResponse<PermissionDTO>> filterPermissions(@RequestBody FilterRequest<PermissionDTO> filterRequest) {
-        return permissionService.filterPermissions(filterRequest);
+    public Mono<PaginationResponse<PermissionDTO>> filterPermissions(
+            @Parameter(description = "How the total element count is computed: EXACT (default), APPROXIMATE, CACHED or NONE")
+            @RequestParam(required = false) CountStrategyEnum count,
+            @RequestBody FilterRequest<PermissionDTO> filterRequest) {
+        return permissionService.filterPermissions(filterRequest, count);
+    }
+
+    @Operation(summary = "Stream permissions with filtering", description = "Streams all permissions matching the filter criteria as newline-delimited JSON or server-sent events, ignoring pagination and without a total count")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Successfully streamed permissions",
+                    content = @Content(mediaType = "application/x-ndjson",
+                            schema = @Schema(implementation = PermissionDTO.class)))
+    })
+    @PostMapping(value = "/filter", produces = {MediaType.APPLICATION_NDJSON_VALUE, MediaType.TEXT_EVENT_STREAM_VALUE})
+    public Flux<PermissionDTO> streamPermissions(@RequestBody FilterRequest<PermissionDTO> filterRequest) {
+        return permissionService.streamPermissions(filterRequest);
     }
 
     @Operation(summary = "Get permission by ID", description = "Returns a permission by its ID")
@@ -108,4 +125,20 @@ public class PermissionController {
             @PathVariable UUID permissionId) {
         return permissionService.deletePermission(permissionId);
     }
+
+    @Operation(summary = "Get permission changes", description = "Returns the permissions changed or deleted after a watermark, together with the watermark to continue from")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Successfully retrieved permission changes",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = ChangeSetDTO.class))),
+            @ApiResponse(responseCode = "400", description = "Invalid watermark")
+    })
+    @GetMapping(value = "/changes", produces = MediaType.APPLICATION_JSON_VALUE)
+    public Mono<ChangeSetDTO<PermissionDTO>> getPermissionChanges(
+            @Parameter(description = "Watermark returned by the previous call; omit to start from the beginning")
+            @RequestParam(required = false) String since,
+            @Parameter(description = "Maximum number of changed and deleted records to return")
+            @RequestParam(required = false) Integer limit) {
+        return permissionService.getPermissionChanges(since, limit);
+    }
 }
\ No newline at end of file
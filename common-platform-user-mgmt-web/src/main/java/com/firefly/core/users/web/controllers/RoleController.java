@@ -19,8 +19,11 @@ package com.firefly.core.users.web.controllers;
 
 import com.firefly.common.core.filters.FilterRequest;
 import com.firefly.common.core.queries.PaginationResponse;
+import com.firefly.core.users.core.filters.FieldSelection;
 import com.firefly.core.users.core.services.RoleService;
+import com.firefly.core.users.interfaces.dtos.ChangeSetDTO;
 import com.firefly.core.users.interfaces.dtos.RoleDTO;
+import com.firefly.core.users.interfaces.enums.CountStrategyEnum;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.media.Content;
@@ -32,8 +35,10 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
+import java.util.Map;
 import java.util.UUID;
 
 @RestController
@@ -51,8 +56,22 @@ public class RoleController {
                             schema = @Schema(implementation = PaginationResponse.class)))
     })
     @PostMapping(value = "/filter", produces = MediaType.APPLICATION_JSON_VALUE)
-    public Mono<PaginationResponse<RoleDTO>> filterRoles(@RequestBody FilterRequest<RoleDTO> filterRequest) {
-        return roleService.filterRoles(filterRequest);
+    public Mono<PaginationResponse<RoleDTO>> filterRoles(
+            @Parameter(description = "How the total element count is computed: EXACT (default), APPROXIMATE, CACHED or NONE")
+            @RequestParam(required = false) CountStrategyEnum count,
+            @RequestBody FilterRequest<RoleDTO> filterRequest) {
+        return roleService.filterRoles(filterRequest, count);
+    }
+
+    @Operation(summary = "Stream roles with filtering", description = "Streams all roles matching the filter criteria as newline-delimited JSON or server-sent events, ignoring pagination and without a total count")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Successfully streamed roles",
+                    content = @Content(mediaType = "application/x-ndjson",
+                            schema = @Schema(implementation = RoleDTO.class)))
+    })
+    @PostMapping(value = "/filter", produces = {MediaType.APPLICATION_NDJSON_VALUE, MediaType.TEXT_EVENT_STREAM_VALUE})
+    public Flux<RoleDTO> streamRoles(@RequestBody FilterRequest<RoleDTO> filterRequest) {
+        return roleService.streamRoles(filterRequest);
     }
 
     @Operation(summary = "Get role by ID", description = "Returns a role by its ID")
@@ -108,4 +127,97 @@ public class RoleController {
             @PathVariable UUID roleId) {
         return roleService.deleteRole(roleId);
     }
+
+    @Operation(summary = "Get selected fields of filtered roles", description = "Returns a paginated list of roles containing only the requested fields")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Successfully retrieved roles",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = PaginationResponse.class))),
+            @ApiResponse(responseCode = "400", description = "Unknown field")
+    })
+    @PostMapping(value = "/filter", params = "fields", produces = MediaType.APPLICATION_JSON_VALUE)
+    public Mono<PaginationResponse<Map<String, Object>>> filterRolesFields(
+            @Parameter(description = "Comma-separated list of fields to return", required = true)
+            @RequestParam String fields,
+            @Parameter(description = "How the total element count is computed: EXACT (default), APPROXIMATE, CACHED or NONE")
+            @RequestParam(required = false) CountStrategyEnum count,
+            @RequestBody FilterRequest<RoleDTO> filterRequest) {
+        return roleService.filterRoles(filterRequest, FieldSelection.parse(fields, RoleDTO.class), count);
+    }
+
+    @Operation(summary = "Get selected fields of a role by ID", description = "Returns a role containing only the requested fields")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Successfully retrieved role"),
+            @ApiResponse(responseCode = "404", description = "Role not found"),
+            @ApiResponse(responseCode = "400", description = "Unknown field")
+    })
+    @GetMapping(value = "/{roleId}", params = "fields", produces = MediaType.APPLICATION_JSON_VALUE)
+    public Mono<Map<String, Object>> getRoleByIdFields(
+            @Parameter(description = "ID of the role to retrieve", required = true)
+            @PathVariable UUID roleId,
+            @Parameter(description = "Comma-separated list of fields to return", required = true)
+            @RequestParam String fields) {
+        return roleService.getRoleById(roleId, FieldSelection.parse(fields, RoleDTO.class));
+    }
+
+    @Operation(summary = "Get role changes", description = "Returns the roles changed or deleted after a watermark, together with the watermark to continue from")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Successfully retrieved role changes",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = ChangeSetDTO.class))),
+            @ApiResponse(responseCode = "400", description = "Invalid watermark")
+    })
+    @GetMapping(value = "/changes", produces = MediaType.APPLICATION_JSON_VALUE)
+    public Mono<ChangeSetDTO<RoleDTO>> getRoleChanges(
+            @Parameter(description = "Watermark returned by the previous call; omit to start from the beginning")
+            @RequestParam(required = false) String since,
+            @Parameter(description = "Maximum number of changed and deleted records to return")
+            @RequestParam(required = false) Integer limit) {
+        return roleService.getRoleChanges(since, limit);
+    }
+
+    @Operation(summary = "Get parent roles", description = "Returns the roles a role directly inherits permissions from")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Successfully retrieved parent roles",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = RoleDTO.class))),
+            @ApiResponse(responseCode = "404", description = "Role not found")
+    })
+    @GetMapping(value = "/{roleId}/parents", produces = MediaType.APPLICATION_JSON_VALUE)
+    public Flux<RoleDTO> getParentRoles(
+            @Parameter(description = "ID of the inheriting role", required = true)
+            @PathVariable UUID roleId) {
+        return roleService.getParentRoles(roleId);
+    }
+
+    @Operation(summary = "Add a parent role", description = "Makes a role inherit the permissions of a parent role and of the parent's ancestors")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "204", description = "Role inherits from the parent role"),
+            @ApiResponse(responseCode = "400", description = "The parent role already inherits from the role"),
+            @ApiResponse(responseCode = "404", description = "Role or parent role not found")
+    })
+    @PutMapping("/{roleId}/parents/{parentRoleId}")
+    @ResponseStatus(HttpStatus.NO_CONTENT)
+    public Mono<Void> addParentRole(
+            @Parameter(description = "ID of the inheriting role", required = true)
+            @PathVariable UUID roleId,
+            @Parameter(description = "ID of the parent role", required = true)
+            @PathVariable UUID parentRoleId) {
+        return roleService.addParentRole(roleId, parentRoleId);
+    }
+
+    @Operation(summary = "Remove a parent role", description = "Stops a role from inheriting the permissions of a parent role")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "204", description = "Role no longer inherits from the parent role"),
+            @ApiResponse(responseCode = "404", description = "Role not found")
+    })
+    @DeleteMapping("/{roleId}/parents/{parentRoleId}")
+    @ResponseStatus(HttpStatus.NO_CONTENT)
+    public Mono<Void> removeParentRole(
+            @Parameter(description = "ID of the inheriting role", required = true)
+            @PathVariable UUID roleId,
+            @Parameter(description = "ID of the parent role", required = true)
+            @PathVariable UUID parentRoleId) {
+        return roleService.removeParentRole(roleId, parentRoleId);
+    }
 }
\ No newline at end of file
@@ -20,7 +20,9 @@ package com.firefly.core.users.web.controllers;
 import com.firefly.common.core.filters.FilterRequest;
 import com.firefly.common.core.queries.PaginationResponse;
 import com.firefly.core.users.core.services.RolePermissionService;
+import com.firefly.core.users.interfaces.dtos.ChangeSetDTO;
 import com.firefly.core.users.interfaces.dtos.RolePermissionDTO;
+import com.firefly.core.users.interfaces.enums.CountStrategyEnum;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.media.Content;
@@ -52,8 +54,22 @@ public class RolePermissionController {
                             schema = @Schema(implementation = PaginationResponse.class)))
     })
     @PostMapping(value = "/role-permissions/filter", produces = MediaType.APPLICATION_JSON_VALUE)
-    public Mono<PaginationResponse<RolePermissionDTO>> filterRolePermissions(@RequestBody FilterRequest<RolePermissionDTO> filterRequest) {
-        return rolePermissionService.filterRolePermissions(filterRequest);
+    public Mono<PaginationResponse<RolePermissionDTO>> filterRolePermissions(
+            @Parameter(description = "How the total element count is computed: EXACT (default), APPROXIMATE, CACHED or NONE")
+            @RequestParam(required = false) CountStrategyEnum count,
+            @RequestBody FilterRequest<RolePermissionDTO> filterRequest) {
+        return rolePermissionService.filterRolePermissions(filterRequest, count);
+    }
+
+    @Operation(summary = "Stream role permissions with filtering", description = "Streams all role permissions matching the filter criteria as newline-delimited JSON or server-sent events, ignoring pagination and without a total count")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Successfully streamed role permissions",
+                    content = @Content(mediaType = "application/x-ndjson",
+                            schema = @Schema(implementation = RolePermissionDTO.class)))
+    })
+    @PostMapping(value = "/role-permissions/filter", produces = {MediaType.APPLICATION_NDJSON_VALUE, MediaType.TEXT_EVENT_STREAM_VALUE})
+    public Flux<RolePermissionDTO> streamRolePermissions(@RequestBody FilterRequest<RolePermissionDTO> filterRequest) {
+        return rolePermissionService.streamRolePermissions(filterRequest);
     }
 
     @Operation(summary = "Get role permission by ID", description = "Returns a role permission by its ID")
@@ -87,6 +103,34 @@ public class RolePermissionController {
         return rolePermissionService.filterRolePermissions(filterRequest);
     }
 
+    @Operation(summary = "Get effective permissions for a role", description = "Returns the permissions assigned to a role and to every role it inherits from, directly or transitively")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Successfully retrieved effective role permissions",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = RolePermissionDTO.class)))
+    })
+    @GetMapping(value = "/roles/{roleId}/permissions/effective", produces = MediaType.APPLICATION_JSON_VALUE)
+    public Flux<RolePermissionDTO> getEffectivePermissionsByRoleId(
+            @Parameter(description = "ID of the role", required = true)
+            @PathVariable UUID roleId) {
+        return rolePermissionService.getEffectiveRolePermissions(roleId);
+    }
+
+    @Operation(summary = "Check a role permission", description = "Returns whether a role is granted a permission, directly, through a wildcard grant such as payments:* or through the roles it inherits from")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Successfully checked the permission",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = Boolean.class)))
+    })
+    @GetMapping(value = "/roles/{roleId}/permissions/check", produces = MediaType.APPLICATION_JSON_VALUE)
+    public Mono<Boolean> checkRolePermission(
+            @Parameter(description = "ID of the role", required = true)
+            @PathVariable UUID roleId,
+            @Parameter(description = "Permission to check, as domain:name", required = true)
+            @RequestParam String permission) {
+        return rolePermissionService.hasPermission(roleId, permission);
+    }
+
     @Operation(summary = "Assign permission to role", description = "Assigns a permission to a role and returns the created role permission")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "201", description = "Permission successfully assigned to role",
@@ -160,4 +204,20 @@ public class RolePermissionController {
             @PathVariable UUID rolePermissionId) {
         return rolePermissionService.deleteRolePermission(rolePermissionId);
     }
+
+    @Operation(summary = "Get role permission changes", description = "Returns the role permissions changed or deleted after a watermark, together with the watermark to continue from")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Successfully retrieved role permission changes",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = ChangeSetDTO.class))),
+            @ApiResponse(responseCode = "400", description = "Invalid watermark")
+    })
+    @GetMapping(value = "/role-permissions/changes", produces = MediaType.APPLICATION_JSON_VALUE)
+    public Mono<ChangeSetDTO<RolePermissionDTO>> getRolePermissionChanges(
+            @Parameter(description = "Watermark returned by the previous call; omit to start from the beginning")
+            @RequestParam(required = false) String since,
+            @Parameter(description = "Maximum number of changed and deleted records to return")
+            @RequestParam(required = false) Integer limit) {
+        return rolePermissionService.getRolePermissionChanges(since, limit);
+    }
 }
@@ -19,8 +19,16 @@ package com.firefly.core.users.web.controllers;
 
 import com.firefly.common.core.filters.FilterRequest;
 import com.firefly.common.core.queries.PaginationResponse;
+import com.firefly.core.users.core.filters.FieldSelection;
 import com.firefly.core.users.core.services.UserAccountService;
+import com.firefly.core.users.interfaces.dtos.BulkUpdateResultDTO;
+import com.firefly.core.users.interfaces.dtos.ChangeSetDTO;
 import com.firefly.core.users.interfaces.dtos.UserAccountDTO;
+import com.firefly.core.users.interfaces.dtos.UserAccountImportResultDTO;
+import com.firefly.core.users.interfaces.dtos.UserAccountSelectionDTO;
+import com.firefly.core.users.interfaces.dtos.UserAccountSuggestionDTO;
+import com.firefly.core.users.interfaces.enums.CountStrategyEnum;
+import com.firefly.core.users.interfaces.enums.ImportFormatEnum;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.media.Content;
@@ -32,8 +40,10 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
+import java.util.Map;
 import java.util.UUID;
 
 @RestController
@@ -51,8 +61,22 @@ public class UserAccountController {
                             schema = @Schema(implementation = PaginationResponse.class)))
     })
     @PostMapping(value = "/filter", produces = MediaType.APPLICATION_JSON_VALUE)
-    public Mono<PaginationResponse<UserAccountDTO>> filterUserAccounts(@RequestBody FilterRequest<UserAccountDTO> filterRequest) {
-        return userAccountService.filterUserAccounts(filterRequest);
+    public Mono<PaginationResponse<UserAccountDTO>> filterUserAccounts(
+            @Parameter(description = "How the total element count is computed: EXACT (default), APPROXIMATE, CACHED or NONE")
+            @RequestParam(required = false) CountStrategyEnum count,
+            @RequestBody FilterRequest<UserAccountDTO> filterRequest) {
+        return userAccountService.filterUserAccounts(filterRequest, count);
+    }
+
+    @Operation(summary = "Stream user accounts with filtering", description = "Streams all user accounts matching the filter criteria as newline-delimited JSON or server-sent events, ignoring pagination and without a total count")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Successfully streamed user accounts",
+                    content = @Content(mediaType = "application/x-ndjson",
+                            schema = @Schema(implementation = UserAccountDTO.class)))
+    })
+    @PostMapping(value = "/filter", produces = {MediaType.APPLICATION_NDJSON_VALUE, MediaType.TEXT_EVENT_STREAM_VALUE})
+    public Flux<UserAccountDTO> streamUserAccounts(@RequestBody FilterRequest<UserAccountDTO> filterRequest) {
+        return userAccountService.streamUserAccounts(filterRequest);
     }
 
     @Operation(summary = "Get user account by ID", description = "Returns a user account by its ID")
@@ -73,7 +97,8 @@ public class UserAccountController {
     @ApiResponses(value = {
             @ApiResponse(responseCode = "201", description = "User account successfully created",
                     content = @Content(mediaType = "application/json",
-                            schema = @Schema(implementation = UserAccountDTO.class)))
+                            schema = @Schema(implementation = UserAccountDTO.class))),
+            @ApiResponse(responseCode = "409", description = "Email already used by another user account")
     })
     @PostMapping(produces = MediaType.APPLICATION_JSON_VALUE)
     @ResponseStatus(HttpStatus.CREATED)
@@ -86,7 +111,8 @@ public class UserAccountController {
             @ApiResponse(responseCode = "200", description = "User account successfully updated",
                     content = @Content(mediaType = "application/json",
                             schema = @Schema(implementation = UserAccountDTO.class))),
-            @ApiResponse(responseCode = "404", description = "User account not found")
+            @ApiResponse(responseCode = "404", description = "User account not found"),
+            @ApiResponse(responseCode = "409", description = "Email already used by another user account")
     })
     @PutMapping(value = "/{userId}", produces = MediaType.APPLICATION_JSON_VALUE)
     public Mono<UserAccountDTO> updateUserAccount(
@@ -108,4 +134,154 @@ public class UserAccountController {
             @PathVariable UUID userId) {
         return userAccountService.deleteUserAccount(userId);
     }
+
+    @Operation(summary = "Get selected fields of filtered user accounts", description = "Returns a paginated list of user accounts containing only the requested fields")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Successfully retrieved user accounts",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = PaginationResponse.class))),
+            @ApiResponse(responseCode = "400", description = "Unknown field")
+    })
+    @PostMapping(value = "/filter", params = "fields", produces = MediaType.APPLICATION_JSON_VALUE)
+    public Mono<PaginationResponse<Map<String, Object>>> filterUserAccountsFields(
+            @Parameter(description = "Comma-separated list of fields to return", required = true)
+            @RequestParam String fields,
+            @Parameter(description = "How the total element count is computed: EXACT (default), APPROXIMATE, CACHED or NONE")
+            @RequestParam(required = false) CountStrategyEnum count,
+            @RequestBody FilterRequest<UserAccountDTO> filterRequest) {
+        return userAccountService.filterUserAccounts(filterRequest, FieldSelection.parse(fields, UserAccountDTO.class), count);
+    }
+
+    @Operation(summary = "Get selected fields of a user account by ID", description = "Returns a user account containing only the requested fields")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Successfully retrieved user account"),
+            @ApiResponse(responseCode = "404", description = "User account not found"),
+            @ApiResponse(responseCode = "400", description = "Unknown field")
+    })
+    @GetMapping(value = "/{userId}", params = "fields", produces = MediaType.APPLICATION_JSON_VALUE)
+    public Mono<Map<String, Object>> getUserAccountByIdFields(
+            @Parameter(description = "ID of the user account to retrieve", required = true)
+            @PathVariable UUID userId,
+            @Parameter(description = "Comma-separated list of fields to return", required = true)
+            @RequestParam String fields) {
+        return userAccountService.getUserAccountById(userId, FieldSelection.parse(fields, UserAccountDTO.class));
+    }
+
+    @Operation(summary = "Get user account changes", description = "Returns the user accounts changed or deleted after a watermark, together with the watermark to continue from")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Successfully retrieved user account changes",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = ChangeSetDTO.class))),
+            @ApiResponse(responseCode = "400", description = "Invalid watermark")
+    })
+    @GetMapping(value = "/changes", produces = MediaType.APPLICATION_JSON_VALUE)
+    public Mono<ChangeSetDTO<UserAccountDTO>> getUserAccountChanges(
+            @Parameter(description = "Watermark returned by the previous call; omit to start from the beginning")
+            @RequestParam(required = false) String since,
+            @Parameter(description = "Maximum number of changed and deleted records to return")
+            @RequestParam(required = false) Integer limit) {
+        return userAccountService.getUserAccountChanges(since, limit);
+    }
+
+    @Operation(summary = "Search user accounts", description = "Returns the user accounts whose full name, nickname or email partially matches the query, best matches first")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Successfully searched user accounts",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = UserAccountDTO.class))),
+            @ApiResponse(responseCode = "400", description = "Blank query")
+    })
+    @GetMapping(value = "/search", produces = MediaType.APPLICATION_JSON_VALUE)
+    public Flux<UserAccountDTO> searchUserAccounts(
+            @Parameter(description = "Partial full name, nickname or email", required = true)
+            @RequestParam String q,
+            @Parameter(description = "Only return user accounts of this branch")
+            @RequestParam(required = false) UUID branchId,
+            @Parameter(description = "Only return user accounts of this distributor")
+            @RequestParam(required = false) UUID distributorId,
+            @Parameter(description = "Only return active or inactive user accounts")
+            @RequestParam(required = false) Boolean isActive,
+            @Parameter(description = "Maximum number of results, 20 by default and at most 100")
+            @RequestParam(required = false) Integer limit) {
+        return userAccountService.searchUserAccounts(q, branchId, distributorId, isActive, limit);
+    }
+
+    @Operation(summary = "Autocomplete user accounts", description = "Suggests active user accounts whose full name, nickname or email has words starting with the typed text, served from an in-memory index")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Successfully retrieved suggestions",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = UserAccountSuggestionDTO.class)))
+    })
+    @GetMapping(value = "/autocomplete", produces = MediaType.APPLICATION_JSON_VALUE)
+    public Flux<UserAccountSuggestionDTO> autocompleteUserAccounts(
+            @Parameter(description = "Typed text; every word must be the start of a word of the full name, nickname or email", required = true)
+            @RequestParam String prefix,
+            @Parameter(description = "Only suggest user accounts of this branch")
+            @RequestParam(required = false) UUID branchId,
+            @Parameter(description = "Only suggest user accounts of this distributor")
+            @RequestParam(required = false) UUID distributorId,
+            @Parameter(description = "Maximum number of suggestions, 10 by default and at most 50")
+            @RequestParam(required = false) Integer limit) {
+        return userAccountService.autocompleteUserAccounts(prefix, branchId, distributorId, limit);
+    }
+
+    @Operation(summary = "Get user account by email", description = "Retrieves the user account with an email, ignoring case")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Successfully retrieved user account",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = UserAccountDTO.class))),
+            @ApiResponse(responseCode = "404", description = "User account not found")
+    })
+    @GetMapping(value = "/by-email", produces = MediaType.APPLICATION_JSON_VALUE)
+    public Mono<UserAccountDTO> getUserAccountByEmail(
+            @Parameter(description = "Email of the user account to retrieve, in any case", required = true)
+            @RequestParam String email) {
+        return userAccountService.getUserAccountByEmail(email);
+    }
+
+    @Operation(summary = "Import user accounts from CSV", description = "Imports user accounts from a CSV body with a header row of field names, in batches, skipping rows whose email already exists, and streams the outcome of every row")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Import started; the outcome of every row is streamed",
+                    content = @Content(mediaType = "application/x-ndjson",
+                            schema = @Schema(implementation = UserAccountImportResultDTO.class))),
+            @ApiResponse(responseCode = "400", description = "Invalid CSV header")
+    })
+    @PostMapping(value = "/bulk/import", consumes = "text/csv", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Flux<UserAccountImportResultDTO> importUserAccountsFromCsv(@RequestBody Flux<String> lines) {
+        return userAccountService.importUserAccounts(lines, ImportFormatEnum.CSV);
+    }
+
+    @Operation(summary = "Import user accounts from NDJSON", description = "Imports user accounts from a body of one JSON user account per line, in batches, skipping rows whose email already exists, and streams the outcome of every row")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Import started; the outcome of every row is streamed",
+                    content = @Content(mediaType = "application/x-ndjson",
+                            schema = @Schema(implementation = UserAccountImportResultDTO.class)))
+    })
+    @PostMapping(value = "/bulk/import", consumes = MediaType.APPLICATION_NDJSON_VALUE, produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Flux<UserAccountImportResultDTO> importUserAccountsFromNdjson(@RequestBody Flux<String> lines) {
+        return userAccountService.importUserAccounts(lines, ImportFormatEnum.NDJSON);
+    }
+
+    @Operation(summary = "Activate user accounts in bulk", description = "Activates every user account of a branch, of a distributor or with the given IDs in one statement")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Successfully activated user accounts",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = BulkUpdateResultDTO.class))),
+            @ApiResponse(responseCode = "400", description = "Not exactly one of branchId, distributorId or ids given")
+    })
+    @PostMapping(value = "/bulk/activate", produces = MediaType.APPLICATION_JSON_VALUE)
+    public Mono<BulkUpdateResultDTO> activateUserAccounts(@RequestBody UserAccountSelectionDTO selection) {
+        return userAccountService.activateUserAccounts(selection);
+    }
+
+    @Operation(summary = "Deactivate user accounts in bulk", description = "Deactivates every user account of a branch, of a distributor or with the given IDs in one statement")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Successfully deactivated user accounts",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = BulkUpdateResultDTO.class))),
+            @ApiResponse(responseCode = "400", description = "Not exactly one of branchId, distributorId or ids given")
+    })
+    @PostMapping(value = "/bulk/deactivate", produces = MediaType.APPLICATION_JSON_VALUE)
+    public Mono<BulkUpdateResultDTO> deactivateUserAccounts(@RequestBody UserAccountSelectionDTO selection) {
+        return userAccountService.deactivateUserAccounts(selection);
+    }
 }
\ No newline at end of file
@@ -20,7 +20,9 @@ package com.firefly.core.users.web.controllers;
 import com.firefly.common.core.filters.FilterRequest;
 import com.firefly.common.core.queries.PaginationResponse;
 import com.firefly.core.users.core.services.UserExternalIdentityService;
+import com.firefly.core.users.interfaces.dtos.ChangeSetDTO;
 import com.firefly.core.users.interfaces.dtos.UserExternalIdentityDTO;
+import com.firefly.core.users.interfaces.enums.CountStrategyEnum;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.media.Content;
@@ -32,6 +34,7 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
 import java.util.UUID;
@@ -51,8 +54,22 @@ public class UserExternalIdentityController {
                             schema = @Schema(implementation = PaginationResponse.class)))
     })
     @PostMapping(value = "/external-identities/filter", produces = MediaType.APPLICATION_JSON_VALUE)
-    public Mono<PaginationResponse<UserExternalIdentityDTO>> filterUserExternalIdentities(@RequestBody FilterRequest<UserExternalIdentityDTO> filterRequest) {
-        return userExternalIdentityService.filterUserExternalIdentities(filterRequest);
+    public Mono<PaginationResponse<UserExternalIdentityDTO>> filterUserExternalIdentities(
+            @Parameter(description = "How the total element count is computed: EXACT (default), APPROXIMATE, CACHED or NONE")
+            @RequestParam(required = false) CountStrategyEnum count,
+            @RequestBody FilterRequest<UserExternalIdentityDTO> filterRequest) {
+        return userExternalIdentityService.filterUserExternalIdentities(filterRequest, count);
+    }
+
+    @Operation(summary = "Stream user external identities with filtering", description = "Streams all user external identities matching the filter criteria as newline-delimited JSON or server-sent events, ignoring pagination and without a total count")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Successfully streamed user external identities",
+                    content = @Content(mediaType = "application/x-ndjson",
+                            schema = @Schema(implementation = UserExternalIdentityDTO.class)))
+    })
+    @PostMapping(value = "/external-identities/filter", produces = {MediaType.APPLICATION_NDJSON_VALUE, MediaType.TEXT_EVENT_STREAM_VALUE})
+    public Flux<UserExternalIdentityDTO> streamUserExternalIdentities(@RequestBody FilterRequest<UserExternalIdentityDTO> filterRequest) {
+        return userExternalIdentityService.streamUserExternalIdentities(filterRequest);
     }
 
     @Operation(summary = "Get user external identity by ID", description = "Returns a user external identity by its ID")
@@ -173,4 +190,20 @@ public class UserExternalIdentityController {
             @PathVariable UUID externalIdentityId) {
         return userExternalIdentityService.deleteUserExternalIdentity(externalIdentityId);
     }
+
+    @Operation(summary = "Get user external identity changes", description = "Returns the user external identities changed or deleted after a watermark, together with the watermark to continue from")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Successfully retrieved user external identity changes",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = ChangeSetDTO.class))),
+            @ApiResponse(responseCode = "400", description = "Invalid watermark")
+    })
+    @GetMapping(value = "/external-identities/changes", produces = MediaType.APPLICATION_JSON_VALUE)
+    public Mono<ChangeSetDTO<UserExternalIdentityDTO>> getUserExternalIdentityChanges(
+            @Parameter(description = "Watermark returned by the previous call; omit to start from the beginning")
+            @RequestParam(required = false) String since,
+            @Parameter(description = "Maximum number of changed and deleted records to return")
+            @RequestParam(required = false) Integer limit) {
+        return userExternalIdentityService.getUserExternalIdentityChanges(since, limit);
+    }
 }
\ No newline at end of file
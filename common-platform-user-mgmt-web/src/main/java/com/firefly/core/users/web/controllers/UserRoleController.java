@@ -20,7 +20,9 @@ package com.firefly.core.users.web.controllers;
 import com.firefly.common.core.filters.FilterRequest;
 import com.firefly.common.core.queries.PaginationResponse;
 import com.firefly.core.users.core.services.UserRoleService;
+import com.firefly.core.users.interfaces.dtos.ChangeSetDTO;
 import com.firefly.core.users.interfaces.dtos.UserRoleDTO;
+import com.firefly.core.users.interfaces.enums.CountStrategyEnum;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.media.Content;
@@ -32,6 +34,7 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
 import java.util.UUID;
@@ -51,8 +54,22 @@ public class UserRoleController {
                             schema = @Schema(implementation = PaginationResponse.class)))
     })
     @PostMapping(value = "/user-roles/filter", produces = MediaType.APPLICATION_JSON_VALUE)
-    public Mono<PaginationResponse<UserRoleDTO>> filterUserRoles(@RequestBody FilterRequest<UserRoleDTO> filterRequest) {
-        return userRoleService.filterUserRoles(filterRequest);
+    public Mono<PaginationResponse<UserRoleDTO>> filterUserRoles(
+            @Parameter(description = "How the total element count is computed: EXACT (default), APPROXIMATE, CACHED or NONE")
+            @RequestParam(required = false) CountStrategyEnum count,
+            @RequestBody FilterRequest<UserRoleDTO> filterRequest) {
+        return userRoleService.filterUserRoles(filterRequest, count);
+    }
+
+    @Operation(summary = "Stream user roles with filtering", description = "Streams all user roles matching the filter criteria as newline-delimited JSON or server-sent events, ignoring pagination and without a total count")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Successfully streamed user roles",
+                    content = @Content(mediaType = "application/x-ndjson",
+                            schema = @Schema(implementation = UserRoleDTO.class)))
+    })
+    @PostMapping(value = "/user-roles/filter", produces = {MediaType.APPLICATION_NDJSON_VALUE, MediaType.TEXT_EVENT_STREAM_VALUE})
+    public Flux<UserRoleDTO> streamUserRoles(@RequestBody FilterRequest<UserRoleDTO> filterRequest) {
+        return userRoleService.streamUserRoles(filterRequest);
     }
 
     @Operation(summary = "Get user role by ID", description = "Returns a user role by its ID")
@@ -85,6 +102,19 @@ public class UserRoleController {
         return userRoleService.filterUserRoles(filterRequest);
     }
 
+    @Operation(summary = "Get users with a role", description = "Returns all assignments of a specific role to users")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Successfully retrieved user roles",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = UserRoleDTO.class)))
+    })
+    @GetMapping(value = "/roles/{roleId}/users", produces = MediaType.APPLICATION_JSON_VALUE)
+    public Flux<UserRoleDTO> getUsersByRoleId(
+            @Parameter(description = "ID of the role", required = true)
+            @PathVariable UUID roleId) {
+        return userRoleService.getUserRolesByRoleId(roleId);
+    }
+
     @Operation(summary = "Assign role to user", description = "Assigns a role to a user and returns the created user role")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "201", description = "Role successfully assigned to user",
@@ -158,4 +188,20 @@ public class UserRoleController {
             @PathVariable UUID userRoleId) {
         return userRoleService.deleteUserRole(userRoleId);
     }
+
+    @Operation(summary = "Get user role changes", description = "Returns the user roles changed or deleted after a watermark, together with the watermark to continue from")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Successfully retrieved user role changes",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = ChangeSetDTO.class))),
+            @ApiResponse(responseCode = "400", description = "Invalid watermark")
+    })
+    @GetMapping(value = "/user-roles/changes", produces = MediaType.APPLICATION_JSON_VALUE)
+    public Mono<ChangeSetDTO<UserRoleDTO>> getUserRoleChanges(
+            @Parameter(description = "Watermark returned by the previous call; omit to start from the beginning")
+            @RequestParam(required = false) String since,
+            @Parameter(description = "Maximum number of changed and deleted records to return")
+            @RequestParam(required = false) Integer limit) {
+        return userRoleService.getUserRoleChanges(since, limit);
+    }
 }
\ No newline at end of file
@@ -0,0 +1,94 @@
+/*
+ * Copyright 2025 Firefly Software Solutions Inc
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.firefly.core.users.web.filters;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Priority classes and route assignments of the {@link AdmissionControlWebFilter}.
+ */
+@Data
+@ConfigurationProperties(prefix = "user-mgmt.admission")
+public class AdmissionControlProperties {
+
+    private boolean enabled = true;
+
+    /**
+     * Value of the Retry-After header on shed requests.
+     */
+    private Duration retryAfter = Duration.ofSeconds(1);
+
+    /**
+     * Priority class of requests that match no route.
+     */
+    private String defaultClass = "normal";
+
+    private Map<String, PriorityClass> classes = new LinkedHashMap<>();
+
+    /**
+     * Route assignments, the first match wins.
+     */
+    private List<Route> routes = new ArrayList<>();
+
+    @Data
+    public static class PriorityClass {
+
+        /**
+         * Shed when this many connection acquisitions are waiting, or never when unset.
+         */
+        private Integer maxPending;
+
+        /**
+         * Shed when this many requests are in flight, or never when unset.
+         */
+        private Integer maxInFlight;
+
+        /**
+         * Status returned to shed requests, usually 429 or 503.
+         */
+        private int status = 503;
+    }
+
+    @Data
+    public static class Route {
+
+        /**
+         * Ant-style path pattern.
+         */
+        private String pattern;
+
+        /**
+         * HTTP method, or any method when unset.
+         */
+        private String method;
+
+        private String priority;
+
+        /**
+         * Whether the route serves long-lived streams, which are not counted in flight.
+         */
+        private boolean stream;
+    }
+}
@@ -0,0 +1,140 @@
+/*
+ * Copyright 2025 Firefly Software Solutions Inc
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.firefly.core.users.web.filters;
+
+import com.firefly.core.users.core.routing.RoutingConnectionFactory;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.r2dbc.pool.ConnectionPool;
+import io.r2dbc.pool.PoolMetrics;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.Ordered;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.stereotype.Component;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+import reactor.core.publisher.Mono;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Sheds requests before they queue for a database connection.
+ * Each request is assigned a priority class by route; a class is rejected with its status code once the
+ * pending connection acquisitions or the requests in flight reach its limits, so lower classes with lower
+ * limits are shed first and classes without limits, such as lookups and authorization checks, never are.
+ * Requests on routes marked as streams are admitted by the same rules but not counted in flight; the route, not
+ * the request headers, decides this, so a client cannot move a request out of the in-flight count.
+ */
+@Component
+public class AdmissionControlWebFilter implements WebFilter, Ordered {
+
+    private final AntPathMatcher pathMatcher = new AntPathMatcher();
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+
+    private final Map<String, Counter> rejected = new ConcurrentHashMap<>();
+
+    @Autowired
+    private AdmissionControlProperties properties;
+
+    @Autowired
+    private RoutingConnectionFactory connectionFactory;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @PostConstruct
+    void registerMetrics() {
+        Gauge.builder("user_mgmt.admission.in_flight", inFlight, AtomicInteger::get)
+                .description("Requests in flight, excluding streams")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public int getOrder() {
+        return Ordered.HIGHEST_PRECEDENCE;
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, WebFilterChain chain) {
+        if (!properties.isEnabled()) {
+            return chain.filter(exchange);
+        }
+        AdmissionControlProperties.Route route = match(exchange.getRequest());
+        String priority = route != null ? route.getPriority() : properties.getDefaultClass();
+        AdmissionControlProperties.PriorityClass limits = properties.getClasses().get(priority);
+        if (limits != null && isOverloaded(limits)) {
+            return reject(exchange.getResponse(), priority, limits);
+        }
+        if (route != null && route.isStream()) {
+            // Long-lived streams are admitted but not counted, or they would hold the in-flight count up
+            return chain.filter(exchange);
+        }
+        inFlight.incrementAndGet();
+        return chain.filter(exchange).doFinally(signal -> inFlight.decrementAndGet());
+    }
+
+    private AdmissionControlProperties.Route match(ServerHttpRequest request) {
+        String path = request.getPath().pathWithinApplication().value();
+        String method = request.getMethod().name();
+        for (AdmissionControlProperties.Route route : properties.getRoutes()) {
+            if ((route.getMethod() == null || route.getMethod().equalsIgnoreCase(method))
+                    && pathMatcher.match(route.getPattern(), path)) {
+                return route;
+            }
+        }
+        return null;
+    }
+
+    private boolean isOverloaded(AdmissionControlProperties.PriorityClass limits) {
+        if (limits.getMaxInFlight() != null && inFlight.get() >= limits.getMaxInFlight()) {
+            return true;
+        }
+        return limits.getMaxPending() != null && pendingAcquisitions() >= limits.getMaxPending();
+    }
+
+    private int pendingAcquisitions() {
+        int pending = 0;
+        for (ConnectionPool pool : connectionFactory.getPools().values()) {
+            pending += pool.getMetrics().map(PoolMetrics::pendingAcquireSize).orElse(0);
+        }
+        return pending;
+    }
+
+    private Mono<Void> reject(ServerHttpResponse response, String priority,
+                              AdmissionControlProperties.PriorityClass limits) {
+        rejected.computeIfAbsent(priority, p -> Counter.builder("user_mgmt.admission.rejected")
+                        .description("Requests shed by admission control")
+                        .tag("priority", p)
+                        .register(meterRegistry))
+                .increment();
+        response.setStatusCode(HttpStatusCode.valueOf(limits.getStatus()));
+        response.getHeaders().set(HttpHeaders.RETRY_AFTER,
+                Long.toString(Math.max(1, properties.getRetryAfter().toSeconds())));
+        return response.setComplete();
+    }
+}
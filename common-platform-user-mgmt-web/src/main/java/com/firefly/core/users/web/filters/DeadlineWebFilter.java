@@ -0,0 +1,87 @@
+/*
+ * Copyright 2025 Firefly Software Solutions Inc
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.firefly.core.users.web.filters;
+
+import com.firefly.core.users.core.deadline.Deadline;
+import io.r2dbc.spi.R2dbcTimeoutException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Reads the client deadline from {@value #TIMEOUT_HEADER}, in milliseconds, and propagates it through the
+ * Reactor context. Transactions bound their statements by it, and the request is cancelled with 504 once it
+ * passes, which also releases its connection.
+ */
+@Component
+public class DeadlineWebFilter implements WebFilter, Ordered {
+
+    public static final String TIMEOUT_HEADER = "X-Request-Timeout";
+
+    @Value("${user-mgmt.deadline.max-timeout:PT30S}")
+    private Duration maxTimeout;
+
+    @Override
+    public int getOrder() {
+        return Ordered.HIGHEST_PRECEDENCE + 1;
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, WebFilterChain chain) {
+        String header = exchange.getRequest().getHeaders().getFirst(TIMEOUT_HEADER);
+        if (header == null || header.isBlank()) {
+            return chain.filter(exchange);
+        }
+        Duration timeout;
+        try {
+            timeout = Duration.ofMillis(Long.parseLong(header.trim()));
+        } catch (NumberFormatException e) {
+            return Mono.error(new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "Invalid " + TIMEOUT_HEADER + " header: " + header));
+        }
+        if (timeout.isNegative() || timeout.isZero()) {
+            return Mono.error(new ResponseStatusException(HttpStatus.GATEWAY_TIMEOUT, "Deadline already passed"));
+        }
+        if (timeout.compareTo(maxTimeout) > 0) {
+            timeout = maxTimeout;
+        }
+        Deadline deadline = Deadline.in(timeout);
+        return chain.filter(exchange)
+                .timeout(timeout)
+                .onErrorMap(DeadlineWebFilter::isTimeout,
+                        e -> new ResponseStatusException(HttpStatus.GATEWAY_TIMEOUT, "Deadline exceeded", e))
+                .contextWrite(deadline.context());
+    }
+
+    private static boolean isTimeout(Throwable error) {
+        // Statements cancelled by statement_timeout surface as query timeouts
+        return error instanceof TimeoutException
+                || error instanceof QueryTimeoutException
+                || error instanceof R2dbcTimeoutException;
+    }
+}
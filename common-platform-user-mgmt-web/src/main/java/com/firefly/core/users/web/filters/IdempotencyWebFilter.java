@@ -0,0 +1,197 @@
+/*
+ * Copyright 2025 Firefly Software Solutions Inc
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.firefly.core.users.web.filters;
+
+import com.firefly.core.users.core.idempotency.IdempotencyOutcome;
+import com.firefly.core.users.core.idempotency.IdempotencyStore;
+import com.firefly.core.users.interfaces.dtos.IdempotentResponseDTO;
+import org.reactivestreams.Publisher;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.http.server.reactive.ServerHttpRequestDecorator;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.http.server.reactive.ServerHttpResponseDecorator;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.Principal;
+import java.util.HexFormat;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Makes POST requests sent with an {@value #IDEMPOTENCY_KEY_HEADER} header safe to retry.
+ * The first request with a key executes and its successful response is stored; retries with the same key and
+ * request replay that response without executing again. A retry while the first request is still executing
+ * gets 409, and reusing a key for a different request gets 422. Failed requests release their key.
+ * Keys are scoped per caller: the authenticated principal, or else the value of the configured caller header.
+ */
+@Component
+public class IdempotencyWebFilter implements WebFilter, Ordered {
+
+    public static final String IDEMPOTENCY_KEY_HEADER = "Idempotency-Key";
+
+    public static final String REPLAYED_HEADER = "Idempotent-Replayed";
+
+    private static final int MAX_KEY_LENGTH = 255;
+
+    @Value("${user-mgmt.idempotency.caller-header:X-Client-Id}")
+    private String callerHeader;
+
+    @Autowired
+    private IdempotencyStore store;
+
+    @Override
+    public int getOrder() {
+        // After admission control and the deadline, so shed and expired requests never lock a key
+        return Ordered.HIGHEST_PRECEDENCE + 2;
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, WebFilterChain chain) {
+        ServerHttpRequest request = exchange.getRequest();
+        String key = request.getHeaders().getFirst(IDEMPOTENCY_KEY_HEADER);
+        String path = request.getPath().pathWithinApplication().value();
+        // Bulk bodies and results are streamed, not buffered; bulk operations skip work already done instead.
+        // Authorization checks change nothing, so they are safe to retry as they are
+        if (key == null || !HttpMethod.POST.equals(request.getMethod())
+                || path.endsWith("/filter") || path.contains("/bulk/") || path.contains("/authorize/")) {
+            return chain.filter(exchange);
+        }
+        if (key.isBlank() || key.length() > MAX_KEY_LENGTH) {
+            return Mono.error(new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    IDEMPOTENCY_KEY_HEADER + " must be 1 to " + MAX_KEY_LENGTH + " characters"));
+        }
+        return caller(exchange).flatMap(caller -> DataBufferUtils.join(request.getBody())
+                .map(IdempotencyWebFilter::toBytes)
+                .defaultIfEmpty(new byte[0])
+                .flatMap(body -> {
+                    String fingerprint = fingerprint(request, body);
+                    return store.begin(caller, key, fingerprint).flatMap(outcome -> {
+                        IdempotentResponseDTO stored = outcome.response();
+                        if (stored != null && !fingerprint.equals(stored.getRequestFingerprint())) {
+                            return Mono.error(new ResponseStatusException(HttpStatus.UNPROCESSABLE_ENTITY,
+                                    IDEMPOTENCY_KEY_HEADER + " was already used for a different request"));
+                        }
+                        return switch (outcome.state()) {
+                            case REPLAY -> replay(exchange.getResponse(), stored);
+                            case IN_PROGRESS -> Mono.error(new ResponseStatusException(HttpStatus.CONFLICT,
+                                    "A request with this " + IDEMPOTENCY_KEY_HEADER + " is still in progress"));
+                            case STARTED -> store.hold(caller, key, outcome.lockToken(),
+                                    execute(exchange, chain, caller, key, outcome.lockToken(), fingerprint, body));
+                        };
+                    });
+                }));
+    }
+
+    private Mono<String> caller(ServerWebExchange exchange) {
+        String header = exchange.getRequest().getHeaders().getFirst(callerHeader);
+        if (header != null && header.length() > MAX_KEY_LENGTH) {
+            return Mono.error(new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    callerHeader + " must be at most " + MAX_KEY_LENGTH + " characters"));
+        }
+        return exchange.getPrincipal()
+                .map(Principal::getName)
+                .defaultIfEmpty(header != null ? header : "");
+    }
+
+    private Mono<Void> execute(ServerWebExchange exchange, WebFilterChain chain, String caller, String key,
+                               UUID token, String fingerprint, byte[] body) {
+        AtomicReference<byte[]> written = new AtomicReference<>(new byte[0]);
+        ServerHttpRequestDecorator request = new ServerHttpRequestDecorator(exchange.getRequest()) {
+            @Override
+            public Flux<DataBuffer> getBody() {
+                return Flux.defer(() -> Flux.just(exchange.getResponse().bufferFactory().wrap(body)));
+            }
+        };
+        ServerHttpResponseDecorator response = new ServerHttpResponseDecorator(exchange.getResponse()) {
+            @Override
+            public Mono<Void> writeWith(Publisher<? extends DataBuffer> content) {
+                return DataBufferUtils.join(content)
+                        .flatMap(buffer -> {
+                            byte[] bytes = toBytes(buffer);
+                            written.set(bytes);
+                            return super.writeWith(Mono.just(bufferFactory().wrap(bytes)));
+                        });
+            }
+        };
+        return chain.filter(exchange.mutate().request(request).response(response).build())
+                .onErrorResume(e -> store.release(caller, key, token)
+                        .onErrorResume(ignored -> Mono.empty())
+                        .then(Mono.error(e)))
+                .then(Mono.defer(() -> {
+                    HttpStatusCode status = response.getStatusCode() != null ? response.getStatusCode() : HttpStatus.OK;
+                    if (!status.is2xxSuccessful()) {
+                        return store.release(caller, key, token);
+                    }
+                    MediaType contentType = response.getHeaders().getContentType();
+                    return store.complete(caller, key, token, fingerprint, status.value(),
+                            contentType != null ? contentType.toString() : null, written.get());
+                })
+                        // The response is already sent; an unstored key is retried after the lock timeout
+                        .onErrorResume(e -> Mono.empty()));
+    }
+
+    private static Mono<Void> replay(ServerHttpResponse response, IdempotentResponseDTO stored) {
+        response.setStatusCode(HttpStatusCode.valueOf(stored.getStatus()));
+        if (stored.getContentType() != null) {
+            response.getHeaders().setContentType(MediaType.parseMediaType(stored.getContentType()));
+        }
+        response.getHeaders().set(REPLAYED_HEADER, "true");
+        byte[] body = stored.getBody() != null ? stored.getBody() : new byte[0];
+        return response.writeWith(Mono.just(response.bufferFactory().wrap(body)));
+    }
+
+    private static String fingerprint(ServerHttpRequest request, byte[] body) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            digest.update((request.getMethod().name() + " " + request.getPath().pathWithinApplication().value() + "\n")
+                    .getBytes(StandardCharsets.UTF_8));
+            digest.update(body);
+            return HexFormat.of().formatHex(digest.digest());
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    private static byte[] toBytes(DataBuffer buffer) {
+        try {
+            byte[] bytes = new byte[buffer.readableByteCount()];
+            buffer.read(bytes);
+            return bytes;
+        } finally {
+            DataBufferUtils.release(buffer);
+        }
+    }
+}
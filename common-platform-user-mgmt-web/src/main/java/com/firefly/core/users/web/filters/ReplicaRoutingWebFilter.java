@@ -0,0 +1,109 @@
+/*
+ * Copyright 2025 Firefly Software Solutions Inc
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.firefly.core.users.web.filters;
+
+import com.firefly.core.users.core.routing.ReplicaConsistency;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+
+/**
+ * Routes lookups and filter queries to the replica and returns a consistency token on successful writes.
+ * A read sending the token back in {@value #CONSISTENCY_TOKEN_HEADER} sees its own writes: it waits for the
+ * replica to catch up, or is served from the primary. Delta sync, change stream and policy snapshot reads stay on
+ * the primary. Read-only {@code POST} endpoints, such as filter queries and authorization checks, do not return a
+ * token, and neither do streamed responses, whose headers are sent before their later batches commit.
+ */
+@Component
+@ConditionalOnProperty(name = "spring.r2dbc.replica.enabled", havingValue = "true")
+public class ReplicaRoutingWebFilter implements WebFilter {
+
+    public static final String CONSISTENCY_TOKEN_HEADER = "X-Consistency-Token";
+
+    /**
+     * Path suffixes of the {@code POST} endpoints that only read.
+     */
+    private static final List<String> READ_ONLY_POSTS = List.of("/filter", "/authorize/batch", "/authorize/scopes");
+
+    /**
+     * Path fragments of the {@code GET} endpoints served from the primary. Policy snapshots are versioned by their
+     * read time, which a lagging replica would not have caught up with, and their version starts a delta feed.
+     */
+    private static final List<String> PRIMARY_READS = List.of("/changes", "/authz/snapshot");
+
+    private static final List<MediaType> STREAMING_TYPES =
+            List.of(MediaType.APPLICATION_NDJSON, MediaType.TEXT_EVENT_STREAM);
+
+    @Autowired
+    private ReplicaConsistency consistency;
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, WebFilterChain chain) {
+        ServerHttpRequest request = exchange.getRequest();
+        if (isReplicaRead(request)) {
+            return consistency.routeFor(request.getHeaders().getFirst(CONSISTENCY_TOKEN_HEADER))
+                    .flatMap(route -> chain.filter(exchange).contextWrite(route.context()));
+        }
+        if (isWrite(request)) {
+            ServerHttpResponse response = exchange.getResponse();
+            response.beforeCommit(() -> response.getStatusCode() == null || !response.getStatusCode().is2xxSuccessful()
+                    || isStreaming(response)
+                    ? Mono.empty()
+                    : consistency.currentToken()
+                            .doOnNext(token -> response.getHeaders().set(CONSISTENCY_TOKEN_HEADER, token))
+                            .onErrorResume(e -> Mono.empty())
+                            .then());
+        }
+        return chain.filter(exchange);
+    }
+
+    private static boolean isReplicaRead(ServerHttpRequest request) {
+        String path = request.getPath().pathWithinApplication().value();
+        if (!path.startsWith("/api/")) {
+            return false;
+        }
+        if (HttpMethod.GET.equals(request.getMethod())) {
+            return PRIMARY_READS.stream().noneMatch(path::contains);
+        }
+        return HttpMethod.POST.equals(request.getMethod()) && path.endsWith("/filter");
+    }
+
+    private static boolean isStreaming(ServerHttpResponse response) {
+        MediaType contentType = response.getHeaders().getContentType();
+        return contentType != null && STREAMING_TYPES.stream().anyMatch(contentType::isCompatibleWith);
+    }
+
+    private static boolean isWrite(ServerHttpRequest request) {
+        HttpMethod method = request.getMethod();
+        if (HttpMethod.POST.equals(method)) {
+            String path = request.getPath().pathWithinApplication().value();
+            return READ_ONLY_POSTS.stream().noneMatch(path::endsWith);
+        }
+        return HttpMethod.PUT.equals(method) || HttpMethod.PATCH.equals(method) || HttpMethod.DELETE.equals(method);
+    }
+}
@@ -0,0 +1,192 @@
+/*
+ * Copyright 2025 Firefly Software Solutions Inc
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.firefly.core.users.web.controllers;
+
+import com.firefly.core.users.core.filters.FieldSelection;
+import com.firefly.core.users.core.services.UserAccountService;
+import com.firefly.core.users.interfaces.dtos.BulkUpdateResultDTO;
+import com.firefly.core.users.interfaces.dtos.UserAccountSelectionDTO;
+import com.firefly.core.users.interfaces.dtos.UserAccountDTO;
+import com.firefly.core.users.web.exceptions.BadRequestExceptionHandler;
+import com.firefly.core.users.web.exceptions.ConflictExceptionHandler;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class UserAccountControllerTest {
+
+    private static final UUID TEST_UUID = UUID.fromString("123e4567-e89b-12d3-a456-426614174000");
+
+    @Mock
+    private UserAccountService userAccountService;
+
+    @InjectMocks
+    private UserAccountController controller;
+
+    private WebTestClient client;
+
+    @BeforeEach
+    void setUp() {
+        client = WebTestClient.bindToController(controller)
+                .controllerAdvice(new BadRequestExceptionHandler(), new ConflictExceptionHandler())
+                .build();
+    }
+
+    @Test
+    void getUserAccountByIdFields_ShouldReturnOnlyRequestedFields() {
+        // Arrange
+        ArgumentCaptor<FieldSelection> fields = ArgumentCaptor.forClass(FieldSelection.class);
+        when(userAccountService.getUserAccountById(eq(TEST_UUID), fields.capture()))
+                .thenReturn(Mono.just(Map.of("email", "john.doe@example.com")));
+
+        // Act & Assert
+        client.get().uri("/api/v1/users/{userId}?fields=email", TEST_UUID)
+                .accept(MediaType.APPLICATION_JSON)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.email").isEqualTo("john.doe@example.com");
+        assertEquals(List.of("email"), fields.getValue().properties());
+    }
+
+    @Test
+    void createUserAccount_WithEmailOfAnotherAccount_ShouldReturnConflict() {
+        // Arrange
+        when(userAccountService.createUserAccount(any(UserAccountDTO.class))).thenReturn(Mono.error(
+                new DuplicateKeyException("User account already exists with email: john.doe@example.com")));
+
+        // Act & Assert
+        client.post().uri("/api/v1/users")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(UserAccountDTO.builder().email("john.doe@example.com").build())
+                .exchange()
+                .expectStatus().isEqualTo(409)
+                .expectBody()
+                .jsonPath("$.detail").isEqualTo("User account already exists with email: john.doe@example.com");
+    }
+
+    @Test
+    void getUserAccountByIdFields_WithUnknownField_ShouldReturnBadRequest() {
+        // Act & Assert
+        client.get().uri("/api/v1/users/{userId}?fields=id,password", TEST_UUID)
+                .accept(MediaType.APPLICATION_JSON)
+                .exchange()
+                .expectStatus().isBadRequest()
+                .expectBody()
+                .jsonPath("$.detail").isEqualTo("Unknown field 'password' for UserAccountDTO");
+        verifyNoInteractions(userAccountService);
+    }
+
+    @Test
+    void filterUserAccountsFields_WithUnknownField_ShouldReturnBadRequest() {
+        // Act & Assert
+        client.post().uri("/api/v1/users/filter?fields=password")
+                .contentType(MediaType.APPLICATION_JSON)
+                .accept(MediaType.APPLICATION_JSON)
+                .bodyValue("{\"filters\": {\"isActive\": true}}")
+                .exchange()
+                .expectStatus().isBadRequest();
+        verify(userAccountService, never()).filterUserAccounts(any(), any(FieldSelection.class), any());
+    }
+
+    @Test
+    void getUserAccountChanges_WithMalformedWatermark_ShouldReturnBadRequest() {
+        // Arrange
+        when(userAccountService.getUserAccountChanges("garbage", null))
+                .thenReturn(Mono.error(new IllegalArgumentException("Invalid watermark: garbage")));
+
+        // Act & Assert
+        client.get().uri("/api/v1/users/changes?since=garbage")
+                .accept(MediaType.APPLICATION_JSON)
+                .exchange()
+                .expectStatus().isBadRequest()
+                .expectBody()
+                .jsonPath("$.detail").isEqualTo("Invalid watermark: garbage");
+    }
+
+    @Test
+    void searchUserAccounts_WithBlankQuery_ShouldReturnBadRequest() {
+        // Arrange
+        when(userAccountService.searchUserAccounts(" ", null, null, null, null))
+                .thenReturn(Flux.error(new IllegalArgumentException("Search query must not be blank")));
+
+        // Act & Assert
+        client.get().uri("/api/v1/users/search?q= ")
+                .accept(MediaType.APPLICATION_JSON)
+                .exchange()
+                .expectStatus().isBadRequest()
+                .expectBody()
+                .jsonPath("$.detail").isEqualTo("Search query must not be blank");
+    }
+
+    @Test
+    void activateUserAccounts_WithSeveralCriteria_ShouldReturnBadRequest() {
+        // Arrange
+        when(userAccountService.activateUserAccounts(any(UserAccountSelectionDTO.class)))
+                .thenReturn(Mono.error(new IllegalArgumentException(
+                        "Exactly one of branchId, distributorId or ids is required")));
+
+        // Act & Assert
+        client.post().uri("/api/v1/users/bulk/activate")
+                .contentType(MediaType.APPLICATION_JSON)
+                .accept(MediaType.APPLICATION_JSON)
+                .bodyValue("{\"branchId\": \"" + TEST_UUID + "\", \"ids\": [\"" + TEST_UUID + "\"]}")
+                .exchange()
+                .expectStatus().isBadRequest()
+                .expectBody()
+                .jsonPath("$.detail").isEqualTo("Exactly one of branchId, distributorId or ids is required");
+    }
+
+    @Test
+    void deactivateUserAccounts_WithValidSelection_ShouldReturnAffectedCount() {
+        // Arrange
+        ArgumentCaptor<UserAccountSelectionDTO> selection = ArgumentCaptor.forClass(UserAccountSelectionDTO.class);
+        when(userAccountService.deactivateUserAccounts(selection.capture()))
+                .thenReturn(Mono.just(BulkUpdateResultDTO.builder().affected(3).build()));
+
+        // Act & Assert
+        client.post().uri("/api/v1/users/bulk/deactivate")
+                .contentType(MediaType.APPLICATION_JSON)
+                .accept(MediaType.APPLICATION_JSON)
+                .bodyValue("{\"branchId\": \"" + TEST_UUID + "\"}")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.affected").isEqualTo(3);
+        assertEquals(TEST_UUID, selection.getValue().getBranchId());
+    }
+}
@@ -0,0 +1,240 @@
+/*
+ * Copyright 2025 Firefly Software Solutions Inc
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.firefly.core.users.web.filters;
+
+import com.firefly.core.users.core.routing.ConnectionRoute;
+import com.firefly.core.users.core.routing.RoutingConnectionFactory;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.r2dbc.pool.ConnectionPool;
+import io.r2dbc.pool.PoolMetrics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.server.WebFilterChain;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class AdmissionControlWebFilterTest {
+
+    private static final String USER_PATH = "/api/v1/users/123e4567-e89b-12d3-a456-426614174000";
+
+    @Mock
+    private RoutingConnectionFactory connectionFactory;
+
+    @Mock
+    private ConnectionPool pool;
+
+    @Mock
+    private PoolMetrics poolMetrics;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private final AdmissionControlProperties properties = new AdmissionControlProperties();
+
+    private final AdmissionControlWebFilter filter = new AdmissionControlWebFilter();
+
+    private final WebFilterChain ok = exchange -> {
+        exchange.getResponse().setStatusCode(HttpStatus.OK);
+        return exchange.getResponse().setComplete();
+    };
+
+    @BeforeEach
+    void setUp() {
+        properties.setRetryAfter(Duration.ofSeconds(2));
+        properties.setClasses(Map.of(
+                "critical", new AdmissionControlProperties.PriorityClass(),
+                "normal", priorityClass(3, 2, 503),
+                "low", priorityClass(1, 1, 429)));
+        properties.setRoutes(List.of(
+                route("GET", "/api/v1/changes/stream", "low", true),
+                route(null, "/api/v1/**/filter", "low", false),
+                route("GET", "/api/v1/users/*", "critical", false)));
+        ReflectionTestUtils.setField(filter, "properties", properties);
+        ReflectionTestUtils.setField(filter, "connectionFactory", connectionFactory);
+        ReflectionTestUtils.setField(filter, "meterRegistry", meterRegistry);
+        filter.registerMetrics();
+    }
+
+    @Test
+    void filter_WithFirstMatchingRoute_ShouldUseItsClass() {
+        // Arrange
+        givenPendingAcquisitions(1);
+        MockServerWebExchange lookup = MockServerWebExchange.from(MockServerHttpRequest.get(USER_PATH));
+        MockServerWebExchange filterQuery = MockServerWebExchange.from(
+                MockServerHttpRequest.post("/api/v1/users/filter"));
+
+        // Act & Assert
+        StepVerifier.create(filter.filter(lookup, ok)).verifyComplete();
+        StepVerifier.create(filter.filter(filterQuery, ok)).verifyComplete();
+        assertEquals(HttpStatus.OK, lookup.getResponse().getStatusCode());
+        assertEquals(HttpStatus.TOO_MANY_REQUESTS, filterQuery.getResponse().getStatusCode());
+    }
+
+    @Test
+    void filter_WithoutMatchingRoute_ShouldUseDefaultClass() {
+        // Arrange
+        givenPendingAcquisitions(3);
+        MockServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.post("/api/v1/users"));
+
+        // Act & Assert
+        StepVerifier.create(filter.filter(exchange, ok)).verifyComplete();
+        assertEquals(HttpStatus.SERVICE_UNAVAILABLE, exchange.getResponse().getStatusCode());
+    }
+
+    @Test
+    void filter_WithPendingBelowLimits_ShouldShedLowerClassesFirst() {
+        // Arrange
+        givenPendingAcquisitions(2);
+        MockServerWebExchange low = MockServerWebExchange.from(MockServerHttpRequest.post("/api/v1/roles/filter"));
+        MockServerWebExchange normal = MockServerWebExchange.from(MockServerHttpRequest.put(USER_PATH));
+
+        // Act & Assert
+        StepVerifier.create(filter.filter(low, ok)).verifyComplete();
+        StepVerifier.create(filter.filter(normal, ok)).verifyComplete();
+        assertEquals(HttpStatus.TOO_MANY_REQUESTS, low.getResponse().getStatusCode());
+        assertEquals(HttpStatus.OK, normal.getResponse().getStatusCode());
+    }
+
+    @Test
+    void filter_WithRequestsInFlight_ShouldShedUntilTheyComplete() {
+        // Arrange
+        givenPendingAcquisitions(0);
+        Sinks.Empty<Void> running = Sinks.empty();
+        MockServerWebExchange first = MockServerWebExchange.from(MockServerHttpRequest.post("/api/v1/users/filter"));
+        MockServerWebExchange second = MockServerWebExchange.from(MockServerHttpRequest.post("/api/v1/users/filter"));
+        MockServerWebExchange third = MockServerWebExchange.from(MockServerHttpRequest.post("/api/v1/users/filter"));
+
+        // Act
+        filter.filter(first, exchange -> running.asMono()).subscribe();
+        StepVerifier.create(filter.filter(second, ok)).verifyComplete();
+        running.tryEmitEmpty();
+        StepVerifier.create(filter.filter(third, ok)).verifyComplete();
+
+        // Assert
+        assertEquals(HttpStatus.TOO_MANY_REQUESTS, second.getResponse().getStatusCode());
+        assertEquals(HttpStatus.OK, third.getResponse().getStatusCode());
+        assertEquals(0, meterRegistry.get("user_mgmt.admission.in_flight").gauge().value());
+    }
+
+    @Test
+    void filter_WithStreamRoute_ShouldNotCountInFlight() {
+        // Arrange
+        givenPendingAcquisitions(0);
+        MockServerWebExchange stream = MockServerWebExchange.from(MockServerHttpRequest.get("/api/v1/changes/stream"));
+        MockServerWebExchange filterQuery = MockServerWebExchange.from(
+                MockServerHttpRequest.post("/api/v1/users/filter"));
+
+        // Act
+        filter.filter(stream, exchange -> Mono.never()).subscribe();
+        StepVerifier.create(filter.filter(filterQuery, ok)).verifyComplete();
+
+        // Assert
+        assertEquals(HttpStatus.OK, filterQuery.getResponse().getStatusCode());
+    }
+
+    @Test
+    void filter_WithStreamingAcceptHeader_ShouldStillCountInFlight() {
+        // Arrange
+        givenPendingAcquisitions(0);
+        MockServerWebExchange streamed = MockServerWebExchange.from(MockServerHttpRequest.post("/api/v1/users/filter")
+                .accept(MediaType.APPLICATION_NDJSON));
+        MockServerWebExchange filterQuery = MockServerWebExchange.from(
+                MockServerHttpRequest.post("/api/v1/users/filter"));
+
+        // Act
+        filter.filter(streamed, exchange -> Mono.never()).subscribe();
+        StepVerifier.create(filter.filter(filterQuery, ok)).verifyComplete();
+
+        // Assert
+        assertEquals(HttpStatus.TOO_MANY_REQUESTS, filterQuery.getResponse().getStatusCode());
+    }
+
+    @Test
+    void filter_WhenRejected_ShouldSetRetryAfterAndCount() {
+        // Arrange
+        givenPendingAcquisitions(5);
+        MockServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.post("/api/v1/users/filter"));
+        WebFilterChain chain = mock(WebFilterChain.class);
+
+        // Act
+        StepVerifier.create(filter.filter(exchange, chain)).verifyComplete();
+
+        // Assert
+        assertEquals(HttpStatus.TOO_MANY_REQUESTS, exchange.getResponse().getStatusCode());
+        assertEquals("2", exchange.getResponse().getHeaders().getFirst(HttpHeaders.RETRY_AFTER));
+        assertEquals(1, meterRegistry.get("user_mgmt.admission.rejected").tag("priority", "low").counter().count());
+        verifyNoInteractions(chain);
+    }
+
+    @Test
+    void filter_WhenDisabled_ShouldAdmitEverything() {
+        // Arrange
+        properties.setEnabled(false);
+        MockServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.post("/api/v1/users/filter"));
+
+        // Act & Assert
+        StepVerifier.create(filter.filter(exchange, ok)).verifyComplete();
+        assertEquals(HttpStatus.OK, exchange.getResponse().getStatusCode());
+        assertNull(exchange.getResponse().getHeaders().getFirst(HttpHeaders.RETRY_AFTER));
+        verifyNoInteractions(connectionFactory);
+    }
+
+    private void givenPendingAcquisitions(int pending) {
+        lenient().when(connectionFactory.getPools()).thenReturn(Map.of(ConnectionRoute.PRIMARY, pool));
+        lenient().when(pool.getMetrics()).thenReturn(Optional.of(poolMetrics));
+        lenient().when(poolMetrics.pendingAcquireSize()).thenReturn(pending);
+    }
+
+    private static AdmissionControlProperties.PriorityClass priorityClass(Integer maxPending, Integer maxInFlight,
+                                                                          int status) {
+        AdmissionControlProperties.PriorityClass priorityClass = new AdmissionControlProperties.PriorityClass();
+        priorityClass.setMaxPending(maxPending);
+        priorityClass.setMaxInFlight(maxInFlight);
+        priorityClass.setStatus(status);
+        return priorityClass;
+    }
+
+    private static AdmissionControlProperties.Route route(String method, String pattern, String priority,
+                                                          boolean stream) {
+        AdmissionControlProperties.Route route = new AdmissionControlProperties.Route();
+        route.setMethod(method);
+        route.setPattern(pattern);
+        route.setPriority(priority);
+        route.setStream(stream);
+        return route;
+    }
+}
@@ -0,0 +1,157 @@
+/*
+ * Copyright 2025 Firefly Software Solutions Inc
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.firefly.core.users.web.filters;
+
+import com.firefly.core.users.core.deadline.Deadline;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.server.WebFilterChain;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class DeadlineWebFilterTest {
+
+    private final DeadlineWebFilter filter = new DeadlineWebFilter();
+
+    private final AtomicReference<Optional<Deadline>> deadline = new AtomicReference<>();
+
+    private final WebFilterChain capture = exchange -> Mono.deferContextual(context -> {
+        deadline.set(Deadline.from(context));
+        return Mono.empty();
+    });
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(filter, "maxTimeout", Duration.ofSeconds(2));
+    }
+
+    @Test
+    void filter_WithoutHeader_ShouldNotSetDeadline() {
+        // Arrange
+        MockServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.get("/api/v1/users"));
+
+        // Act & Assert
+        StepVerifier.create(filter.filter(exchange, capture)).verifyComplete();
+        assertFalse(deadline.get().isPresent());
+    }
+
+    @Test
+    void filter_WithTimeout_ShouldPropagateDeadline() {
+        // Arrange
+        MockServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.get("/api/v1/users")
+                .header(DeadlineWebFilter.TIMEOUT_HEADER, " 500 "));
+
+        // Act & Assert
+        StepVerifier.create(filter.filter(exchange, capture)).verifyComplete();
+        Duration remaining = deadline.get().orElseThrow().remaining();
+        assertTrue(remaining.compareTo(Duration.ZERO) > 0 && remaining.compareTo(Duration.ofMillis(500)) <= 0);
+    }
+
+    @Test
+    void filter_WithTimeoutAboveMaximum_ShouldCapDeadline() {
+        // Arrange
+        MockServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.get("/api/v1/users")
+                .header(DeadlineWebFilter.TIMEOUT_HEADER, "60000"));
+
+        // Act & Assert
+        StepVerifier.create(filter.filter(exchange, capture)).verifyComplete();
+        assertTrue(deadline.get().orElseThrow().remaining().compareTo(Duration.ofSeconds(2)) <= 0);
+    }
+
+    @Test
+    void filter_WithMalformedTimeout_ShouldReturnBadRequest() {
+        // Arrange
+        MockServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.get("/api/v1/users")
+                .header(DeadlineWebFilter.TIMEOUT_HEADER, "1s"));
+
+        // Act & Assert
+        StepVerifier.create(filter.filter(exchange, capture))
+                .expectErrorSatisfies(error -> assertStatus(HttpStatus.BAD_REQUEST, error))
+                .verify();
+        assertNull(deadline.get());
+    }
+
+    @Test
+    void filter_WithPassedDeadline_ShouldReturnGatewayTimeout() {
+        // Arrange
+        MockServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.get("/api/v1/users")
+                .header(DeadlineWebFilter.TIMEOUT_HEADER, "0"));
+
+        // Act & Assert
+        StepVerifier.create(filter.filter(exchange, capture))
+                .expectErrorSatisfies(error -> assertStatus(HttpStatus.GATEWAY_TIMEOUT, error))
+                .verify();
+    }
+
+    @Test
+    void filter_WhenDeadlineExpires_ShouldReturnGatewayTimeout() {
+        // Arrange
+        MockServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.get("/api/v1/users")
+                .header(DeadlineWebFilter.TIMEOUT_HEADER, "50"));
+
+        // Act & Assert
+        StepVerifier.create(filter.filter(exchange, chained -> Mono.never()))
+                .expectErrorSatisfies(error -> assertStatus(HttpStatus.GATEWAY_TIMEOUT, error))
+                .verify(Duration.ofSeconds(5));
+    }
+
+    @Test
+    void filter_WhenStatementTimesOut_ShouldReturnGatewayTimeout() {
+        // Arrange
+        MockServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.get("/api/v1/users")
+                .header(DeadlineWebFilter.TIMEOUT_HEADER, "1000"));
+
+        // Act & Assert
+        StepVerifier.create(filter.filter(exchange,
+                        chained -> Mono.error(new QueryTimeoutException("canceling statement due to statement timeout"))))
+                .expectErrorSatisfies(error -> assertStatus(HttpStatus.GATEWAY_TIMEOUT, error))
+                .verify();
+    }
+
+    @Test
+    void filter_WithOtherError_ShouldPassItThrough() {
+        // Arrange
+        MockServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.get("/api/v1/users")
+                .header(DeadlineWebFilter.TIMEOUT_HEADER, "1000"));
+
+        // Act & Assert
+        StepVerifier.create(filter.filter(exchange, chained -> Mono.error(new RuntimeException("Boom"))))
+                .expectErrorMessage("Boom")
+                .verify();
+    }
+
+    private static void assertStatus(HttpStatus status, Throwable error) {
+        assertTrue(error instanceof ResponseStatusException);
+        assertEquals(status, ((ResponseStatusException) error).getStatusCode());
+    }
+}
@@ -0,0 +1,222 @@
+/*
+ * Copyright 2025 Firefly Software Solutions Inc
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.firefly.core.users.web.filters;
+
+import com.firefly.core.users.core.idempotency.IdempotencyOutcome;
+import com.firefly.core.users.core.idempotency.IdempotencyStore;
+import com.firefly.core.users.interfaces.dtos.IdempotentResponseDTO;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilterChain;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.nio.charset.StandardCharsets;
+import java.security.Principal;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.AdditionalMatchers.aryEq;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class IdempotencyWebFilterTest {
+
+    private static final UUID TEST_TOKEN = UUID.fromString("123e4567-e89b-12d3-a456-426614174000");
+
+    private static final String KEY = "6f1c9a52-assign-admin";
+
+    private static final String BODY = "{\"roleId\":\"123e4567-e89b-12d3-a456-426614174001\"}";
+
+    private static final String CREATED = "{\"id\":\"123e4567-e89b-12d3-a456-426614174002\"}";
+
+    @Mock
+    private IdempotencyStore store;
+
+    @InjectMocks
+    private IdempotencyWebFilter filter;
+
+    private final AtomicInteger executions = new AtomicInteger();
+
+    private final WebFilterChain create = exchange -> {
+        executions.incrementAndGet();
+        exchange.getResponse().setStatusCode(HttpStatus.CREATED);
+        exchange.getResponse().getHeaders().setContentType(MediaType.APPLICATION_JSON);
+        return exchange.getResponse().writeWith(Mono.just(exchange.getResponse().bufferFactory()
+                .wrap(CREATED.getBytes(StandardCharsets.UTF_8))));
+    };
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(filter, "callerHeader", "X-Client-Id");
+    }
+
+    @Test
+    void filter_WithNewKey_ShouldExecuteAndStoreResponse() {
+        // Arrange
+        givenOutcome("client-a", IdempotencyOutcome.State.STARTED, null);
+        when(store.hold(eq("client-a"), eq(KEY), eq(TEST_TOKEN), any()))
+                .thenAnswer(invocation -> invocation.getArgument(3));
+        when(store.complete(eq("client-a"), eq(KEY), eq(TEST_TOKEN), anyString(), eq(201),
+                eq(MediaType.APPLICATION_JSON_VALUE), aryEq(CREATED.getBytes(StandardCharsets.UTF_8))))
+                .thenReturn(Mono.empty());
+        MockServerWebExchange exchange = exchange(request().header("X-Client-Id", "client-a"));
+
+        // Act & Assert
+        StepVerifier.create(filter.filter(exchange, create)).verifyComplete();
+        assertEquals(1, executions.get());
+        assertEquals(HttpStatus.CREATED, exchange.getResponse().getStatusCode());
+        verify(store, never()).release(any(), any(), any());
+    }
+
+    @Test
+    void filter_WithStoredResponse_ShouldReplayWithoutExecuting() {
+        // Arrange
+        givenOutcome("", IdempotencyOutcome.State.REPLAY, 201);
+        MockServerWebExchange exchange = exchange(request());
+
+        // Act & Assert
+        StepVerifier.create(filter.filter(exchange, create)).verifyComplete();
+        assertEquals(0, executions.get());
+        assertEquals(HttpStatus.CREATED, exchange.getResponse().getStatusCode());
+        assertEquals("true", exchange.getResponse().getHeaders().getFirst(IdempotencyWebFilter.REPLAYED_HEADER));
+        StepVerifier.create(exchange.getResponse().getBodyAsString())
+                .expectNext(CREATED)
+                .verifyComplete();
+    }
+
+    @Test
+    void filter_WithKeyReusedForDifferentRequest_ShouldReturnUnprocessableEntity() {
+        // Arrange
+        IdempotentResponseDTO stored = stored("0000", 201);
+        when(store.begin(eq(""), eq(KEY), anyString()))
+                .thenReturn(Mono.just(new IdempotencyOutcome(IdempotencyOutcome.State.REPLAY, stored, null)));
+
+        // Act & Assert
+        StepVerifier.create(filter.filter(exchange(request()), create))
+                .expectErrorSatisfies(error -> assertStatus(HttpStatus.UNPROCESSABLE_ENTITY, error))
+                .verify();
+        assertEquals(0, executions.get());
+    }
+
+    @Test
+    void filter_WhileFirstRequestRuns_ShouldReturnConflict() {
+        // Arrange
+        givenOutcome("", IdempotencyOutcome.State.IN_PROGRESS, null);
+
+        // Act & Assert
+        StepVerifier.create(filter.filter(exchange(request()), create))
+                .expectErrorSatisfies(error -> assertStatus(HttpStatus.CONFLICT, error))
+                .verify();
+        assertEquals(0, executions.get());
+    }
+
+    @Test
+    void filter_WithFailedRequest_ShouldReleaseKey() {
+        // Arrange
+        givenOutcome("", IdempotencyOutcome.State.STARTED, null);
+        when(store.hold(eq(""), eq(KEY), eq(TEST_TOKEN), any())).thenAnswer(invocation -> invocation.getArgument(3));
+        when(store.release("", KEY, TEST_TOKEN)).thenReturn(Mono.empty());
+        WebFilterChain failing = exchange -> {
+            exchange.getResponse().setStatusCode(HttpStatus.NOT_FOUND);
+            return exchange.getResponse().setComplete();
+        };
+
+        // Act & Assert
+        StepVerifier.create(filter.filter(exchange(request()), failing)).verifyComplete();
+        verify(store).release("", KEY, TEST_TOKEN);
+        verify(store, never()).complete(any(), any(), any(), any(), anyInt(), any(), any());
+    }
+
+    @Test
+    void filter_WithPrincipal_ShouldScopeKeyToPrincipal() {
+        // Arrange
+        givenOutcome("gateway", IdempotencyOutcome.State.IN_PROGRESS, null);
+        Principal principal = () -> "gateway";
+        ServerWebExchange exchange = exchange(request().header("X-Client-Id", "client-a")).mutate()
+                .principal(Mono.just(principal))
+                .build();
+
+        // Act & Assert
+        StepVerifier.create(filter.filter(exchange, create))
+                .expectError(ResponseStatusException.class)
+                .verify();
+        verify(store).begin(eq("gateway"), eq(KEY), anyString());
+    }
+
+    @Test
+    void filter_WithoutKey_ShouldExecuteWithoutStore() {
+        // Arrange
+        MockServerWebExchange exchange = exchange(MockServerHttpRequest.post("/api/v1/users")
+                .contentType(MediaType.APPLICATION_JSON));
+
+        // Act & Assert
+        StepVerifier.create(filter.filter(exchange, create)).verifyComplete();
+        assertEquals(1, executions.get());
+        verifyNoInteractions(store);
+    }
+
+    private void givenOutcome(String caller, IdempotencyOutcome.State state, Integer status) {
+        when(store.begin(eq(caller), eq(KEY), anyString())).thenAnswer(invocation -> Mono.just(switch (state) {
+            case STARTED -> new IdempotencyOutcome(state, null, TEST_TOKEN);
+            case IN_PROGRESS, REPLAY -> new IdempotencyOutcome(state, stored(invocation.getArgument(2), status), null);
+        }));
+    }
+
+    private static IdempotentResponseDTO stored(String fingerprint, Integer status) {
+        return IdempotentResponseDTO.builder()
+                .idempotencyKey(KEY)
+                .requestFingerprint(fingerprint)
+                .status(status)
+                .contentType(MediaType.APPLICATION_JSON_VALUE)
+                .body(CREATED.getBytes(StandardCharsets.UTF_8))
+                .build();
+    }
+
+    private static MockServerHttpRequest.BodyBuilder request() {
+        return MockServerHttpRequest.post("/api/v1/users/123e4567-e89b-12d3-a456-426614174000/roles")
+                .header(IdempotencyWebFilter.IDEMPOTENCY_KEY_HEADER, KEY)
+                .contentType(MediaType.APPLICATION_JSON);
+    }
+
+    private static MockServerWebExchange exchange(MockServerHttpRequest.BodyBuilder request) {
+        return MockServerWebExchange.from(request.body(BODY));
+    }
+
+    private static void assertStatus(HttpStatus status, Throwable error) {
+        assertTrue(error instanceof ResponseStatusException);
+        assertEquals(status, ((ResponseStatusException) error).getStatusCode());
+    }
+}
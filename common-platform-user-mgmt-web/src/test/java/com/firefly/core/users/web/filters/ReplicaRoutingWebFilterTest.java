@@ -0,0 +1,190 @@
+/*
+ * Copyright 2025 Firefly Software Solutions Inc
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.firefly.core.users.web.filters;
+
+import com.firefly.core.users.core.routing.ConnectionRoute;
+import com.firefly.core.users.core.routing.ReplicaConsistency;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import org.springframework.web.server.WebFilterChain;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ReplicaRoutingWebFilterTest {
+
+    private static final String USER_PATH = "/api/v1/users/123e4567-e89b-12d3-a456-426614174000";
+
+    @Mock
+    private ReplicaConsistency consistency;
+
+    @InjectMocks
+    private ReplicaRoutingWebFilter filter;
+
+    private final AtomicReference<ConnectionRoute> route = new AtomicReference<>();
+
+    @Test
+    void filter_WithLookup_ShouldRouteToReplica() {
+        // Arrange
+        when(consistency.routeFor(null)).thenReturn(Mono.just(ConnectionRoute.REPLICA));
+        MockServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.get(USER_PATH));
+
+        // Act & Assert
+        StepVerifier.create(filter.filter(exchange, respondWith(HttpStatus.OK)))
+                .verifyComplete();
+        assertEquals(ConnectionRoute.REPLICA, route.get());
+        verify(consistency, never()).currentToken();
+    }
+
+    @Test
+    void filter_WithConsistencyToken_ShouldPassItToTheRouting() {
+        // Arrange
+        when(consistency.routeFor("0/16B3748")).thenReturn(Mono.just(ConnectionRoute.PRIMARY));
+        MockServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.get(USER_PATH)
+                .header(ReplicaRoutingWebFilter.CONSISTENCY_TOKEN_HEADER, "0/16B3748"));
+
+        // Act & Assert
+        StepVerifier.create(filter.filter(exchange, respondWith(HttpStatus.OK)))
+                .verifyComplete();
+        assertEquals(ConnectionRoute.PRIMARY, route.get());
+    }
+
+    @Test
+    void filter_WithChangesRead_ShouldStayOnPrimary() {
+        // Arrange
+        MockServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.get("/api/v1/users/changes"));
+
+        // Act & Assert
+        StepVerifier.create(filter.filter(exchange, respondWith(HttpStatus.OK)))
+                .verifyComplete();
+        assertNull(route.get());
+        verifyNoInteractions(consistency);
+    }
+
+    @Test
+    void filter_WithPolicySnapshotRead_ShouldStayOnPrimary() {
+        // Arrange
+        MockServerWebExchange json = MockServerWebExchange.from(MockServerHttpRequest.get("/api/v1/authz/snapshot"));
+        MockServerWebExchange binary = MockServerWebExchange.from(
+                MockServerHttpRequest.get("/api/v1/authz/snapshot/binary"));
+
+        // Act & Assert
+        StepVerifier.create(filter.filter(json, respondWith(HttpStatus.OK)))
+                .verifyComplete();
+        assertNull(route.get());
+        StepVerifier.create(filter.filter(binary, respondWith(HttpStatus.OK)))
+                .verifyComplete();
+        assertNull(route.get());
+        verifyNoInteractions(consistency);
+    }
+
+    @Test
+    void filter_WithFilterQuery_ShouldRouteToReplicaWithoutToken() {
+        // Arrange
+        when(consistency.routeFor(null)).thenReturn(Mono.just(ConnectionRoute.REPLICA));
+        MockServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.post("/api/v1/users/filter"));
+
+        // Act & Assert
+        StepVerifier.create(filter.filter(exchange, respondWith(HttpStatus.OK)))
+                .verifyComplete();
+        assertEquals(ConnectionRoute.REPLICA, route.get());
+        assertNull(exchange.getResponse().getHeaders().getFirst(ReplicaRoutingWebFilter.CONSISTENCY_TOKEN_HEADER));
+        verify(consistency, never()).currentToken();
+    }
+
+    @Test
+    void filter_WithAuthorizationCheck_ShouldNotCaptureToken() {
+        // Arrange
+        MockServerWebExchange batch = MockServerWebExchange.from(
+                MockServerHttpRequest.post(USER_PATH + "/authorize/batch"));
+        MockServerWebExchange scopes = MockServerWebExchange.from(
+                MockServerHttpRequest.post(USER_PATH + "/authorize/scopes"));
+
+        // Act & Assert
+        StepVerifier.create(filter.filter(batch, respondWith(HttpStatus.OK)))
+                .verifyComplete();
+        StepVerifier.create(filter.filter(scopes, respondWith(HttpStatus.OK)))
+                .verifyComplete();
+        assertNull(batch.getResponse().getHeaders().getFirst(ReplicaRoutingWebFilter.CONSISTENCY_TOKEN_HEADER));
+        assertNull(scopes.getResponse().getHeaders().getFirst(ReplicaRoutingWebFilter.CONSISTENCY_TOKEN_HEADER));
+        verifyNoInteractions(consistency);
+    }
+
+    @Test
+    void filter_WithSuccessfulWrite_ShouldReturnToken() {
+        // Arrange
+        when(consistency.currentToken()).thenReturn(Mono.just("0/16B3748"));
+        MockServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.post("/api/v1/users"));
+
+        // Act & Assert
+        StepVerifier.create(filter.filter(exchange, respondWith(HttpStatus.CREATED)))
+                .verifyComplete();
+        assertNull(route.get());
+        assertEquals("0/16B3748",
+                exchange.getResponse().getHeaders().getFirst(ReplicaRoutingWebFilter.CONSISTENCY_TOKEN_HEADER));
+        verify(consistency, never()).routeFor(any());
+    }
+
+    @Test
+    void filter_WithStreamedWrite_ShouldNotReturnToken() {
+        // Arrange
+        MockServerWebExchange exchange = MockServerWebExchange.from(
+                MockServerHttpRequest.post("/api/v1/users/bulk/import").contentType(MediaType.APPLICATION_NDJSON));
+        exchange.getResponse().getHeaders().setContentType(MediaType.APPLICATION_NDJSON);
+
+        // Act & Assert
+        StepVerifier.create(filter.filter(exchange, respondWith(HttpStatus.OK)))
+                .verifyComplete();
+        assertNull(exchange.getResponse().getHeaders().getFirst(ReplicaRoutingWebFilter.CONSISTENCY_TOKEN_HEADER));
+        verifyNoInteractions(consistency);
+    }
+
+    @Test
+    void filter_WithFailedWrite_ShouldNotReturnToken() {
+        // Arrange
+        MockServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.delete(USER_PATH));
+
+        // Act & Assert
+        StepVerifier.create(filter.filter(exchange, respondWith(HttpStatus.NOT_FOUND)))
+                .verifyComplete();
+        assertNull(exchange.getResponse().getHeaders().getFirst(ReplicaRoutingWebFilter.CONSISTENCY_TOKEN_HEADER));
+        verifyNoInteractions(consistency);
+    }
+
+    private WebFilterChain respondWith(HttpStatus status) {
+        return exchange -> Mono.deferContextual(context -> {
+            route.set(context.getOrDefault(ConnectionRoute.CONTEXT_KEY, null));
+            exchange.getResponse().setStatusCode(status);
+            return exchange.getResponse().setComplete();
+        });
+    }
+}